@@ -84,6 +84,16 @@ public class Controller {
      */
     @FXML
     private Button scanParseAndCheckButton;
+    /**
+     * AST memory button defined in Main.fxml
+     */
+    @FXML
+    private Button astMemoryButton;
+    /**
+     * Analyze all button defined in Main.fxml
+     */
+    @FXML
+    private Button analyzeAllButton;
     /**
      * TabPane defined in Main.fxml
      */
@@ -237,6 +247,8 @@ public class Controller {
         this.scanButton.disableProperty().bind(ifTabPaneEmpty);
         this.scanAndParseButton.disableProperty().bind(ifTabPaneEmpty);
         this.scanParseAndCheckButton.disableProperty().bind(ifTabPaneEmpty);
+        this.astMemoryButton.disableProperty().bind(ifTabPaneEmpty);
+        this.analyzeAllButton.disableProperty().bind(ifTabPaneEmpty);
         this.closeMenuItem.disableProperty().bind(ifTabPaneEmpty);
         this.saveMenuItem.disableProperty().bind(ifTabPaneEmpty);
         this.saveAsMenuItem.disableProperty().bind(ifTabPaneEmpty);
@@ -397,6 +409,32 @@ public class Controller {
                 event, this.tabPane.getFileFromTab(selectedTab));
     }
 
+    /**
+     * Calls the method that handles the AST memory button action from the
+     * toolbarController.
+     *
+     * @param event Event object
+     */
+    @FXML
+    private void handleAstMemoryButtonAction(Event event) {
+        Tab selectedTab = this.tabPane.getSelectionModel().getSelectedItem();
+        this.toolbarController.handleAstMemoryButtonAction(
+                event, this.tabPane.getFileFromTab(selectedTab));
+    }
+
+    /**
+     * Calls the method that handles the analyze all button action from the
+     * toolbarController.
+     *
+     * @param event Event object
+     */
+    @FXML
+    private void handleAnalyzeAllButtonAction(Event event) {
+        Tab selectedTab = this.tabPane.getSelectionModel().getSelectedItem();
+        this.toolbarController.handleAnalyzeAllButtonAction(
+                event, this.tabPane.getFileFromTab(selectedTab));
+    }
+
     /**
      * Calls the method that handles About menu item action from the
      * fileMenuController.
@@ -11,14 +11,17 @@ import javafx.application.Platform;
 import org.fxmisc.richtext.StyleClassedTextArea;
 import javafx.event.Event;
 import proj12MacDonaldDouglas.bantam.ast.*;
+import proj12MacDonaldDouglas.bantam.ast.stats.AstFootprint;
 import proj12MacDonaldDouglas.bantam.lexer.Scanner;
 import proj12MacDonaldDouglas.bantam.lexer.Token;
+import proj12MacDonaldDouglas.bantam.parser.ParseResult;
 import proj12MacDonaldDouglas.bantam.parser.Parser;
 import proj12MacDonaldDouglas.bantam.semant.*;
 import proj12MacDonaldDouglas.bantam.treedrawer.*;
 import proj12MacDonaldDouglas.bantam.util.CompilationException;
 import proj12MacDonaldDouglas.bantam.util.Error;
 import proj12MacDonaldDouglas.bantam.util.ErrorHandler;
+import proj12MacDonaldDouglas.bantam.visitor.FusedVisitor;
 import java.io.*;
 import java.util.*;
 
@@ -43,6 +46,11 @@ public class ToolBarController {
      * The FileMenuController
      */
     private FileMenuController fileMenuController;
+    /**
+     * Semantic analyzers by file path, keeping the results of the last
+     * check of each file so that the next check redoes only what changed
+     */
+    private final Map<String, IncrementalAnalyzer> analyzers = new HashMap<>();
 
     /**
      * Sets the console pane
@@ -165,16 +173,32 @@ public class ToolBarController {
         else if (userResponse == 1) {
             fileMenuController.handleSaveAction();
         }
-        // run scan and parse in new thread
+        // run scan, parse and check in new thread
         Thread scanAndParseThread = new Thread() {
             public void run() {
                 Program root = getParseTree(file);
 
                 if (root != null) {
                     drawTree(root, file);
-                    Platform.runLater(() -> {
-                        console.appendText("Scanning and parsing completed successfully\n");
-                    });
+                    IncrementalAnalyzer analyzer;
+                    synchronized (analyzers) {
+                        analyzer = analyzers.computeIfAbsent(file.getAbsolutePath(),
+                                path -> new IncrementalAnalyzer(new ErrorHandler()));
+                    }
+                    synchronized (analyzer) {
+                        ErrorHandler errorHandler = analyzer.getErrorHandler();
+                        errorHandler.clear();
+                        try {
+                            analyzer.analyze(root);
+                            Platform.runLater(() -> {
+                                console.appendText("Scanning, parsing and checking completed "
+                                        + "successfully\n");
+                            });
+                        }
+                        catch (CompilationException e) {
+                            printErrorList(new ArrayList<>(errorHandler.getErrorList()));
+                        }
+                    }
                 }
             }
         };
@@ -236,7 +260,8 @@ public class ToolBarController {
 
     /**
      * Scans and parses the given file and counts the number of local variables
-     * in each method
+     * in each method, and the frame slots they need when variables that are
+     * never live together share a slot
      *
      * @param event Event object
      * @param file the Selected file
@@ -255,6 +280,7 @@ public class ToolBarController {
                 for (Map.Entry<String, Integer> entry : result.entrySet()) {
                     contents += entry.getKey() + ": " + entry.getValue() + "\n";
                 }
+                contents += FrameLayout.of(root).toReport();
                 final String displayString = contents;
                 Platform.runLater(() -> {
                     console.appendText(displayString);
@@ -264,6 +290,76 @@ public class ToolBarController {
         checkLocalVarsThread.start();
     }
 
+    /**
+     * Scans and parses the given file and reports how much memory its AST
+     * takes, by node class, list, class and method
+     *
+     * @param event Event object
+     * @param file the Selected file
+     */
+    public void handleAstMemoryButtonAction(Event event, File file) {
+        Thread astMemoryThread = new Thread() {
+            public void run() {
+                Program root = getParseTree(file);
+                if (root == null) {
+                    return;
+                }
+                String report = AstFootprint.of(root).toReport(10);
+                Platform.runLater(() -> {
+                    console.appendText(report);
+                });
+            }
+        };
+        astMemoryThread.start();
+    }
+
+    /**
+     * Scans and parses the given file once and runs the Main.main, string
+     * constant and local variable checks together in a single traversal
+     *
+     * @param event Event object
+     * @param file the Selected file
+     */
+    public void handleAnalyzeAllButtonAction(Event event, File file) {
+        MainMainVisitor mainMainVisitor = new MainMainVisitor();
+        StringConstantsVisitor stringConstantsVisitor = new StringConstantsVisitor();
+        NumLocalVarsVisitor numLocalVarsVisitor = new NumLocalVarsVisitor();
+
+        Thread analyzeAllThread = new Thread() {
+            public void run() {
+                Program root = getParseTree(file);
+                if (root == null) {
+                    return;
+                }
+                FusedVisitor fused = new FusedVisitor();
+                mainMainVisitor.register(fused);
+                stringConstantsVisitor.register(fused);
+                numLocalVarsVisitor.register(fused);
+                fused.run(root);
+
+                StringBuilder contents = new StringBuilder();
+                contents.append("Valid Main.main method exists: ")
+                        .append(mainMainVisitor.hasMain()).append("\n");
+                contents.append("String constants in program: \n");
+                for (Map.Entry<String, String> entry :
+                        stringConstantsVisitor.getStringConstants().entrySet()) {
+                    contents.append(entry.getKey()).append(": ")
+                            .append(entry.getValue()).append("\n");
+                }
+                contents.append("Local variables per method:\n");
+                for (Map.Entry<String, Integer> entry :
+                        numLocalVarsVisitor.getNumLocalVars().entrySet()) {
+                    contents.append(entry.getKey()).append(": ")
+                            .append(entry.getValue()).append("\n");
+                }
+                Platform.runLater(() -> {
+                    console.appendText(contents.toString());
+                });
+            }
+        };
+        analyzeAllThread.start();
+    }
+
     /**
      * Helper method for running the Scanner and displaying results.
      */
@@ -291,11 +387,17 @@ public class ToolBarController {
             Parser parser = new Parser(errorHandler);
 
             // parse and display
-            try {
-                return parser.parse(file.getAbsolutePath());
-            } catch (CompilationException e) {
-                printErrorList(errorHandler.getErrorList());
+            ParseResult result = parser.tryParse(file.getAbsolutePath());
+            if (Parser.PROFILING) {
+                String report = parser.getProfileReport();
+                Platform.runLater(() -> {
+                    this.console.appendText(report);
+                });
+            }
+            if (result.isSuccessful()) {
+                return result.getProgram();
             }
+            printErrorList(result.getErrors());
         }
         catch (Throwable e) {
             Platform.runLater(() -> {
@@ -26,6 +26,9 @@
 
 package proj12MacDonaldDouglas.bantam.ast;
 
+import proj12MacDonaldDouglas.bantam.visitor.BooleanVisitor;
+import proj12MacDonaldDouglas.bantam.visitor.GenericVisitor;
+import proj12MacDonaldDouglas.bantam.visitor.IntVisitor;
 import proj12MacDonaldDouglas.bantam.visitor.Visitor;
 
 
@@ -80,8 +83,8 @@ import proj12MacDonaldDouglas.bantam.visitor.Visitor;
  * source program.  It extends <tt>Stmt</tt> and contains an expression (<tt>Expr</tt>).
  * <p/>
  * <li> <tt>DeclStmt</tt><br />A <tt>DeclStmt</tt> represents a declaration statement from the Bantam
- * source program.  It extends <tt>Stmt</tt> and contains a declaration type (<tt>String</tt>),
- * a name (<tt>String</tt>), and a (non-optional) initialization expression (<tt>Expr</tt>).
+ * source program.  It extends <tt>Stmt</tt> and contains a name (<tt>String</tt>) and a
+ * (non-optional) initialization expression (<tt>Expr</tt>).
  * <p/>
  * <li> <tt>IfStmt</tt><br />An <tt>IfStmt</tt> represents an if statement from the Bantam source
  * program.  It extends <tt>Stmt</tt> and contains a predicate expression (<tt>Expr</tt>), a
@@ -113,8 +116,7 @@ import proj12MacDonaldDouglas.bantam.visitor.Visitor;
  * <p/>
  * <li> <tt>CastExpr</tt><br />A <tt>CastExpr</tt> represents an explicit cast expression from
  * the Bantam source program.  It extends <tt>Expr</tt> and contains a target object type
- * (<tt>String</tt>), an expression to cast (<tt>Expr</tt>), and a flag (<tt>boolean</tt>)
- * indicating whether it's an upcast or a downcast.
+ * (<tt>String</tt>) and an expression to cast (<tt>Expr</tt>).
  * <p/>
  * <li> <tt>InstanceofExpr</tt><br />An <tt>InstanceofExpr</tt> represents an <tt>instanceof</tt>
  * operation in a Bantam source program.   It extends <tt>Expr</tt> and contains a
@@ -257,13 +259,50 @@ public abstract class ASTNode {
      */
     protected int lineNum;
 
+    /**
+     * The source span of this AST node as character offsets: the offset of
+     * its first character and the offset just past its last character,
+     * or -1 if the node was not built from source text
+     */
+    protected int startOffset = -1;
+    protected int endOffset = -1;
+
+    /**
+     * The structural hash of the subtree rooted at this node, or 0 if it
+     * has not been computed yet
+     */
+    private long structuralHash;
+
+    /**
+     * Whether this node belongs to a frozen tree and may no longer change
+     */
+    private boolean frozen;
+
+    /**
+     * The kind of this node, whose ordinal is dense across all node classes
+     */
+    private final NodeKind kind;
+
     /**
      * ASTNode constructor
      *
      * @param lineNum source line number corresponding to this AST node
+     * @param kind    the kind of the concrete node, passed up by its
+     *                constructor
      */
-    protected ASTNode(int lineNum) {
+    protected ASTNode(int lineNum, NodeKind kind) {
         this.lineNum = lineNum;
+        this.kind = kind;
+    }
+
+    /**
+     * Get the kind of this node.  <tt>getKind().ordinal()</tt> is a dense
+     * number that can index tables or drive a switch.
+     *
+     * @return node kind
+     */
+    public NodeKind getKind() {
+        return kind;
     }
 
     /**
@@ -275,6 +314,90 @@ public abstract class ASTNode {
         return lineNum;
     }
 
+    /**
+     * Get the offset of the first source character of this AST node
+     *
+     * @return start offset, or -1 if there is no span
+     */
+    public int getStartOffset() {
+        return startOffset;
+    }
+
+    /**
+     * Get the offset just past the last source character of this AST node
+     *
+     * @return end offset, or -1 if there is no span
+     */
+    public int getEndOffset() {
+        return endOffset;
+    }
+
+    /**
+     * Set the source span of this AST node
+     *
+     * @param startOffset offset of the first character
+     * @param endOffset   offset just past the last character
+     */
+    public void setSpan(int startOffset, int endOffset) {
+        checkMutable();
+        this.startOffset = startOffset;
+        this.endOffset = endOffset;
+    }
+
+    /**
+     * Get the structural hash of the subtree rooted at this node: a 64-bit
+     * hash of the node kinds, names and constants in the subtree that
+     * ignores source positions and semantic annotations.  Equal subtrees
+     * have equal hashes, so the hash can key caches of per-subtree results.
+     * The parser computes it bottom-up as it builds each node; nodes built
+     * elsewhere compute it on first use.
+     *
+     * @return structural hash, never 0
+     */
+    public long getStructuralHash() {
+        if (structuralHash == 0) {
+            structuralHash = StructuralHasher.hash(this);
+        }
+        return structuralHash;
+    }
+
+    /**
+     * Forget the structural hash after this node's own contents change
+     */
+    void invalidateStructuralHash() {
+        structuralHash = 0;
+    }
+
+    /**
+     * Determine whether this node belongs to a frozen tree
+     *
+     * @return true if the node can no longer be modified
+     * @see Program#freeze()
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * Mark this node frozen; called by Program.freeze once the node's
+     * cached state is complete
+     */
+    void markFrozen() {
+        frozen = true;
+    }
+
+    /**
+     * Throw if this node belongs to a frozen tree.  Every method that
+     * modifies a node calls this first.
+     *
+     * @throws IllegalStateException if the node is frozen
+     */
+    protected void checkMutable() {
+        if (frozen) {
+            throw new IllegalStateException("The AST is frozen and cannot be modified");
+        }
+    }
+
     /**
      * Visitor method
      *
@@ -283,4 +406,32 @@ public abstract class ASTNode {
      * @see bantam.visitor.Visitor
      */
     abstract public Object accept(Visitor v);
+
+    /**
+     * Visitor method for visitors returning a typed result
+     *
+     * @param v bantam.visitor object
+     * @param <R> the result type
+     * @return result of visiting this node
+     * @see bantam.visitor.GenericVisitor
+     */
+    abstract public <R> R accept(GenericVisitor<R> v);
+
+    /**
+     * Visitor method for visitors returning an int
+     *
+     * @param v bantam.visitor object
+     * @return result of visiting this node
+     * @see bantam.visitor.IntVisitor
+     */
+    abstract public int accept(IntVisitor v);
+
+    /**
+     * Visitor method for visitors returning a boolean
+     *
+     * @param v bantam.visitor object
+     * @return result of visiting this node
+     * @see bantam.visitor.BooleanVisitor
+     */
+    abstract public boolean accept(BooleanVisitor v);
 }
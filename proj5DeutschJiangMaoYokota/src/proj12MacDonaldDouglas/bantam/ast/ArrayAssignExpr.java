@@ -26,6 +26,10 @@
 
 package proj12MacDonaldDouglas.bantam.ast;
 
+import proj12MacDonaldDouglas.bantam.util.Symbol;
+import proj12MacDonaldDouglas.bantam.visitor.BooleanVisitor;
+import proj12MacDonaldDouglas.bantam.visitor.GenericVisitor;
+import proj12MacDonaldDouglas.bantam.visitor.IntVisitor;
 import proj12MacDonaldDouglas.bantam.visitor.Visitor;
 
 
@@ -49,7 +53,7 @@ public class ArrayAssignExpr extends Expr {
     /**
      * The name of the lefthand variable
      */
-    protected String name;
+    protected Symbol name;
 
     /**
      * The index expression
@@ -65,15 +69,17 @@ public class ArrayAssignExpr extends Expr {
      * ArrayAssignExpr constructor
      *
      * @param lineNum source line number corresponding to this AST node
+     * @param exprId  the id of the expression, unique within its program
      * @param refName the optional reference object used to access the lefthand variable
      * @param name    the name of the lefthand variable
      * @param index   index expression
      * @param expr    righthand expression for assigning to the lefthand variable
      */
-    public ArrayAssignExpr(int lineNum, String refName, String name, Expr index, Expr expr) {
-        super(lineNum);
+    public ArrayAssignExpr(int lineNum, int exprId, String refName, String name, Expr index,
+                           Expr expr) {
+        super(lineNum, exprId, NodeKind.ARRAY_ASSIGN_EXPR);
         this.refName = refName;
-        this.name = name;
+        this.name = Symbol.intern(name);
         this.index = index;
         this.expr = expr;
     }
@@ -93,6 +99,15 @@ public class ArrayAssignExpr extends Expr {
      * @return lefthand variable name
      */
     public String getName() {
+        return Symbol.nameOf(name);
+    }
+
+    /**
+     * Get the interned symbol for the name
+     *
+     * @return name symbol, or null if there is none
+     */
+    public Symbol getNameSymbol() {
         return name;
     }
 
@@ -124,4 +139,38 @@ public class ArrayAssignExpr extends Expr {
     public Object accept(Visitor v) {
         return v.visit(this);
     }
+
+    /**
+     * Visitor method for visitors returning a typed result
+     *
+     * @param v bantam.visitor object
+     * @param <R> the result type
+     * @return result of visiting this node
+     * @see bantam.visitor.GenericVisitor
+     */
+    public <R> R accept(GenericVisitor<R> v) {
+        return v.visit(this);
+    }
+
+    /**
+     * Visitor method for visitors returning an int
+     *
+     * @param v bantam.visitor object
+     * @return result of visiting this node
+     * @see bantam.visitor.IntVisitor
+     */
+    public int accept(IntVisitor v) {
+        return v.visit(this);
+    }
+
+    /**
+     * Visitor method for visitors returning a boolean
+     *
+     * @param v bantam.visitor object
+     * @return result of visiting this node
+     * @see bantam.visitor.BooleanVisitor
+     */
+    public boolean accept(BooleanVisitor v) {
+        return v.visit(this);
+    }
 }
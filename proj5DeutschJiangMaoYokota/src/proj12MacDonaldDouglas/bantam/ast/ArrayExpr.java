@@ -26,6 +26,10 @@
 
 package proj12MacDonaldDouglas.bantam.ast;
 
+import proj12MacDonaldDouglas.bantam.util.Symbol;
+import proj12MacDonaldDouglas.bantam.visitor.BooleanVisitor;
+import proj12MacDonaldDouglas.bantam.visitor.GenericVisitor;
+import proj12MacDonaldDouglas.bantam.visitor.IntVisitor;
 import proj12MacDonaldDouglas.bantam.visitor.Visitor;
 
 
@@ -48,7 +52,7 @@ public class ArrayExpr extends Expr {
     /**
      * The name of the variable (possibly 'this', 'super', or 'null')
      */
-    protected String name;
+    protected Symbol name;
 
     /**
      * The index expression
@@ -59,14 +63,15 @@ public class ArrayExpr extends Expr {
      * ArrayExpr constructor
      *
      * @param lineNum source line number corresponding to this AST node
+     * @param exprId  the id of the expression, unique within its program
      * @param ref     the optional reference object (must be 'this' or 'super')
      * @param name    the name of the variable
      * @param index   the index expression
      */
-    public ArrayExpr(int lineNum, Expr ref, String name, Expr index) {
-        super(lineNum);
+    public ArrayExpr(int lineNum, int exprId, Expr ref, String name, Expr index) {
+        super(lineNum, exprId, NodeKind.ARRAY_EXPR);
         this.ref = ref;
-        this.name = name;
+        this.name = Symbol.intern(name);
         this.index = index;
     }
 
@@ -86,6 +91,15 @@ public class ArrayExpr extends Expr {
      * @return name
      */
     public String getName() {
+        return Symbol.nameOf(name);
+    }
+
+    /**
+     * Get the interned symbol for the name
+     *
+     * @return name symbol, or null if there is none
+     */
+    public Symbol getNameSymbol() {
         return name;
     }
 
@@ -108,4 +122,38 @@ public class ArrayExpr extends Expr {
     public Object accept(Visitor v) {
         return v.visit(this);
     }
+
+    /**
+     * Visitor method for visitors returning a typed result
+     *
+     * @param v bantam.visitor object
+     * @param <R> the result type
+     * @return result of visiting this node
+     * @see bantam.visitor.GenericVisitor
+     */
+    public <R> R accept(GenericVisitor<R> v) {
+        return v.visit(this);
+    }
+
+    /**
+     * Visitor method for visitors returning an int
+     *
+     * @param v bantam.visitor object
+     * @return result of visiting this node
+     * @see bantam.visitor.IntVisitor
+     */
+    public int accept(IntVisitor v) {
+        return v.visit(this);
+    }
+
+    /**
+     * Visitor method for visitors returning a boolean
+     *
+     * @param v bantam.visitor object
+     * @return result of visiting this node
+     * @see bantam.visitor.BooleanVisitor
+     */
+    public boolean accept(BooleanVisitor v) {
+        return v.visit(this);
+    }
 }
@@ -26,6 +26,9 @@
 
 package proj12MacDonaldDouglas.bantam.ast;
 
+import proj12MacDonaldDouglas.bantam.visitor.BooleanVisitor;
+import proj12MacDonaldDouglas.bantam.visitor.GenericVisitor;
+import proj12MacDonaldDouglas.bantam.visitor.IntVisitor;
 import proj12MacDonaldDouglas.bantam.visitor.Visitor;
 
 
@@ -44,11 +47,12 @@ public class BinaryArithPlusExpr extends BinaryArithExpr {
      * BinaryArithPlusExpr constructor
      *
      * @param lineNum   source line number corresponding to this AST node
+     * @param exprId    the id of the expression, unique within its program
      * @param leftExpr  left operand expression
      * @param rightExpr right operand expression
      */
-    public BinaryArithPlusExpr(int lineNum, Expr leftExpr, Expr rightExpr) {
-        super(lineNum, leftExpr, rightExpr);
+    public BinaryArithPlusExpr(int lineNum, int exprId, Expr leftExpr, Expr rightExpr) {
+        super(lineNum, exprId, NodeKind.BINARY_ARITH_PLUS_EXPR, leftExpr, rightExpr);
     }
 
     /**
@@ -88,4 +92,38 @@ public class BinaryArithPlusExpr extends BinaryArithExpr {
     public Object accept(Visitor v) {
         return v.visit(this);
     }
+
+    /**
+     * Visitor method for visitors returning a typed result
+     *
+     * @param v bantam.visitor object
+     * @param <R> the result type
+     * @return result of visiting this node
+     * @see bantam.visitor.GenericVisitor
+     */
+    public <R> R accept(GenericVisitor<R> v) {
+        return v.visit(this);
+    }
+
+    /**
+     * Visitor method for visitors returning an int
+     *
+     * @param v bantam.visitor object
+     * @return result of visiting this node
+     * @see bantam.visitor.IntVisitor
+     */
+    public int accept(IntVisitor v) {
+        return v.visit(this);
+    }
+
+    /**
+     * Visitor method for visitors returning a boolean
+     *
+     * @param v bantam.visitor object
+     * @return result of visiting this node
+     * @see bantam.visitor.BooleanVisitor
+     */
+    public boolean accept(BooleanVisitor v) {
+        return v.visit(this);
+    }
 }
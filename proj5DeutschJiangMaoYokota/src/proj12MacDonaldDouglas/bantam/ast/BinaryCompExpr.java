@@ -45,11 +45,13 @@ public abstract class BinaryCompExpr extends BinaryExpr {
      * BinaryCompExpr constructor
      *
      * @param lineNum   source line number corresponding to this AST node
+     * @param exprId    the id of the expression, unique within its program
+     * @param kind      the kind of the concrete node
      * @param leftExpr  left operand expression
      * @param rightExpr right operand expression
      */
-    public BinaryCompExpr(int lineNum, Expr leftExpr, Expr rightExpr) {
-        super(lineNum, leftExpr, rightExpr);
+    public BinaryCompExpr(int lineNum, int exprId, NodeKind kind, Expr leftExpr, Expr rightExpr) {
+        super(lineNum, exprId, kind, leftExpr, rightExpr);
     }
 
     /**
@@ -57,11 +57,13 @@ public abstract class BinaryExpr extends Expr {
      * BinaryExpr constructor
      *
      * @param lineNum   source line number corresponding to this AST node
+     * @param exprId    the id of the expression, unique within its program
+     * @param kind      the kind of the concrete node
      * @param leftExpr  left operand expression
      * @param rightExpr right operand expression
      */
-    public BinaryExpr(int lineNum, Expr leftExpr, Expr rightExpr) {
-        super(lineNum);
+    public BinaryExpr(int lineNum, int exprId, NodeKind kind, Expr leftExpr, Expr rightExpr) {
+        super(lineNum, exprId, kind);
         this.leftExpr = leftExpr;
         this.rightExpr = rightExpr;
     }
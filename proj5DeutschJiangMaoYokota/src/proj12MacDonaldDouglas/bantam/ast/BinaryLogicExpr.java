@@ -44,11 +44,13 @@ public abstract class BinaryLogicExpr extends BinaryExpr {
      * BinaryLogicExpr constructor
      *
      * @param lineNum   source line number corresponding to this AST node
+     * @param exprId    the id of the expression, unique within its program
+     * @param kind      the kind of the concrete node
      * @param leftExpr  lefthand expression for ORing
      * @param rightExpr righthand expression for ORing
      */
-    public BinaryLogicExpr(int lineNum, Expr leftExpr, Expr rightExpr) {
-        super(lineNum, leftExpr, rightExpr);
+    public BinaryLogicExpr(int lineNum, int exprId, NodeKind kind, Expr leftExpr, Expr rightExpr) {
+        super(lineNum, exprId, kind, leftExpr, rightExpr);
     }
 
     /**
@@ -26,13 +26,16 @@
 
 package proj12MacDonaldDouglas.bantam.ast;
 
+import proj12MacDonaldDouglas.bantam.visitor.BooleanVisitor;
+import proj12MacDonaldDouglas.bantam.visitor.GenericVisitor;
+import proj12MacDonaldDouglas.bantam.visitor.IntVisitor;
 import proj12MacDonaldDouglas.bantam.visitor.Visitor;
 
 /**
  * The <tt>CastExpr</tt> class represents a cast expression.
- * It contains a target type name (<tt>type</tt>), an
- * expression to cast (<tt>expr</tt>), and a flag indicating
- * whether the cast is an upcast (<tt>upcast</tt>).
+ * It contains a target type name (<tt>type</tt>) and an
+ * expression to cast (<tt>expr</tt>).  Whether the cast is an upcast is
+ * found by semantic analysis and kept in its <tt>ExprTypeTable</tt>.
  *
  * @see ASTNode
  * @see Expr
@@ -48,20 +51,16 @@ public class CastExpr extends Expr {
      */
     protected Expr expr;
 
-    /**
-     * Boolean indicating whether the cast is an upcast
-     */
-    protected boolean upcast = false;
-
     /**
      * CastExpr constructor
      *
      * @param lineNum source line number corresponding to this AST node
+     * @param exprId  the id of the expression, unique within its program
      * @param type    the target type
      * @param expr    expression to cast
      */
-    public CastExpr(int lineNum, String type, Expr expr) {
-        super(lineNum);
+    public CastExpr(int lineNum, int exprId, String type, Expr expr) {
+        super(lineNum, exprId, NodeKind.CAST_EXPR);
         this.type = type;
         this.expr = expr;
     }
@@ -85,31 +84,47 @@ public class CastExpr extends Expr {
     }
 
     /**
-     * Is this an upcast?
+     * Visitor method
      *
-     * @return boolean indicating whether this cast is an upcast
+     * @param v bantam.visitor object
+     * @return result of visiting this node
+     * @see bantam.visitor.Visitor
      */
-    public boolean getUpCast() {
-        return upcast;
+    public Object accept(Visitor v) {
+        return v.visit(this);
     }
 
     /**
-     * Set whether the cast is an upcast
+     * Visitor method for visitors returning a typed result
      *
-     * @param upcast boolean indicating whether cast is an upcast
+     * @param v bantam.visitor object
+     * @param <R> the result type
+     * @return result of visiting this node
+     * @see bantam.visitor.GenericVisitor
      */
-    public void setUpCast(boolean upcast) {
-        this.upcast = upcast;
+    public <R> R accept(GenericVisitor<R> v) {
+        return v.visit(this);
     }
 
     /**
-     * Visitor method
+     * Visitor method for visitors returning an int
      *
      * @param v bantam.visitor object
      * @return result of visiting this node
-     * @see bantam.visitor.Visitor
+     * @see bantam.visitor.IntVisitor
      */
-    public Object accept(Visitor v) {
+    public int accept(IntVisitor v) {
+        return v.visit(this);
+    }
+
+    /**
+     * Visitor method for visitors returning a boolean
+     *
+     * @param v bantam.visitor object
+     * @return result of visiting this node
+     * @see bantam.visitor.BooleanVisitor
+     */
+    public boolean accept(BooleanVisitor v) {
         return v.visit(this);
     }
 }
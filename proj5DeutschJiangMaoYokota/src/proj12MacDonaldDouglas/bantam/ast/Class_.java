@@ -26,6 +26,10 @@
 
 package proj12MacDonaldDouglas.bantam.ast;
 
+import proj12MacDonaldDouglas.bantam.util.Symbol;
+import proj12MacDonaldDouglas.bantam.visitor.BooleanVisitor;
+import proj12MacDonaldDouglas.bantam.visitor.GenericVisitor;
+import proj12MacDonaldDouglas.bantam.visitor.IntVisitor;
 import proj12MacDonaldDouglas.bantam.visitor.Visitor;
 
 /**
@@ -46,12 +50,12 @@ public class Class_ extends ASTNode {
     /**
      * The name of this class
      */
-    protected String name;
+    protected Symbol name;
 
     /**
      * The name of the parent of this class
      */
-    protected String parent;
+    protected Symbol parent;
 
     /**
      * List of the class members
@@ -68,10 +72,10 @@ public class Class_ extends ASTNode {
      * @param memberList a list of the class members
      */
     public Class_(int lineNum, String filename, String name, String parent, MemberList memberList) {
-        super(lineNum);
+        super(lineNum, NodeKind.CLASS);
         this.filename = filename;
-        this.name = name;
-        this.parent = parent;
+        this.name = Symbol.intern(name);
+        this.parent = Symbol.intern(parent);
         this.memberList = memberList;
     }
 
@@ -90,6 +94,15 @@ public class Class_ extends ASTNode {
      * @return class name
      */
     public String getName() {
+        return Symbol.nameOf(name);
+    }
+
+    /**
+     * Get the interned symbol for the class name
+     *
+     * @return class name symbol, or null if there is none
+     */
+    public Symbol getNameSymbol() {
         return name;
     }
 
@@ -99,6 +112,15 @@ public class Class_ extends ASTNode {
      * @return name of parent class
      */
     public String getParent() {
+        return Symbol.nameOf(parent);
+    }
+
+    /**
+     * Get the interned symbol for the name of parent class
+     *
+     * @return name of parent class symbol, or null if there is none
+     */
+    public Symbol getParentSymbol() {
         return parent;
     }
 
@@ -121,4 +143,38 @@ public class Class_ extends ASTNode {
     public Object accept(Visitor v) {
         return v.visit(this);
     }
+
+    /**
+     * Visitor method for visitors returning a typed result
+     *
+     * @param v bantam.visitor object
+     * @param <R> the result type
+     * @return result of visiting this node
+     * @see bantam.visitor.GenericVisitor
+     */
+    public <R> R accept(GenericVisitor<R> v) {
+        return v.visit(this);
+    }
+
+    /**
+     * Visitor method for visitors returning an int
+     *
+     * @param v bantam.visitor object
+     * @return result of visiting this node
+     * @see bantam.visitor.IntVisitor
+     */
+    public int accept(IntVisitor v) {
+        return v.visit(this);
+    }
+
+    /**
+     * Visitor method for visitors returning a boolean
+     *
+     * @param v bantam.visitor object
+     * @return result of visiting this node
+     * @see bantam.visitor.BooleanVisitor
+     */
+    public boolean accept(BooleanVisitor v) {
+        return v.visit(this);
+    }
 }
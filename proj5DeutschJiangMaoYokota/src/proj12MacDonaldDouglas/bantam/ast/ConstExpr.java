@@ -49,10 +49,12 @@ public abstract class ConstExpr extends Expr {
      * ConstExpr constructor
      *
      * @param lineNum  source line number corresponding to this AST node
+     * @param exprId   the id of the expression, unique within its program
+     * @param kind     the kind of the concrete node
      * @param constant constant value
      */
-    public ConstExpr(int lineNum, String constant) {
-        super(lineNum);
+    public ConstExpr(int lineNum, int exprId, NodeKind kind, String constant) {
+        super(lineNum, exprId, kind);
         this.constant = constant;
     }
 
@@ -26,6 +26,9 @@
 
 package proj12MacDonaldDouglas.bantam.ast;
 
+import proj12MacDonaldDouglas.bantam.visitor.BooleanVisitor;
+import proj12MacDonaldDouglas.bantam.visitor.GenericVisitor;
+import proj12MacDonaldDouglas.bantam.visitor.IntVisitor;
 import proj12MacDonaldDouglas.bantam.visitor.Visitor;
 
 
@@ -43,10 +46,11 @@ public class ConstStringExpr extends ConstExpr {
      * ConstStringExpr constructor
      *
      * @param lineNum  source line number corresponding to this AST node
+     * @param exprId   the id of the expression, unique within its program
      * @param constant constant value (as a String)
      */
-    public ConstStringExpr(int lineNum, String constant) {
-        super(lineNum, constant);
+    public ConstStringExpr(int lineNum, int exprId, String constant) {
+        super(lineNum, exprId, NodeKind.CONST_STRING_EXPR, constant);
     }
 
     /**
@@ -59,4 +63,38 @@ public class ConstStringExpr extends ConstExpr {
     public Object accept(Visitor v) {
         return v.visit(this);
     }
+
+    /**
+     * Visitor method for visitors returning a typed result
+     *
+     * @param v bantam.visitor object
+     * @param <R> the result type
+     * @return result of visiting this node
+     * @see bantam.visitor.GenericVisitor
+     */
+    public <R> R accept(GenericVisitor<R> v) {
+        return v.visit(this);
+    }
+
+    /**
+     * Visitor method for visitors returning an int
+     *
+     * @param v bantam.visitor object
+     * @return result of visiting this node
+     * @see bantam.visitor.IntVisitor
+     */
+    public int accept(IntVisitor v) {
+        return v.visit(this);
+    }
+
+    /**
+     * Visitor method for visitors returning a boolean
+     *
+     * @param v bantam.visitor object
+     * @return result of visiting this node
+     * @see bantam.visitor.BooleanVisitor
+     */
+    public boolean accept(BooleanVisitor v) {
+        return v.visit(this);
+    }
 }
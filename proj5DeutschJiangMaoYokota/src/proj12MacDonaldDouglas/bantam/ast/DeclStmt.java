@@ -26,28 +26,28 @@
 
 package proj12MacDonaldDouglas.bantam.ast;
 
+import proj12MacDonaldDouglas.bantam.util.Symbol;
+import proj12MacDonaldDouglas.bantam.visitor.BooleanVisitor;
+import proj12MacDonaldDouglas.bantam.visitor.GenericVisitor;
+import proj12MacDonaldDouglas.bantam.visitor.IntVisitor;
 import proj12MacDonaldDouglas.bantam.visitor.Visitor;
 
 
 /**
  * The <tt>DeclStmt</tt> class represents a variable declaration statement
- * appearing in a method declaration.  It contains a variable type (<tt>type</tt>),
- * a name (<tt>name</tt>), and an initialization expression
- * (<tt>init</tt>). The initialization expression is required and cannot be null.
+ * appearing in a method declaration.  It contains a name (<tt>name</tt>) and an
+ * initialization expression (<tt>init</tt>). The initialization expression is
+ * required and cannot be null.  The variable takes the type of its initializer,
+ * which semantic analysis keeps in its <tt>ExprTypeTable</tt>.
  *
  * @see ASTNode
  * @see Stmt
  */
 public class DeclStmt extends Stmt {
-    /**
-     * The type of the variable being declared
-     */
-    protected String type;
-
     /**
      * The name of the variable being declared
      */
-    protected String name;
+    protected Symbol name;
 
     /**
      * The (non-optional) initialization expression for the variable being declared
@@ -62,28 +62,26 @@ public class DeclStmt extends Stmt {
      * @param init    the (non-optional) initialization expression for the declared variable
      */
     public DeclStmt(int lineNum, String name, Expr init) {
-        super(lineNum);
-        this.type = null;
-        this.name = name;
+        super(lineNum, NodeKind.DECL_STMT);
+        this.name = Symbol.intern(name);
         this.init = init;
     }
 
     /**
-     * Get & set the type of the declared variable
+     * Get the name of the declared variable
+     *
+     * @return declared variable name
      */
-    public String getType() {
-        return type;
-    }
-    public void setType(String type) {
-        this.type = type;
+    public String getName() {
+        return Symbol.nameOf(name);
     }
 
     /**
-     * Get the name of the declared variable
+     * Get the interned symbol for the declared variable name
      *
-     * @return declared variable name
+     * @return declared variable name symbol, or null if there is none
      */
-    public String getName() {
+    public Symbol getNameSymbol() {
         return name;
     }
 
@@ -106,4 +104,38 @@ public class DeclStmt extends Stmt {
     public Object accept(Visitor v) {
         return v.visit(this);
     }
+
+    /**
+     * Visitor method for visitors returning a typed result
+     *
+     * @param v bantam.visitor object
+     * @param <R> the result type
+     * @return result of visiting this node
+     * @see bantam.visitor.GenericVisitor
+     */
+    public <R> R accept(GenericVisitor<R> v) {
+        return v.visit(this);
+    }
+
+    /**
+     * Visitor method for visitors returning an int
+     *
+     * @param v bantam.visitor object
+     * @return result of visiting this node
+     * @see bantam.visitor.IntVisitor
+     */
+    public int accept(IntVisitor v) {
+        return v.visit(this);
+    }
+
+    /**
+     * Visitor method for visitors returning a boolean
+     *
+     * @param v bantam.visitor object
+     * @return result of visiting this node
+     * @see bantam.visitor.BooleanVisitor
+     */
+    public boolean accept(BooleanVisitor v) {
+        return v.visit(this);
+    }
 }
@@ -26,6 +26,10 @@
 
 package proj12MacDonaldDouglas.bantam.ast;
 
+import proj12MacDonaldDouglas.bantam.util.Symbol;
+import proj12MacDonaldDouglas.bantam.visitor.BooleanVisitor;
+import proj12MacDonaldDouglas.bantam.visitor.GenericVisitor;
+import proj12MacDonaldDouglas.bantam.visitor.IntVisitor;
 import proj12MacDonaldDouglas.bantam.visitor.Visitor;
 
 /**
@@ -46,7 +50,7 @@ public class DispatchExpr extends Expr {
     /**
      * The name of the method
      */
-    protected String methodName;
+    protected Symbol methodName;
 
     /**
      * The list of actual parameter expressions
@@ -57,15 +61,16 @@ public class DispatchExpr extends Expr {
      * DispatchExpr constructor
      *
      * @param lineNum    source line number corresponding to this AST node
+     * @param exprId     the id of the expression, unique within its program
      * @param refExpr    reference expression (produces the object to dispatch on)
      * @param methodName the name of the method
      * @param actualList list of actual parameter expressions
      */
-    public DispatchExpr(int lineNum, Expr refExpr,
+    public DispatchExpr(int lineNum, int exprId, Expr refExpr,
                         String methodName, ExprList actualList) {
-        super(lineNum);
+        super(lineNum, exprId, NodeKind.DISPATCH_EXPR);
         this.refExpr = refExpr;
-        this.methodName = methodName;
+        this.methodName = Symbol.intern(methodName);
         this.actualList = actualList;
     }
 
@@ -84,6 +89,15 @@ public class DispatchExpr extends Expr {
      * @return method name
      */
     public String getMethodName() {
+        return Symbol.nameOf(methodName);
+    }
+
+    /**
+     * Get the interned symbol for the method name
+     *
+     * @return method name symbol, or null if there is none
+     */
+    public Symbol getMethodNameSymbol() {
         return methodName;
     }
 
@@ -106,4 +120,38 @@ public class DispatchExpr extends Expr {
     public Object accept(Visitor v) {
         return v.visit(this);
     }
+
+    /**
+     * Visitor method for visitors returning a typed result
+     *
+     * @param v bantam.visitor object
+     * @param <R> the result type
+     * @return result of visiting this node
+     * @see bantam.visitor.GenericVisitor
+     */
+    public <R> R accept(GenericVisitor<R> v) {
+        return v.visit(this);
+    }
+
+    /**
+     * Visitor method for visitors returning an int
+     *
+     * @param v bantam.visitor object
+     * @return result of visiting this node
+     * @see bantam.visitor.IntVisitor
+     */
+    public int accept(IntVisitor v) {
+        return v.visit(this);
+    }
+
+    /**
+     * Visitor method for visitors returning a boolean
+     *
+     * @param v bantam.visitor object
+     * @return result of visiting this node
+     * @see bantam.visitor.BooleanVisitor
+     */
+    public boolean accept(BooleanVisitor v) {
+        return v.visit(this);
+    }
 }
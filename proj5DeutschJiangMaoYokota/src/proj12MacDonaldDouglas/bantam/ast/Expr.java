@@ -36,9 +36,14 @@ import proj12MacDonaldDouglas.bantam.visitor.Visitor;
  * expression, an assignment expression, a binary expression (comparison,
  * arithmetic, or boolean logic), a unary expression (negation or
  * complement), a variable expression, or a constant expression (int
- * constant, boolean constant, String constant).  An expression contains
- * an expression type (<tt>exprType</tt>), which is set during semantic
- * analysis.
+ * constant, boolean constant, String constant).  An expression has an id
+ * (<tt>exprId</tt>), given by the parser when it creates the node, which
+ * numbers the expressions of a program from 0 in the order it makes them.
+ * A node the parser folds into another hands over its id, so the only
+ * gaps are the <tt>this</tt> or <tt>super</tt> before an assigned field,
+ * which the assignment keeps as a name.  Semantic
+ * analysis stores the type of an expression at its id in an
+ * <tt>ExprTypeTable</tt> and leaves the node itself alone.
  *
  * @see ASTNode
  * @see DispatchExpr
@@ -53,35 +58,30 @@ import proj12MacDonaldDouglas.bantam.visitor.Visitor;
  */
 public abstract class Expr extends ASTNode {
     /**
-     * The expression type
+     * The id of the expression, unique within its program
      */
-    private String exprType = null;
+    private final int exprId;
 
     /**
      * Expr constructor
      *
      * @param lineNum source line number corresponding to this AST node
+     * @param exprId  the id of the expression, unique within its program
+     * @param kind    the kind of the concrete node
      */
-    public Expr(int lineNum) {
-        super(lineNum);
+    public Expr(int lineNum, int exprId, NodeKind kind) {
+        super(lineNum, kind);
+        this.exprId = exprId;
     }
 
     /**
-     * Get the type of the expression
+     * Get the id of the expression, which indexes the tables of
+     * expression data
      *
-     * @return the expression type
+     * @return the expression id
      */
-    public String getExprType() {
-        return exprType;
-    }
-
-    /**
-     * Set the type of the expression
-     *
-     * @param exprType the type of the expression
-     */
-    public void setExprType(String exprType) {
-        this.exprType = exprType;
+    public int getExprId() {
+        return exprId;
     }
 
     /**
@@ -26,6 +26,10 @@
 
 package proj12MacDonaldDouglas.bantam.ast;
 
+import proj12MacDonaldDouglas.bantam.util.Symbol;
+import proj12MacDonaldDouglas.bantam.visitor.BooleanVisitor;
+import proj12MacDonaldDouglas.bantam.visitor.GenericVisitor;
+import proj12MacDonaldDouglas.bantam.visitor.IntVisitor;
 import proj12MacDonaldDouglas.bantam.visitor.Visitor;
 
 
@@ -40,12 +44,12 @@ public class Field extends Member {
     /**
      * The type of the field (instance variable)
      */
-    protected String type;
+    protected Symbol type;
 
     /**
      * The name of the field (instance variable)
      */
-    protected String name;
+    protected Symbol name;
 
     /**
      * The (optional) initialization expression for the field (instance variable)
@@ -61,9 +65,9 @@ public class Field extends Member {
      * @param init    the (optional) initialization expression for the field (instance variable)
      */
     public Field(int lineNum, String type, String name, Expr init) {
-        super(lineNum);
-        this.type = type;
-        this.name = name;
+        super(lineNum, NodeKind.FIELD);
+        this.type = Symbol.intern(type);
+        this.name = Symbol.intern(name);
         this.init = init;
     }
 
@@ -73,6 +77,15 @@ public class Field extends Member {
      * @return field type
      */
     public String getType() {
+        return Symbol.nameOf(type);
+    }
+
+    /**
+     * Get the interned symbol for the field type
+     *
+     * @return field type symbol, or null if there is none
+     */
+    public Symbol getTypeSymbol() {
         return type;
     }
 
@@ -82,6 +95,15 @@ public class Field extends Member {
      * @return field name
      */
     public String getName() {
+        return Symbol.nameOf(name);
+    }
+
+    /**
+     * Get the interned symbol for the field name
+     *
+     * @return field name symbol, or null if there is none
+     */
+    public Symbol getNameSymbol() {
         return name;
     }
 
@@ -104,4 +126,38 @@ public class Field extends Member {
     public Object accept(Visitor v) {
         return v.visit(this);
     }
+
+    /**
+     * Visitor method for visitors returning a typed result
+     *
+     * @param v bantam.visitor object
+     * @param <R> the result type
+     * @return result of visiting this node
+     * @see bantam.visitor.GenericVisitor
+     */
+    public <R> R accept(GenericVisitor<R> v) {
+        return v.visit(this);
+    }
+
+    /**
+     * Visitor method for visitors returning an int
+     *
+     * @param v bantam.visitor object
+     * @return result of visiting this node
+     * @see bantam.visitor.IntVisitor
+     */
+    public int accept(IntVisitor v) {
+        return v.visit(this);
+    }
+
+    /**
+     * Visitor method for visitors returning a boolean
+     *
+     * @param v bantam.visitor object
+     * @return result of visiting this node
+     * @see bantam.visitor.BooleanVisitor
+     */
+    public boolean accept(BooleanVisitor v) {
+        return v.visit(this);
+    }
 }
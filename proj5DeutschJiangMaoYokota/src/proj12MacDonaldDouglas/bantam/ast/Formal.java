@@ -26,6 +26,10 @@
 
 package proj12MacDonaldDouglas.bantam.ast;
 
+import proj12MacDonaldDouglas.bantam.util.Symbol;
+import proj12MacDonaldDouglas.bantam.visitor.BooleanVisitor;
+import proj12MacDonaldDouglas.bantam.visitor.GenericVisitor;
+import proj12MacDonaldDouglas.bantam.visitor.IntVisitor;
 import proj12MacDonaldDouglas.bantam.visitor.Visitor;
 
 
@@ -40,11 +44,11 @@ public class Formal extends ASTNode {
     /**
      * The type of the formal parameter
      */
-    protected String type;
+    protected Symbol type;
     /**
      * The name of the formal parameter
      */
-    protected String name;
+    protected Symbol name;
 
     /**
      * Formal constructor
@@ -54,9 +58,9 @@ public class Formal extends ASTNode {
      * @param name    the name of the formal parameter
      */
     public Formal(int lineNum, String type, String name) {
-        super(lineNum);
-        this.type = type;
-        this.name = name;
+        super(lineNum, NodeKind.FORMAL);
+        this.type = Symbol.intern(type);
+        this.name = Symbol.intern(name);
     }
 
     /**
@@ -65,6 +69,15 @@ public class Formal extends ASTNode {
      * @return type of formal parameter
      */
     public String getType() {
+        return Symbol.nameOf(type);
+    }
+
+    /**
+     * Get the interned symbol for the type of formal parameter
+     *
+     * @return type of formal parameter symbol, or null if there is none
+     */
+    public Symbol getTypeSymbol() {
         return type;
     }
 
@@ -74,6 +87,15 @@ public class Formal extends ASTNode {
      * @return name of formal parameter
      */
     public String getName() {
+        return Symbol.nameOf(name);
+    }
+
+    /**
+     * Get the interned symbol for the name of formal parameter
+     *
+     * @return name of formal parameter symbol, or null if there is none
+     */
+    public Symbol getNameSymbol() {
         return name;
     }
 
@@ -87,4 +109,38 @@ public class Formal extends ASTNode {
     public Object accept(Visitor v) {
         return v.visit(this);
     }
+
+    /**
+     * Visitor method for visitors returning a typed result
+     *
+     * @param v bantam.visitor object
+     * @param <R> the result type
+     * @return result of visiting this node
+     * @see bantam.visitor.GenericVisitor
+     */
+    public <R> R accept(GenericVisitor<R> v) {
+        return v.visit(this);
+    }
+
+    /**
+     * Visitor method for visitors returning an int
+     *
+     * @param v bantam.visitor object
+     * @return result of visiting this node
+     * @see bantam.visitor.IntVisitor
+     */
+    public int accept(IntVisitor v) {
+        return v.visit(this);
+    }
+
+    /**
+     * Visitor method for visitors returning a boolean
+     *
+     * @param v bantam.visitor object
+     * @return result of visiting this node
+     * @see bantam.visitor.BooleanVisitor
+     */
+    public boolean accept(BooleanVisitor v) {
+        return v.visit(this);
+    }
 }
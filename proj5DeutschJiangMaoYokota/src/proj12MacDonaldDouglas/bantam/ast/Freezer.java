@@ -0,0 +1,32 @@
+/*
+ * File: bantam.ast.Freezer.java
+ * CS361 Project 11
+ * Names: Martin Deutsch and Wyett MacDonald
+ * Date: 2/13/2019
+ * This file contains the Freezer, which makes an AST immutable
+ */
+
+package proj12MacDonaldDouglas.bantam.ast;
+
+import proj12MacDonaldDouglas.bantam.visitor.IterativeTraversal;
+
+/**
+ * Freezer fills in the lazily cached state of every node and then marks
+ * the node frozen, so that no field is written once the tree is shared.
+ * It walks the tree with an explicit stack, so a tree of any depth can be
+ * frozen, and does its work after a node's children, so the structural
+ * hash of a node only reads the hashes its children already cached.
+ *
+ * @author Martin Deutsch
+ * @author Wyett MacDonald
+ */
+class Freezer extends IterativeTraversal {
+
+    protected void postVisit(ASTNode node) {
+        node.getStructuralHash();
+        if (node instanceof ListNode) {
+            ((ListNode) node).trimToSize();
+        }
+        node.markFrozen();
+    }
+}
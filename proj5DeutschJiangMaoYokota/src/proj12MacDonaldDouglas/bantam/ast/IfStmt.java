@@ -26,6 +26,9 @@
 
 package proj12MacDonaldDouglas.bantam.ast;
 
+import proj12MacDonaldDouglas.bantam.visitor.BooleanVisitor;
+import proj12MacDonaldDouglas.bantam.visitor.GenericVisitor;
+import proj12MacDonaldDouglas.bantam.visitor.IntVisitor;
 import proj12MacDonaldDouglas.bantam.visitor.Visitor;
 
 
@@ -63,7 +66,7 @@ public class IfStmt extends Stmt {
      * @param elseStmt the else statement
      */
     public IfStmt(int lineNum, Expr predExpr, Stmt thenStmt, Stmt elseStmt) {
-        super(lineNum);
+        super(lineNum, NodeKind.IF_STMT);
         this.predExpr = predExpr;
         this.thenStmt = thenStmt;
         this.elseStmt = elseStmt;
@@ -93,7 +96,9 @@ public class IfStmt extends Stmt {
      * @param elseStmt the Stmt forming the else part of the if statement.
      */
     public void setElseStmt(Stmt elseStmt) {
+        checkMutable();
         this.elseStmt = elseStmt;
+        invalidateStructuralHash();
     }
 
     /**
@@ -115,4 +120,38 @@ public class IfStmt extends Stmt {
     public Object accept(Visitor v) {
         return v.visit(this);
     }
+
+    /**
+     * Visitor method for visitors returning a typed result
+     *
+     * @param v bantam.visitor object
+     * @param <R> the result type
+     * @return result of visiting this node
+     * @see bantam.visitor.GenericVisitor
+     */
+    public <R> R accept(GenericVisitor<R> v) {
+        return v.visit(this);
+    }
+
+    /**
+     * Visitor method for visitors returning an int
+     *
+     * @param v bantam.visitor object
+     * @return result of visiting this node
+     * @see bantam.visitor.IntVisitor
+     */
+    public int accept(IntVisitor v) {
+        return v.visit(this);
+    }
+
+    /**
+     * Visitor method for visitors returning a boolean
+     *
+     * @param v bantam.visitor object
+     * @return result of visiting this node
+     * @see bantam.visitor.BooleanVisitor
+     */
+    public boolean accept(BooleanVisitor v) {
+        return v.visit(this);
+    }
 }
@@ -26,13 +26,16 @@
 
 package proj12MacDonaldDouglas.bantam.ast;
 
+import proj12MacDonaldDouglas.bantam.visitor.BooleanVisitor;
+import proj12MacDonaldDouglas.bantam.visitor.GenericVisitor;
+import proj12MacDonaldDouglas.bantam.visitor.IntVisitor;
 import proj12MacDonaldDouglas.bantam.visitor.Visitor;
 
 /**
  * The <tt>InstanceofExpr</tt> class represents an instanceof expression.
- * It contains a lefthand expression (<tt>expr</tt>), a righthand type
- * name (<tt>type</tt>), and a flag indicating whether the instanceof
- * is an upcheck (<tt>upcheck</tt>).
+ * It contains a lefthand expression (<tt>expr</tt>) and a righthand type
+ * name (<tt>type</tt>).  Whether the instanceof is an upcheck is found
+ * by semantic analysis and kept in its <tt>ExprTypeTable</tt>.
  *
  * @see ASTNode
  * @see Expr
@@ -48,21 +51,16 @@ public class InstanceofExpr extends Expr {
      */
     protected String type;
 
-    /**
-     * Boolean indicating whether this is an upcheck
-     * (checking whether one type is instanceof a super type -- always true
-     */
-    protected boolean upcheck = false;
-
     /**
      * InstanceofExpr constructor
      *
      * @param lineNum source line number corresponding to this AST node
+     * @param exprId  the id of the expression, unique within its program
      * @param expr    the lefthand expression
      * @param type    the righthand type
      */
-    public InstanceofExpr(int lineNum, Expr expr, String type) {
-        super(lineNum);
+    public InstanceofExpr(int lineNum, int exprId, Expr expr, String type) {
+        super(lineNum, exprId, NodeKind.INSTANCEOF_EXPR);
         this.expr = expr;
         this.type = type;
     }
@@ -86,35 +84,47 @@ public class InstanceofExpr extends Expr {
     }
 
     /**
-     * Is this an upcheck?
-     * i.e., checking whether one type is an instanceof a super type
-     * (always true)
+     * Visitor method
      *
-     * @return boolean indicating whether this cast is an upcheck
+     * @param v bantam.visitor object
+     * @return result of visiting this node
+     * @see bantam.visitor.Visitor
      */
-    public boolean getUpCheck() {
-        return upcheck;
+    public Object accept(Visitor v) {
+        return v.visit(this);
     }
 
     /**
-     * Set whether the instanceof is an upcheck
-     * i.e., checking whether one type is an instanceof a super type
-     * (always true)
+     * Visitor method for visitors returning a typed result
      *
-     * @param upcheck boolean indicating whether check is an upcheck
+     * @param v bantam.visitor object
+     * @param <R> the result type
+     * @return result of visiting this node
+     * @see bantam.visitor.GenericVisitor
      */
-    public void setUpCheck(boolean upcheck) {
-        this.upcheck = upcheck;
+    public <R> R accept(GenericVisitor<R> v) {
+        return v.visit(this);
     }
 
     /**
-     * Visitor method
+     * Visitor method for visitors returning an int
      *
      * @param v bantam.visitor object
      * @return result of visiting this node
-     * @see bantam.visitor.Visitor
+     * @see bantam.visitor.IntVisitor
      */
-    public Object accept(Visitor v) {
+    public int accept(IntVisitor v) {
+        return v.visit(this);
+    }
+
+    /**
+     * Visitor method for visitors returning a boolean
+     *
+     * @param v bantam.visitor object
+     * @return result of visiting this node
+     * @see bantam.visitor.BooleanVisitor
+     */
+    public boolean accept(BooleanVisitor v) {
         return v.visit(this);
     }
 }
@@ -28,37 +28,64 @@
    --added get(int index) method
    --changed getIterator to iterator and added "implements Iterable<ListNode>"
      so that foreach loops can be used
+
+   Modified by Martin Deutsch and Wyett MacDonald
+   February 2019
+   --replaced the Vector with an unsynchronized array that is trimmed
+     to its exact size once the list is complete
 */
 
 package proj12MacDonaldDouglas.bantam.ast;
 
 import proj12MacDonaldDouglas.bantam.visitor.Visitor;
 
+import java.util.Arrays;
 import java.util.Iterator;
-import java.util.Vector;
+import java.util.NoSuchElementException;
 
 /**
  * The abstract <tt>ListNode</tt> class represents a generic list of AST
  * nodes.  It contains a line number (<tt>lineNum</tt>) and a list
  * (<tt>listElements</tt>).
+ * <p/>
+ * The elements are kept in a plain array that grows as elements are added.
+ * Once a list is complete, <tt>trimToSize</tt> releases the unused capacity.
+ * For allocation-free traversal, loop from 0 to <tt>getSize()</tt> and call
+ * <tt>get(index)</tt> rather than using the iterator.
  *
  * @see ASTNode
  */
 public abstract class ListNode extends ASTNode
     implements Iterable<ASTNode> {
     /**
-     * List of ASTNode elements
+     * Shared backing array for lists with no elements
+     */
+    private static final ASTNode[] NO_ELEMENTS = new ASTNode[0];
+
+    /**
+     * Capacity of the backing array when the first element is added
+     */
+    private static final int INITIAL_CAPACITY = 4;
+
+    /**
+     * Array of ASTNode elements; only the first <tt>size</tt> are in use
+     */
+    private ASTNode[] listElements;
+
+    /**
+     * Number of elements in the list
      */
-    private Vector<ASTNode> listElements;
+    private int size;
 
     /**
      * ListNode constructor
      *
      * @param lineNum source line number corresponding to this AST node
+     * @param kind    the kind of the concrete node
      */
-    protected ListNode(int lineNum) {
-        super(lineNum);
-        listElements = new Vector<ASTNode>();
+    protected ListNode(int lineNum, NodeKind kind) {
+        super(lineNum, kind);
+        listElements = NO_ELEMENTS;
     }
 
     /**
@@ -66,19 +93,49 @@ public abstract class ListNode extends ASTNode
      *
      * @param node element to add
      * @return the updated list
+     * @throws IllegalStateException if the list is frozen
      */
     public ListNode addElement(ASTNode node) {
-        listElements.add(node);
+        checkMutable();
+        if (size == listElements.length) {
+            int capacity = Math.max(INITIAL_CAPACITY, size * 2);
+            listElements = Arrays.copyOf(listElements, capacity);
+        }
+        listElements[size++] = node;
+        invalidateStructuralHash();
         return this;
     }
 
+    /**
+     * Shrink the backing array to exactly the number of elements.
+     * Called once no more elements will be added to the list.
+     */
+    public void trimToSize() {
+        if (size < listElements.length) {
+            listElements = size == 0 ? NO_ELEMENTS : Arrays.copyOf(listElements, size);
+        }
+    }
+
     /**
      * Returns an iterator for this list
      *
      * @return iterator for this list
      */
     public Iterator<ASTNode> iterator() {
-        return listElements.iterator();
+        return new Iterator<ASTNode>() {
+            private int next = 0;
+
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            public ASTNode next() {
+                if (next >= size) {
+                    throw new NoSuchElementException();
+                }
+                return listElements[next++];
+            }
+        };
     }
 
     /**
@@ -87,7 +144,16 @@ public abstract class ListNode extends ASTNode
      * @return list size
      */
     public int getSize() {
-        return listElements.size();
+        return size;
+    }
+
+    /**
+     * Get the length of the backing array, which is at least the list size
+     *
+     * @return list capacity
+     */
+    public int getCapacity() {
+        return listElements.length;
     }
 
     /**
@@ -98,7 +164,10 @@ public abstract class ListNode extends ASTNode
      *         too large or too small
      */
     public ASTNode get(int index) {
-        return listElements.get(index);
+        if (index >= size) {
+            throw new ArrayIndexOutOfBoundsException(index);
+        }
+        return listElements[index];
     }
 
     /**
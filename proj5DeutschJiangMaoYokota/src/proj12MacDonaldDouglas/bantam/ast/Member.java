@@ -43,9 +43,10 @@ public abstract class Member extends ASTNode {
      * Member constructor
      *
      * @param lineNum source line number corresponding to this AST node
+     * @param kind    the kind of the concrete node
      */
-    protected Member(int lineNum) {
-        super(lineNum);
+    protected Member(int lineNum, NodeKind kind) {
+        super(lineNum, kind);
     }
 
     /**
@@ -26,6 +26,10 @@
 
 package proj12MacDonaldDouglas.bantam.ast;
 
+import proj12MacDonaldDouglas.bantam.util.Symbol;
+import proj12MacDonaldDouglas.bantam.visitor.BooleanVisitor;
+import proj12MacDonaldDouglas.bantam.visitor.GenericVisitor;
+import proj12MacDonaldDouglas.bantam.visitor.IntVisitor;
 import proj12MacDonaldDouglas.bantam.visitor.Visitor;
 
 /**
@@ -41,12 +45,12 @@ public class Method extends Member {
     /**
      * The return type of the method
      */
-    protected String returnType;
+    protected Symbol returnType;
 
     /**
      * The name of the method
      */
-    protected String name;
+    protected Symbol name;
 
     /**
      * A list of formal parameters
@@ -69,9 +73,9 @@ public class Method extends Member {
      */
     public Method(int lineNum, String returnType, String name,
                   FormalList formalList, StmtList stmtList) {
-        super(lineNum);
-        this.returnType = returnType;
-        this.name = name;
+        super(lineNum, NodeKind.METHOD);
+        this.returnType = Symbol.intern(returnType);
+        this.name = Symbol.intern(name);
         this.formalList = formalList;
         this.stmtList = stmtList;
     }
@@ -82,6 +86,15 @@ public class Method extends Member {
      * @return return type of method
      */
     public String getReturnType() {
+        return Symbol.nameOf(returnType);
+    }
+
+    /**
+     * Get the interned symbol for the return type
+     *
+     * @return return type symbol, or null if there is none
+     */
+    public Symbol getReturnTypeSymbol() {
         return returnType;
     }
 
@@ -91,6 +104,15 @@ public class Method extends Member {
      * @return method name
      */
     public String getName() {
+        return Symbol.nameOf(name);
+    }
+
+    /**
+     * Get the interned symbol for the method name
+     *
+     * @return method name symbol, or null if there is none
+     */
+    public Symbol getNameSymbol() {
         return name;
     }
 
@@ -122,4 +144,38 @@ public class Method extends Member {
     public Object accept(Visitor v) {
         return v.visit(this);
     }
+
+    /**
+     * Visitor method for visitors returning a typed result
+     *
+     * @param v bantam.visitor object
+     * @param <R> the result type
+     * @return result of visiting this node
+     * @see bantam.visitor.GenericVisitor
+     */
+    public <R> R accept(GenericVisitor<R> v) {
+        return v.visit(this);
+    }
+
+    /**
+     * Visitor method for visitors returning an int
+     *
+     * @param v bantam.visitor object
+     * @return result of visiting this node
+     * @see bantam.visitor.IntVisitor
+     */
+    public int accept(IntVisitor v) {
+        return v.visit(this);
+    }
+
+    /**
+     * Visitor method for visitors returning a boolean
+     *
+     * @param v bantam.visitor object
+     * @return result of visiting this node
+     * @see bantam.visitor.BooleanVisitor
+     */
+    public boolean accept(BooleanVisitor v) {
+        return v.visit(this);
+    }
 }
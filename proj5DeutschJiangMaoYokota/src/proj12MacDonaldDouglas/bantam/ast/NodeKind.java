@@ -0,0 +1,59 @@
+/*
+ * File: bantam.ast.NodeKind.java
+ * CS361 Project 11
+ * Names: Martin Deutsch and Wyett MacDonald
+ * Date: 2/13/2019
+ * This file contains the NodeKind enum, which names every concrete
+ * kind of AST node
+ */
+
+package proj12MacDonaldDouglas.bantam.ast;
+
+/**
+ * NodeKind has one constant per concrete <tt>ASTNode</tt> subclass.
+ * The ordinals are dense, so they can index arrays and tables, and every
+ * node reports its kind through <tt>ASTNode.getKind</tt>.  Each concrete
+ * class passes its kind to the <tt>ASTNode</tt> constructor, so a subclass
+ * of a concrete class has the kind of the class it extends.
+ *
+ * @author Martin Deutsch
+ * @author Wyett MacDonald
+ */
+public enum NodeKind {
+    PROGRAM, CLASS_LIST, CLASS, MEMBER_LIST, FIELD, METHOD, FORMAL_LIST, FORMAL,
+
+    STMT_LIST, DECL_STMT, EXPR_STMT, IF_STMT, WHILE_STMT, FOR_STMT, BREAK_STMT,
+    BLOCK_STMT, RETURN_STMT,
+
+    EXPR_LIST, DISPATCH_EXPR, NEW_EXPR, NEW_ARRAY_EXPR, INSTANCEOF_EXPR, CAST_EXPR,
+    ASSIGN_EXPR, ARRAY_ASSIGN_EXPR,
+
+    BINARY_COMP_EQ_EXPR, BINARY_COMP_NE_EXPR, BINARY_COMP_LT_EXPR,
+    BINARY_COMP_LEQ_EXPR, BINARY_COMP_GT_EXPR, BINARY_COMP_GEQ_EXPR,
+    BINARY_ARITH_PLUS_EXPR, BINARY_ARITH_MINUS_EXPR, BINARY_ARITH_TIMES_EXPR,
+    BINARY_ARITH_DIVIDE_EXPR, BINARY_ARITH_MODULUS_EXPR,
+    BINARY_LOGIC_AND_EXPR, BINARY_LOGIC_OR_EXPR,
+
+    UNARY_NEG_EXPR, UNARY_NOT_EXPR, UNARY_INCR_EXPR, UNARY_DECR_EXPR,
+
+    VAR_EXPR, ARRAY_EXPR, CONST_INT_EXPR, CONST_BOOLEAN_EXPR, CONST_STRING_EXPR;
+
+    /**
+     * Get the kind of a node
+     *
+     * @param node the AST node
+     * @return its kind
+     */
+    public static NodeKind of(ASTNode node) {
+        return node.getKind();
+    }
+
+    /**
+     * Determine whether nodes of this kind are expressions
+     *
+     * @return true for the kinds of the <tt>Expr</tt> subclasses
+     */
+    public boolean isExpr() {
+        return ordinal() >= DISPATCH_EXPR.ordinal();
+    }
+}
@@ -26,6 +26,9 @@
 
 package proj12MacDonaldDouglas.bantam.ast;
 
+import proj12MacDonaldDouglas.bantam.visitor.BooleanVisitor;
+import proj12MacDonaldDouglas.bantam.visitor.GenericVisitor;
+import proj12MacDonaldDouglas.bantam.visitor.IntVisitor;
 import proj12MacDonaldDouglas.bantam.visitor.Visitor;
 
 
@@ -42,6 +45,12 @@ public class Program extends ASTNode {
      */
     protected ClassList classList;
 
+    /**
+     * Set by freeze once the whole tree is frozen; volatile so that a
+     * thread that sees it set also sees every node in its frozen state
+     */
+    private volatile boolean published;
+
     /**
      * Program constructor
      *
@@ -49,7 +58,7 @@ public class Program extends ASTNode {
      * @param classList list of class declarations
      */
     public Program(int lineNum, ClassList classList) {
-        super(lineNum);
+        super(lineNum, NodeKind.PROGRAM);
         this.classList = classList;
     }
 
@@ -62,6 +71,39 @@ public class Program extends ASTNode {
         return classList;
     }
 
+    /**
+     * Make the whole tree immutable.  Every node's structural hash is
+     * computed, every list is trimmed, and every node is marked frozen, so
+     * that later attempts to modify it throw an IllegalStateException.
+     * Once frozen, the tree can be traversed by any number of threads at
+     * once without locks: a thread that reads <tt>isFrozen()</tt> as true
+     * on the Program, or receives it from the freezing thread through an
+     * executor or other synchronization, sees the completed tree.
+     * <p/>
+     * Semantic analysis keeps its results in side tables, so a frozen tree
+     * can still be checked.  The tree is walked without recursion, so a
+     * tree of any depth can be frozen.  Freezing an already frozen tree
+     * does nothing.
+     *
+     * @return this program
+     */
+    public Program freeze() {
+        if (!published) {
+            new Freezer().traverse(this);
+            published = true;
+        }
+        return this;
+    }
+
+    /**
+     * Determine whether the whole tree has been frozen and published
+     *
+     * @return true if freeze has completed
+     */
+    public boolean isFrozen() {
+        return published;
+    }
+
     /**
      * Visitor method
      *
@@ -72,4 +114,38 @@ public class Program extends ASTNode {
     public Object accept(Visitor v) {
         return v.visit(this);
     }
+
+    /**
+     * Visitor method for visitors returning a typed result
+     *
+     * @param v bantam.visitor object
+     * @param <R> the result type
+     * @return result of visiting this node
+     * @see bantam.visitor.GenericVisitor
+     */
+    public <R> R accept(GenericVisitor<R> v) {
+        return v.visit(this);
+    }
+
+    /**
+     * Visitor method for visitors returning an int
+     *
+     * @param v bantam.visitor object
+     * @return result of visiting this node
+     * @see bantam.visitor.IntVisitor
+     */
+    public int accept(IntVisitor v) {
+        return v.visit(this);
+    }
+
+    /**
+     * Visitor method for visitors returning a boolean
+     *
+     * @param v bantam.visitor object
+     * @return result of visiting this node
+     * @see bantam.visitor.BooleanVisitor
+     */
+    public boolean accept(BooleanVisitor v) {
+        return v.visit(this);
+    }
 }
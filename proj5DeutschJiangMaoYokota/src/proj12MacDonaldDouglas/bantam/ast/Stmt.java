@@ -51,9 +51,10 @@ public abstract class Stmt extends ASTNode {
      * Stmt constructor
      *
      * @param lineNum source line number corresponding to this AST node
+     * @param kind    the kind of the concrete node
      */
-    protected Stmt(int lineNum) {
-        super(lineNum);
+    protected Stmt(int lineNum, NodeKind kind) {
+        super(lineNum, kind);
     }
 
     /**
@@ -0,0 +1,420 @@
+/*
+ * File: bantam.ast.StructuralHasher.java
+ * CS361 Project 11
+ * Names: Martin Deutsch and Wyett MacDonald
+ * Date: 2/13/2019
+ * This file contains the StructuralHasher, which computes the structural
+ * hash of a single AST node
+ */
+
+package proj12MacDonaldDouglas.bantam.ast;
+
+import proj12MacDonaldDouglas.bantam.visitor.Visitor;
+
+/**
+ * StructuralHasher combines a node's kind, its names and constants and the
+ * structural hashes of its children into a 64-bit hash.  It does not
+ * descend on its own: children are asked for their (cached) hashes, so
+ * hashing a tree bottom-up costs constant time per node.
+ * <p/>
+ * Source positions, file names and expression ids are left out, so two
+ * subtrees with the same text in different places hash equally.
+ *
+ * @author Martin Deutsch
+ * @author Wyett MacDonald
+ */
+class StructuralHasher extends Visitor {
+
+    private static final StructuralHasher INSTANCE = new StructuralHasher();
+
+    private static final long MULTIPLIER = 0x9E3779B97F4A7C15L;
+    private static final long NULL_HASH = 0x6A09E667F3BCC909L;
+
+    /**
+     * Compute the structural hash of a node from its own contents and the
+     * hashes of its children
+     *
+     * @param node the node
+     * @return its hash, never 0
+     */
+    static long hash(ASTNode node) {
+        long h = (Long) node.accept(INSTANCE);
+        return h == 0 ? 1 : h;
+    }
+
+    private static long start(NodeKind kind) {
+        return (kind.ordinal() + 1) * MULTIPLIER;
+    }
+
+    private static long add(long h, long value) {
+        return Long.rotateLeft(h ^ mix(value), 27) * MULTIPLIER + 0x52DCE729L;
+    }
+
+    private static long add(long h, ASTNode child) {
+        return add(h, child == null ? NULL_HASH : child.getStructuralHash());
+    }
+
+    private static long add(long h, String s) {
+        if (s == null) {
+            return add(h, NULL_HASH);
+        }
+        // 64-bit FNV-1a
+        long fnv = 0xCBF29CE484222325L;
+        for (int i = 0; i < s.length(); i++) {
+            fnv = (fnv ^ s.charAt(i)) * 0x100000001B3L;
+        }
+        return add(h, fnv);
+    }
+
+    private static long add(long h, boolean flag) {
+        return add(h, flag ? 1 : 2);
+    }
+
+    private static long addElements(long h, ListNode list) {
+        h = add(h, list.getSize());
+        for (int i = 0; i < list.getSize(); i++) {
+            h = add(h, list.get(i));
+        }
+        return h;
+    }
+
+    /**
+     * Final avalanche step of MurmurHash3
+     */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static Long done(long h) {
+        return mix(h);
+    }
+
+    public Object visit(Program node) {
+        long h = start(NodeKind.PROGRAM);
+        h = add(h, node.getClassList());
+        return done(h);
+    }
+
+    public Object visit(ClassList node) {
+        long h = start(NodeKind.CLASS_LIST);
+        h = addElements(h, node);
+        return done(h);
+    }
+
+    public Object visit(Class_ node) {
+        long h = start(NodeKind.CLASS);
+        h = add(h, node.getName());
+        h = add(h, node.getParent());
+        h = add(h, node.getMemberList());
+        return done(h);
+    }
+
+    public Object visit(MemberList node) {
+        long h = start(NodeKind.MEMBER_LIST);
+        h = addElements(h, node);
+        return done(h);
+    }
+
+    public Object visit(Field node) {
+        long h = start(NodeKind.FIELD);
+        h = add(h, node.getType());
+        h = add(h, node.getName());
+        h = add(h, node.getInit());
+        return done(h);
+    }
+
+    public Object visit(Method node) {
+        long h = start(NodeKind.METHOD);
+        h = add(h, node.getReturnType());
+        h = add(h, node.getName());
+        h = add(h, node.getFormalList());
+        h = add(h, node.getStmtList());
+        return done(h);
+    }
+
+    public Object visit(FormalList node) {
+        long h = start(NodeKind.FORMAL_LIST);
+        h = addElements(h, node);
+        return done(h);
+    }
+
+    public Object visit(Formal node) {
+        long h = start(NodeKind.FORMAL);
+        h = add(h, node.getType());
+        h = add(h, node.getName());
+        return done(h);
+    }
+
+    public Object visit(StmtList node) {
+        long h = start(NodeKind.STMT_LIST);
+        h = addElements(h, node);
+        return done(h);
+    }
+
+    public Object visit(DeclStmt node) {
+        long h = start(NodeKind.DECL_STMT);
+        h = add(h, node.getName());
+        h = add(h, node.getInit());
+        return done(h);
+    }
+
+    public Object visit(ExprStmt node) {
+        long h = start(NodeKind.EXPR_STMT);
+        h = add(h, node.getExpr());
+        return done(h);
+    }
+
+    public Object visit(IfStmt node) {
+        long h = start(NodeKind.IF_STMT);
+        h = add(h, node.getPredExpr());
+        h = add(h, node.getThenStmt());
+        h = add(h, node.getElseStmt());
+        return done(h);
+    }
+
+    public Object visit(WhileStmt node) {
+        long h = start(NodeKind.WHILE_STMT);
+        h = add(h, node.getPredExpr());
+        h = add(h, node.getBodyStmt());
+        return done(h);
+    }
+
+    public Object visit(ForStmt node) {
+        long h = start(NodeKind.FOR_STMT);
+        h = add(h, node.getInitExpr());
+        h = add(h, node.getPredExpr());
+        h = add(h, node.getUpdateExpr());
+        h = add(h, node.getBodyStmt());
+        return done(h);
+    }
+
+    public Object visit(BreakStmt node) {
+        long h = start(NodeKind.BREAK_STMT);
+        return done(h);
+    }
+
+    public Object visit(BlockStmt node) {
+        long h = start(NodeKind.BLOCK_STMT);
+        h = add(h, node.getStmtList());
+        return done(h);
+    }
+
+    public Object visit(ReturnStmt node) {
+        long h = start(NodeKind.RETURN_STMT);
+        h = add(h, node.getExpr());
+        return done(h);
+    }
+
+    public Object visit(ExprList node) {
+        long h = start(NodeKind.EXPR_LIST);
+        h = addElements(h, node);
+        return done(h);
+    }
+
+    public Object visit(DispatchExpr node) {
+        long h = start(NodeKind.DISPATCH_EXPR);
+        h = add(h, node.getRefExpr());
+        h = add(h, node.getMethodName());
+        h = add(h, node.getActualList());
+        return done(h);
+    }
+
+    public Object visit(NewExpr node) {
+        long h = start(NodeKind.NEW_EXPR);
+        h = add(h, node.getType());
+        return done(h);
+    }
+
+    public Object visit(NewArrayExpr node) {
+        long h = start(NodeKind.NEW_ARRAY_EXPR);
+        h = add(h, node.getType());
+        h = add(h, node.getSize());
+        return done(h);
+    }
+
+    public Object visit(InstanceofExpr node) {
+        long h = start(NodeKind.INSTANCEOF_EXPR);
+        h = add(h, node.getExpr());
+        h = add(h, node.getType());
+        return done(h);
+    }
+
+    public Object visit(CastExpr node) {
+        long h = start(NodeKind.CAST_EXPR);
+        h = add(h, node.getType());
+        h = add(h, node.getExpr());
+        return done(h);
+    }
+
+    public Object visit(AssignExpr node) {
+        long h = start(NodeKind.ASSIGN_EXPR);
+        h = add(h, node.getRefName());
+        h = add(h, node.getName());
+        h = add(h, node.getExpr());
+        return done(h);
+    }
+
+    public Object visit(ArrayAssignExpr node) {
+        long h = start(NodeKind.ARRAY_ASSIGN_EXPR);
+        h = add(h, node.getRefName());
+        h = add(h, node.getName());
+        h = add(h, node.getIndex());
+        h = add(h, node.getExpr());
+        return done(h);
+    }
+
+    public Object visit(BinaryCompEqExpr node) {
+        long h = start(NodeKind.BINARY_COMP_EQ_EXPR);
+        h = add(h, node.getLeftExpr());
+        h = add(h, node.getRightExpr());
+        return done(h);
+    }
+
+    public Object visit(BinaryCompNeExpr node) {
+        long h = start(NodeKind.BINARY_COMP_NE_EXPR);
+        h = add(h, node.getLeftExpr());
+        h = add(h, node.getRightExpr());
+        return done(h);
+    }
+
+    public Object visit(BinaryCompLtExpr node) {
+        long h = start(NodeKind.BINARY_COMP_LT_EXPR);
+        h = add(h, node.getLeftExpr());
+        h = add(h, node.getRightExpr());
+        return done(h);
+    }
+
+    public Object visit(BinaryCompLeqExpr node) {
+        long h = start(NodeKind.BINARY_COMP_LEQ_EXPR);
+        h = add(h, node.getLeftExpr());
+        h = add(h, node.getRightExpr());
+        return done(h);
+    }
+
+    public Object visit(BinaryCompGtExpr node) {
+        long h = start(NodeKind.BINARY_COMP_GT_EXPR);
+        h = add(h, node.getLeftExpr());
+        h = add(h, node.getRightExpr());
+        return done(h);
+    }
+
+    public Object visit(BinaryCompGeqExpr node) {
+        long h = start(NodeKind.BINARY_COMP_GEQ_EXPR);
+        h = add(h, node.getLeftExpr());
+        h = add(h, node.getRightExpr());
+        return done(h);
+    }
+
+    public Object visit(BinaryArithPlusExpr node) {
+        long h = start(NodeKind.BINARY_ARITH_PLUS_EXPR);
+        h = add(h, node.getLeftExpr());
+        h = add(h, node.getRightExpr());
+        return done(h);
+    }
+
+    public Object visit(BinaryArithMinusExpr node) {
+        long h = start(NodeKind.BINARY_ARITH_MINUS_EXPR);
+        h = add(h, node.getLeftExpr());
+        h = add(h, node.getRightExpr());
+        return done(h);
+    }
+
+    public Object visit(BinaryArithTimesExpr node) {
+        long h = start(NodeKind.BINARY_ARITH_TIMES_EXPR);
+        h = add(h, node.getLeftExpr());
+        h = add(h, node.getRightExpr());
+        return done(h);
+    }
+
+    public Object visit(BinaryArithDivideExpr node) {
+        long h = start(NodeKind.BINARY_ARITH_DIVIDE_EXPR);
+        h = add(h, node.getLeftExpr());
+        h = add(h, node.getRightExpr());
+        return done(h);
+    }
+
+    public Object visit(BinaryArithModulusExpr node) {
+        long h = start(NodeKind.BINARY_ARITH_MODULUS_EXPR);
+        h = add(h, node.getLeftExpr());
+        h = add(h, node.getRightExpr());
+        return done(h);
+    }
+
+    public Object visit(BinaryLogicAndExpr node) {
+        long h = start(NodeKind.BINARY_LOGIC_AND_EXPR);
+        h = add(h, node.getLeftExpr());
+        h = add(h, node.getRightExpr());
+        return done(h);
+    }
+
+    public Object visit(BinaryLogicOrExpr node) {
+        long h = start(NodeKind.BINARY_LOGIC_OR_EXPR);
+        h = add(h, node.getLeftExpr());
+        h = add(h, node.getRightExpr());
+        return done(h);
+    }
+
+    public Object visit(UnaryNegExpr node) {
+        long h = start(NodeKind.UNARY_NEG_EXPR);
+        h = add(h, node.getExpr());
+        return done(h);
+    }
+
+    public Object visit(UnaryNotExpr node) {
+        long h = start(NodeKind.UNARY_NOT_EXPR);
+        h = add(h, node.getExpr());
+        return done(h);
+    }
+
+    public Object visit(UnaryIncrExpr node) {
+        long h = start(NodeKind.UNARY_INCR_EXPR);
+        h = add(h, node.getExpr());
+        h = add(h, node.isPostfix());
+        return done(h);
+    }
+
+    public Object visit(UnaryDecrExpr node) {
+        long h = start(NodeKind.UNARY_DECR_EXPR);
+        h = add(h, node.getExpr());
+        h = add(h, node.isPostfix());
+        return done(h);
+    }
+
+    public Object visit(VarExpr node) {
+        long h = start(NodeKind.VAR_EXPR);
+        h = add(h, node.getRef());
+        h = add(h, node.getName());
+        return done(h);
+    }
+
+    public Object visit(ArrayExpr node) {
+        long h = start(NodeKind.ARRAY_EXPR);
+        h = add(h, node.getRef());
+        h = add(h, node.getName());
+        h = add(h, node.getIndex());
+        return done(h);
+    }
+
+    public Object visit(ConstIntExpr node) {
+        long h = start(NodeKind.CONST_INT_EXPR);
+        h = add(h, node.getConstant());
+        return done(h);
+    }
+
+    public Object visit(ConstBooleanExpr node) {
+        long h = start(NodeKind.CONST_BOOLEAN_EXPR);
+        h = add(h, node.getConstant());
+        return done(h);
+    }
+
+    public Object visit(ConstStringExpr node) {
+        long h = start(NodeKind.CONST_STRING_EXPR);
+        h = add(h, node.getConstant());
+        return done(h);
+    }
+}
@@ -51,10 +51,12 @@ public abstract class UnaryExpr extends Expr {
      * UnaryExpr constructor
      *
      * @param lineNum source line number corresponding to this AST node
+     * @param exprId  the id of the expression, unique within its program
+     * @param kind    the kind of the concrete node
      * @param expr    expression
      */
-    public UnaryExpr(int lineNum, Expr expr) {
-        super(lineNum);
+    public UnaryExpr(int lineNum, int exprId, NodeKind kind, Expr expr) {
+        super(lineNum, exprId, kind);
         this.expr = expr;
     }
 
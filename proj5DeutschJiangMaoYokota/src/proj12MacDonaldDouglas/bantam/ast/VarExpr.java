@@ -26,6 +26,10 @@
 
 package proj12MacDonaldDouglas.bantam.ast;
 
+import proj12MacDonaldDouglas.bantam.util.Symbol;
+import proj12MacDonaldDouglas.bantam.visitor.BooleanVisitor;
+import proj12MacDonaldDouglas.bantam.visitor.GenericVisitor;
+import proj12MacDonaldDouglas.bantam.visitor.IntVisitor;
 import proj12MacDonaldDouglas.bantam.visitor.Visitor;
 
 
@@ -50,20 +54,21 @@ public class VarExpr extends Expr {
     /**
      * The name of the variable (possibly 'this', 'super', or 'null')
      */
-    protected String name;
+    protected Symbol name;
 
     /**
      * VarExpr constructor
      *
      * @param lineNum source line number corresponding to this AST node
+     * @param exprId  the id of the expression, unique within its program
      * @param ref     the optional reference object expression
      *                (must be 'this' or 'super' for non-arrays)
      * @param name    the name of the variable
      */
-    public VarExpr(int lineNum, Expr ref, String name) {
-        super(lineNum);
+    public VarExpr(int lineNum, int exprId, Expr ref, String name) {
+        super(lineNum, exprId, NodeKind.VAR_EXPR);
         this.ref = ref;
-        this.name = name;
+        this.name = Symbol.intern(name);
     }
 
     /**
@@ -82,6 +87,15 @@ public class VarExpr extends Expr {
      * @return name
      */
     public String getName() {
+        return Symbol.nameOf(name);
+    }
+
+    /**
+     * Get the interned symbol for the name
+     *
+     * @return name symbol, or null if there is none
+     */
+    public Symbol getNameSymbol() {
         return name;
     }
 
@@ -95,4 +109,38 @@ public class VarExpr extends Expr {
     public Object accept(Visitor v) {
         return v.visit(this);
     }
+
+    /**
+     * Visitor method for visitors returning a typed result
+     *
+     * @param v bantam.visitor object
+     * @param <R> the result type
+     * @return result of visiting this node
+     * @see bantam.visitor.GenericVisitor
+     */
+    public <R> R accept(GenericVisitor<R> v) {
+        return v.visit(this);
+    }
+
+    /**
+     * Visitor method for visitors returning an int
+     *
+     * @param v bantam.visitor object
+     * @return result of visiting this node
+     * @see bantam.visitor.IntVisitor
+     */
+    public int accept(IntVisitor v) {
+        return v.visit(this);
+    }
+
+    /**
+     * Visitor method for visitors returning a boolean
+     *
+     * @param v bantam.visitor object
+     * @return result of visiting this node
+     * @see bantam.visitor.BooleanVisitor
+     */
+    public boolean accept(BooleanVisitor v) {
+        return v.visit(this);
+    }
 }
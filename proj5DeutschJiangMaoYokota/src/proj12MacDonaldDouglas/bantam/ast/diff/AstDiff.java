@@ -0,0 +1,394 @@
+/*
+ * File: bantam.ast.diff.AstDiff.java
+ * CS361 Project 11
+ * Names: Martin Deutsch and Wyett MacDonald
+ * Date: 2/13/2019
+ * This file contains the AstDiff, which computes what changed between two
+ * versions of a program
+ */
+
+package proj12MacDonaldDouglas.bantam.ast.diff;
+
+import proj12MacDonaldDouglas.bantam.ast.*;
+import proj12MacDonaldDouglas.bantam.parser.Parser;
+import proj12MacDonaldDouglas.bantam.util.CompilationException;
+import proj12MacDonaldDouglas.bantam.util.ErrorHandler;
+
+import java.util.*;
+
+/**
+ * AstDiff compares two versions of a program and produces an edit script
+ * of inserted, removed, changed and moved nodes.
+ * <p/>
+ * Classes are matched by name and members by kind and name.  Matched
+ * nodes with equal structural hashes are unchanged and are not looked
+ * into.  Inside a changed method with an unchanged signature, statement
+ * lists are aligned by structural hash: the common prefix and suffix are
+ * skipped, statements that only moved are matched through a hash table,
+ * and the remaining statements are paired up in order.  Of the statements
+ * matched by hash, the longest run that kept its order stays put and the
+ * others are reported as moved.  A paired block,
+ * or a loop or if statement whose header is unchanged, is diffed
+ * recursively; any other pair is reported as changed.  Each node is
+ * looked at a constant number of times, so the diff runs in roughly
+ * linear time, and much less when most of the program is unchanged.  A
+ * class or member whose hash changed always gets an edit, a CHANGED one
+ * if nothing finer was found, so every changed class is affected.
+ *
+ * @author Martin Deutsch
+ * @author Wyett MacDonald
+ */
+public class AstDiff {
+
+    private final List<AstEdit> edits = new ArrayList<>();
+
+    private AstDiff() {
+    }
+
+    /**
+     * Compute the edit script that turns one program into another
+     *
+     * @param oldProgram the earlier version
+     * @param newProgram the later version
+     * @return the diff
+     */
+    public static AstDiff compare(Program oldProgram, Program newProgram) {
+        AstDiff diff = new AstDiff();
+        if (oldProgram.getStructuralHash() != newProgram.getStructuralHash()) {
+            diff.diffClasses(oldProgram.getClassList(), newProgram.getClassList());
+        }
+        return diff;
+    }
+
+    /**
+     * Get the edit script
+     *
+     * @return the edits, in the order of the new program with removals
+     * where they were found
+     */
+    public List<AstEdit> getEdits() {
+        return Collections.unmodifiableList(edits);
+    }
+
+    /**
+     * Determine whether the two programs are structurally the same
+     *
+     * @return true if there are no edits
+     */
+    public boolean isEmpty() {
+        return edits.isEmpty();
+    }
+
+    /**
+     * Get the names of the classes that contain an edit, or were inserted
+     * or removed
+     *
+     * @return class names, in the order of the edits
+     */
+    public Set<String> getAffectedClasses() {
+        Set<String> classes = new LinkedHashSet<>();
+        for (AstEdit edit : edits) {
+            classes.add(edit.getClassName());
+        }
+        return classes;
+    }
+
+    private void diffClasses(ClassList oldClasses, ClassList newClasses) {
+        Map<String, ArrayDeque<Class_>> byName = new LinkedHashMap<>();
+        for (int i = 0; i < oldClasses.getSize(); i++) {
+            Class_ oldClass = (Class_) oldClasses.get(i);
+            byName.computeIfAbsent(oldClass.getName(), k -> new ArrayDeque<>()).add(oldClass);
+        }
+        for (int i = 0; i < newClasses.getSize(); i++) {
+            Class_ newClass = (Class_) newClasses.get(i);
+            ArrayDeque<Class_> candidates = byName.get(newClass.getName());
+            Class_ oldClass = candidates == null ? null : candidates.poll();
+            if (oldClass == null) {
+                add(AstEdit.Kind.INSERTED, newClass.getName(), "class " + newClass.getName(),
+                        null, newClass);
+            }
+            else if (oldClass.getStructuralHash() != newClass.getStructuralHash()) {
+                int before = edits.size();
+                diffClass(oldClass, newClass);
+                if (edits.size() == before) {
+                    add(AstEdit.Kind.CHANGED, newClass.getName(), "class " + newClass.getName(),
+                            oldClass, newClass);
+                }
+            }
+        }
+        for (ArrayDeque<Class_> unmatched : byName.values()) {
+            for (Class_ oldClass : unmatched) {
+                add(AstEdit.Kind.REMOVED, oldClass.getName(), "class " + oldClass.getName(),
+                        oldClass, null);
+            }
+        }
+    }
+
+    private void diffClass(Class_ oldClass, Class_ newClass) {
+        String className = newClass.getName();
+        if (!Objects.equals(oldClass.getParent(), newClass.getParent())) {
+            add(AstEdit.Kind.CHANGED, className, "class " + className, oldClass, newClass);
+        }
+
+        MemberList oldMembers = oldClass.getMemberList();
+        MemberList newMembers = newClass.getMemberList();
+        Map<String, ArrayDeque<Member>> byKey = new LinkedHashMap<>();
+        for (int i = 0; i < oldMembers.getSize(); i++) {
+            Member oldMember = (Member) oldMembers.get(i);
+            byKey.computeIfAbsent(memberKey(oldMember), k -> new ArrayDeque<>()).add(oldMember);
+        }
+        for (int i = 0; i < newMembers.getSize(); i++) {
+            Member newMember = (Member) newMembers.get(i);
+            String path = className + "." + memberName(newMember);
+            ArrayDeque<Member> candidates = byKey.get(memberKey(newMember));
+            Member oldMember = candidates == null ? null : candidates.poll();
+            if (oldMember == null) {
+                add(AstEdit.Kind.INSERTED, className, path, null, newMember);
+            }
+            else if (oldMember.getStructuralHash() != newMember.getStructuralHash()) {
+                int before = edits.size();
+                if (newMember instanceof Method && sameSignature((Method) oldMember,
+                        (Method) newMember)) {
+                    diffStmtLists(className, path, ((Method) oldMember).getStmtList(),
+                            ((Method) newMember).getStmtList());
+                }
+                if (edits.size() == before) {
+                    add(AstEdit.Kind.CHANGED, className, path, oldMember, newMember);
+                }
+            }
+        }
+        for (ArrayDeque<Member> unmatched : byKey.values()) {
+            for (Member oldMember : unmatched) {
+                add(AstEdit.Kind.REMOVED, className, className + "." + memberName(oldMember),
+                        oldMember, null);
+            }
+        }
+    }
+
+    private static String memberKey(Member member) {
+        return (member instanceof Method ? "method " : "field ") + memberName(member);
+    }
+
+    private static String memberName(Member member) {
+        return member instanceof Method ? ((Method) member).getName()
+                : ((Field) member).getName();
+    }
+
+    private static boolean sameSignature(Method oldMethod, Method newMethod) {
+        return Objects.equals(oldMethod.getReturnType(), newMethod.getReturnType())
+                && oldMethod.getFormalList().getStructuralHash()
+                == newMethod.getFormalList().getStructuralHash();
+    }
+
+    /**
+     * Align two statement lists by structural hash and report the
+     * differences
+     */
+    private void diffStmtLists(String className, String path, StmtList oldList,
+                               StmtList newList) {
+        int oldSize = oldList.getSize();
+        int newSize = newList.getSize();
+
+        // skip the unchanged prefix and suffix
+        int prefix = 0;
+        while (prefix < oldSize && prefix < newSize
+                && hash(oldList, prefix) == hash(newList, prefix)) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < oldSize - prefix && suffix < newSize - prefix
+                && hash(oldList, oldSize - 1 - suffix) == hash(newList, newSize - 1 - suffix)) {
+            suffix++;
+        }
+        int oldEnd = oldSize - suffix;
+        int newEnd = newSize - suffix;
+
+        // match statements that only moved
+        Map<Long, ArrayDeque<Integer>> oldByHash = new HashMap<>();
+        for (int i = prefix; i < oldEnd; i++) {
+            oldByHash.computeIfAbsent(hash(oldList, i), k -> new ArrayDeque<>()).add(i);
+        }
+        boolean[] oldMatched = new boolean[oldSize];
+        List<Integer> newUnmatched = new ArrayList<>();
+        int[] matchedOld = new int[newEnd - prefix];
+        int[] matchedNew = new int[newEnd - prefix];
+        int matches = 0;
+        for (int j = prefix; j < newEnd; j++) {
+            ArrayDeque<Integer> candidates = oldByHash.get(hash(newList, j));
+            Integer i = candidates == null ? null : candidates.poll();
+            if (i != null) {
+                oldMatched[i] = true;
+                matchedOld[matches] = i;
+                matchedNew[matches++] = j;
+            }
+            else {
+                newUnmatched.add(j);
+            }
+        }
+
+        // the matches out of the longest run in order moved
+        boolean[] inOrder = longestIncreasing(matchedOld, matches);
+        for (int k = 0; k < matches; k++) {
+            if (!inOrder[k]) {
+                int j = matchedNew[k];
+                add(AstEdit.Kind.MOVED, className, path + "[" + j + "]",
+                        oldList.get(matchedOld[k]), newList.get(j));
+            }
+        }
+        List<Integer> oldUnmatched = new ArrayList<>();
+        for (int i = prefix; i < oldEnd; i++) {
+            if (!oldMatched[i]) {
+                oldUnmatched.add(i);
+            }
+        }
+
+        // pair up what is left in order
+        int paired = Math.min(oldUnmatched.size(), newUnmatched.size());
+        for (int k = 0; k < paired; k++) {
+            int j = newUnmatched.get(k);
+            diffStmts(className, path + "[" + j + "]",
+                    (Stmt) oldList.get(oldUnmatched.get(k)), (Stmt) newList.get(j));
+        }
+        for (int k = paired; k < newUnmatched.size(); k++) {
+            int j = newUnmatched.get(k);
+            add(AstEdit.Kind.INSERTED, className, path + "[" + j + "]", null, newList.get(j));
+        }
+        for (int k = paired; k < oldUnmatched.size(); k++) {
+            int i = oldUnmatched.get(k);
+            add(AstEdit.Kind.REMOVED, className, path + "[" + i + "]", oldList.get(i), null);
+        }
+    }
+
+    /**
+     * Mark a longest increasing subsequence of the first count values,
+     * in O(n log n) time by patience sorting
+     *
+     * @return for each value, whether it is in the subsequence
+     */
+    private static boolean[] longestIncreasing(int[] values, int count) {
+        // tails[l] is the index of the smallest value ending a run of l + 1
+        int[] tails = new int[count];
+        int[] previous = new int[count];
+        int length = 0;
+        for (int k = 0; k < count; k++) {
+            int low = 0;
+            int high = length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (values[tails[mid]] < values[k]) {
+                    low = mid + 1;
+                }
+                else {
+                    high = mid;
+                }
+            }
+            previous[k] = low > 0 ? tails[low - 1] : -1;
+            tails[low] = k;
+            if (low == length) {
+                length++;
+            }
+        }
+        boolean[] in = new boolean[count];
+        for (int k = length > 0 ? tails[length - 1] : -1; k >= 0; k = previous[k]) {
+            in[k] = true;
+        }
+        return in;
+    }
+
+    /**
+     * Report the differences between two statements in the same place
+     */
+    private void diffStmts(String className, String path, Stmt oldStmt, Stmt newStmt) {
+        if (oldStmt == null && newStmt == null) {
+            return;
+        }
+        if (oldStmt == null) {
+            add(AstEdit.Kind.INSERTED, className, path, null, newStmt);
+            return;
+        }
+        if (newStmt == null) {
+            add(AstEdit.Kind.REMOVED, className, path, oldStmt, null);
+            return;
+        }
+        if (oldStmt.getStructuralHash() == newStmt.getStructuralHash()) {
+            return;
+        }
+
+        if (oldStmt instanceof BlockStmt && newStmt instanceof BlockStmt) {
+            diffStmtLists(className, path, ((BlockStmt) oldStmt).getStmtList(),
+                    ((BlockStmt) newStmt).getStmtList());
+        }
+        else if (oldStmt instanceof IfStmt && newStmt instanceof IfStmt
+                && sameExpr(((IfStmt) oldStmt).getPredExpr(), ((IfStmt) newStmt).getPredExpr())) {
+            IfStmt oldIf = (IfStmt) oldStmt;
+            IfStmt newIf = (IfStmt) newStmt;
+            diffStmts(className, path + ".then", oldIf.getThenStmt(), newIf.getThenStmt());
+            diffStmts(className, path + ".else", oldIf.getElseStmt(), newIf.getElseStmt());
+        }
+        else if (oldStmt instanceof WhileStmt && newStmt instanceof WhileStmt
+                && sameExpr(((WhileStmt) oldStmt).getPredExpr(),
+                ((WhileStmt) newStmt).getPredExpr())) {
+            diffStmts(className, path + ".body", ((WhileStmt) oldStmt).getBodyStmt(),
+                    ((WhileStmt) newStmt).getBodyStmt());
+        }
+        else if (oldStmt instanceof ForStmt && newStmt instanceof ForStmt
+                && sameForHeader((ForStmt) oldStmt, (ForStmt) newStmt)) {
+            diffStmts(className, path + ".body", ((ForStmt) oldStmt).getBodyStmt(),
+                    ((ForStmt) newStmt).getBodyStmt());
+        }
+        else {
+            add(AstEdit.Kind.CHANGED, className, path, oldStmt, newStmt);
+        }
+    }
+
+    private static boolean sameForHeader(ForStmt oldFor, ForStmt newFor) {
+        return sameExpr(oldFor.getInitExpr(), newFor.getInitExpr())
+                && sameExpr(oldFor.getPredExpr(), newFor.getPredExpr())
+                && sameExpr(oldFor.getUpdateExpr(), newFor.getUpdateExpr());
+    }
+
+    private static boolean sameExpr(Expr a, Expr b) {
+        if (a == null || b == null) {
+            return a == b;
+        }
+        return a.getStructuralHash() == b.getStructuralHash();
+    }
+
+    private static long hash(StmtList list, int index) {
+        return list.get(index).getStructuralHash();
+    }
+
+    private void add(AstEdit.Kind kind, String className, String path,
+                     ASTNode oldNode, ASTNode newNode) {
+        edits.add(new AstEdit(kind, className, path, oldNode, newNode));
+    }
+
+    public String toString() {
+        StringBuilder script = new StringBuilder();
+        for (AstEdit edit : edits) {
+            script.append(edit).append('\n');
+        }
+        return script.toString();
+    }
+
+    /**
+     * Main method parses two versions of a Bantam Java file and prints the
+     * edit script between them
+     *
+     * @param args the old and the new file
+     */
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.out.println("Please enter the old and the new file");
+            return;
+        }
+        try {
+            Program oldProgram = new Parser(new ErrorHandler()).parse(args[0]);
+            Program newProgram = new Parser(new ErrorHandler()).parse(args[1]);
+            AstDiff diff = compare(oldProgram, newProgram);
+            System.out.print(diff.isEmpty() ? "No structural changes\n" : diff.toString());
+        } catch (CompilationException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * File: bantam.ast.diff.AstEdit.java
+ * CS361 Project 11
+ * Names: Martin Deutsch and Wyett MacDonald
+ * Date: 2/13/2019
+ * This file contains the AstEdit, one step of the edit script between
+ * two versions of a program
+ */
+
+package proj12MacDonaldDouglas.bantam.ast.diff;
+
+import proj12MacDonaldDouglas.bantam.ast.ASTNode;
+
+/**
+ * AstEdit records that a node was inserted into, removed from, changed
+ * or moved between two versions of a program.  Inserted nodes have only a
+ * new node, removed nodes only an old node, and changed and moved nodes
+ * both.  A moved statement is the same in both versions but was put
+ * before or after other statements of its list, which matters since a
+ * declaration is in scope only after it.
+ *
+ * @author Martin Deutsch
+ * @author Wyett MacDonald
+ */
+public class AstEdit {
+
+    /**
+     * What happened to the node
+     */
+    public enum Kind { INSERTED, REMOVED, CHANGED, MOVED }
+
+    private final Kind kind;
+    private final String className;
+    private final String path;
+    private final ASTNode oldNode;
+    private final ASTNode newNode;
+
+    /**
+     * AstEdit constructor
+     *
+     * @param kind      what happened to the node
+     * @param className the name of the class the node is in
+     * @param path      a readable location, such as "C.m statement 3"
+     * @param oldNode   the node in the old program, or null if inserted
+     * @param newNode   the node in the new program, or null if removed
+     */
+    AstEdit(Kind kind, String className, String path, ASTNode oldNode, ASTNode newNode) {
+        this.kind = kind;
+        this.className = className;
+        this.path = path;
+        this.oldNode = oldNode;
+        this.newNode = newNode;
+    }
+
+    /**
+     * Get what happened to the node
+     *
+     * @return edit kind
+     */
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Get the name of the class the edited node is in (the class itself
+     * for class edits)
+     *
+     * @return class name
+     */
+    public String getClassName() {
+        return className;
+    }
+
+    /**
+     * Get a readable location of the node
+     *
+     * @return path such as "C.m statement 3"
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Get the node in the old program
+     *
+     * @return old node, or null if the node was inserted
+     */
+    public ASTNode getOldNode() {
+        return oldNode;
+    }
+
+    /**
+     * Get the node in the new program
+     *
+     * @return new node, or null if the node was removed
+     */
+    public ASTNode getNewNode() {
+        return newNode;
+    }
+
+    public String toString() {
+        ASTNode node = newNode != null ? newNode : oldNode;
+        return kind + " " + path + " (" + node.getClass().getSimpleName()
+                + ", line " + node.getLineNum() + ")";
+    }
+}
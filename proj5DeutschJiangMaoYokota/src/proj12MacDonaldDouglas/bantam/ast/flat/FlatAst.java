@@ -0,0 +1,286 @@
+/*
+ * File: bantam.ast.flat.FlatAst.java
+ * CS361 Project 11
+ * Names: Martin Deutsch and Wyett MacDonald
+ * Date: 2/13/2019
+ * This file contains the FlatAst, a compact representation of a Bantam
+ * AST as parallel int arrays
+ */
+
+package proj12MacDonaldDouglas.bantam.ast.flat;
+
+import proj12MacDonaldDouglas.bantam.ast.*;
+import proj12MacDonaldDouglas.bantam.visitor.Visitor;
+
+/**
+ * FlatAst stores an AST as a table of nodes identified by int ids.
+ * For each node it keeps, in parallel arrays, its kind, its first child,
+ * its next sibling, its source line, its source span and the index of its
+ * payload.
+ * The payload of a node is a short run of ints in a shared data array
+ * holding indices into a string pool (names, types and constants) and
+ * flags (which optional children are present, postfix operators).
+ * Nodes are numbered in preorder, so the root is node 0 and the children
+ * of a node always follow it.
+ * <p/>
+ * Children are stored in the same order the <tt>Visitor</tt> visits them;
+ * optional children that are null are simply left out and recorded in
+ * the payload flags.  Only the syntax is kept, which is all a node
+ * holds: the results of semantic analysis live in its side tables.
+ *
+ * @author Martin Deutsch
+ * @author Wyett MacDonald
+ */
+public class FlatAst {
+
+    /**
+     * Value of firstChild, nextSibling and payload meaning "none",
+     * and of a string index meaning null
+     */
+    public static final int NONE = -1;
+
+    private static final NodeKind[] KINDS = NodeKind.values();
+
+    private final int[] kind;
+    private final int[] firstChild;
+    private final int[] nextSibling;
+    private final int[] line;
+    private final int[] start;
+    private final int[] end;
+    private final int[] payload;
+    private final int[] data;
+    private final String[] strings;
+
+    /**
+     * FlatAst constructor; the arrays are used directly, not copied
+     *
+     * @param kind        the NodeKind ordinal of each node
+     * @param firstChild  the first child of each node, or NONE
+     * @param nextSibling the next sibling of each node, or NONE
+     * @param line        the source line of each node
+     * @param start       the start offset of each node's span, or -1
+     * @param end         the end offset of each node's span, or -1
+     * @param payload     the index in data of each node's payload, or NONE
+     * @param data        the payload ints of all the nodes
+     * @param strings     the string pool
+     */
+    public FlatAst(int[] kind, int[] firstChild, int[] nextSibling, int[] line,
+                   int[] start, int[] end, int[] payload, int[] data, String[] strings) {
+        this.kind = kind;
+        this.firstChild = firstChild;
+        this.nextSibling = nextSibling;
+        this.line = line;
+        this.start = start;
+        this.end = end;
+        this.payload = payload;
+        this.data = data;
+        this.strings = strings;
+    }
+
+    /**
+     * Build the flat representation of the given AST
+     *
+     * @param program the root of an object AST
+     * @return the flat AST
+     */
+    public static FlatAst of(Program program) {
+        return new FlatAstBuilder().build(program);
+    }
+
+    /**
+     * Get the number of nodes
+     *
+     * @return node count
+     */
+    public int size() {
+        return kind.length;
+    }
+
+    /**
+     * Get the kind of a node
+     *
+     * @param node the node id
+     * @return the node kind
+     */
+    public NodeKind getKind(int node) {
+        return KINDS[kind[node]];
+    }
+
+    /**
+     * Get the first child of a node
+     *
+     * @param node the node id
+     * @return the id of the first child, or NONE
+     */
+    public int getFirstChild(int node) {
+        return firstChild[node];
+    }
+
+    /**
+     * Get the next sibling of a node
+     *
+     * @param node the node id
+     * @return the id of the next sibling, or NONE
+     */
+    public int getNextSibling(int node) {
+        return nextSibling[node];
+    }
+
+    /**
+     * Get the source line of a node
+     *
+     * @param node the node id
+     * @return line number
+     */
+    public int getLineNum(int node) {
+        return line[node];
+    }
+
+    /**
+     * Get the offset of the first source character of a node
+     *
+     * @param node the node id
+     * @return start offset, or -1 if the node has no span
+     */
+    public int getStartOffset(int node) {
+        return start[node];
+    }
+
+    /**
+     * Get the offset just past the last source character of a node
+     *
+     * @param node the node id
+     * @return end offset, or -1 if the node has no span
+     */
+    public int getEndOffset(int node) {
+        return end[node];
+    }
+
+    /**
+     * Get an int of a node's payload
+     *
+     * @param node  the node id
+     * @param index the position within the payload
+     * @return the payload int
+     */
+    public int getPayload(int node, int index) {
+        return data[payload[node] + index];
+    }
+
+    /**
+     * Get a string of a node's payload
+     *
+     * @param node  the node id
+     * @param index the position within the payload
+     * @return the string, which may be null
+     */
+    public String getString(int node, int index) {
+        int s = getPayload(node, index);
+        return s == NONE ? null : strings[s];
+    }
+
+    /**
+     * Get the number of payload ints stored for nodes of the given kind
+     *
+     * @param nodeKind the node kind
+     * @return the payload length
+     */
+    public static int payloadLength(NodeKind nodeKind) {
+        switch (nodeKind) {
+            case CLASS:
+            case FIELD:
+            case FOR_STMT:
+                return 3;
+            case METHOD:
+            case FORMAL:
+            case DISPATCH_EXPR:
+            case ASSIGN_EXPR:
+            case ARRAY_ASSIGN_EXPR:
+            case VAR_EXPR:
+            case ARRAY_EXPR:
+                return 2;
+            case DECL_STMT:
+            case IF_STMT:
+            case RETURN_STMT:
+            case NEW_EXPR:
+            case NEW_ARRAY_EXPR:
+            case INSTANCEOF_EXPR:
+            case CAST_EXPR:
+            case UNARY_INCR_EXPR:
+            case UNARY_DECR_EXPR:
+            case CONST_INT_EXPR:
+            case CONST_BOOLEAN_EXPR:
+            case CONST_STRING_EXPR:
+                return 1;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Get the string pool
+     *
+     * @return the pooled strings, indexed by the string payload ints
+     */
+    String[] getStrings() {
+        return strings;
+    }
+
+    /**
+     * Get the length of the shared payload array
+     *
+     * @return the number of payload ints of all the nodes
+     */
+    int getDataLength() {
+        return data.length;
+    }
+
+    /**
+     * Rebuild the object AST represented by this table
+     *
+     * @return the root Program node
+     */
+    public Program toProgram() {
+        return new FlatAstDecoder(this).decode();
+    }
+
+    /**
+     * Visitor adapter: runs an existing visitor over this AST by handing
+     * it a transient object view of the tree.  The view decodes each class
+     * only when the visitor gets it from the class list and does not keep
+     * it, so at most the classes the visitor still holds are in memory at
+     * once instead of the whole object tree.  Visiting every class still
+     * costs as much as a full decode, and a class fetched twice is decoded
+     * twice, as a new set of nodes.
+     *
+     * @param v bantam.visitor object
+     * @return result of visiting the root
+     */
+    public Object accept(Visitor v) {
+        return new FlatAstDecoder(this).decodeLazily().accept(v);
+    }
+
+    /**
+     * Estimate the heap size of this representation, assuming 16-byte
+     * array headers and compressed references
+     *
+     * @return estimated size in bytes, including the pooled strings
+     */
+    public long estimatedBytes() {
+        long bytes = 7 * intArrayBytes(kind.length) + intArrayBytes(data.length)
+                + align(16 + 4L * strings.length);
+        for (String s : strings) {
+            // String object plus its backing array
+            bytes += 24 + align(16 + 2L * s.length());
+        }
+        return bytes;
+    }
+
+    private static long intArrayBytes(int length) {
+        return align(16 + 4L * length);
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+}
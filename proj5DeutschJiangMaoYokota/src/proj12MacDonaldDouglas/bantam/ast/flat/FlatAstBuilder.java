@@ -0,0 +1,451 @@
+/*
+ * File: bantam.ast.flat.FlatAstBuilder.java
+ * CS361 Project 11
+ * Names: Martin Deutsch and Wyett MacDonald
+ * Date: 2/13/2019
+ * This file extends Visitor to convert an object AST into a FlatAst
+ */
+
+package proj12MacDonaldDouglas.bantam.ast.flat;
+
+import proj12MacDonaldDouglas.bantam.ast.*;
+import proj12MacDonaldDouglas.bantam.visitor.Visitor;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static proj12MacDonaldDouglas.bantam.ast.flat.FlatAst.NONE;
+
+/**
+ * FlatAstBuilder walks an object AST in preorder, appending one row to
+ * the node table per node and pooling every distinct string once.
+ *
+ * @author Martin Deutsch
+ * @author Wyett MacDonald
+ */
+class FlatAstBuilder extends Visitor {
+
+    private int[] kind = new int[256];
+    private int[] firstChild = new int[256];
+    private int[] nextSibling = new int[256];
+    private int[] line = new int[256];
+    private int[] start = new int[256];
+    private int[] end = new int[256];
+    private int[] payload = new int[256];
+    private int size;
+
+    private int[] data = new int[256];
+    private int dataSize;
+
+    private final Map<String, Integer> stringIds = new HashMap<>();
+    private String[] strings = new String[64];
+
+    // the open ancestors of the node being built, and the last child
+    // appended to each of them so far
+    private int[] parents = new int[64];
+    private int[] lastChildren = new int[64];
+    private int depth;
+
+    /**
+     * Build the flat representation of the given AST
+     *
+     * @param program the root of an object AST
+     * @return the flat AST
+     */
+    FlatAst build(Program program) {
+        program.accept(this);
+        return new FlatAst(Arrays.copyOf(kind, size), Arrays.copyOf(firstChild, size),
+                Arrays.copyOf(nextSibling, size), Arrays.copyOf(line, size),
+                Arrays.copyOf(start, size), Arrays.copyOf(end, size),
+                Arrays.copyOf(payload, size), Arrays.copyOf(data, dataSize),
+                Arrays.copyOf(strings, stringIds.size()));
+    }
+
+    /**
+     * Append a node to the table and link it to its parent
+     *
+     * @param nodeKind the kind of the node
+     * @param node     the object node
+     * @param values   the payload ints of the node
+     * @return the id of the new node
+     */
+    private int add(NodeKind nodeKind, ASTNode node, int... values) {
+        if (size == kind.length) {
+            int capacity = size * 2;
+            kind = Arrays.copyOf(kind, capacity);
+            firstChild = Arrays.copyOf(firstChild, capacity);
+            nextSibling = Arrays.copyOf(nextSibling, capacity);
+            line = Arrays.copyOf(line, capacity);
+            start = Arrays.copyOf(start, capacity);
+            end = Arrays.copyOf(end, capacity);
+            payload = Arrays.copyOf(payload, capacity);
+        }
+        int id = size++;
+        kind[id] = nodeKind.ordinal();
+        firstChild[id] = NONE;
+        nextSibling[id] = NONE;
+        line[id] = node.getLineNum();
+        start[id] = node.getStartOffset();
+        end[id] = node.getEndOffset();
+        payload[id] = values.length == 0 ? NONE : addData(values);
+
+        if (depth > 0) {
+            int last = lastChildren[depth - 1];
+            if (last == NONE) {
+                firstChild[parents[depth - 1]] = id;
+            }
+            else {
+                nextSibling[last] = id;
+            }
+            lastChildren[depth - 1] = id;
+        }
+        return id;
+    }
+
+    /**
+     * Append a node and then its non-null children
+     *
+     * @param nodeKind the kind of the node
+     * @param node     the object node
+     * @param children the children, in visiting order; nulls are skipped
+     * @param values   the payload ints of the node
+     */
+    private void addWithChildren(NodeKind nodeKind, ASTNode node, ASTNode[] children,
+                                 int... values) {
+        int id = add(nodeKind, node, values);
+        open(id);
+        for (ASTNode child : children) {
+            if (child != null) {
+                child.accept(this);
+            }
+        }
+        depth--;
+    }
+
+    /**
+     * Append a list node and then its elements
+     */
+    private void addList(NodeKind nodeKind, ListNode node) {
+        int id = add(nodeKind, node);
+        open(id);
+        for (int i = 0; i < node.getSize(); i++) {
+            node.get(i).accept(this);
+        }
+        depth--;
+    }
+
+    private void open(int id) {
+        if (depth == parents.length) {
+            parents = Arrays.copyOf(parents, depth * 2);
+            lastChildren = Arrays.copyOf(lastChildren, depth * 2);
+        }
+        parents[depth] = id;
+        lastChildren[depth] = NONE;
+        depth++;
+    }
+
+    private int addData(int[] values) {
+        if (dataSize + values.length > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, dataSize + values.length));
+        }
+        int start = dataSize;
+        System.arraycopy(values, 0, data, dataSize, values.length);
+        dataSize += values.length;
+        return start;
+    }
+
+    /**
+     * Get the pool index of a string, adding it to the pool if needed
+     *
+     * @param s the string, possibly null
+     * @return the pool index, or NONE for null
+     */
+    private int str(String s) {
+        if (s == null) {
+            return NONE;
+        }
+        Integer id = stringIds.get(s);
+        if (id == null) {
+            id = stringIds.size();
+            if (id == strings.length) {
+                strings = Arrays.copyOf(strings, id * 2);
+            }
+            strings[id] = s;
+            stringIds.put(s, id);
+        }
+        return id;
+    }
+
+    private static int flag(boolean b) {
+        return b ? 1 : 0;
+    }
+
+    private static ASTNode[] children(ASTNode... children) {
+        return children;
+    }
+
+    public Object visit(Program node) {
+        addWithChildren(NodeKind.PROGRAM, node, children(node.getClassList()));
+        return null;
+    }
+
+    public Object visit(ClassList node) {
+        addList(NodeKind.CLASS_LIST, node);
+        return null;
+    }
+
+    public Object visit(Class_ node) {
+        addWithChildren(NodeKind.CLASS, node, children(node.getMemberList()),
+                str(node.getFilename()), str(node.getName()), str(node.getParent()));
+        return null;
+    }
+
+    public Object visit(MemberList node) {
+        addList(NodeKind.MEMBER_LIST, node);
+        return null;
+    }
+
+    public Object visit(Field node) {
+        addWithChildren(NodeKind.FIELD, node, children(node.getInit()),
+                str(node.getType()), str(node.getName()), flag(node.getInit() != null));
+        return null;
+    }
+
+    public Object visit(Method node) {
+        addWithChildren(NodeKind.METHOD, node,
+                children(node.getFormalList(), node.getStmtList()),
+                str(node.getReturnType()), str(node.getName()));
+        return null;
+    }
+
+    public Object visit(FormalList node) {
+        addList(NodeKind.FORMAL_LIST, node);
+        return null;
+    }
+
+    public Object visit(Formal node) {
+        add(NodeKind.FORMAL, node, str(node.getType()), str(node.getName()));
+        return null;
+    }
+
+    public Object visit(StmtList node) {
+        addList(NodeKind.STMT_LIST, node);
+        return null;
+    }
+
+    public Object visit(DeclStmt node) {
+        addWithChildren(NodeKind.DECL_STMT, node, children(node.getInit()),
+                str(node.getName()));
+        return null;
+    }
+
+    public Object visit(ExprStmt node) {
+        addWithChildren(NodeKind.EXPR_STMT, node, children(node.getExpr()));
+        return null;
+    }
+
+    public Object visit(IfStmt node) {
+        addWithChildren(NodeKind.IF_STMT, node,
+                children(node.getPredExpr(), node.getThenStmt(), node.getElseStmt()),
+                flag(node.getElseStmt() != null));
+        return null;
+    }
+
+    public Object visit(WhileStmt node) {
+        addWithChildren(NodeKind.WHILE_STMT, node,
+                children(node.getPredExpr(), node.getBodyStmt()));
+        return null;
+    }
+
+    public Object visit(ForStmt node) {
+        addWithChildren(NodeKind.FOR_STMT, node,
+                children(node.getInitExpr(), node.getPredExpr(), node.getUpdateExpr(),
+                        node.getBodyStmt()),
+                flag(node.getInitExpr() != null), flag(node.getPredExpr() != null),
+                flag(node.getUpdateExpr() != null));
+        return null;
+    }
+
+    public Object visit(BreakStmt node) {
+        add(NodeKind.BREAK_STMT, node);
+        return null;
+    }
+
+    public Object visit(BlockStmt node) {
+        addWithChildren(NodeKind.BLOCK_STMT, node, children(node.getStmtList()));
+        return null;
+    }
+
+    public Object visit(ReturnStmt node) {
+        addWithChildren(NodeKind.RETURN_STMT, node, children(node.getExpr()),
+                flag(node.getExpr() != null));
+        return null;
+    }
+
+    public Object visit(ExprList node) {
+        addList(NodeKind.EXPR_LIST, node);
+        return null;
+    }
+
+    public Object visit(DispatchExpr node) {
+        addWithChildren(NodeKind.DISPATCH_EXPR, node,
+                children(node.getRefExpr(), node.getActualList()),
+                str(node.getMethodName()), flag(node.getRefExpr() != null));
+        return null;
+    }
+
+    public Object visit(NewExpr node) {
+        add(NodeKind.NEW_EXPR, node, str(node.getType()));
+        return null;
+    }
+
+    public Object visit(NewArrayExpr node) {
+        addWithChildren(NodeKind.NEW_ARRAY_EXPR, node, children(node.getSize()),
+                str(node.getType()));
+        return null;
+    }
+
+    public Object visit(InstanceofExpr node) {
+        addWithChildren(NodeKind.INSTANCEOF_EXPR, node, children(node.getExpr()),
+                str(node.getType()));
+        return null;
+    }
+
+    public Object visit(CastExpr node) {
+        addWithChildren(NodeKind.CAST_EXPR, node, children(node.getExpr()),
+                str(node.getType()));
+        return null;
+    }
+
+    public Object visit(AssignExpr node) {
+        addWithChildren(NodeKind.ASSIGN_EXPR, node, children(node.getExpr()),
+                str(node.getRefName()), str(node.getName()));
+        return null;
+    }
+
+    public Object visit(ArrayAssignExpr node) {
+        addWithChildren(NodeKind.ARRAY_ASSIGN_EXPR, node,
+                children(node.getIndex(), node.getExpr()),
+                str(node.getRefName()), str(node.getName()));
+        return null;
+    }
+
+    private void binary(NodeKind nodeKind, BinaryExpr node) {
+        addWithChildren(nodeKind, node, children(node.getLeftExpr(), node.getRightExpr()));
+    }
+
+    public Object visit(BinaryCompEqExpr node) {
+        binary(NodeKind.BINARY_COMP_EQ_EXPR, node);
+        return null;
+    }
+
+    public Object visit(BinaryCompNeExpr node) {
+        binary(NodeKind.BINARY_COMP_NE_EXPR, node);
+        return null;
+    }
+
+    public Object visit(BinaryCompLtExpr node) {
+        binary(NodeKind.BINARY_COMP_LT_EXPR, node);
+        return null;
+    }
+
+    public Object visit(BinaryCompLeqExpr node) {
+        binary(NodeKind.BINARY_COMP_LEQ_EXPR, node);
+        return null;
+    }
+
+    public Object visit(BinaryCompGtExpr node) {
+        binary(NodeKind.BINARY_COMP_GT_EXPR, node);
+        return null;
+    }
+
+    public Object visit(BinaryCompGeqExpr node) {
+        binary(NodeKind.BINARY_COMP_GEQ_EXPR, node);
+        return null;
+    }
+
+    public Object visit(BinaryArithPlusExpr node) {
+        binary(NodeKind.BINARY_ARITH_PLUS_EXPR, node);
+        return null;
+    }
+
+    public Object visit(BinaryArithMinusExpr node) {
+        binary(NodeKind.BINARY_ARITH_MINUS_EXPR, node);
+        return null;
+    }
+
+    public Object visit(BinaryArithTimesExpr node) {
+        binary(NodeKind.BINARY_ARITH_TIMES_EXPR, node);
+        return null;
+    }
+
+    public Object visit(BinaryArithDivideExpr node) {
+        binary(NodeKind.BINARY_ARITH_DIVIDE_EXPR, node);
+        return null;
+    }
+
+    public Object visit(BinaryArithModulusExpr node) {
+        binary(NodeKind.BINARY_ARITH_MODULUS_EXPR, node);
+        return null;
+    }
+
+    public Object visit(BinaryLogicAndExpr node) {
+        binary(NodeKind.BINARY_LOGIC_AND_EXPR, node);
+        return null;
+    }
+
+    public Object visit(BinaryLogicOrExpr node) {
+        binary(NodeKind.BINARY_LOGIC_OR_EXPR, node);
+        return null;
+    }
+
+    public Object visit(UnaryNegExpr node) {
+        addWithChildren(NodeKind.UNARY_NEG_EXPR, node, children(node.getExpr()));
+        return null;
+    }
+
+    public Object visit(UnaryNotExpr node) {
+        addWithChildren(NodeKind.UNARY_NOT_EXPR, node, children(node.getExpr()));
+        return null;
+    }
+
+    public Object visit(UnaryIncrExpr node) {
+        addWithChildren(NodeKind.UNARY_INCR_EXPR, node, children(node.getExpr()),
+                flag(node.isPostfix()));
+        return null;
+    }
+
+    public Object visit(UnaryDecrExpr node) {
+        addWithChildren(NodeKind.UNARY_DECR_EXPR, node, children(node.getExpr()),
+                flag(node.isPostfix()));
+        return null;
+    }
+
+    public Object visit(VarExpr node) {
+        addWithChildren(NodeKind.VAR_EXPR, node, children(node.getRef()),
+                str(node.getName()), flag(node.getRef() != null));
+        return null;
+    }
+
+    public Object visit(ArrayExpr node) {
+        addWithChildren(NodeKind.ARRAY_EXPR, node, children(node.getRef(), node.getIndex()),
+                str(node.getName()), flag(node.getRef() != null));
+        return null;
+    }
+
+    public Object visit(ConstIntExpr node) {
+        add(NodeKind.CONST_INT_EXPR, node, str(node.getConstant()));
+        return null;
+    }
+
+    public Object visit(ConstBooleanExpr node) {
+        add(NodeKind.CONST_BOOLEAN_EXPR, node, str(node.getConstant()));
+        return null;
+    }
+
+    public Object visit(ConstStringExpr node) {
+        add(NodeKind.CONST_STRING_EXPR, node, str(node.getConstant()));
+        return null;
+    }
+}
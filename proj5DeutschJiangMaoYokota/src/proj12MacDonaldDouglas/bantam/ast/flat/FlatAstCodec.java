@@ -0,0 +1,344 @@
+/*
+ * File: bantam.ast.flat.FlatAstCodec.java
+ * CS361 Project 11
+ * Names: Martin Deutsch and Wyett MacDonald
+ * Date: 2/13/2019
+ * This file contains the FlatAstCodec, which saves and loads ASTs in a
+ * compact binary format
+ */
+
+package proj12MacDonaldDouglas.bantam.ast.flat;
+
+import proj12MacDonaldDouglas.bantam.ast.NodeKind;
+import proj12MacDonaldDouglas.bantam.ast.Program;
+import proj12MacDonaldDouglas.bantam.parser.Parser;
+import proj12MacDonaldDouglas.bantam.util.CompilationException;
+import proj12MacDonaldDouglas.bantam.util.ErrorHandler;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import static proj12MacDonaldDouglas.bantam.ast.flat.FlatAst.NONE;
+
+/**
+ * FlatAstCodec converts a FlatAst to and from bytes.  The format is:
+ * <ul>
+ * <li> a header: the magic bytes "BAST" and a format version,
+ * <li> a string table: the number of strings, then each string as its
+ * UTF-8 length followed by its bytes,
+ * <li> the node count and payload length, then one record per node in
+ * preorder: its kind, its number of children, its line (as the change
+ * from the previous node's line), its span (the change of its start
+ * offset from the previous node's, and its length) and its payload.
+ * A node without a span has start and end -1.
+ * </ul>
+ * All counts and values after the header are variable-length ints, with
+ * payload ints zigzag-encoded so that NONE stays a single byte.  Loading
+ * reads the whole file at once and decodes it in a single linear pass,
+ * relinking children with a stack of open parents.
+ * <p/>
+ * The file is a cache and may be cut short or damaged, so every read is
+ * bounds-checked: counts and lengths must fit in what is left of the
+ * file, kinds must be known, the payloads must add up to the declared
+ * data length, and the tree must close exactly at the last node, whose
+ * root is a program.  Any failure throws a CompilationException rather
+ * than an index error.
+ *
+ * @author Martin Deutsch
+ * @author Wyett MacDonald
+ */
+public class FlatAstCodec {
+
+    private static final byte[] MAGIC = {'B', 'A', 'S', 'T'};
+
+    /**
+     * The format version; bump it whenever the layout or NodeKind changes
+     */
+    public static final int VERSION = 2;
+
+    private static final NodeKind[] KINDS = NodeKind.values();
+
+    private static final String CORRUPT = "Corrupt Bantam AST file";
+
+    private byte[] buffer;
+    private int position;
+
+    private FlatAstCodec(byte[] buffer) {
+        this.buffer = buffer;
+    }
+
+    /**
+     * Encode an AST
+     *
+     * @param ast the flat AST
+     * @return the encoded bytes
+     */
+    public static byte[] encode(FlatAst ast) {
+        FlatAstCodec out = new FlatAstCodec(new byte[Math.max(64, ast.size() * 4)]);
+        out.writeBytes(MAGIC);
+        out.writeInt(VERSION);
+
+        String[] strings = ast.getStrings();
+        out.writeInt(strings.length);
+        for (String s : strings) {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.writeBytes(bytes);
+        }
+
+        out.writeInt(ast.size());
+        out.writeInt(ast.getDataLength());
+        int previousLine = 0;
+        int previousStart = 0;
+        for (int node = 0; node < ast.size(); node++) {
+            NodeKind kind = ast.getKind(node);
+            int children = 0;
+            for (int c = ast.getFirstChild(node); c != NONE; c = ast.getNextSibling(c)) {
+                children++;
+            }
+            out.writeInt(kind.ordinal());
+            out.writeInt(children);
+            out.writeSignedInt(ast.getLineNum(node) - previousLine);
+            previousLine = ast.getLineNum(node);
+            out.writeSignedInt(ast.getStartOffset(node) - previousStart);
+            out.writeSignedInt(ast.getEndOffset(node) - ast.getStartOffset(node));
+            previousStart = ast.getStartOffset(node);
+            for (int i = 0; i < FlatAst.payloadLength(kind); i++) {
+                out.writeSignedInt(ast.getPayload(node, i));
+            }
+        }
+        return Arrays.copyOf(out.buffer, out.position);
+    }
+
+    /**
+     * Decode an AST
+     *
+     * @param bytes bytes produced by encode
+     * @return the flat AST
+     * @throws CompilationException if the bytes are not in this format version
+     *                              or are cut short or corrupt
+     */
+    public static FlatAst decode(byte[] bytes) {
+        FlatAstCodec in = new FlatAstCodec(bytes);
+        for (byte b : MAGIC) {
+            if (in.position >= bytes.length || bytes[in.position++] != b) {
+                throw new CompilationException("Not a Bantam AST file");
+            }
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new CompilationException("Unsupported Bantam AST file version " + version);
+        }
+
+        // each string takes at least a byte for its length
+        String[] strings = new String[in.readCount(1)];
+        for (int i = 0; i < strings.length; i++) {
+            int length = in.readCount(1);
+            strings[i] = new String(bytes, in.position, length, StandardCharsets.UTF_8);
+            in.position += length;
+        }
+
+        // each node takes at least a byte for each of its five fields, and
+        // each payload int a byte
+        int size = in.readCount(5);
+        if (size == 0) {
+            throw new CompilationException(CORRUPT);
+        }
+        int[] kind = new int[size];
+        int[] firstChild = new int[size];
+        int[] nextSibling = new int[size];
+        int[] line = new int[size];
+        int[] start = new int[size];
+        int[] end = new int[size];
+        int[] payload = new int[size];
+        int[] data = new int[in.readCount(1)];
+        int dataSize = 0;
+
+        // open parents, how many children each still expects, and the
+        // last child linked to each
+        int[] parents = new int[64];
+        int[] remaining = new int[64];
+        int[] lastChildren = new int[64];
+        int depth = 0;
+        int previousLine = 0;
+        int previousStart = 0;
+
+        for (int node = 0; node < size; node++) {
+            if (node > 0 && depth == 0) {
+                // the tree closed before the last node
+                throw new CompilationException(CORRUPT);
+            }
+            int k = in.readInt();
+            if (k < 0 || k >= KINDS.length || (node == 0) != (KINDS[k] == NodeKind.PROGRAM)) {
+                throw new CompilationException(CORRUPT);
+            }
+            int children = in.readCount(1);
+            kind[node] = k;
+            previousLine += in.readSignedInt();
+            line[node] = previousLine;
+            previousStart += in.readSignedInt();
+            start[node] = previousStart;
+            end[node] = previousStart + in.readSignedInt();
+            firstChild[node] = NONE;
+            nextSibling[node] = NONE;
+            int length = FlatAst.payloadLength(KINDS[k]);
+            if (length > data.length - dataSize) {
+                throw new CompilationException(CORRUPT);
+            }
+            payload[node] = length == 0 ? NONE : dataSize;
+            for (int i = 0; i < length; i++) {
+                data[dataSize++] = in.readSignedInt();
+            }
+
+            if (depth > 0) {
+                int top = depth - 1;
+                if (lastChildren[top] == NONE) {
+                    firstChild[parents[top]] = node;
+                }
+                else {
+                    nextSibling[lastChildren[top]] = node;
+                }
+                lastChildren[top] = node;
+                remaining[top]--;
+            }
+            if (children > 0) {
+                if (depth == parents.length) {
+                    parents = Arrays.copyOf(parents, depth * 2);
+                    remaining = Arrays.copyOf(remaining, depth * 2);
+                    lastChildren = Arrays.copyOf(lastChildren, depth * 2);
+                }
+                parents[depth] = node;
+                remaining[depth] = children;
+                lastChildren[depth] = NONE;
+                depth++;
+            }
+            else {
+                while (depth > 0 && remaining[depth - 1] == 0) {
+                    depth--;
+                }
+            }
+        }
+        if (depth != 0 || dataSize != data.length || in.position != bytes.length) {
+            throw new CompilationException(CORRUPT);
+        }
+        return new FlatAst(kind, firstChild, nextSibling, line, start, end, payload, data,
+                strings);
+    }
+
+    /**
+     * Save an AST to a file
+     *
+     * @param ast  the flat AST
+     * @param path the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(FlatAst ast, Path path) throws IOException {
+        Files.write(path, encode(ast));
+    }
+
+    /**
+     * Load an AST from a file with a single bulk read
+     *
+     * @param path the file to read
+     * @return the flat AST
+     * @throws IOException if the file cannot be read
+     */
+    public static FlatAst read(Path path) throws IOException {
+        return decode(Files.readAllBytes(path));
+    }
+
+    private void ensureCapacity(int extra) {
+        if (position + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + extra));
+        }
+    }
+
+    private void writeBytes(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    /**
+     * Write a non-negative int in 7-bit groups, low group first
+     */
+    private void writeInt(int value) {
+        ensureCapacity(5);
+        while ((value & ~0x7F) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    /**
+     * Write an int that may be negative, zigzag-encoded
+     */
+    private void writeSignedInt(int value) {
+        writeInt((value << 1) ^ (value >> 31));
+    }
+
+    /**
+     * Read an int written by writeInt, checking that it is all there and
+     * no longer than an int can be
+     */
+    private int readInt() {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            if (position == buffer.length || shift > 28) {
+                throw new CompilationException(CORRUPT);
+            }
+            b = buffer[position++];
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    /**
+     * Read a count of things that take at least the given number of bytes
+     * each, checking that that many fit in what is left of the buffer
+     */
+    private int readCount(int minBytes) {
+        int count = readInt();
+        if (count < 0 || count > (buffer.length - position) / minBytes) {
+            throw new CompilationException(CORRUPT);
+        }
+        return count;
+    }
+
+    private int readSignedInt() {
+        int value = readInt();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Main method parses the given Bantam Java file and saves its AST,
+     * then loads the saved file back and reports the sizes
+     *
+     * @param args the source file and the file to save the AST in
+     */
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.out.println("Please enter a source file and an output file");
+            return;
+        }
+        try {
+            Program program = new Parser(new ErrorHandler()).parse(args[0]);
+            FlatAst ast = FlatAst.of(program);
+            Path path = Paths.get(args[1]);
+            write(ast, path);
+            FlatAst loaded = read(path);
+            System.out.println("Saved " + loaded.size() + " nodes in "
+                    + Files.size(path) + " bytes to " + path);
+        } catch (CompilationException | IOException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,313 @@
+/*
+ * File: bantam.ast.flat.FlatAstDecoder.java
+ * CS361 Project 11
+ * Names: Martin Deutsch and Wyett MacDonald
+ * Date: 2/13/2019
+ * This file contains the FlatAstDecoder, which rebuilds an object AST
+ * from a FlatAst
+ */
+
+package proj12MacDonaldDouglas.bantam.ast.flat;
+
+import proj12MacDonaldDouglas.bantam.ast.*;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import static proj12MacDonaldDouglas.bantam.ast.flat.FlatAst.NONE;
+
+/**
+ * FlatAstDecoder turns each row of a FlatAst back into the corresponding
+ * <tt>ASTNode</tt>, reading children in the order the builder wrote them.
+ *
+ * @author Martin Deutsch
+ * @author Wyett MacDonald
+ */
+class FlatAstDecoder {
+
+    private final FlatAst ast;
+
+    /**
+     * The id of each expression node, its rank among the expressions in
+     * node order, so a class decoded twice gets the same ids
+     */
+    private final int[] exprIds;
+
+    /**
+     * FlatAstDecoder constructor
+     *
+     * @param ast the flat AST to decode
+     */
+    FlatAstDecoder(FlatAst ast) {
+        this.ast = ast;
+        exprIds = new int[ast.size()];
+        int exprCount = 0;
+        for (int id = 0; id < exprIds.length; id++) {
+            exprIds[id] = ast.getKind(id).isExpr() ? exprCount++ : -1;
+        }
+    }
+
+    /**
+     * Decode the whole tree
+     *
+     * @return the root Program node
+     */
+    Program decode() {
+        return (Program) node(0);
+    }
+
+    /**
+     * Decode the program and class list nodes, leaving each class to be
+     * decoded when it is fetched from the list
+     *
+     * @return the root Program node
+     */
+    Program decodeLazily() {
+        int classList = ast.getFirstChild(0);
+        int size = 0;
+        for (int c = ast.getFirstChild(classList); c != NONE; c = next(c)) {
+            size++;
+        }
+        int[] classes = new int[size];
+        size = 0;
+        for (int c = ast.getFirstChild(classList); c != NONE; c = next(c)) {
+            classes[size++] = c;
+        }
+        LazyClassList list = new LazyClassList(ast.getLineNum(classList), classes);
+        if (ast.getStartOffset(classList) >= 0) {
+            list.setSpan(ast.getStartOffset(classList), ast.getEndOffset(classList));
+        }
+        Program program = new Program(ast.getLineNum(0), list);
+        if (ast.getStartOffset(0) >= 0) {
+            program.setSpan(ast.getStartOffset(0), ast.getEndOffset(0));
+        }
+        return program;
+    }
+
+    /**
+     * Decode the given node and its descendants, restoring their spans
+     *
+     * @param id the node id
+     * @return the object node
+     */
+    private ASTNode node(int id) {
+        ASTNode node = create(id);
+        if (ast.getStartOffset(id) >= 0) {
+            node.setSpan(ast.getStartOffset(id), ast.getEndOffset(id));
+        }
+        return node;
+    }
+
+    private ASTNode create(int id) {
+        int line = ast.getLineNum(id);
+        int child = ast.getFirstChild(id);
+
+        switch (ast.getKind(id)) {
+            case PROGRAM:
+                return new Program(line, (ClassList) node(child));
+            case CLASS_LIST:
+                return fill(new ClassList(line), child);
+            case CLASS:
+                return new Class_(line, ast.getString(id, 0), ast.getString(id, 1),
+                        ast.getString(id, 2), (MemberList) node(child));
+            case MEMBER_LIST:
+                return fill(new MemberList(line), child);
+            case FIELD:
+                return new Field(line, ast.getString(id, 0), ast.getString(id, 1),
+                        ast.getPayload(id, 2) == 1 ? (Expr) node(child) : null);
+            case METHOD:
+                return new Method(line, ast.getString(id, 0), ast.getString(id, 1),
+                        (FormalList) node(child), (StmtList) node(next(child)));
+            case FORMAL_LIST:
+                return fill(new FormalList(line), child);
+            case FORMAL:
+                return new Formal(line, ast.getString(id, 0), ast.getString(id, 1));
+            case STMT_LIST:
+                return fill(new StmtList(line), child);
+            case DECL_STMT:
+                return new DeclStmt(line, ast.getString(id, 0), (Expr) node(child));
+            case EXPR_STMT:
+                return new ExprStmt(line, (Expr) node(child));
+            case IF_STMT: {
+                Expr pred = (Expr) node(child);
+                child = next(child);
+                Stmt thenStmt = (Stmt) node(child);
+                Stmt elseStmt = ast.getPayload(id, 0) == 1 ? (Stmt) node(next(child)) : null;
+                return new IfStmt(line, pred, thenStmt, elseStmt);
+            }
+            case WHILE_STMT:
+                return new WhileStmt(line, (Expr) node(child), (Stmt) node(next(child)));
+            case FOR_STMT: {
+                Expr[] exprs = new Expr[3];
+                for (int i = 0; i < 3; i++) {
+                    if (ast.getPayload(id, i) == 1) {
+                        exprs[i] = (Expr) node(child);
+                        child = next(child);
+                    }
+                }
+                return new ForStmt(line, exprs[0], exprs[1], exprs[2], (Stmt) node(child));
+            }
+            case BREAK_STMT:
+                return new BreakStmt(line);
+            case BLOCK_STMT:
+                return new BlockStmt(line, (StmtList) node(child));
+            case RETURN_STMT:
+                return new ReturnStmt(line,
+                        ast.getPayload(id, 0) == 1 ? (Expr) node(child) : null);
+            case EXPR_LIST:
+                return fill(new ExprList(line), child);
+            case DISPATCH_EXPR: {
+                Expr ref = null;
+                if (ast.getPayload(id, 1) == 1) {
+                    ref = (Expr) node(child);
+                    child = next(child);
+                }
+                return new DispatchExpr(line, exprIds[id], ref, ast.getString(id, 0),
+                        (ExprList) node(child));
+            }
+            case NEW_EXPR:
+                return new NewExpr(line, exprIds[id], ast.getString(id, 0));
+            case NEW_ARRAY_EXPR:
+                return new NewArrayExpr(line, exprIds[id], ast.getString(id, 0),
+                        (Expr) node(child));
+            case INSTANCEOF_EXPR:
+                return new InstanceofExpr(line, exprIds[id], (Expr) node(child),
+                        ast.getString(id, 0));
+            case CAST_EXPR:
+                return new CastExpr(line, exprIds[id], ast.getString(id, 0), (Expr) node(child));
+            case ASSIGN_EXPR:
+                return new AssignExpr(line, exprIds[id], ast.getString(id, 0), ast.getString(id, 1),
+                        (Expr) node(child));
+            case ARRAY_ASSIGN_EXPR:
+                return new ArrayAssignExpr(line, exprIds[id], ast.getString(id, 0),
+                        ast.getString(id, 1), (Expr) node(child), (Expr) node(next(child)));
+            case BINARY_COMP_EQ_EXPR:
+                return new BinaryCompEqExpr(line, exprIds[id], left(child), right(child));
+            case BINARY_COMP_NE_EXPR:
+                return new BinaryCompNeExpr(line, exprIds[id], left(child), right(child));
+            case BINARY_COMP_LT_EXPR:
+                return new BinaryCompLtExpr(line, exprIds[id], left(child), right(child));
+            case BINARY_COMP_LEQ_EXPR:
+                return new BinaryCompLeqExpr(line, exprIds[id], left(child), right(child));
+            case BINARY_COMP_GT_EXPR:
+                return new BinaryCompGtExpr(line, exprIds[id], left(child), right(child));
+            case BINARY_COMP_GEQ_EXPR:
+                return new BinaryCompGeqExpr(line, exprIds[id], left(child), right(child));
+            case BINARY_ARITH_PLUS_EXPR:
+                return new BinaryArithPlusExpr(line, exprIds[id], left(child), right(child));
+            case BINARY_ARITH_MINUS_EXPR:
+                return new BinaryArithMinusExpr(line, exprIds[id], left(child), right(child));
+            case BINARY_ARITH_TIMES_EXPR:
+                return new BinaryArithTimesExpr(line, exprIds[id], left(child), right(child));
+            case BINARY_ARITH_DIVIDE_EXPR:
+                return new BinaryArithDivideExpr(line, exprIds[id], left(child), right(child));
+            case BINARY_ARITH_MODULUS_EXPR:
+                return new BinaryArithModulusExpr(line, exprIds[id], left(child), right(child));
+            case BINARY_LOGIC_AND_EXPR:
+                return new BinaryLogicAndExpr(line, exprIds[id], left(child), right(child));
+            case BINARY_LOGIC_OR_EXPR:
+                return new BinaryLogicOrExpr(line, exprIds[id], left(child), right(child));
+            case UNARY_NEG_EXPR:
+                return new UnaryNegExpr(line, exprIds[id], (Expr) node(child));
+            case UNARY_NOT_EXPR:
+                return new UnaryNotExpr(line, exprIds[id], (Expr) node(child));
+            case UNARY_INCR_EXPR:
+                return new UnaryIncrExpr(line, exprIds[id], (Expr) node(child),
+                        ast.getPayload(id, 0) == 1);
+            case UNARY_DECR_EXPR:
+                return new UnaryDecrExpr(line, exprIds[id], (Expr) node(child),
+                        ast.getPayload(id, 0) == 1);
+            case VAR_EXPR:
+                return new VarExpr(line, exprIds[id],
+                        ast.getPayload(id, 1) == 1 ? (Expr) node(child) : null,
+                        ast.getString(id, 0));
+            case ARRAY_EXPR: {
+                Expr ref = null;
+                if (ast.getPayload(id, 1) == 1) {
+                    ref = (Expr) node(child);
+                    child = next(child);
+                }
+                return new ArrayExpr(line, exprIds[id], ref, ast.getString(id, 0),
+                        (Expr) node(child));
+            }
+            case CONST_INT_EXPR:
+                return new ConstIntExpr(line, exprIds[id], ast.getString(id, 0));
+            case CONST_BOOLEAN_EXPR:
+                return new ConstBooleanExpr(line, exprIds[id], ast.getString(id, 0));
+            default:
+                return new ConstStringExpr(line, exprIds[id], ast.getString(id, 0));
+        }
+    }
+
+    /**
+     * Decode the elements starting at the given child into a list node
+     *
+     * @param list  the empty list node
+     * @param child the first element, or NONE
+     * @return the filled list
+     */
+    private ListNode fill(ListNode list, int child) {
+        for (; child != NONE; child = next(child)) {
+            list.addElement(node(child));
+        }
+        list.trimToSize();
+        return list;
+    }
+
+    private int next(int child) {
+        return ast.getNextSibling(child);
+    }
+
+    /**
+     * Class list that decodes a class each time it is fetched and keeps
+     * nothing but the node ids of the classes
+     */
+    private class LazyClassList extends ClassList {
+        private final int[] classes;
+
+        LazyClassList(int lineNum, int[] classes) {
+            super(lineNum);
+            this.classes = classes;
+        }
+
+        public int getSize() {
+            return classes.length;
+        }
+
+        public int getCapacity() {
+            return classes.length;
+        }
+
+        public ASTNode get(int index) {
+            if (index >= classes.length) {
+                throw new ArrayIndexOutOfBoundsException(index);
+            }
+            return node(classes[index]);
+        }
+
+        public Iterator<ASTNode> iterator() {
+            return new Iterator<ASTNode>() {
+                private int next = 0;
+
+                public boolean hasNext() {
+                    return next < classes.length;
+                }
+
+                public ASTNode next() {
+                    if (next >= classes.length) {
+                        throw new NoSuchElementException();
+                    }
+                    return get(next++);
+                }
+            };
+        }
+    }
+
+    private Expr left(int child) {
+        return (Expr) node(child);
+    }
+
+    private Expr right(int child) {
+        return (Expr) node(next(child));
+    }
+}
@@ -0,0 +1,357 @@
+/*
+ * File: bantam.ast.index.NodeIndex.java
+ * CS361 Project 11
+ * Names: Martin Deutsch and Wyett MacDonald
+ * Date: 2/13/2019
+ * This file contains the NodeIndex, which finds AST nodes by kind, name
+ * and enclosing class or method
+ */
+
+package proj12MacDonaldDouglas.bantam.ast.index;
+
+import proj12MacDonaldDouglas.bantam.ast.*;
+import proj12MacDonaldDouglas.bantam.util.Symbol;
+import proj12MacDonaldDouglas.bantam.visitor.IterativeTraversal;
+import proj12MacDonaldDouglas.bantam.visitor.TraversalAction;
+
+import java.util.*;
+
+/**
+ * NodeIndex records every node of an AST in one pass, so that questions
+ * like "every call to method m" or "every string constant in class C" are
+ * answered without walking the tree again.
+ * <p/>
+ * The nodes are numbered in preorder, so the descendants of a node are
+ * the nodes numbered from it up to the end of its subtree, and an
+ * enclosing class or method is just a range of numbers.  For each kind,
+ * and for each kind and name, the index keeps the sorted numbers of the
+ * matching nodes in an int array.  A query picks the smallest array that
+ * fits it and binary searches it for the ranges of its scope, so it takes
+ * O(log n) plus the size of the answer.
+ * <p/>
+ * The name of a node is the name it declares or refers to: the name of a
+ * class, member, formal, declaration or variable, the method name of a
+ * dispatch, and the type of a new, cast or instanceof expression.  The
+ * index is a snapshot: it must be rebuilt after the tree changes.
+ *
+ * @author Martin Deutsch
+ * @author Wyett MacDonald
+ */
+public class NodeIndex {
+
+    private static final int[] NONE = new int[0];
+
+    /**
+     * The nodes in preorder, and the number just past each node's subtree
+     */
+    private final ASTNode[] nodes;
+    private final int[] ends;
+
+    /**
+     * Sorted node numbers by kind ordinal, and by kind and name symbol
+     */
+    private final int[][] byKind;
+    private final Map<Long, int[]> byKindAndName;
+
+    /**
+     * Node numbers of the classes by name, and of the methods and fields
+     * by "Class.member"
+     */
+    private final Map<String, int[]> classes;
+    private final Map<String, int[]> members;
+
+    /**
+     * Build the index over the given tree
+     *
+     * @param root the root of the tree, usually a Program
+     */
+    public NodeIndex(ASTNode root) {
+        Builder builder = new Builder();
+        builder.traverse(root);
+        nodes = Arrays.copyOf(builder.nodes, builder.size);
+        ends = Arrays.copyOf(builder.ends, builder.size);
+        byKind = new int[NodeKind.values().length][];
+        for (int i = 0; i < byKind.length; i++) {
+            IntList list = builder.byKind[i];
+            byKind[i] = list == null ? NONE : list.toArray();
+        }
+        byKindAndName = toArrays(builder.byKindAndName);
+        classes = toArrays(builder.classes);
+        members = toArrays(builder.members);
+    }
+
+    private static <K> Map<K, int[]> toArrays(Map<K, IntList> lists) {
+        Map<K, int[]> arrays = new HashMap<>(lists.size() * 2);
+        for (Map.Entry<K, IntList> entry : lists.entrySet()) {
+            arrays.put(entry.getKey(), entry.getValue().toArray());
+        }
+        return arrays;
+    }
+
+    /**
+     * Get the number of indexed nodes
+     *
+     * @return node count
+     */
+    public int size() {
+        return nodes.length;
+    }
+
+    /**
+     * Start a query for the nodes of the given kind
+     *
+     * @param kind the kind of node to find
+     * @return the query, which is narrowed further before it is run
+     */
+    public Query find(NodeKind kind) {
+        return new Query(kind);
+    }
+
+    /**
+     * Get the name of a node, as the index sees it
+     *
+     * @param node the node
+     * @return its name symbol, or null if it has none
+     */
+    public static Symbol nameOf(ASTNode node) {
+        if (node instanceof Class_) {
+            return ((Class_) node).getNameSymbol();
+        }
+        if (node instanceof Method) {
+            return ((Method) node).getNameSymbol();
+        }
+        if (node instanceof Field) {
+            return ((Field) node).getNameSymbol();
+        }
+        if (node instanceof Formal) {
+            return ((Formal) node).getNameSymbol();
+        }
+        if (node instanceof DeclStmt) {
+            return ((DeclStmt) node).getNameSymbol();
+        }
+        if (node instanceof VarExpr) {
+            return ((VarExpr) node).getNameSymbol();
+        }
+        if (node instanceof DispatchExpr) {
+            return ((DispatchExpr) node).getMethodNameSymbol();
+        }
+        if (node instanceof NewExpr) {
+            return Symbol.intern(((NewExpr) node).getType());
+        }
+        if (node instanceof NewArrayExpr) {
+            return Symbol.intern(((NewArrayExpr) node).getType());
+        }
+        if (node instanceof CastExpr) {
+            return Symbol.intern(((CastExpr) node).getType());
+        }
+        if (node instanceof InstanceofExpr) {
+            return Symbol.intern(((InstanceofExpr) node).getType());
+        }
+        return null;
+    }
+
+    private static long key(NodeKind kind, Symbol name) {
+        return ((long) kind.ordinal() << 32) | name.getId();
+    }
+
+    /**
+     * A query for nodes of one kind, optionally with a given name and
+     * inside a given class or method
+     */
+    public class Query {
+        private final NodeKind kind;
+        private String name;
+        private String className;
+        private String memberName;
+
+        private Query(NodeKind kind) {
+            this.kind = kind;
+        }
+
+        /**
+         * Keep only the nodes with the given name
+         *
+         * @param name the name the nodes declare or refer to
+         * @return this query
+         */
+        public Query named(String name) {
+            this.name = name;
+            return this;
+        }
+
+        /**
+         * Keep only the nodes inside the class with the given name
+         *
+         * @param className the class name
+         * @return this query
+         */
+        public Query inClass(String className) {
+            this.className = className;
+            return this;
+        }
+
+        /**
+         * Keep only the nodes inside the given method or field
+         *
+         * @param className  the name of the class declaring it
+         * @param memberName the method or field name
+         * @return this query
+         */
+        public Query inMember(String className, String memberName) {
+            this.className = className;
+            this.memberName = memberName;
+            return this;
+        }
+
+        /**
+         * Run the query
+         *
+         * @return the matching nodes in source order, possibly none
+         */
+        public List<ASTNode> list() {
+            List<ASTNode> found = new ArrayList<>();
+            run(found);
+            return found;
+        }
+
+        /**
+         * Run the query, only counting the matches
+         *
+         * @return the number of matching nodes
+         */
+        public int count() {
+            return run(null);
+        }
+
+        private int run(List<ASTNode> found) {
+            int[] candidates = candidates();
+            if (className == null) {
+                addAll(candidates, 0, candidates.length, found);
+                return candidates.length;
+            }
+            int[] scopes = memberName == null ? classes.get(className)
+                    : members.get(className + "." + memberName);
+            if (scopes == null) {
+                return 0;
+            }
+            int count = 0;
+            for (int scope : scopes) {
+                int from = firstAtOrAfter(candidates, scope);
+                int to = firstAtOrAfter(candidates, ends[scope]);
+                addAll(candidates, from, to, found);
+                count += to - from;
+            }
+            return count;
+        }
+
+        private int[] candidates() {
+            if (name == null) {
+                return byKind[kind.ordinal()];
+            }
+            Symbol symbol = Symbol.lookup(name);
+            int[] matches = symbol == null ? null : byKindAndName.get(key(kind, symbol));
+            return matches == null ? NONE : matches;
+        }
+
+        private void addAll(int[] numbers, int from, int to, List<ASTNode> found) {
+            if (found != null) {
+                for (int i = from; i < to; i++) {
+                    found.add(nodes[numbers[i]]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Binary search a sorted array for the first value at least the key
+     *
+     * @return its index, or the length if there is none
+     */
+    private static int firstAtOrAfter(int[] values, int key) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] < key) {
+                low = mid + 1;
+            }
+            else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Growable int array
+     */
+    private static class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+    /**
+     * Traversal numbering the nodes and filling in the lists
+     */
+    private static class Builder extends IterativeTraversal {
+        private ASTNode[] nodes = new ASTNode[1024];
+        private int[] ends = new int[1024];
+        private int size;
+        private final IntList[] byKind = new IntList[NodeKind.values().length];
+        private final Map<Long, IntList> byKindAndName = new HashMap<>();
+        private final Map<String, IntList> classes = new HashMap<>();
+        private final Map<String, IntList> members = new HashMap<>();
+        private String currentClass;
+
+        // the number of the node open at each depth
+        private int[] open = new int[64];
+
+        protected TraversalAction preVisit(ASTNode node) {
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+            }
+            int number = size++;
+            nodes[number] = node;
+            if (getDepth() == open.length) {
+                open = Arrays.copyOf(open, open.length * 2);
+            }
+            open[getDepth()] = number;
+
+            NodeKind kind = NodeKind.of(node);
+            if (byKind[kind.ordinal()] == null) {
+                byKind[kind.ordinal()] = new IntList();
+            }
+            byKind[kind.ordinal()].add(number);
+            Symbol name = nameOf(node);
+            if (name != null) {
+                byKindAndName.computeIfAbsent(key(kind, name), k -> new IntList()).add(number);
+            }
+
+            if (node instanceof Class_) {
+                currentClass = ((Class_) node).getName();
+                classes.computeIfAbsent(currentClass, k -> new IntList()).add(number);
+            }
+            else if (node instanceof Member) {
+                members.computeIfAbsent(currentClass + "." + name, k -> new IntList())
+                        .add(number);
+            }
+            return TraversalAction.CONTINUE;
+        }
+
+        protected void postVisit(ASTNode node) {
+            ends[open[getDepth()]] = size;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * File: bantam.ast.index.SpanIndex.java
+ * CS361 Project 11
+ * Names: Martin Deutsch and Wyett MacDonald
+ * Date: 2/13/2019
+ * This file contains the SpanIndex, which finds AST nodes by source offset
+ */
+
+package proj12MacDonaldDouglas.bantam.ast.index;
+
+import proj12MacDonaldDouglas.bantam.ast.ASTNode;
+import proj12MacDonaldDouglas.bantam.visitor.IterativeTraversal;
+import proj12MacDonaldDouglas.bantam.visitor.PreorderVisitor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * SpanIndex is an interval index over the source spans of an AST.
+ * <p/>
+ * The nodes are kept in a sorted span array, ordered by start offset and,
+ * for equal starts, outermost first.  Since the spans of a tree nest, the
+ * source can also be cut into segments at every span boundary, and each
+ * segment is owned by the innermost node covering it.  <tt>nodeAt</tt> is
+ * then a binary search over the segments and <tt>nodesIn</tt> a binary
+ * search over the sorted nodes, both O(log n) plus the size of the answer.
+ * <p/>
+ * Nodes without a span (those not built by the parser) and empty spans
+ * are left out.  The index is a snapshot: it must be rebuilt after the
+ * tree changes.
+ *
+ * @author Martin Deutsch
+ * @author Wyett MacDonald
+ */
+public class SpanIndex {
+
+    private final ASTNode[] nodes;
+    private final int[] starts;
+    private final int[] ends;
+
+    // segment i runs from segmentStarts[i] to segmentStarts[i + 1]
+    // and is owned by the node segmentOwners[i], or -1 if none
+    private final int[] segmentStarts;
+    private final int[] segmentOwners;
+
+    /**
+     * Build the index over the given tree
+     *
+     * @param root the root of the tree, usually a Program
+     */
+    public SpanIndex(ASTNode root) {
+        SpanCollector collector = new SpanCollector();
+        IterativeTraversal.preorder(root, collector);
+        nodes = collector.nodes.toArray(new ASTNode[0]);
+        // a stable sort keeps parents before children with the same span
+        Arrays.sort(nodes, (a, b) -> a.getStartOffset() != b.getStartOffset()
+                ? Integer.compare(a.getStartOffset(), b.getStartOffset())
+                : Integer.compare(b.getEndOffset(), a.getEndOffset()));
+
+        starts = new int[nodes.length];
+        ends = new int[nodes.length];
+        for (int i = 0; i < nodes.length; i++) {
+            starts[i] = nodes[i].getStartOffset();
+            ends[i] = nodes[i].getEndOffset();
+        }
+
+        SegmentBuilder segments = new SegmentBuilder(2 * nodes.length + 1);
+        int[] open = new int[16];
+        int depth = 0;
+        int cursor = 0;
+        for (int i = 0; i < nodes.length; i++) {
+            // close the open nodes that end before this one starts
+            while (depth > 0 && ends[open[depth - 1]] <= starts[i]) {
+                int closed = open[--depth];
+                cursor = segments.add(cursor, ends[closed], closed);
+            }
+            cursor = segments.add(cursor, starts[i], depth > 0 ? open[depth - 1] : -1);
+            if (depth == open.length) {
+                open = Arrays.copyOf(open, depth * 2);
+            }
+            open[depth++] = i;
+        }
+        while (depth > 0) {
+            int closed = open[--depth];
+            cursor = segments.add(cursor, ends[closed], closed);
+        }
+        segments.add(cursor, cursor + 1, -1);
+        segmentStarts = Arrays.copyOf(segments.starts, segments.size);
+        segmentOwners = Arrays.copyOf(segments.owners, segments.size);
+    }
+
+    /**
+     * Get the number of indexed nodes
+     *
+     * @return node count
+     */
+    public int size() {
+        return nodes.length;
+    }
+
+    /**
+     * Find the innermost node whose span contains the given offset
+     *
+     * @param offset a character offset in the source
+     * @return the node, or null if no node covers the offset
+     */
+    public ASTNode nodeAt(int offset) {
+        int segment = lastAtOrBefore(segmentStarts, segmentStarts.length, offset);
+        if (segment < 0 || segmentOwners[segment] < 0) {
+            return null;
+        }
+        return nodes[segmentOwners[segment]];
+    }
+
+    /**
+     * Find the nodes whose spans lie within the given range, in source order
+     * with outer nodes before the nodes they contain
+     *
+     * @param startOffset the first offset of the range
+     * @param endOffset   the offset just past the range
+     * @return the nodes, possibly none
+     */
+    public List<ASTNode> nodesIn(int startOffset, int endOffset) {
+        List<ASTNode> found = new ArrayList<>();
+        for (int i = lastAtOrBefore(starts, starts.length, startOffset - 1) + 1;
+             i < nodes.length && starts[i] < endOffset; i++) {
+            if (ends[i] <= endOffset) {
+                found.add(nodes[i]);
+            }
+        }
+        return found.isEmpty() ? Collections.emptyList() : found;
+    }
+
+    /**
+     * Binary search for the last of the first length values that is at
+     * most the given key
+     *
+     * @return its index, or -1 if every value is greater than the key
+     */
+    private static int lastAtOrBefore(int[] values, int length, int key) {
+        int low = 0;
+        int high = length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] <= key) {
+                low = mid + 1;
+            }
+            else {
+                high = mid - 1;
+            }
+        }
+        return high;
+    }
+
+    /**
+     * Growable parallel arrays of segment starts and owners
+     */
+    private static class SegmentBuilder {
+        private int[] starts;
+        private int[] owners;
+        private int size;
+
+        SegmentBuilder(int capacity) {
+            starts = new int[capacity];
+            owners = new int[capacity];
+        }
+
+        /**
+         * Add the segment from cursor to end if it is not empty
+         *
+         * @return the new cursor
+         */
+        int add(int cursor, int end, int owner) {
+            if (end <= cursor) {
+                return cursor;
+            }
+            if (size == starts.length) {
+                starts = Arrays.copyOf(starts, size * 2);
+                owners = Arrays.copyOf(owners, size * 2);
+            }
+            starts[size] = cursor;
+            owners[size] = owner;
+            size++;
+            return end;
+        }
+    }
+
+    /**
+     * Visitor collecting every node with a non-empty span
+     */
+    private static class SpanCollector extends PreorderVisitor {
+        private final List<ASTNode> nodes = new ArrayList<>();
+
+        protected void visitNode(ASTNode node) {
+            if (node.getStartOffset() >= 0 && node.getEndOffset() > node.getStartOffset()) {
+                nodes.add(node);
+            }
+        }
+    }
+}
@@ -0,0 +1,358 @@
+/*
+ * File: bantam.ast.stats.AstFootprint.java
+ * CS361 Project 11
+ * Names: Martin Deutsch and Wyett MacDonald
+ * Date: 2/13/2019
+ * This file contains the AstFootprint, which reports how many AST nodes
+ * a program has and how much heap they take
+ */
+
+package proj12MacDonaldDouglas.bantam.ast.stats;
+
+import proj12MacDonaldDouglas.bantam.ast.*;
+import proj12MacDonaldDouglas.bantam.parser.Parser;
+import proj12MacDonaldDouglas.bantam.util.CompilationException;
+import proj12MacDonaldDouglas.bantam.util.ErrorHandler;
+import proj12MacDonaldDouglas.bantam.util.Symbol;
+import proj12MacDonaldDouglas.bantam.visitor.IterativeTraversal;
+import proj12MacDonaldDouglas.bantam.visitor.PreorderVisitor;
+
+import java.lang.reflect.Modifier;
+import java.util.*;
+
+/**
+ * AstFootprint counts the nodes of an AST by class, summarizes the sizes
+ * of its lists, and estimates the heap retained by the tree as a whole and
+ * by each class and method of the program.
+ * <p/>
+ * Sizes are estimated from field layouts, for a 64-bit JVM with compressed
+ * references: a 12-byte object header, 4-byte references, objects padded to
+ * 8 bytes, and strings backed by char arrays.  A node's size includes the
+ * backing array of a list and the text of a constant, but not the shared
+ * interned names, which are reported once as the symbol table.
+ *
+ * @author Martin Deutsch
+ * @author Wyett MacDonald
+ */
+public class AstFootprint {
+
+    private static final int HEADER_BYTES = 12;
+    private static final int REFERENCE_BYTES = 4;
+    private static final int ARRAY_HEADER_BYTES = 16;
+
+    /**
+     * Estimated shallow size of each node class, computed once per class
+     */
+    private static final Map<Class<?>, Long> shallowSizes = new HashMap<>();
+
+    /**
+     * Node count and bytes of each node class, by class name
+     */
+    private final Map<String, long[]> byNodeClass = new TreeMap<>();
+
+    /**
+     * Count, elements, largest size, empty lists and unused slots of each
+     * list class, by class name
+     */
+    private final Map<String, long[]> byListClass = new TreeMap<>();
+
+    private final Map<String, Long> byClass = new LinkedHashMap<>();
+    private final Map<String, Long> byMethod = new LinkedHashMap<>();
+    private final Set<Symbol> symbols = new HashSet<>();
+    private long nodes;
+    private long bytes;
+
+    private AstFootprint() {
+    }
+
+    /**
+     * Measure the given AST
+     *
+     * @param program the root of the AST
+     * @return the footprint
+     */
+    public static AstFootprint of(Program program) {
+        AstFootprint footprint = new AstFootprint();
+        IterativeTraversal.preorder(program, footprint.new Counter());
+        return footprint;
+    }
+
+    /**
+     * Get the total number of nodes
+     *
+     * @return node count
+     */
+    public long getNodeCount() {
+        return nodes;
+    }
+
+    /**
+     * Get the estimated bytes of all nodes, not counting shared symbols
+     *
+     * @return estimated bytes
+     */
+    public long getNodeBytes() {
+        return bytes;
+    }
+
+    /**
+     * Get the estimated bytes of the distinct symbols the tree refers to
+     *
+     * @return estimated bytes
+     */
+    public long getSymbolBytes() {
+        long total = 0;
+        for (Symbol symbol : symbols) {
+            total += align(HEADER_BYTES + REFERENCE_BYTES + 4) + stringBytes(symbol.getName());
+        }
+        return total;
+    }
+
+    /**
+     * Get the number of nodes of each node class
+     *
+     * @return node counts keyed by simple class name
+     */
+    public Map<String, Long> getNodeCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        for (Map.Entry<String, long[]> entry : byNodeClass.entrySet()) {
+            counts.put(entry.getKey(), entry.getValue()[0]);
+        }
+        return counts;
+    }
+
+    /**
+     * Get the estimated bytes of the nodes inside each class of the program
+     *
+     * @return bytes keyed by class name, in source order
+     */
+    public Map<String, Long> getClassBytes() {
+        return Collections.unmodifiableMap(byClass);
+    }
+
+    /**
+     * Get the estimated bytes of the nodes inside each method of the program
+     *
+     * @return bytes keyed by "Class.method", in source order
+     */
+    public Map<String, Long> getMethodBytes() {
+        return Collections.unmodifiableMap(byMethod);
+    }
+
+    /**
+     * Format the footprint as tables, listing at most the given number of
+     * the largest classes and methods
+     *
+     * @param top the number of classes and methods to list
+     * @return the report
+     */
+    public String toReport(int top) {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("AST: %d nodes, %d bytes of nodes, %d bytes of symbols "
+                + "(%d distinct)%n", nodes, bytes, getSymbolBytes(), symbols.size()));
+
+        report.append(String.format("%n%-24s %10s %12s %10s%n",
+                "node class", "count", "bytes", "bytes/node"));
+        List<Map.Entry<String, long[]>> nodeClasses = new ArrayList<>(byNodeClass.entrySet());
+        nodeClasses.sort((a, b) -> Long.compare(b.getValue()[1], a.getValue()[1]));
+        for (Map.Entry<String, long[]> entry : nodeClasses) {
+            long[] stats = entry.getValue();
+            report.append(String.format("%-24s %10d %12d %10d%n",
+                    entry.getKey(), stats[0], stats[1], stats[1] / stats[0]));
+        }
+
+        report.append(String.format("%n%-24s %10s %10s %8s %8s %8s %8s%n",
+                "list class", "lists", "elements", "mean", "max", "empty", "unused"));
+        for (Map.Entry<String, long[]> entry : byListClass.entrySet()) {
+            long[] stats = entry.getValue();
+            report.append(String.format("%-24s %10d %10d %8.1f %8d %8d %8d%n",
+                    entry.getKey(), stats[0], stats[1], stats[1] / (double) stats[0],
+                    stats[2], stats[3], stats[4]));
+        }
+
+        appendLargest(report, "class", byClass, top);
+        appendLargest(report, "method", byMethod, top);
+        return report.toString();
+    }
+
+    private static void appendLargest(StringBuilder report, String heading,
+                                      Map<String, Long> sizes, int top) {
+        List<Map.Entry<String, Long>> entries = new ArrayList<>(sizes.entrySet());
+        entries.sort((a, b) -> Long.compare(b.getValue(), a.getValue()));
+        report.append(String.format("%n%-40s %12s%n", heading, "bytes"));
+        for (int i = 0; i < Math.min(top, entries.size()); i++) {
+            report.append(String.format("%-40s %12d%n",
+                    entries.get(i).getKey(), entries.get(i).getValue()));
+        }
+        if (entries.size() > top) {
+            report.append(String.format("(%d more)%n", entries.size() - top));
+        }
+    }
+
+    /**
+     * Estimate the bytes of one node: its fields, plus the backing array
+     * of a list or the text of a constant
+     *
+     * @param node the node
+     * @return estimated bytes
+     */
+    private static long nodeBytes(ASTNode node) {
+        long size = shallowSize(node.getClass());
+        if (node instanceof ListNode) {
+            // empty lists share one backing array
+            int capacity = ((ListNode) node).getCapacity();
+            size += capacity == 0 ? 0 : align(ARRAY_HEADER_BYTES + REFERENCE_BYTES * capacity);
+        }
+        else if (node instanceof ConstExpr) {
+            size += stringBytes(((ConstExpr) node).getConstant());
+        }
+        return size;
+    }
+
+    private static synchronized long shallowSize(Class<?> nodeClass) {
+        Long size = shallowSizes.get(nodeClass);
+        if (size == null) {
+            long fieldBytes = 0;
+            for (Class<?> c = nodeClass; c != null; c = c.getSuperclass()) {
+                for (java.lang.reflect.Field field : c.getDeclaredFields()) {
+                    if (!Modifier.isStatic(field.getModifiers())) {
+                        fieldBytes += fieldBytes(field.getType());
+                    }
+                }
+            }
+            size = align(HEADER_BYTES + fieldBytes);
+            shallowSizes.put(nodeClass, size);
+        }
+        return size;
+    }
+
+    private static int fieldBytes(Class<?> type) {
+        if (type == long.class || type == double.class) {
+            return 8;
+        }
+        if (type == int.class || type == float.class) {
+            return 4;
+        }
+        if (type == short.class || type == char.class) {
+            return 2;
+        }
+        if (type == byte.class || type == boolean.class) {
+            return 1;
+        }
+        return REFERENCE_BYTES;
+    }
+
+    private static long stringBytes(String s) {
+        // String object (value, hash) plus its char array
+        return align(HEADER_BYTES + REFERENCE_BYTES + 4)
+                + align(ARRAY_HEADER_BYTES + 2L * s.length());
+    }
+
+    private static long align(long size) {
+        return (size + 7) & ~7L;
+    }
+
+    /**
+     * Visitor adding every node to the totals.  In preorder, the nodes
+     * between a class (or method) and the next one are its descendants,
+     * so the current class and method need no stack.
+     */
+    private class Counter extends PreorderVisitor {
+        private String currentClass;
+        private String currentMethod;
+
+        private void addSymbol(Symbol symbol) {
+            if (symbol != null) {
+                symbols.add(symbol);
+            }
+        }
+
+        protected void visitNode(ASTNode node) {
+            if (node instanceof Class_) {
+                currentClass = ((Class_) node).getName();
+                currentMethod = null;
+                addSymbol(((Class_) node).getNameSymbol());
+                addSymbol(((Class_) node).getParentSymbol());
+            }
+            else if (node instanceof Method) {
+                currentMethod = currentClass + "." + ((Method) node).getName();
+                addSymbol(((Method) node).getNameSymbol());
+                addSymbol(((Method) node).getReturnTypeSymbol());
+            }
+            else if (node instanceof Member) {
+                currentMethod = null;
+                addSymbol(((Field) node).getNameSymbol());
+                addSymbol(((Field) node).getTypeSymbol());
+            }
+            else if (node instanceof Formal) {
+                addSymbol(((Formal) node).getNameSymbol());
+                addSymbol(((Formal) node).getTypeSymbol());
+            }
+            else if (node instanceof DeclStmt) {
+                addSymbol(((DeclStmt) node).getNameSymbol());
+            }
+            else if (node instanceof VarExpr) {
+                addSymbol(((VarExpr) node).getNameSymbol());
+            }
+            else if (node instanceof ArrayExpr) {
+                addSymbol(((ArrayExpr) node).getNameSymbol());
+            }
+            else if (node instanceof AssignExpr) {
+                addSymbol(((AssignExpr) node).getNameSymbol());
+            }
+            else if (node instanceof ArrayAssignExpr) {
+                addSymbol(((ArrayAssignExpr) node).getNameSymbol());
+            }
+            else if (node instanceof DispatchExpr) {
+                addSymbol(((DispatchExpr) node).getMethodNameSymbol());
+            }
+
+            long size = nodeBytes(node);
+            nodes++;
+            bytes += size;
+            long[] stats = byNodeClass.computeIfAbsent(
+                    node.getClass().getSimpleName(), k -> new long[2]);
+            stats[0]++;
+            stats[1] += size;
+
+            if (node instanceof ListNode) {
+                ListNode list = (ListNode) node;
+                long[] lists = byListClass.computeIfAbsent(
+                        node.getClass().getSimpleName(), k -> new long[5]);
+                lists[0]++;
+                lists[1] += list.getSize();
+                lists[2] = Math.max(lists[2], list.getSize());
+                lists[3] += list.getSize() == 0 ? 1 : 0;
+                lists[4] += list.getCapacity() - list.getSize();
+            }
+
+            if (currentClass != null) {
+                byClass.merge(currentClass, size, Long::sum);
+            }
+            if (currentMethod != null) {
+                byMethod.merge(currentMethod, size, Long::sum);
+            }
+        }
+    }
+
+    /**
+     * Main method parses the given Bantam Java files and prints the
+     * footprint of each AST
+     *
+     * @param args the files to measure
+     */
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.out.println("Please enter files to measure");
+        }
+        for (String filename : args) {
+            System.out.println(filename);
+            try {
+                Program program = new Parser(new ErrorHandler()).parse(filename);
+                System.out.println(of(program).toReport(10));
+            } catch (CompilationException e) {
+                System.out.println(e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,1644 @@
+/*
+ * File: bantam.bench.Benchmark.java
+ * CS361 Project 11
+ * Names: Martin Deutsch and Wyett MacDonald
+ * Date: 2/13/2019
+ * This file contains the Benchmark driver, which times parts of the
+ * compiler on generated programs
+ */
+
+package proj12MacDonaldDouglas.bantam.bench;
+
+import proj12MacDonaldDouglas.bantam.ast.*;
+import proj12MacDonaldDouglas.bantam.ast.diff.AstDiff;
+import proj12MacDonaldDouglas.bantam.ast.flat.FlatAst;
+import proj12MacDonaldDouglas.bantam.ast.flat.FlatAstCodec;
+import proj12MacDonaldDouglas.bantam.ast.index.NodeIndex;
+import proj12MacDonaldDouglas.bantam.ast.index.SpanIndex;
+import proj12MacDonaldDouglas.bantam.parser.Parser;
+import proj12MacDonaldDouglas.bantam.semant.ClassTable;
+import proj12MacDonaldDouglas.bantam.semant.ExprTypeTable;
+import proj12MacDonaldDouglas.bantam.semant.FrameLayout;
+import proj12MacDonaldDouglas.bantam.semant.IncrementalAnalyzer;
+import proj12MacDonaldDouglas.bantam.semant.MainMainVisitor;
+import proj12MacDonaldDouglas.bantam.semant.NumLocalVarsVisitor;
+import proj12MacDonaldDouglas.bantam.semant.SemanticAnalyzer;
+import proj12MacDonaldDouglas.bantam.semant.StringConstantsVisitor;
+import proj12MacDonaldDouglas.bantam.treedrawer.DrawingTree;
+import proj12MacDonaldDouglas.bantam.treedrawer.LayoutVisitor;
+import proj12MacDonaldDouglas.bantam.util.ClassTreeNode;
+import proj12MacDonaldDouglas.bantam.util.CompilationException;
+import proj12MacDonaldDouglas.bantam.util.Error;
+import proj12MacDonaldDouglas.bantam.util.ErrorHandler;
+import proj12MacDonaldDouglas.bantam.util.StringConstantPool;
+import proj12MacDonaldDouglas.bantam.util.Symbol;
+import proj12MacDonaldDouglas.bantam.visitor.BooleanVisitor;
+import proj12MacDonaldDouglas.bantam.visitor.FusedVisitor;
+import proj12MacDonaldDouglas.bantam.visitor.GenericVisitor;
+import proj12MacDonaldDouglas.bantam.visitor.IntVisitor;
+import proj12MacDonaldDouglas.bantam.visitor.IterativeTraversal;
+import proj12MacDonaldDouglas.bantam.visitor.ParallelTraversal;
+import proj12MacDonaldDouglas.bantam.visitor.PreorderVisitor;
+import proj12MacDonaldDouglas.bantam.visitor.SwitchVisitor;
+import proj12MacDonaldDouglas.bantam.visitor.TraversalAction;
+import proj12MacDonaldDouglas.bantam.visitor.Visitor;
+
+import java.awt.Graphics;
+import java.awt.Point;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Vector;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Benchmark runs simple wall-clock measurements: each case is warmed up
+ * and then timed over a number of iterations, and the mean time per
+ * iteration is printed.
+ * <p/>
+ * Usage: java proj12MacDonaldDouglas.bantam.bench.Benchmark &lt;case&gt; [classes]
+ * where case is one of: lists, arena, codec, spans, symbols, hashes,
+ * concurrent, diff, fused, parallel, typed, deep, query, dispatch,
+ * prune, semant, subtype, semantpar, incremental, exprtypes, constpool,
+ * frames, semantshared, members
+ *
+ * @author Martin Deutsch
+ * @author Wyett MacDonald
+ */
+public class Benchmark {
+
+    private static final int WARMUP_ITERATIONS = 10;
+    private static final int ITERATIONS = 20;
+
+    /**
+     * Sink for results so the JIT cannot discard the timed work
+     */
+    private static long blackhole;
+
+    /**
+     * Main method runs the named benchmark case
+     *
+     * @param args the case name, optionally followed by the number of classes
+     */
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.out.println("Please enter a benchmark case: lists, arena, codec, spans, symbols, "
+                    + "hashes, concurrent, diff, fused, parallel, typed, deep, query, dispatch, "
+                    + "prune, semant, subtype, semantpar, incremental, exprtypes, "
+                    + "constpool, frames, semantshared, members");
+            return;
+        }
+        int classes = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+        String source = new ProgramGenerator(classes, 5, 4).generate();
+        System.out.println("Generated program: " + classes + " classes, "
+                + source.length() + " chars");
+
+        switch (args[0]) {
+            case "lists":
+                benchmarkLists(source);
+                break;
+            case "arena":
+                benchmarkArena(source);
+                break;
+            case "codec":
+                benchmarkCodec(source);
+                break;
+            case "spans":
+                benchmarkSpans(source);
+                break;
+            case "symbols":
+                benchmarkSymbols(source);
+                break;
+            case "hashes":
+                benchmarkHashes(source);
+                break;
+            case "concurrent":
+                benchmarkConcurrent(source);
+                break;
+            case "diff":
+                benchmarkDiff(source);
+                break;
+            case "fused":
+                benchmarkFused(source);
+                break;
+            case "parallel":
+                benchmarkParallel(source);
+                break;
+            case "typed":
+                benchmarkTyped(source);
+                break;
+            case "deep":
+                benchmarkDeep(source, classes * 400);
+                break;
+            case "query":
+                benchmarkQuery(source);
+                break;
+            case "dispatch":
+                benchmarkDispatch(source);
+                break;
+            case "prune":
+                benchmarkPrune(source);
+                break;
+            case "semant":
+                benchmarkSemant(classes);
+                break;
+            case "subtype":
+                benchmarkSubtype(source, classes * 4);
+                break;
+            case "semantpar":
+                benchmarkSemantParallel(source);
+                break;
+            case "incremental":
+                benchmarkIncremental(source, classes);
+                break;
+            case "exprtypes":
+                benchmarkExprTypes(source);
+                break;
+            case "constpool":
+                benchmarkConstantPool(source);
+                break;
+            case "frames":
+                benchmarkFrames(source);
+                break;
+            case "semantshared":
+                benchmarkSemantShared(source);
+                break;
+            case "members":
+                benchmarkMembers(classes * 2);
+                break;
+            default:
+                System.out.println("Unknown benchmark case " + args[0]);
+        }
+        System.out.println("(checksum " + blackhole + ")");
+    }
+
+    /**
+     * Parse the given source
+     *
+     * @param source Bantam Java source text
+     * @return the root of the AST
+     */
+    static Program parse(String source) {
+        Parser parser = new Parser(new ErrorHandler());
+        return parser.parse("<generated>", new StringReader(source));
+    }
+
+    /**
+     * Time a task and print its mean time per iteration
+     *
+     * @param label the name printed with the result
+     * @param task  the work to time
+     * @return the mean time per iteration in nanoseconds
+     */
+    static double time(String label, Runnable task) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            task.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            task.run();
+        }
+        double mean = (System.nanoTime() - start) / (double) ITERATIONS;
+        System.out.println(String.format("%-40s %12.3f ms", label, mean / 1e6));
+        return mean;
+    }
+
+    /**
+     * Time parsing, and for each list kind compare traversing its elements
+     * through ListNode's indexed path with traversing the same elements
+     * stored in a synchronized Vector, as ListNode used to.
+     *
+     * @param source Bantam Java source text
+     */
+    private static void benchmarkLists(String source) {
+        time("parse", () -> blackhole += parse(source).getClassList().getSize());
+
+        Program program = parse(source);
+        ListCollector collector = new ListCollector();
+        program.accept(collector);
+
+        for (List<ListNode> lists : collector.byKind()) {
+            String kind = lists.get(0).getClass().getSimpleName();
+            List<Vector<ASTNode>> vectors = new ArrayList<>();
+            long elements = 0;
+            long unusedSlots = 0;
+            for (ListNode list : lists) {
+                Vector<ASTNode> vector = new Vector<>();
+                for (int i = 0; i < list.getSize(); i++) {
+                    vector.add(list.get(i));
+                }
+                vectors.add(vector);
+                elements += list.getSize();
+                unusedSlots += vector.capacity() - vector.size();
+            }
+            System.out.println(kind + ": " + lists.size() + " lists, " + elements
+                    + " elements, " + unusedSlots + " unused Vector slots avoided");
+            time("  " + kind + " indexed ListNode", () -> {
+                for (ListNode list : lists) {
+                    for (int i = 0; i < list.getSize(); i++) {
+                        blackhole += list.get(i).getLineNum();
+                    }
+                }
+            });
+            time("  " + kind + " Vector", () -> {
+                for (Vector<ASTNode> vector : vectors) {
+                    for (int i = 0; i < vector.size(); i++) {
+                        blackhole += vector.get(i).getLineNum();
+                    }
+                }
+            });
+        }
+
+        time("full visit", () -> program.accept(new Visitor() {
+            public Object visit(VarExpr node) {
+                blackhole++;
+                return super.visit(node);
+            }
+        }));
+    }
+
+    /**
+     * Measure the heap retained by the objects a task creates, by keeping
+     * several copies alive and comparing the used heap before and after
+     *
+     * @param copies the number of copies to create
+     * @param task   creates one copy
+     * @return the mean retained bytes per copy
+     */
+    static long retainedBytes(int copies, Supplier<Object> task) {
+        Object[] keep = new Object[copies];
+        long before = usedHeap();
+        for (int i = 0; i < copies; i++) {
+            keep[i] = task.get();
+        }
+        long after = usedHeap();
+        blackhole += keep.length;
+        return (after - before) / copies;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Compare the object AST with the flat arena AST: heap retained by
+     * each, conversion cost in both directions, and visiting through the
+     * arena's visitor adapter.
+     *
+     * @param source Bantam Java source text
+     */
+    private static void benchmarkArena(String source) {
+        Program program = parse(source);
+        FlatAst flat = FlatAst.of(program);
+        System.out.println("nodes: " + flat.size());
+        if (FlatAst.of(flat.toProgram()).size() != flat.size()) {
+            System.out.println("round trip changed the node count!");
+        }
+
+        long objectBytes = retainedBytes(4, () -> parse(source));
+        long flatBytes = retainedBytes(4, () -> FlatAst.of(parse(source)));
+        System.out.println(String.format("%-40s %12d bytes", "object AST retained", objectBytes));
+        System.out.println(String.format("%-40s %12d bytes", "flat AST retained", flatBytes));
+        System.out.println(String.format("%-40s %12d bytes", "flat AST estimated",
+                flat.estimatedBytes()));
+        System.out.println(String.format("%-40s %12d bytes", "source text",
+                2L * source.length()));
+
+        time("object AST to flat", () -> blackhole += FlatAst.of(program).size());
+        time("flat to object AST", () -> blackhole += flat.toProgram().getLineNum());
+        time("visit object AST", () -> program.accept(new Visitor() { }));
+        time("visit flat AST via adapter", () -> flat.accept(new Visitor() { }));
+    }
+
+    /**
+     * Compare re-parsing the source with loading a saved binary AST: from
+     * memory, from a file, and all the way back to an object AST.
+     *
+     * @param source Bantam Java source text
+     */
+    private static void benchmarkCodec(String source) {
+        Program program = parse(source);
+        FlatAst flat = FlatAst.of(program);
+        byte[] bytes = FlatAstCodec.encode(flat);
+        if (FlatAstCodec.decode(bytes).size() != flat.size()) {
+            System.out.println("round trip changed the node count!");
+        }
+        if (new SpanIndex(FlatAstCodec.decode(bytes).toProgram()).size()
+                != new SpanIndex(program).size()) {
+            System.out.println("round trip lost source spans!");
+        }
+        System.out.println(String.format("%-40s %12d bytes", "encoded AST", bytes.length));
+        System.out.println(String.format("%-40s %12d bytes", "source text (UTF-8)",
+                source.getBytes(StandardCharsets.UTF_8).length));
+
+        Path file;
+        try {
+            file = Files.createTempFile("bantam", ".bast");
+            file.toFile().deleteOnExit();
+            FlatAstCodec.write(flat, file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        double parse = time("parse source", () -> blackhole += parse(source).getLineNum());
+        time("encode", () -> blackhole += FlatAstCodec.encode(flat).length);
+        double decode = time("decode bytes", () -> blackhole += FlatAstCodec.decode(bytes).size());
+        double read = time("read file and decode", () -> {
+            try {
+                blackhole += FlatAstCodec.read(file).size();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        double load = time("read file to object AST", () -> {
+            try {
+                blackhole += FlatAstCodec.read(file).toProgram().getLineNum();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        System.out.println(String.format("speedup over parsing: decode %.1fx, read %.1fx, "
+                + "read to object AST %.1fx", parse / decode, parse / read, parse / load));
+    }
+
+    /**
+     * Compare finding the node at an offset with the span index against
+     * walking the whole tree, as hover and caret sync had to before.
+     *
+     * @param source Bantam Java source text
+     */
+    private static void benchmarkSpans(String source) {
+        Program program = parse(source);
+        SpanIndex index = new SpanIndex(program);
+        System.out.println("indexed nodes: " + index.size());
+
+        int[] offsets = new int[1000];
+        java.util.Random random = new java.util.Random(42);
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = random.nextInt(source.length());
+        }
+        for (int offset : offsets) {
+            if (index.nodeAt(offset) != walkToOffset(program, offset)) {
+                System.out.println("index and tree walk disagree at offset " + offset);
+                break;
+            }
+        }
+
+        time("build index", () -> blackhole += new SpanIndex(program).size());
+        time(offsets.length + " nodeAt with index", () -> {
+            for (int offset : offsets) {
+                blackhole += index.nodeAt(offset).getLineNum();
+            }
+        });
+        time("10 nodeAt by tree walk", () -> {
+            for (int i = 0; i < 10; i++) {
+                blackhole += walkToOffset(program, offsets[i]).getLineNum();
+            }
+        });
+        time(offsets.length + " nodesIn(offset, offset + 200)", () -> {
+            for (int offset : offsets) {
+                blackhole += index.nodesIn(offset, offset + 200).size();
+            }
+        });
+    }
+
+    /**
+     * Find the innermost node containing an offset by visiting every node
+     */
+    private static ASTNode walkToOffset(Program program, int offset) {
+        ASTNode[] found = new ASTNode[1];
+        program.accept(new PreorderVisitor() {
+            protected void visitNode(ASTNode node) {
+                // later nodes in preorder are nested deeper
+                if (node.getStartOffset() <= offset && offset < node.getEndOffset()) {
+                    found[0] = node;
+                }
+            }
+        });
+        return found[0];
+    }
+
+    /**
+     * Count the names the AST shares through interned symbols, and compare
+     * looking up every dispatched method name in a String-keyed map with
+     * indexing an array by symbol id.
+     *
+     * @param source Bantam Java source text
+     */
+    private static void benchmarkSymbols(String source) {
+        Program program = parse(source);
+        List<Symbol> dispatched = new ArrayList<>();
+        java.util.Set<Symbol> distinct = new java.util.HashSet<>();
+        int[] references = new int[1];
+        program.accept(new Visitor() {
+            public Object visit(Method node) {
+                references[0] += 2;
+                distinct.add(node.getNameSymbol());
+                return super.visit(node);
+            }
+
+            public Object visit(DeclStmt node) {
+                references[0]++;
+                distinct.add(node.getNameSymbol());
+                return super.visit(node);
+            }
+
+            public Object visit(VarExpr node) {
+                references[0]++;
+                distinct.add(node.getNameSymbol());
+                return super.visit(node);
+            }
+
+            public Object visit(DispatchExpr node) {
+                references[0]++;
+                dispatched.add(node.getMethodNameSymbol());
+                return super.visit(node);
+            }
+        });
+        System.out.println(references[0] + " name references share " + distinct.size()
+                + " method and variable symbols (" + Symbol.count() + " symbols in all)");
+
+        java.util.Map<String, Integer> byName = new java.util.HashMap<>();
+        int[] byId = new int[Symbol.count()];
+        for (Symbol symbol : dispatched) {
+            byName.put(new String(symbol.getName()), symbol.getId());
+            byId[symbol.getId()] = symbol.getId();
+        }
+        // fresh strings, as each node held before interning
+        List<String> names = new ArrayList<>();
+        for (Symbol symbol : dispatched) {
+            names.add(new String(symbol.getName()));
+        }
+        time(dispatched.size() + " String-keyed lookups", () -> {
+            for (String name : names) {
+                blackhole += byName.get(name);
+            }
+        });
+        time(dispatched.size() + " symbol id lookups", () -> {
+            for (Symbol symbol : dispatched) {
+                blackhole += byId[symbol.getId()];
+            }
+        });
+    }
+
+    /**
+     * Measure what structural hashing costs, and how many method results a
+     * cache keyed by method hash could reuse after a one-line edit.
+     *
+     * @param source Bantam Java source text
+     */
+    private static void benchmarkHashes(String source) {
+        Program program = parse(source);
+        FlatAst flat = FlatAst.of(program);
+        if (flat.toProgram().getStructuralHash() != program.getStructuralHash()) {
+            System.out.println("rebuilt tree hashes differently!");
+        }
+
+        String edited = source.replaceFirst("return x;", "return y;");
+        List<Long> before = methodHashes(program);
+        List<Long> after = methodHashes(parse(edited));
+        int unchanged = 0;
+        for (int i = 0; i < before.size(); i++) {
+            if (before.get(i).equals(after.get(i))) {
+                unchanged++;
+            }
+        }
+        System.out.println("after a one-line edit " + unchanged + " of " + before.size()
+                + " method hashes are unchanged");
+
+        time("rebuild tree", () -> blackhole += flat.toProgram().getLineNum());
+        time("rebuild tree and hash it", () ->
+                blackhole += flat.toProgram().getStructuralHash());
+    }
+
+    private static List<Long> methodHashes(Program program) {
+        List<Long> hashes = new ArrayList<>();
+        program.accept(new Visitor() {
+            public Object visit(Method node) {
+                hashes.add(node.getStructuralHash());
+                return null;
+            }
+        });
+        return hashes;
+    }
+
+    /**
+     * Stress test for frozen trees: run several different analyses over one
+     * shared frozen Program from many threads at once, and check that every
+     * run gets the same answer as a single-threaded run and that the tree
+     * refuses modification.
+     *
+     * @param source Bantam Java source text
+     */
+    private static void benchmarkConcurrent(String source) {
+        Program program = parse(source).freeze();
+        try {
+            program.getClassList().addElement(program.getClassList().get(0));
+            System.out.println("frozen tree accepted a new element!");
+        } catch (IllegalStateException e) {
+            System.out.println("frozen tree refused modification: " + e.getMessage());
+        }
+
+        List<Supplier<Object>> analyses = Arrays.asList(
+                () -> new MainMainVisitor().hasMain(program),
+                () -> new NumLocalVarsVisitor().getNumLocalVars(program),
+                () -> new StringConstantsVisitor().getStringConstants(program),
+                () -> FlatAst.of(program).size(),
+                () -> new SpanIndex(program).nodesIn(0, source.length()).size(),
+                program::getStructuralHash);
+        List<Object> expected = new ArrayList<>();
+        for (Supplier<Object> analysis : analyses) {
+            expected.add(analysis.get());
+        }
+
+        int threads = Math.max(8, Runtime.getRuntime().availableProcessors() * 2);
+        int runsPerThread = 12;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int first = t;
+            results.add(pool.submit(() -> {
+                int mismatches = 0;
+                for (int run = 0; run < runsPerThread; run++) {
+                    int which = (first + run) % analyses.size();
+                    if (!analyses.get(which).get().equals(expected.get(which))) {
+                        mismatches++;
+                    }
+                }
+                return mismatches;
+            }));
+        }
+        int mismatches = 0;
+        try {
+            for (Future<Integer> result : results) {
+                mismatches += result.get();
+            }
+            pool.shutdown();
+            pool.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+        System.out.println(String.format("%d threads ran %d analyses in %.1f ms, %d mismatches",
+                threads, threads * runsPerThread, (System.nanoTime() - start) / 1e6,
+                mismatches));
+    }
+
+    /**
+     * Time diffing a program against an unchanged copy and against a copy
+     * with a one-line edit, two statements swapped, an inserted field and
+     * a removed class, and print the edit script of the latter.
+     *
+     * @param source Bantam Java source text
+     */
+    private static void benchmarkDiff(String source) {
+        Program program = parse(source);
+        Program same = parse(source);
+        String edited = source.replaceFirst("return x;", "return y;")
+                .replaceFirst("(var x = a \\+ b \\* 2;)(\\s*)(var y = x - f0;)", "$3$2$1")
+                .replaceFirst("\\{", "{ int added = 1;");
+        edited = edited.substring(0, edited.lastIndexOf("class "));
+        Program changed = parse(edited);
+
+        System.out.print(AstDiff.compare(program, changed));
+        System.out.println("unchanged copy: " + AstDiff.compare(program, same).getEdits().size()
+                + " edits");
+        time("parse", () -> blackhole += parse(source).getLineNum());
+        time("diff against unchanged copy", () ->
+                blackhole += AstDiff.compare(program, same).getEdits().size());
+        time("diff against edited copy", () ->
+                blackhole += AstDiff.compare(program, changed).getEdits().size());
+    }
+
+    /**
+     * Compare running the Main.main, string constant and local variable
+     * checks as three traversals with running them fused into one, and
+     * check that both give the same answers.
+     *
+     * @param source Bantam Java source text
+     */
+    private static void benchmarkFused(String source) {
+        Program program = parse(source);
+        MainMainVisitor mainMain = new MainMainVisitor();
+        StringConstantsVisitor stringConstants = new StringConstantsVisitor();
+        NumLocalVarsVisitor numLocalVars = new NumLocalVarsVisitor();
+        runFused(program, mainMain, stringConstants, numLocalVars);
+        boolean same = mainMain.hasMain() == new MainMainVisitor().hasMain(program)
+                && stringConstants.getStringConstants().equals(
+                new StringConstantsVisitor().getStringConstants(program))
+                && numLocalVars.getNumLocalVars().equals(
+                new NumLocalVarsVisitor().getNumLocalVars(program));
+        System.out.println("fused results match separate traversals: " + same);
+
+        time("three separate traversals", () -> {
+            blackhole += new MainMainVisitor().hasMain(program) ? 1 : 0;
+            blackhole += new StringConstantsVisitor().getStringConstants(program).size();
+            blackhole += new NumLocalVarsVisitor().getNumLocalVars(program).size();
+        });
+        time("one fused traversal", () -> {
+            MainMainVisitor m = new MainMainVisitor();
+            StringConstantsVisitor s = new StringConstantsVisitor();
+            NumLocalVarsVisitor n = new NumLocalVarsVisitor();
+            runFused(program, m, s, n);
+            blackhole += (m.hasMain() ? 1 : 0) + s.getStringConstants().size()
+                    + n.getNumLocalVars().size();
+        });
+        time("empty traversal", () -> new FusedVisitor().run(program));
+
+        // what the toolbar buttons cost, parsing included
+        time("parse and check, three times", () -> {
+            blackhole += new MainMainVisitor().hasMain(parse(source)) ? 1 : 0;
+            blackhole += new StringConstantsVisitor().getStringConstants(parse(source)).size();
+            blackhole += new NumLocalVarsVisitor().getNumLocalVars(parse(source)).size();
+        });
+        time("parse once and run fused checks", () -> {
+            MainMainVisitor m = new MainMainVisitor();
+            StringConstantsVisitor s = new StringConstantsVisitor();
+            NumLocalVarsVisitor n = new NumLocalVarsVisitor();
+            runFused(parse(source), m, s, n);
+            blackhole += (m.hasMain() ? 1 : 0) + s.getStringConstants().size()
+                    + n.getNumLocalVars().size();
+        });
+    }
+
+    private static void runFused(Program program, MainMainVisitor mainMain,
+                                 StringConstantsVisitor stringConstants,
+                                 NumLocalVarsVisitor numLocalVars) {
+        FusedVisitor fused = new FusedVisitor();
+        mainMain.register(fused);
+        stringConstants.register(fused);
+        numLocalVars.register(fused);
+        fused.run(program);
+    }
+
+    /**
+     * Compare the local variable and string constant searches run
+     * sequentially with the same searches split over a fork-join pool,
+     * and check that the merged results are the same.
+     *
+     * @param source Bantam Java source text
+     */
+    private static void benchmarkParallel(String source) {
+        Program program = parse(source).freeze();
+        boolean same = NumLocalVarsVisitor.getNumLocalVarsInParallel(program).equals(
+                new NumLocalVarsVisitor().getNumLocalVars(program))
+                && StringConstantsVisitor.getStringConstantsInParallel(program).equals(
+                new StringConstantsVisitor().getStringConstants(program));
+        System.out.println("parallel results match sequential: " + same + " ("
+                + ForkJoinPool.commonPool().getParallelism() + " worker threads)");
+
+        time("sequential", () -> {
+            blackhole += new NumLocalVarsVisitor().getNumLocalVars(program).size();
+            blackhole += new StringConstantsVisitor().getStringConstants(program).size();
+        });
+        time("fork-join", () -> {
+            blackhole += NumLocalVarsVisitor.getNumLocalVarsInParallel(program).size();
+            blackhole += StringConstantsVisitor.getStringConstantsInParallel(program).size();
+        });
+    }
+
+    /**
+     * Compare counting local variables and int constants, and searching
+     * for a division, with visitors that box their results and with the
+     * int and boolean visitors that do not.
+     *
+     * @param source Bantam Java source text
+     */
+    private static void benchmarkTyped(String source) {
+        Program program = parse(source);
+        GenericVisitor<Integer> boxedCounter = new GenericVisitor<Integer>() {
+            protected Integer defaultResult() {
+                return 0;
+            }
+
+            protected Integer aggregate(Integer result, Integer childResult) {
+                return result + childResult;
+            }
+
+            public Integer visit(Formal node) {
+                return 1;
+            }
+
+            public Integer visit(DeclStmt node) {
+                return 1 + super.visit(node);
+            }
+
+            public Integer visit(ConstIntExpr node) {
+                return 1;
+            }
+        };
+        IntVisitor intCounter = new IntVisitor() {
+            public int visit(Formal node) {
+                return 1;
+            }
+
+            public int visit(DeclStmt node) {
+                return 1 + super.visit(node);
+            }
+
+            public int visit(ConstIntExpr node) {
+                return 1;
+            }
+        };
+        GenericVisitor<Boolean> boxedSearch = new GenericVisitor<Boolean>() {
+            protected Boolean defaultResult() {
+                return false;
+            }
+
+            protected Boolean aggregate(Boolean result, Boolean childResult) {
+                return result || childResult;
+            }
+
+            public Boolean visit(BinaryArithDivideExpr node) {
+                return true;
+            }
+        };
+        BooleanVisitor booleanSearch = new BooleanVisitor() {
+            public boolean visit(BinaryArithDivideExpr node) {
+                return true;
+            }
+        };
+        System.out.println("counts: boxed " + program.accept(boxedCounter) + ", int "
+                + program.accept(intCounter) + "; division found: boxed "
+                + program.accept(boxedSearch) + ", boolean " + program.accept(booleanSearch));
+
+        time("count with GenericVisitor<Integer>", () ->
+                blackhole += program.accept(boxedCounter));
+        time("count with IntVisitor", () -> blackhole += program.accept(intCounter));
+        time("search with GenericVisitor<Boolean>", () ->
+                blackhole += program.accept(boxedSearch) ? 1 : 0);
+        time("search with BooleanVisitor", () ->
+                blackhole += program.accept(booleanSearch) ? 1 : 0);
+    }
+
+    /**
+     * Walk a program whose one expression is a chain of the given number
+     * of additions, which is as deep as it is long, recursively and with
+     * the iterative traversal, freeze it and draw it; then compare the
+     * speed of the two walks on the generated program.
+     *
+     * @param source Bantam Java source text
+     * @param terms  the number of terms in the deep expression
+     */
+    private static void benchmarkDeep(String source, int terms) {
+        StringBuilder deepSource = new StringBuilder("class Main { void main() { var x = 1");
+        for (int i = 1; i < terms; i++) {
+            deepSource.append(" + 1");
+        }
+        deepSource.append("; } }");
+        Program deep = parse(deepSource.toString());
+
+        try {
+            new StringConstantsVisitor().getStringConstants(deep);
+            System.out.println("recursive visitor finished");
+        } catch (StackOverflowError e) {
+            System.out.println("recursive visitor: StackOverflowError");
+        }
+        int[] deepest = new int[1];
+        new IterativeTraversal() {
+            protected TraversalAction preVisit(ASTNode node) {
+                deepest[0] = Math.max(deepest[0], getDepth());
+                return TraversalAction.CONTINUE;
+            }
+        }.traverse(deep);
+        System.out.println("iterative traversal finished, tree depth " + deepest[0]);
+        FusedVisitor fused = new FusedVisitor();
+        new StringConstantsVisitor().register(fused);
+        fused.run(deep);
+        System.out.println("fused visitor finished");
+        deep.freeze();
+        System.out.println("tree frozen");
+        BufferedImage image = new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB);
+        Graphics graphics = image.getGraphics();
+        DrawingTree drawing = new LayoutVisitor(graphics.getFontMetrics()).layout(deep);
+        drawing.position(new Point(0, 0));
+        drawing.paint(graphics);
+        System.out.println("tree drawn");
+
+        Program program = parse(source);
+        PreorderVisitor counter = new PreorderVisitor() {
+            protected void visitNode(ASTNode node) {
+                blackhole++;
+            }
+        };
+        time("recursive preorder walk", () -> program.accept(counter));
+        time("iterative preorder walk", () -> IterativeTraversal.preorder(program, counter));
+    }
+
+    /**
+     * Compare answering "calls to method m" and "string constants in class
+     * C" from a node index with answering them by walking the tree, and
+     * check that both find the same nodes.
+     *
+     * @param source Bantam Java source text
+     */
+    private static void benchmarkQuery(String source) {
+        Program program = parse(source);
+        NodeIndex index = new NodeIndex(program);
+        System.out.println("indexed nodes: " + index.size());
+
+        String method = "m1_0";
+        String className = "C7";
+        List<ASTNode> calls = index.find(NodeKind.DISPATCH_EXPR).named(method).list();
+        List<ASTNode> constants = index.find(NodeKind.CONST_STRING_EXPR)
+                .inClass(className).list();
+        boolean same = calls.equals(walkForCalls(program, method))
+                && constants.equals(walkForConstants(program, className));
+        System.out.println(calls.size() + " calls to " + method + ", " + constants.size()
+                + " string constants in " + className + "; index matches tree walk: " + same);
+
+        time("build index", () -> blackhole += new NodeIndex(program).size());
+        time("calls by tree walk", () -> blackhole += walkForCalls(program, method).size());
+        time("calls by index", () ->
+                blackhole += index.find(NodeKind.DISPATCH_EXPR).named(method).count());
+        time("constants in class by tree walk", () ->
+                blackhole += walkForConstants(program, className).size());
+        time("constants in class by index", () -> blackhole +=
+                index.find(NodeKind.CONST_STRING_EXPR).inClass(className).count());
+    }
+
+    private static List<ASTNode> walkForCalls(Program program, String method) {
+        List<ASTNode> found = new ArrayList<>();
+        program.accept(new PreorderVisitor() {
+            protected void visitNode(ASTNode node) {
+                if (node instanceof DispatchExpr
+                        && ((DispatchExpr) node).getMethodName().equals(method)) {
+                    found.add(node);
+                }
+            }
+        });
+        return found;
+    }
+
+    private static List<ASTNode> walkForConstants(Program program, String className) {
+        List<ASTNode> found = new ArrayList<>();
+        program.accept(new Visitor() {
+            public Object visit(Class_ node) {
+                return node.getName().equals(className) ? super.visit(node) : null;
+            }
+
+            public Object visit(ConstStringExpr node) {
+                found.add(node);
+                return null;
+            }
+        });
+        return found;
+    }
+
+    /**
+     * Compare double dispatch through accept with switch dispatch on the
+     * node kind, for a plain walk, for the string constant search, and
+     * for counting declarations, and check that both styles agree.
+     *
+     * @param source Bantam Java source text
+     */
+    private static void benchmarkDispatch(String source) {
+        Program program = parse(source);
+        Visitor walk = new Visitor() {
+        };
+        SwitchVisitor switchWalk = new SwitchVisitor() {
+        };
+
+        boolean same = new StringConstantsVisitor().getStringConstants(program)
+                .equals(switchStringConstants(program))
+                && visitorDeclCount(program) == switchDeclCount(program);
+        System.out.println("both dispatch styles agree: " + same);
+
+        time("walk with accept", () -> program.accept(walk));
+        time("walk with switch", () -> switchWalk.dispatch(program));
+        time("string constants with accept", () ->
+                blackhole += new StringConstantsVisitor().getStringConstants(program).size());
+        time("string constants with switch", () ->
+                blackhole += switchStringConstants(program).size());
+        time("count declarations with accept", () -> blackhole += visitorDeclCount(program));
+        time("count declarations with switch", () -> blackhole += switchDeclCount(program));
+    }
+
+    private static Map<String, String> switchStringConstants(Program program) {
+        StringConstantPool constants = new StringConstantPool();
+        new SwitchVisitor() {
+            public Object visit(Method node) {
+                return dispatch(node.getStmtList());
+            }
+
+            public Object visit(ConstStringExpr node) {
+                constants.intern(node.getConstant());
+                return null;
+            }
+        }.dispatch(program);
+        return constants.getNames();
+    }
+
+    private static int visitorDeclCount(Program program) {
+        int[] count = new int[1];
+        program.accept(new Visitor() {
+            public Object visit(DeclStmt node) {
+                count[0]++;
+                return super.visit(node);
+            }
+
+            public Object visit(Formal node) {
+                count[0]++;
+                return null;
+            }
+        });
+        return count[0];
+    }
+
+    private static int switchDeclCount(Program program) {
+        int[] count = new int[1];
+        new SwitchVisitor() {
+            public Object visit(DeclStmt node) {
+                count[0]++;
+                return super.visit(node);
+            }
+
+            public Object visit(Formal node) {
+                count[0]++;
+                return null;
+            }
+        }.dispatch(program);
+        return count[0];
+    }
+
+    /**
+     * Time searches that prune the traversal: the Main.main check with
+     * Main as the first and as the last class, and finding the first call
+     * with each traversal that honors STOP, against a walk of the whole
+     * tree.
+     *
+     * @param source Bantam Java source text
+     */
+    private static void benchmarkPrune(String source) {
+        Program mainFirst = parse(source);
+        int mainEnd = source.indexOf("}\n}\n") + 4;
+        Program mainLast = parse(source.substring(mainEnd) + source.substring(0, mainEnd));
+        System.out.println("Main.main found: " + new MainMainVisitor().hasMain(mainFirst)
+                + " (Main first), " + new MainMainVisitor().hasMain(mainLast) + " (Main last)");
+        ASTNode call = IterativeTraversal.findFirst(mainLast,
+                node -> node instanceof DispatchExpr);
+        System.out.println("first call on line " + call.getLineNum());
+        PreorderVisitor preorderSearch = new PreorderVisitor() {
+            protected TraversalAction preVisit(ASTNode node) {
+                return node instanceof DispatchExpr ? TraversalAction.STOP
+                        : TraversalAction.CONTINUE;
+            }
+        };
+        SwitchVisitor switchSearch = new SwitchVisitor() {
+            protected TraversalAction preVisit(ASTNode node) {
+                return node instanceof DispatchExpr ? TraversalAction.STOP
+                        : TraversalAction.CONTINUE;
+            }
+        };
+        Function<Program, Boolean> hasCall = piece -> IterativeTraversal.findFirst(piece,
+                node -> node instanceof DispatchExpr) != null;
+        System.out.println("call found: " + preorderSearch.traverse(mainLast) + " (preorder), "
+                + switchSearch.traverse(mainLast) + " (switch), "
+                + ParallelTraversal.mapReduce(mainLast, hasCall, Boolean::logicalOr,
+                found -> found, ForkJoinPool.commonPool()) + " (parallel)");
+
+        Visitor walk = new Visitor() {
+        };
+        time("walk the whole tree", () -> mainLast.accept(walk));
+        time("1000 Main.main checks, Main first", () -> {
+            for (int i = 0; i < 1000; i++) {
+                blackhole += new MainMainVisitor().hasMain(mainFirst) ? 1 : 0;
+            }
+        });
+        time("1000 Main.main checks, Main last", () -> {
+            for (int i = 0; i < 1000; i++) {
+                blackhole += new MainMainVisitor().hasMain(mainLast) ? 1 : 0;
+            }
+        });
+        time("1000 searches for the first call", () -> {
+            for (int i = 0; i < 1000; i++) {
+                blackhole += IterativeTraversal.findFirst(mainLast,
+                        node -> node instanceof DispatchExpr).getLineNum();
+            }
+        });
+        time("1000 preorder searches for a call", () -> {
+            for (int i = 0; i < 1000; i++) {
+                blackhole += preorderSearch.traverse(mainLast) ? 1 : 0;
+            }
+        });
+        time("1000 switch searches for a call", () -> {
+            for (int i = 0; i < 1000; i++) {
+                blackhole += switchSearch.traverse(mainLast) ? 1 : 0;
+            }
+        });
+        time("parallel search for a call, stopping", () ->
+                blackhole += ParallelTraversal.mapReduce(mainLast, hasCall, Boolean::logicalOr,
+                        found -> found, ForkJoinPool.commonPool()) ? 1 : 0);
+        time("parallel search for a call, every piece", () ->
+                blackhole += ParallelTraversal.mapReduce(mainLast, hasCall, Boolean::logicalOr)
+                        ? 1 : 0);
+    }
+
+    /**
+     * Time semantic analysis of generated programs of the given number of
+     * classes and twice and four times as many, printing the time per AST
+     * node, which stays flat when the analysis scales linearly.
+     *
+     * @param classes the number of classes of the smallest program
+     */
+    private static void benchmarkSemant(int classes) {
+        for (int size = classes; size <= classes * 4; size *= 2) {
+            Program program = parse(new ProgramGenerator(size, 5, 4).generate());
+            int nodes = new NodeIndex(program).size();
+            System.out.println(size + " classes, " + nodes + " nodes: "
+                    + semanticErrors(program) + " semantic errors");
+            double mean = time("semant, " + size + " classes",
+                    () -> blackhole += semanticErrors(program));
+            System.out.println(String.format("%-40s %12.1f ns", "  per node", mean / nodes));
+        }
+    }
+
+    private static int semanticErrors(Program program) {
+        ErrorHandler errorHandler = new ErrorHandler();
+        try {
+            new SemanticAnalyzer(errorHandler).analyze(program);
+        } catch (CompilationException e) {
+            return errorHandler.getErrorList().size();
+        }
+        return 0;
+    }
+
+    /**
+     * Time sequential semantic analysis against type checking the members
+     * in parallel on pools of 1, 2 and 4 threads, and check that every
+     * pool registers the same errors as the sequential run, for the
+     * program and for a copy with a type error in every method.
+     *
+     * @param source Bantam Java source text
+     */
+    private static void benchmarkSemantParallel(String source) {
+        Program program = parse(source);
+        Program broken = parse(source.replace("return x;", "return x < 0;"));
+        int[] threads = {1, 2, 4};
+        for (Program checked : new Program[]{program, broken}) {
+            String sequential = semanticErrorList(checked, null);
+            boolean same = true;
+            for (int n : threads) {
+                ForkJoinPool pool = new ForkJoinPool(n);
+                same &= semanticErrorList(checked, pool).equals(sequential);
+                pool.shutdown();
+            }
+            System.out.println(sequential.split("\n", -1).length - 1
+                    + " errors registered, same for every pool: " + same);
+        }
+
+        time("sequential", () -> blackhole += semanticErrors(program));
+        for (int n : threads) {
+            ForkJoinPool pool = new ForkJoinPool(n);
+            time("fork-join, " + n + " threads", () -> {
+                try {
+                    new SemanticAnalyzer(new ErrorHandler()).analyzeInParallel(program, pool);
+                } catch (CompilationException e) {
+                    blackhole++;
+                }
+            });
+            pool.shutdown();
+        }
+        System.out.println("(" + Runtime.getRuntime().availableProcessors()
+                + " processors available)");
+    }
+
+    /**
+     * Run semantic analysis on one frozen program from many threads at
+     * once, sequentially and in parallel by turns, and check that every
+     * run registers the same errors and finds the same expression types,
+     * upcasts and variable types as a single run.  A class of casts and
+     * instanceofs is added to the program, and the runs alternate with a
+     * copy that has a type error in every method.
+     *
+     * @param source Bantam Java source text
+     */
+    private static void benchmarkSemantShared(String source) {
+        String casts = "class Casts {\n"
+                + "    boolean m(C1 a, C0 b) {\n"
+                + "        var up = cast(C0, a);\n"
+                + "        var down = cast(C1, b);\n"
+                + "        return a instanceof C0 && b instanceof C2;\n"
+                + "    }\n"
+                + "}\n";
+        Program[] programs = {
+                parse(source + casts).freeze(),
+                parse(source.replace("return x;", "return x < 0;") + casts).freeze()};
+        long[] expected = new long[programs.length];
+        for (int i = 0; i < programs.length; i++) {
+            expected[i] = semanticFingerprint(programs[i], null);
+        }
+
+        int threads = Math.max(8, Runtime.getRuntime().availableProcessors() * 2);
+        int runsPerThread = 4;
+        ForkJoinPool checkPool = new ForkJoinPool(2);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int first = t;
+            results.add(pool.submit(() -> {
+                int mismatches = 0;
+                for (int run = 0; run < runsPerThread; run++) {
+                    int which = (first + run) % programs.length;
+                    ForkJoinPool checks = (first + run) / programs.length % 2 == 0
+                            ? null : checkPool;
+                    if (semanticFingerprint(programs[which], checks) != expected[which]) {
+                        mismatches++;
+                    }
+                }
+                return mismatches;
+            }));
+        }
+        int mismatches = 0;
+        try {
+            for (Future<Integer> result : results) {
+                mismatches += result.get();
+            }
+            pool.shutdown();
+            pool.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+        checkPool.shutdown();
+        System.out.println(String.format("%d threads ran %d analyses in %.1f ms, %d mismatches",
+                threads, threads * runsPerThread, (System.nanoTime() - start) / 1e6,
+                mismatches));
+        time("sequential, one thread", () -> blackhole += semanticErrors(programs[0]));
+    }
+
+    /**
+     * Analyze a program, sequentially or in parallel if a pool is given,
+     * and hash the errors registered and everything the analysis found
+     * about the nodes: the type of every expression, whether each cast or
+     * instanceof goes up the class tree, and the type of every variable
+     */
+    private static long semanticFingerprint(Program program, ForkJoinPool pool) {
+        ErrorHandler errorHandler = new ErrorHandler();
+        SemanticAnalyzer analyzer = new SemanticAnalyzer(errorHandler);
+        try {
+            if (pool == null) {
+                analyzer.analyze(program);
+            }
+            else {
+                analyzer.analyzeInParallel(program, pool);
+            }
+        } catch (CompilationException e) {
+            // the errors are hashed below
+        }
+        long[] hash = {0};
+        for (Error error : errorHandler.getErrorList()) {
+            hash[0] = hash[0] * 31 + error.toString().hashCode();
+        }
+        ExprTypeTable table = analyzer.getExprTypes();
+        new IterativeTraversal() {
+            protected TraversalAction preVisit(ASTNode node) {
+                if (node instanceof Expr) {
+                    Expr expr = (Expr) node;
+                    hash[0] = hash[0] * 31 + Objects.hashCode(table.getType(expr));
+                    hash[0] = hash[0] * 31 + (table.isUpward(expr) ? 1 : 0);
+                }
+                else if (node instanceof DeclStmt) {
+                    hash[0] = hash[0] * 31
+                            + Objects.hashCode(table.getVarType((DeclStmt) node));
+                }
+                return TraversalAction.CONTINUE;
+            }
+        }.traverse(program);
+        return hash[0];
+    }
+
+    /**
+     * Run semantic analysis sequentially, or in parallel if a pool is
+     * given, and list the errors registered, one per line
+     */
+    private static String semanticErrorList(Program program, ForkJoinPool pool) {
+        ErrorHandler errorHandler = new ErrorHandler();
+        SemanticAnalyzer analyzer = new SemanticAnalyzer(errorHandler);
+        try {
+            if (pool == null) {
+                analyzer.analyze(program);
+            }
+            else {
+                analyzer.analyzeInParallel(program, pool);
+            }
+        } catch (CompilationException e) {
+            // the errors are listed below
+        }
+        StringBuilder errors = new StringBuilder();
+        for (Error error : errorHandler.getErrorList()) {
+            errors.append(error).append('\n');
+        }
+        return errors.toString();
+    }
+
+    /**
+     * Time incremental semantic analysis of edited versions of a program
+     * against analyzing each version from scratch, and check that both
+     * give the same errors.  The edits are a new line at the top, which
+     * moves every class, a type error in the last class, a leaf, a change
+     * to the root class, which every other class inherits from, a new
+     * line at the top of the version with the error, and two statements
+     * of the last class swapped, so a variable is used before it is
+     * declared.
+     *
+     * @param source  Bantam Java source text
+     * @param classes the number of classes of the program
+     */
+    private static void benchmarkIncremental(String source, int classes) {
+        int last = source.indexOf("class C" + (classes - 1) + " ");
+        String broken = source.substring(0, last)
+                + source.substring(last).replaceFirst("return x;", "return x == 0;");
+        String reordered = source.substring(0, last) + source.substring(last)
+                .replaceFirst("(var x = a \\+ b \\* 2;)(\\s*)(var y = x - f\\d+;)", "$3$2$1");
+        String[] labels = {"new first line", "error in leaf class", "change to root class",
+                "new first line, leaf class with error", "statements swapped in leaf class"};
+        String[][] edits = {
+                {source, "// edited\n" + source},
+                {source, broken},
+                {source, source.replaceFirst("int f0 = 0;", "int f0 = 1;")},
+                {broken, "// edited\n" + broken},
+                {source, reordered}
+        };
+        for (int i = 0; i < edits.length; i++) {
+            Program before = parse(edits[i][0]);
+            Program after = parse(edits[i][1]);
+            IncrementalAnalyzer analyzer = new IncrementalAnalyzer(new ErrorHandler());
+            incrementalErrors(analyzer, before);
+            String errors = incrementalErrors(analyzer, after);
+            System.out.println(labels[i] + ": " + analyzer.getRecheckedClasses().size()
+                    + " of " + after.getClassList().getSize() + " classes checked again, "
+                    + "errors " + (errors.equals(semanticErrorList(after, null)) ? "same as"
+                    : "DIFFERENT FROM") + " a full check");
+
+            time("full check", () -> blackhole += semanticErrors(after));
+            // time only the step to the edited version, not the step back
+            long total = 0;
+            for (int n = 0; n < WARMUP_ITERATIONS + ITERATIONS; n++) {
+                incrementalErrors(analyzer, before);
+                long start = System.nanoTime();
+                blackhole += incrementalErrors(analyzer, after).length();
+                if (n >= WARMUP_ITERATIONS) {
+                    total += System.nanoTime() - start;
+                }
+            }
+            System.out.println(String.format("%-40s %12.3f ms", "incremental check",
+                    total / (double) ITERATIONS / 1e6));
+        }
+    }
+
+    /**
+     * Run an incremental analysis and list the errors registered, one per
+     * line
+     */
+    private static String incrementalErrors(IncrementalAnalyzer analyzer, Program program) {
+        ErrorHandler errorHandler = analyzer.getErrorHandler();
+        errorHandler.clear();
+        try {
+            analyzer.analyze(program);
+        } catch (CompilationException e) {
+            // the errors are listed below
+        }
+        StringBuilder errors = new StringBuilder();
+        for (Error error : errorHandler.getErrorList()) {
+            errors.append(error).append('\n');
+        }
+        return errors.toString();
+    }
+
+    /**
+     * Time reading the type of every expression of a program from the
+     * table filled by semantic analysis against deriving the types again by
+     * type checking, and check that sequential and parallel analysis give
+     * every expression the same type
+     *
+     * @param source Bantam Java source text
+     */
+    private static void benchmarkExprTypes(String source) {
+        Program program = parse(source);
+        List<Expr> exprs = new ArrayList<>();
+        new IterativeTraversal() {
+            protected TraversalAction preVisit(ASTNode node) {
+                if (node instanceof Expr) {
+                    exprs.add((Expr) node);
+                }
+                return TraversalAction.CONTINUE;
+            }
+        }.traverse(program);
+
+        SemanticAnalyzer analyzer = new SemanticAnalyzer(new ErrorHandler());
+        analyzer.analyze(program);
+        ExprTypeTable sequential = analyzer.getExprTypes();
+        String[] types = new String[exprs.size()];
+        for (int i = 0; i < types.length; i++) {
+            types[i] = sequential.getType(exprs.get(i));
+        }
+        ForkJoinPool pool = new ForkJoinPool(2);
+        analyzer.analyzeInParallel(program, pool);
+        pool.shutdown();
+        ExprTypeTable parallel = analyzer.getExprTypes();
+        boolean same = parallel.size() == sequential.size();
+        for (int i = 0; i < types.length; i++) {
+            same &= Objects.equals(types[i], parallel.getType(exprs.get(i)));
+        }
+        System.out.println(exprs.size() + " expressions, " + parallel.size()
+                + " typed, same types in parallel: " + same);
+
+        Expr[] nodes = exprs.toArray(new Expr[0]);
+        double read = time("read types from table", () -> {
+            for (Expr expr : nodes) {
+                blackhole += parallel.getTypeId(expr);
+            }
+        });
+        System.out.println(String.format("%-40s %12.1f ns", "  per expression",
+                read / nodes.length));
+        time("derive types by type checking", () -> blackhole += semanticErrors(program));
+    }
+
+    /**
+     * Build the string constant pool of a program, and of a version with a
+     * new class in front using new constants, and check that every
+     * constant of the program keeps its name in the new version and gets
+     * the same name in parallel.  Prints how many constants the program
+     * has against how many distinct ones the pool keeps.
+     *
+     * @param source Bantam Java source text
+     */
+    private static void benchmarkConstantPool(String source) {
+        Program program = parse(source);
+        Program edited = parse("class Extra { String a = \"extra\"; String b = \"field3x\"; }\n"
+                + source);
+        int[] occurrences = new int[1];
+        program.accept(new Visitor() {
+            public Object visit(ConstStringExpr node) {
+                occurrences[0]++;
+                return null;
+            }
+        });
+        Map<String, String> names = new StringConstantsVisitor().getStringConstants(program);
+        Map<String, String> editedNames = new StringConstantsVisitor().getStringConstants(edited);
+        boolean stable = true;
+        for (Map.Entry<String, String> entry : names.entrySet()) {
+            stable &= entry.getValue().equals(editedNames.get(entry.getKey()));
+        }
+        System.out.println(occurrences[0] + " string constants, " + names.size()
+                + " in the pool; names kept after edit: " + stable
+                + ", same in parallel: "
+                + names.equals(StringConstantsVisitor.getStringConstantsInParallel(program)));
+
+        time("build pool", () ->
+                blackhole += new StringConstantsVisitor().getStringConstants(program).size());
+        time("build pool in parallel", () ->
+                blackhole += StringConstantsVisitor.getStringConstantsInParallel(program).size());
+    }
+
+    /**
+     * Lay out the frames of a program, check that no two variables sharing
+     * a slot are live at the same time and that every method has as many
+     * variables as the local variable count, and print the slots saved.
+     * Times the layout against the count.
+     *
+     * @param source Bantam Java source text
+     */
+    private static void benchmarkFrames(String source) {
+        Program program = parse(source);
+        FrameLayout layout = FrameLayout.of(program);
+        Map<String, Integer> counts = new NumLocalVarsVisitor().getNumLocalVars(program);
+        boolean disjoint = true;
+        boolean counted = counts.size() == layout.getFrames().size();
+        int variables = 0;
+        for (Map.Entry<String, FrameLayout.MethodFrame> entry : layout.getFrames().entrySet()) {
+            FrameLayout.MethodFrame frame = entry.getValue();
+            counted &= counts.get(entry.getKey()) == frame.getNumVariables();
+            variables += frame.getNumVariables();
+            for (int i = 0; i < frame.getNumVariables(); i++) {
+                for (int j = i + 1; j < frame.getNumVariables(); j++) {
+                    int[] first = frame.getLiveRange(i);
+                    int[] second = frame.getLiveRange(j);
+                    disjoint &= frame.getSlot(i) != frame.getSlot(j)
+                            || first[1] < second[0] || second[1] < first[0];
+                }
+            }
+        }
+        System.out.println(layout.getFrames().size() + " methods, " + variables
+                + " variables, " + (variables - layout.getSlotsSaved()) + " slots ("
+                + layout.getSlotsSaved() + " saved); shared slots disjoint: " + disjoint
+                + ", variables match local counts: " + counted);
+
+        time("count local variables", () ->
+                blackhole += new NumLocalVarsVisitor().getNumLocalVars(program).size());
+        time("lay out frames", () -> blackhole += FrameLayout.of(program).getSlotsSaved());
+    }
+
+    /**
+     * Time subclass tests with Euler tour intervals against walking the
+     * parent chain, on the generated program's hierarchy and on a single
+     * chain of classes of the given depth.
+     *
+     * @param source Bantam Java source text
+     * @param depth  the depth of the chain
+     */
+    private static void benchmarkSubtype(String source, int depth) {
+        StringBuilder chain = new StringBuilder("class Main { void main() { } }\n");
+        chain.append("class K0 { }\n");
+        for (int i = 1; i < depth; i++) {
+            chain.append("class K").append(i).append(" extends K").append(i - 1)
+                    .append(" { }\n");
+        }
+        for (String program : new String[]{source, chain.toString()}) {
+            ClassTable table = new ClassTable(parse(program), new ErrorHandler());
+            ClassTreeNode[] classes = table.getClassMap().values()
+                    .toArray(new ClassTreeNode[0]);
+            Random random = new Random(42);
+            int queries = 100000;
+            ClassTreeNode[] subs = new ClassTreeNode[queries];
+            ClassTreeNode[] supers = new ClassTreeNode[queries];
+            for (int i = 0; i < queries; i++) {
+                subs[i] = classes[random.nextInt(classes.length)];
+                supers[i] = classes[random.nextInt(classes.length)];
+            }
+            int intervalHits = 0;
+            int walkHits = 0;
+            for (int i = 0; i < queries; i++) {
+                intervalHits += subs[i].isSubclassOf(supers[i]) ? 1 : 0;
+                walkHits += isSubclassByWalk(subs[i], supers[i]) ? 1 : 0;
+            }
+            System.out.println(classes.length + " classes: " + intervalHits + " of "
+                    + queries + " pairs related, " + (intervalHits == walkHits
+                    ? "same as" : "DIFFERENT FROM") + " the parent-chain walk");
+            time("100000 tests, parent-chain walk", () -> {
+                for (int i = 0; i < queries; i++) {
+                    blackhole += isSubclassByWalk(subs[i], supers[i]) ? 1 : 0;
+                }
+            });
+            time("100000 tests, Euler tour intervals", () -> {
+                for (int i = 0; i < queries; i++) {
+                    blackhole += subs[i].isSubclassOf(supers[i]) ? 1 : 0;
+                }
+            });
+        }
+    }
+
+    /**
+     * Time member lookups in the member tries of the class table against
+     * walking the parent chain, on single chains of classes of the given
+     * depth and of two and four times that, each class declaring a field
+     * and a method, and the deepest using a member of every class above
+     * it.  Checks that both find the same members and that the program has
+     * no semantic errors, and times building the class table, which should
+     * grow linearly with the depth, and checking the program.
+     *
+     * @param depth the depth of the shortest chain
+     */
+    private static void benchmarkMembers(int depth) {
+        for (int d = depth; d <= depth * 4; d *= 2) {
+            benchmarkMemberChain(d);
+        }
+    }
+
+    private static void benchmarkMemberChain(int depth) {
+        StringBuilder chain = new StringBuilder("class Main { void main() { } }\n");
+        for (int i = 0; i < depth; i++) {
+            chain.append("class K").append(i);
+            if (i > 0) {
+                chain.append(" extends K").append(i - 1);
+            }
+            chain.append(" {\n    int g").append(i).append(" = ").append(i).append(";\n");
+            chain.append("    int n").append(i).append("() { return g").append(i)
+                    .append("; }\n");
+            if (i == depth - 1) {
+                chain.append("    int all() {\n        var x = 0;\n");
+                for (int j = 0; j < depth; j++) {
+                    chain.append("        x = x + g").append(j).append(" + n").append(j)
+                            .append("();\n");
+                }
+                chain.append("        return x;\n    }\n");
+            }
+            chain.append("}\n");
+        }
+        Program program = parse(chain.toString());
+        System.out.println(depth + " classes deep: " + semanticErrors(program)
+                + " semantic errors");
+
+        ClassTable table = new ClassTable(program, new ErrorHandler());
+        ClassTreeNode leaf = table.get("K" + (depth - 1));
+        Symbol[] fields = new Symbol[depth];
+        Symbol[] methods = new Symbol[depth];
+        boolean same = true;
+        for (int i = 0; i < depth; i++) {
+            fields[i] = Symbol.intern("g" + i);
+            methods[i] = Symbol.intern("n" + i);
+            same &= leaf.lookupField(fields[i]) == lookupFieldByWalk(leaf, fields[i])
+                    && leaf.lookupField(fields[i]) != null
+                    && leaf.lookupMethod(methods[i]) == lookupMethodByWalk(leaf, methods[i])
+                    && leaf.lookupMethod(methods[i]) != null;
+        }
+        System.out.println("member tries find the same members as the walk: " + same);
+        time(2 * depth + " lookups, parent-chain walk", () -> {
+            for (int i = 0; i < depth; i++) {
+                blackhole += lookupFieldByWalk(leaf, fields[i]).getLineNum();
+                blackhole += lookupMethodByWalk(leaf, methods[i]).getLineNum();
+            }
+        });
+        time(2 * depth + " lookups, member tries", () -> {
+            for (int i = 0; i < depth; i++) {
+                blackhole += leaf.lookupField(fields[i]).getLineNum();
+                blackhole += leaf.lookupMethod(methods[i]).getLineNum();
+            }
+        });
+        double build = time("build class table", () ->
+                blackhole += new ClassTable(program, new ErrorHandler()).getClassMap().size());
+        System.out.println(String.format("%-40s %12.1f ns", "  per class", build / depth));
+        time("semant", () -> blackhole += semanticErrors(program));
+    }
+
+    private static Field lookupFieldByWalk(ClassTreeNode node, Symbol name) {
+        for (; node != null; node = node.getParent()) {
+            Field field = node.getFields().get(name);
+            if (field != null) {
+                return field;
+            }
+        }
+        return null;
+    }
+
+    private static Method lookupMethodByWalk(ClassTreeNode node, Symbol name) {
+        for (; node != null; node = node.getParent()) {
+            Method method = node.getMethods().get(name);
+            if (method != null) {
+                return method;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isSubclassByWalk(ClassTreeNode node, ClassTreeNode ancestor) {
+        for (; node != null; node = node.getParent()) {
+            if (node == ancestor) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Visitor collecting every ClassList, MemberList, StmtList and ExprList
+     */
+    private static class ListCollector extends Visitor {
+        private final List<ListNode> classLists = new ArrayList<>();
+        private final List<ListNode> memberLists = new ArrayList<>();
+        private final List<ListNode> stmtLists = new ArrayList<>();
+        private final List<ListNode> exprLists = new ArrayList<>();
+
+        List<List<ListNode>> byKind() {
+            List<List<ListNode>> kinds = new ArrayList<>();
+            for (List<ListNode> lists : Arrays.asList(classLists, memberLists, stmtLists,
+                    exprLists)) {
+                if (!lists.isEmpty()) {
+                    kinds.add(lists);
+                }
+            }
+            return kinds;
+        }
+
+        public Object visit(ClassList node) {
+            classLists.add(node);
+            return super.visit(node);
+        }
+
+        public Object visit(MemberList node) {
+            memberLists.add(node);
+            return super.visit(node);
+        }
+
+        public Object visit(StmtList node) {
+            stmtLists.add(node);
+            return super.visit(node);
+        }
+
+        public Object visit(ExprList node) {
+            exprLists.add(node);
+            return super.visit(node);
+        }
+    }
+}
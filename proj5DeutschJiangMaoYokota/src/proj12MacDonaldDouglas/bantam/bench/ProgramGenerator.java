@@ -0,0 +1,135 @@
+/*
+ * File: bantam.bench.ProgramGenerator.java
+ * CS361 Project 11
+ * Names: Martin Deutsch and Wyett MacDonald
+ * Date: 2/13/2019
+ * This file contains the ProgramGenerator, which writes synthetic
+ * Bantam Java programs of a chosen size for benchmarking
+ */
+
+package proj12MacDonaldDouglas.bantam.bench;
+
+/**
+ * ProgramGenerator produces large, well-formed Bantam Java programs.
+ * Every class extends an earlier class, and every method uses locals,
+ * nested control flow, string constants, allocation and dispatch, so
+ * the output exercises all the list kinds and most node kinds.
+ *
+ * @author Martin Deutsch
+ * @author Wyett MacDonald
+ */
+public class ProgramGenerator {
+
+    private final int numClasses;
+    private final int methodsPerClass;
+    private final int statementsPerMethod;
+
+    /**
+     * ProgramGenerator constructor
+     *
+     * @param numClasses          the number of classes besides Main
+     * @param methodsPerClass     the number of methods in each class
+     * @param statementsPerMethod the number of statement groups in each method
+     */
+    public ProgramGenerator(int numClasses, int methodsPerClass, int statementsPerMethod) {
+        this.numClasses = numClasses;
+        this.methodsPerClass = methodsPerClass;
+        this.statementsPerMethod = statementsPerMethod;
+    }
+
+    /**
+     * Generate the source of the program
+     *
+     * @return the Bantam Java source text
+     */
+    public String generate() {
+        StringBuilder src = new StringBuilder();
+        src.append("class Main {\n");
+        src.append("    void main() {\n");
+        src.append("        var c = new C0();\n");
+        src.append("        c.m0_0(1, 2);\n");
+        src.append("    }\n");
+        src.append("}\n");
+        for (int i = 0; i < numClasses; i++) {
+            appendClass(src, i);
+        }
+        return src.toString();
+    }
+
+    /**
+     * Generate a program consisting of a single method whose body nests
+     * blocks and parenthesized expressions to the given depth
+     *
+     * @param depth the nesting depth
+     * @return the Bantam Java source text
+     */
+    public static String generateDeep(int depth) {
+        StringBuilder src = new StringBuilder();
+        src.append("class Main {\n    void main() {\n        var x = ");
+        for (int i = 0; i < depth; i++) {
+            src.append("(1 + ");
+        }
+        src.append("0");
+        for (int i = 0; i < depth; i++) {
+            src.append(")");
+        }
+        src.append(";\n");
+        for (int i = 0; i < depth; i++) {
+            src.append("{ ");
+        }
+        src.append("x = x + 1;");
+        for (int i = 0; i < depth; i++) {
+            src.append(" }");
+        }
+        src.append("\n    }\n}\n");
+        return src.toString();
+    }
+
+    private void appendClass(StringBuilder src, int i) {
+        src.append("class C").append(i);
+        if (i > 0) {
+            src.append(" extends C").append((i - 1) / 2);
+        }
+        src.append(" {\n");
+        src.append("    int f").append(i).append(" = ").append(i).append(";\n");
+        src.append("    String s").append(i).append(" = \"field")
+                .append(i % 16).append("\";\n");
+        for (int j = 0; j < methodsPerClass; j++) {
+            appendMethod(src, i, j);
+        }
+        src.append("}\n");
+    }
+
+    private void appendMethod(StringBuilder src, int i, int j) {
+        src.append("    int m").append(i).append("_").append(j)
+                .append("(int a, int b) {\n");
+        src.append("        var x = a + b * 2;\n");
+        src.append("        var y = x - f").append(i).append(";\n");
+        for (int k = 0; k < statementsPerMethod; k++) {
+            int n = i * 31 + j * 7 + k;
+            src.append("        var s").append(k).append(" = \"str")
+                    .append(n % 64).append("\";\n");
+            src.append("        if (x < y && !(y == ").append(k).append(")) {\n");
+            src.append("            x = x + 1;\n");
+            src.append("        }\n");
+            src.append("        else {\n");
+            src.append("            y = y - 1;\n");
+            src.append("        }\n");
+            src.append("        while (x > ").append(k).append(") {\n");
+            src.append("            x = x - 1;\n");
+            src.append("            if (x == 5)\n");
+            src.append("                break;\n");
+            src.append("        }\n");
+            src.append("        for (y = 0; y < 10; y++)\n");
+            src.append("            x = x + y % 3;\n");
+            src.append("        var o").append(k).append(" = new C")
+                    .append(n % (i + 1)).append("();\n");
+            if (j > 0) {
+                src.append("        x = this.m").append(i).append("_").append(j - 1)
+                        .append("(x, y);\n");
+            }
+        }
+        src.append("        return x;\n");
+        src.append("    }\n");
+    }
+}
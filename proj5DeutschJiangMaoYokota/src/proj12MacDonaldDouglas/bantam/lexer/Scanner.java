@@ -74,6 +74,20 @@ public class Scanner
         this.sourceFile = new SourceFile(reader);
     }
 
+    /**
+     * Constructor taking the name of the file being tokenized, a reader
+     * supplying its contents and the error handler
+     *
+     * @param filename the name used when registering errors
+     * @param reader the reader to initialize the SourceFile object with
+     * @param handler the ErrorHandler to register errors with
+     */
+    public Scanner(String filename, Reader reader, ErrorHandler handler) {
+        this.errorHandler = handler;
+        this.currentChar = ' ';
+        this.sourceFile = new SourceFile(filename, reader);
+    }
+
     /**
      * Sets the sourceFile to scan
      * @param sourceFile the SourceFile object to scan from
@@ -98,6 +112,7 @@ public class Scanner
         StringBuilder spelling = new StringBuilder();
         Token.Kind kind;
         int position = this.sourceFile.getCurrentLineNumber();
+        int startOffset = this.sourceFile.getCurrentOffset();
 
         // identifier
         if (Character.isLetter(this.currentChar)) {
@@ -133,7 +148,8 @@ public class Scanner
         }
 
         // generate the token
-        return new Token(kind, spelling.toString(), position);
+        return new Token(kind, spelling.toString(), position, startOffset,
+                this.sourceFile.getCurrentOffset());
     }
 
     /**
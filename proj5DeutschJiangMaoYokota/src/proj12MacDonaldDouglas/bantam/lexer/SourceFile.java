@@ -33,6 +33,8 @@ class SourceFile
     private Reader sourceReader;   // the reader of the file
     private int currentLineNumber; // for bantam.error messages
     private int prevChar;          // the previous character read
+    private int charsRead;         // the number of characters read so far
+    private int currentOffset;     // the offset of the last character returned
     private String filename;       // the file currently being scanned.
 
     /**
@@ -61,12 +63,36 @@ class SourceFile
     }
 
 
+    /**
+     * creates a new SourceFile object reading from the given reader, reporting
+     * errors against the given file name
+     *
+     * @param filename the name of the file the characters belong to
+     * @param in       the reader supplying the characters
+     */
+    SourceFile(String filename, Reader in) {
+        this(in);
+        this.filename = filename;
+    }
+
+
     int getCurrentLineNumber() {
         return currentLineNumber;
     }
 
     String getFilename() { return filename; }
 
+    /**
+     * Returns the offset, counted in characters from the start of the source,
+     * of the character most recently returned by getNextChar().  At the end of
+     * the file this is the length of the source.
+     *
+     * @return the character offset
+     */
+    int getCurrentOffset() {
+        return currentOffset;
+    }
+
     /**
      * Finds and returns the next character in the source file.
      * If the end of the file has been reached or an exception occurs,
@@ -82,9 +108,13 @@ class SourceFile
 
             if (c == -1) {
                 c = eof;
+                currentOffset = charsRead;
             }
-            else if (c == cr || (c == eol && prevChar != cr)) {
-                currentLineNumber++;
+            else {
+                currentOffset = charsRead++;
+                if (c == cr || (c == eol && prevChar != cr)) {
+                    currentLineNumber++;
+                }
             }
             prevChar = c;
             return (char) c;
@@ -25,6 +25,8 @@
      public Kind kind;
      public String spelling; // the actual sequence of chars in the token
      public int position; // the line number where the token was found
+     public int startOffset; // the character offset of the token's first char
+     public int endOffset; // the character offset just past the token's last char
 
      public String getSpelling() {
          return spelling;
@@ -32,9 +34,11 @@
 
 
      //constructor
-     Token(Kind kind, String spelling, int position) {
+     Token(Kind kind, String spelling, int position, int startOffset, int endOffset) {
          this.spelling = spelling;
          this.position = position;
+         this.startOffset = startOffset;
+         this.endOffset = endOffset;
 
          //patch the kind in the case of boolean constants and keywords
          if (kind == Kind.IDENTIFIER && (spelling.equals("true") || spelling.equals("false"))) {
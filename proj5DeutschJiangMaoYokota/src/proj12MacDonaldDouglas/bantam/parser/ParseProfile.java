@@ -0,0 +1,158 @@
+/*
+ * File: bantam.parser.ParseProfile.java
+ * CS361 Project 11
+ * Names: Martin Deutsch and Wyett MacDonald
+ * Date: 2/13/2019
+ * This file contains the ParseProfile, which accumulates per-production
+ * statistics while the Parser runs in profiling mode
+ */
+
+package proj12MacDonaldDouglas.bantam.parser;
+
+/**
+ * ParseProfile records, for each grammar production, how many times it
+ * completed, how many tokens it consumed and how much time was spent in it.
+ * Token counts and times are inclusive of nested productions.
+ *
+ * @author Martin Deutsch
+ * @author Wyett MacDonald
+ */
+public class ParseProfile {
+
+    /**
+     * The productions of the grammar, named after the Parser methods
+     * that recognize them
+     */
+    public enum Production {
+        PROGRAM("parseProgram"), CLASS("parseClass"), MEMBER("parseMember"),
+        STATEMENT("parseStatement"), WHILE("parseWhile"), RETURN("parseReturn"),
+        BREAK("parseBreak"), EXPRESSION_STMT("parseExpressionStmt"),
+        DECL_STMT("parseDeclStmt"), FOR("parseFor"), BLOCK("parseBlock"),
+        IF("parseIf"), EXPRESSION("parseExpression"), OR_EXPR("parseOrExpr"),
+        AND_EXPR("parseAndExpr"), EQUALITY_EXPR("parseEqualityExpr"),
+        RELATIONAL_EXPR("parseRelationalExpr"), ADD_EXPR("parseAddExpr"),
+        MULT_EXPR("parseMultExpr"), NEW_CAST_OR_UNARY("parseNewCastOrUnary"),
+        NEW("parseNew"), CAST("parseCast"), UNARY_PREFIX("parseUnaryPrefix"),
+        UNARY_POSTFIX("parseUnaryPostfix"), PRIMARY("parsePrimary"),
+        ARGUMENTS("parseArguments"), PARAMETERS("parseParameters"),
+        FORMAL("parseFormal"), TYPE("parseType");
+
+        private final String methodName;
+
+        Production(String methodName) {
+            this.methodName = methodName;
+        }
+
+        /**
+         * Get the name of the Parser method recognizing this production
+         *
+         * @return the method name
+         */
+        public String getMethodName() {
+            return methodName;
+        }
+    }
+
+    private final long[] invocations = new long[Production.values().length];
+    private final long[] tokens = new long[Production.values().length];
+    private final long[] nanos = new long[Production.values().length];
+
+    /**
+     * Record one completed invocation of a production
+     *
+     * @param production  the production that completed
+     * @param startNanos  the value of System.nanoTime() when it started
+     * @param tokensCount the number of tokens it consumed
+     */
+    void record(Production production, long startNanos, int tokensCount) {
+        int i = production.ordinal();
+        invocations[i]++;
+        tokens[i] += tokensCount;
+        nanos[i] += System.nanoTime() - startNanos;
+    }
+
+    /**
+     * Get the number of completed invocations of a production
+     *
+     * @param production the production
+     * @return the invocation count
+     */
+    public long getInvocations(Production production) {
+        return invocations[production.ordinal()];
+    }
+
+    /**
+     * Get the number of tokens consumed by a production
+     *
+     * @param production the production
+     * @return the token count, including nested productions
+     */
+    public long getTokens(Production production) {
+        return tokens[production.ordinal()];
+    }
+
+    /**
+     * Get the cumulative time spent in a production
+     *
+     * @param production the production
+     * @return the time in nanoseconds, including nested productions
+     */
+    public long getNanos(Production production) {
+        return nanos[production.ordinal()];
+    }
+
+    /**
+     * Discard all recorded statistics
+     */
+    public void reset() {
+        for (int i = 0; i < invocations.length; i++) {
+            invocations[i] = 0;
+            tokens[i] = 0;
+            nanos[i] = 0;
+        }
+    }
+
+    /**
+     * Format the statistics as a plain text table, one production per line
+     *
+     * @return the table
+     */
+    public String toTable() {
+        StringBuilder table = new StringBuilder();
+        table.append(String.format("%-22s %12s %12s %14s%n",
+                "production", "invocations", "tokens", "total ms"));
+        for (Production production : Production.values()) {
+            int i = production.ordinal();
+            if (invocations[i] == 0) {
+                continue;
+            }
+            table.append(String.format("%-22s %12d %12d %14.3f%n",
+                    production.getMethodName(), invocations[i], tokens[i],
+                    nanos[i] / 1e6));
+        }
+        return table.toString();
+    }
+
+    /**
+     * Format the statistics as a JSON array, one object per production
+     *
+     * @return the JSON text
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder("[");
+        for (Production production : Production.values()) {
+            int i = production.ordinal();
+            if (invocations[i] == 0) {
+                continue;
+            }
+            if (json.length() > 1) {
+                json.append(",");
+            }
+            json.append("\n  {\"production\": \"").append(production.getMethodName())
+                    .append("\", \"invocations\": ").append(invocations[i])
+                    .append(", \"tokens\": ").append(tokens[i])
+                    .append(", \"nanos\": ").append(nanos[i]).append("}");
+        }
+        return json.append("\n]\n").toString();
+    }
+}
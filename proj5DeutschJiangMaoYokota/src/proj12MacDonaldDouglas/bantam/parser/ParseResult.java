@@ -0,0 +1,110 @@
+/*
+ * File: bantam.parser.ParseResult.java
+ * CS361 Project 11
+ * Names: Martin Deutsch and Wyett MacDonald
+ * Date: 2/13/2019
+ * This file contains the ParseResult, which bundles the outcome of a
+ * parse without requiring the caller to catch exceptions
+ */
+
+package proj12MacDonaldDouglas.bantam.parser;
+
+import proj12MacDonaldDouglas.bantam.ast.Program;
+import proj12MacDonaldDouglas.bantam.ast.index.NodeIndex;
+import proj12MacDonaldDouglas.bantam.ast.index.SpanIndex;
+import proj12MacDonaldDouglas.bantam.util.Error;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * ParseResult holds the AST produced by a parse (if any), the errors
+ * registered while scanning and parsing, and whether the parse succeeded.
+ * A successful parse may still carry lexical errors that the parser
+ * was able to recover from.
+ *
+ * @author Martin Deutsch
+ * @author Wyett MacDonald
+ */
+public class ParseResult {
+
+    private final Program program;
+    private final List<Error> errors;
+    private final String failureMessage;
+    private SpanIndex spanIndex;
+    private NodeIndex nodeIndex;
+
+    /**
+     * ParseResult constructor
+     *
+     * @param program        the root of the AST, or null if parsing failed
+     * @param errors         the errors registered during the parse
+     * @param failureMessage the message of the error that stopped the parse,
+     *                       or null if parsing succeeded
+     */
+    ParseResult(Program program, List<Error> errors, String failureMessage) {
+        this.program = program;
+        this.errors = Collections.unmodifiableList(errors);
+        this.failureMessage = failureMessage;
+    }
+
+    /**
+     * Get the root of the AST
+     *
+     * @return the Program node, or null if parsing failed
+     */
+    public Program getProgram() {
+        return program;
+    }
+
+    /**
+     * Get the errors registered while scanning and parsing
+     *
+     * @return an unmodifiable list of errors
+     */
+    public List<Error> getErrors() {
+        return errors;
+    }
+
+    /**
+     * Get the message of the error that stopped the parse
+     *
+     * @return the failure message, or null if parsing succeeded
+     */
+    public String getFailureMessage() {
+        return failureMessage;
+    }
+
+    /**
+     * Get the offset index over the AST, building it on first use
+     *
+     * @return the span index, or null if parsing failed
+     */
+    public SpanIndex getSpanIndex() {
+        if (spanIndex == null && program != null) {
+            spanIndex = new SpanIndex(program);
+        }
+        return spanIndex;
+    }
+
+    /**
+     * Get the kind and name index over the AST, building it on first use
+     *
+     * @return the node index, or null if parsing failed
+     */
+    public NodeIndex getNodeIndex() {
+        if (nodeIndex == null && program != null) {
+            nodeIndex = new NodeIndex(program);
+        }
+        return nodeIndex;
+    }
+
+    /**
+     * Determine whether the parse produced an AST
+     *
+     * @return true if parsing succeeded, otherwise false
+     */
+    public boolean isSuccessful() {
+        return program != null;
+    }
+}
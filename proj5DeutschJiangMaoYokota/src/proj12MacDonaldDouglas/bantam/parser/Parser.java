@@ -33,9 +33,14 @@ import static proj12MacDonaldDouglas.bantam.lexer.Token.Kind.*;
 
 import proj12MacDonaldDouglas.bantam.ast.*;
 import proj12MacDonaldDouglas.bantam.lexer.*;
+import proj12MacDonaldDouglas.bantam.parser.ParseProfile.Production;
 import proj12MacDonaldDouglas.bantam.util.*;
 import proj12MacDonaldDouglas.bantam.util.Error;
 
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * This class constructs an AST from a legal Bantam Java program.  If the
  * program is illegal, then one or more error messages are displayed.
@@ -44,11 +49,27 @@ import proj12MacDonaldDouglas.bantam.util.Error;
  * @author Dale Skrien
  */
 public class Parser {
+    /**
+     * The profile report format ("table" or "json") selected with the
+     * bantam.parser.profile system property, or null if profiling is off
+     */
+    private static final String PROFILE_FORMAT = System.getProperty("bantam.parser.profile");
+
+    /**
+     * Whether per-production profiling is enabled.  The flag is a static
+     * final constant so the JIT removes the instrumentation when it is off.
+     */
+    public static final boolean PROFILING = PROFILE_FORMAT != null;
+
     // instance variables
     private Scanner scanner;
     private Token currentToken; // the lookahead token
     private ErrorHandler errorHandler;
     private String fileName;
+    private int tokenCount; // the number of significant tokens consumed, if profiling
+    private int previousEnd; // the end offset of the last token consumed
+    private int exprCount; // the number of expressions created, which gives each its id
+    private final ParseProfile profile = PROFILING ? new ParseProfile() : null;
 
     // constructor
     public Parser(ErrorHandler errorHandler) {
@@ -63,10 +84,118 @@ public class Parser {
      * @return The Program node forming the root of the AST generated by the parser
      */
     public Program parse(String filename) throws CompilationException {
+        return unwrap(tryParse(filename));
+    }
+
+
+    /**
+     * parse the contents of the given reader and return the root node of the AST
+     *
+     * @param filename The name used when reporting errors
+     * @param reader   The reader supplying the Bantam Java source
+     * @return The Program node forming the root of the AST generated by the parser
+     */
+    public Program parse(String filename, Reader reader) throws CompilationException {
+        return unwrap(tryParse(filename, reader));
+    }
+
+
+    /**
+     * parse the given file without throwing on syntax errors
+     *
+     * @param filename The name of the Bantam Java file to be parsed
+     * @return a ParseResult holding the AST (if any) and the errors
+     * registered during this parse
+     * @throws CompilationException if the file cannot be found or read
+     */
+    public ParseResult tryParse(String filename) {
+        return tryParse(filename, new Scanner(filename, this.errorHandler));
+    }
+
+
+    /**
+     * parse the contents of the given reader without throwing on syntax errors
+     *
+     * @param filename The name used when reporting errors
+     * @param reader   The reader supplying the Bantam Java source
+     * @return a ParseResult holding the AST (if any) and the errors
+     * registered during this parse
+     */
+    public ParseResult tryParse(String filename, Reader reader) {
+        return tryParse(filename, new Scanner(filename, reader, this.errorHandler));
+    }
+
+
+    /**
+     * parse the tokens produced by the given scanner.  The error handler
+     * may be shared with earlier parses, so only the errors registered
+     * from here on go into the result.
+     *
+     * @param filename The name used when reporting errors
+     * @param scanner  The scanner to read tokens from
+     * @return a ParseResult holding the AST (if any) and the errors
+     * registered during this parse
+     */
+    private ParseResult tryParse(String filename, Scanner scanner) {
+        List<Error> errorList = errorHandler.getErrorList();
+        int errorsBefore = errorList.size();
         this.fileName = filename;
-        this.scanner = new Scanner(filename, this.errorHandler);
-        advance();
-        return parseProgram();
+        this.scanner = scanner;
+        this.currentToken = null;
+        this.previousEnd = 0;
+        this.exprCount = 0;
+
+        Program program = null;
+        String failureMessage = null;
+        try {
+            advance();
+            program = parseProgram();
+        } catch (ParseAbort e) {
+            failureMessage = e.getMessage();
+        }
+        return new ParseResult(program,
+                new ArrayList<>(errorList.subList(errorsBefore, errorList.size())),
+                failureMessage);
+    }
+
+
+    /**
+     * Get the statistics accumulated over all parses by this parser
+     *
+     * @return the profile, or null if profiling is off
+     */
+    public ParseProfile getProfile() {
+        return profile;
+    }
+
+
+    /**
+     * Format the accumulated profile in the format selected with the
+     * bantam.parser.profile system property
+     *
+     * @return the JSON or table report, or an empty string if profiling is off
+     */
+    public String getProfileReport() {
+        if (!PROFILING) {
+            return "";
+        }
+        return PROFILE_FORMAT.equals("json") ? profile.toJson() : profile.toTable();
+    }
+
+
+    /**
+     * Return the AST of the given result, or throw a CompilationException
+     * if the parse failed
+     *
+     * @param result the outcome of a parse
+     * @return the Program node forming the root of the AST
+     * @throws CompilationException if the parse failed
+     */
+    private Program unwrap(ParseResult result) throws CompilationException {
+        if (!result.isSuccessful()) {
+            throw new CompilationException(result.getFailureMessage());
+        }
+        return result.getProgram();
     }
 
 
@@ -74,6 +203,9 @@ public class Parser {
      * <Program> ::= <Class> | <Class> <Program>
      */
     private Program parseProgram() {
+        long profileStart = PROFILING ? System.nanoTime() : 0;
+        int profileTokens = PROFILING ? tokenCount : 0;
+        int spanStart = currentToken.startOffset;
         int position = currentToken.position;
         ClassList classList = new ClassList(position);
 
@@ -81,7 +213,10 @@ public class Parser {
             Class_ aClass = parseClass();
             classList.addElement(aClass);
         }
-        return new Program(position, classList);
+        classList.trimToSize();
+        spanned(classList, spanStart);
+        return profiled(Production.PROGRAM, profileStart, profileTokens,
+                spanned(new Program(position, classList), spanStart));
     }
 
 
@@ -91,6 +226,9 @@ public class Parser {
      * <MemberList> ::= EMPTY | <Member> <MemberList>
      */
     private Class_ parseClass() {
+        long profileStart = PROFILING ? System.nanoTime() : 0;
+        int profileTokens = PROFILING ? tokenCount : 0;
+        int spanStart = currentToken.startOffset;
         int position = currentToken.position;
         checkTokenAndAdvance(position, CLASS, "class");
         String name = parseIdentifier();
@@ -104,18 +242,26 @@ public class Parser {
 
         // get member list
         MemberList memberList = new MemberList(position);
+        int membersStart = currentToken.startOffset;
         checkTokenAndAdvance(position, LCURLY, "{");
         while (currentToken.kind != RCURLY) {
             Member aMember = parseMember();
             memberList.addElement(aMember);
         }
+        memberList.trimToSize();
 
         // don't use advance() here because we can hit EOF
+        previousEnd = currentToken.endOffset;
+        spanned(memberList, membersStart);
         currentToken = scanner.scan();
         while (currentToken.kind == COMMENT) {
             currentToken = scanner.scan();
         }
-        return new Class_(position, fileName, name, parent, memberList);
+        if (PROFILING) {
+            tokenCount++;
+        }
+        return profiled(Production.CLASS, profileStart, profileTokens,
+                spanned(new Class_(position, fileName, name, parent, memberList), spanStart));
     }
 
 
@@ -126,6 +272,9 @@ public class Parser {
      * <InitialValue> ::= EMPTY | = <Expression>
      */
     private Member parseMember() {
+        long profileStart = PROFILING ? System.nanoTime() : 0;
+        int profileTokens = PROFILING ? tokenCount : 0;
+        int spanStart = currentToken.startOffset;
         int position = currentToken.position;
 
         String type = parseType();
@@ -137,7 +286,8 @@ public class Parser {
             FormalList formalList = parseParameters();
             checkTokenAndAdvance(position, RPAREN, ")");
             StmtList stmtList = ((BlockStmt) parseBlock()).getStmtList();
-            return new Method(position, type, name, formalList, stmtList);
+            return profiled(Production.MEMBER, profileStart, profileTokens,
+                    spanned(new Method(position, type, name, formalList, stmtList), spanStart));
         }
 
         // handle field
@@ -148,7 +298,8 @@ public class Parser {
         }
         checkTokenAndAdvance(position, SEMICOLON, ";");
 
-        return new Field(position, type, name, init);
+        return profiled(Production.MEMBER, profileStart, profileTokens,
+                spanned(new Field(position, type, name, init), spanStart));
     }
 
     //-----------------------------------
@@ -158,6 +309,8 @@ public class Parser {
      *              | <ExpressionStmt> | <ForStmt> | <BlockStmt> | <IfStmt>
      */
     private Stmt parseStatement() {
+        long profileStart = PROFILING ? System.nanoTime() : 0;
+        int profileTokens = PROFILING ? tokenCount : 0;
         Stmt stmt;
 
         switch (currentToken.kind) {
@@ -185,7 +338,7 @@ public class Parser {
             default:
                 stmt = parseExpressionStmt();
         }
-        return stmt;
+        return profiled(Production.STATEMENT, profileStart, profileTokens, stmt);
     }
 
 
@@ -193,6 +346,9 @@ public class Parser {
      * <WhileStmt> ::= WHILE ( <Expression> ) <Stmt>
      */
     private Stmt parseWhile() {
+        long profileStart = PROFILING ? System.nanoTime() : 0;
+        int profileTokens = PROFILING ? tokenCount : 0;
+        int spanStart = currentToken.startOffset;
         int position = currentToken.position;
         advance();
 
@@ -200,7 +356,8 @@ public class Parser {
         Expr expr = parseExpression();
         checkTokenAndAdvance(position, RPAREN, ")");
         Stmt stmt = parseStatement();
-        return new WhileStmt(position, expr, stmt);
+        return profiled(Production.WHILE, profileStart, profileTokens,
+                spanned(new WhileStmt(position, expr, stmt), spanStart));
     }
 
 
@@ -208,6 +365,9 @@ public class Parser {
      * <ReturnStmt> ::= RETURN <Expression> ; | RETURN ;
      */
     private Stmt parseReturn() {
+        long profileStart = PROFILING ? System.nanoTime() : 0;
+        int profileTokens = PROFILING ? tokenCount : 0;
+        int spanStart = currentToken.startOffset;
         int position = currentToken.position;
         advance();
 
@@ -217,7 +377,8 @@ public class Parser {
         }
         checkTokenAndAdvance(position, SEMICOLON, ";");
 
-        return new ReturnStmt(position, expr);
+        return profiled(Production.RETURN, profileStart, profileTokens,
+                spanned(new ReturnStmt(position, expr), spanStart));
     }
 
 
@@ -225,10 +386,14 @@ public class Parser {
      * <BreakStmt> ::= BREAK ;
      */
     private Stmt parseBreak() {
+        long profileStart = PROFILING ? System.nanoTime() : 0;
+        int profileTokens = PROFILING ? tokenCount : 0;
+        int spanStart = currentToken.startOffset;
         int position = currentToken.position;
         advance();
         checkTokenAndAdvance(position, SEMICOLON, ";");
-        return new BreakStmt(position);
+        return profiled(Production.BREAK, profileStart, profileTokens,
+                spanned(new BreakStmt(position), spanStart));
     }
 
 
@@ -236,10 +401,14 @@ public class Parser {
      * <ExpressionStmt> ::= <Expression> ;
      */
     private ExprStmt parseExpressionStmt() {
+        long profileStart = PROFILING ? System.nanoTime() : 0;
+        int profileTokens = PROFILING ? tokenCount : 0;
+        int spanStart = currentToken.startOffset;
         int position = currentToken.position;
         Expr expr = parseExpression();
         checkTokenAndAdvance(position, SEMICOLON, ";");
-        return new ExprStmt(position, expr);
+        return profiled(Production.EXPRESSION_STMT, profileStart, profileTokens,
+                spanned(new ExprStmt(position, expr), spanStart));
     }
 
 
@@ -248,6 +417,9 @@ public class Parser {
      * every local variable must be initialized
      */
     private Stmt parseDeclStmt() {
+        long profileStart = PROFILING ? System.nanoTime() : 0;
+        int profileTokens = PROFILING ? tokenCount : 0;
+        int spanStart = currentToken.startOffset;
         int position = currentToken.position;
         advance();
 
@@ -257,7 +429,8 @@ public class Parser {
         Expr initExpr = parseExpression();
 
         checkTokenAndAdvance(position, SEMICOLON, ";");
-        return new DeclStmt(position, name, initExpr);
+        return profiled(Production.DECL_STMT, profileStart, profileTokens,
+                spanned(new DeclStmt(position, name, initExpr), spanStart));
     }
 
 
@@ -268,6 +441,9 @@ public class Parser {
      * <Increment> ::= EMPTY | <Expression>
      */
     private Stmt parseFor() {
+        long profileStart = PROFILING ? System.nanoTime() : 0;
+        int profileTokens = PROFILING ? tokenCount : 0;
+        int spanStart = currentToken.startOffset;
         int position = currentToken.position;
         advance();
 
@@ -292,7 +468,8 @@ public class Parser {
         checkTokenAndAdvance(position, RPAREN, ")");
 
         Stmt stmt = parseStatement();
-        return new ForStmt(position, start, terminate, increment, stmt);
+        return profiled(Production.FOR, profileStart, profileTokens,
+                spanned(new ForStmt(position, start, terminate, increment, stmt), spanStart));
     }
 
 
@@ -301,6 +478,9 @@ public class Parser {
      * <Body> ::= EMPTY | <Stmt> <Body>
      */
     private Stmt parseBlock() {
+        long profileStart = PROFILING ? System.nanoTime() : 0;
+        int profileTokens = PROFILING ? tokenCount : 0;
+        int spanStart = currentToken.startOffset;
         int position = currentToken.position;
         checkTokenAndAdvance(position, LCURLY, "{");
 
@@ -310,8 +490,11 @@ public class Parser {
             Stmt aStmt = parseStatement();
             stmtList.addElement(aStmt);
         }
+        stmtList.trimToSize();
         advance();
-        return new BlockStmt(position, stmtList);
+        spanned(stmtList, spanStart);
+        return profiled(Production.BLOCK, profileStart, profileTokens,
+                spanned(new BlockStmt(position, stmtList), spanStart));
     }
 
 
@@ -319,6 +502,9 @@ public class Parser {
      * <IfStmt> ::= IF ( <Expr> ) <Stmt> | IF ( <Expr> ) <Stmt> ELSE <Stmt>
      */
     private Stmt parseIf() {
+        long profileStart = PROFILING ? System.nanoTime() : 0;
+        int profileTokens = PROFILING ? tokenCount : 0;
+        int spanStart = currentToken.startOffset;
         int position = currentToken.position;
         advance();
 
@@ -333,7 +519,8 @@ public class Parser {
             advance();
             elseStmt = parseStatement();
         }
-        return new IfStmt(position, predExpr, thenStmt, elseStmt);
+        return profiled(Production.IF, profileStart, profileTokens,
+                spanned(new IfStmt(position, predExpr, thenStmt, elseStmt), spanStart));
     }
 
 
@@ -346,6 +533,9 @@ public class Parser {
      * <OptionalAssignment> ::= EMPTY | = <Expression>
      */
     private Expr parseExpression() {
+        long profileStart = PROFILING ? System.nanoTime() : 0;
+        int profileTokens = PROFILING ? tokenCount : 0;
+        int spanStart = currentToken.startOffset;
         int position = currentToken.position;
 
         Expr left = parseOrExpr();
@@ -363,7 +553,9 @@ public class Parser {
                     }
                     leftRef = ((VarExpr) leftVar.getRef()).getName();
                 }
-                left = new AssignExpr(position, leftRef, leftVar.getName(), right);
+                // the assignment takes the place, and the id, of the variable
+                left = spanned(new AssignExpr(position, leftVar.getExprId(), leftRef,
+                        leftVar.getName(), right), spanStart);
             }
 
             // assign member of an array
@@ -375,15 +567,15 @@ public class Parser {
                     }
                     leftRef = ((VarExpr) leftVar.getRef()).getName();
                 }
-                left = new ArrayAssignExpr(position, leftRef, leftVar.getName(),
-                        leftVar.getIndex(), right);
+                left = spanned(new ArrayAssignExpr(position, leftVar.getExprId(), leftRef,
+                        leftVar.getName(), leftVar.getIndex(), right), spanStart);
             }
 
             else {
                 registerError("<VarExpr> expected", position);
             }
         }
-        return left;
+        return profiled(Production.EXPRESSION, profileStart, profileTokens, left);
     }
 
 
@@ -392,15 +584,18 @@ public class Parser {
      * <LogicalORRest> ::= EMPTY |  || <LogicalAND> <LogicalORRest>
      */
     private Expr parseOrExpr() {
+        long profileStart = PROFILING ? System.nanoTime() : 0;
+        int profileTokens = PROFILING ? tokenCount : 0;
+        int spanStart = currentToken.startOffset;
         int position = currentToken.position;
 
         Expr left = parseAndExpr();
         while (currentToken.spelling.equals("||")) {
             advance();
             Expr right = parseAndExpr();
-            left = new BinaryLogicOrExpr(position, left, right);
+            left = spanned(new BinaryLogicOrExpr(position, exprCount++, left, right), spanStart);
         }
-        return left;
+        return profiled(Production.OR_EXPR, profileStart, profileTokens, left);
     }
 
 
@@ -409,15 +604,18 @@ public class Parser {
      * <LogicalANDRest> ::= EMPTY |  && <ComparisonExpr> <LogicalANDRest>
      */
     private Expr parseAndExpr() {
+        long profileStart = PROFILING ? System.nanoTime() : 0;
+        int profileTokens = PROFILING ? tokenCount : 0;
+        int spanStart = currentToken.startOffset;
         int position = currentToken.position;
 
         Expr left = parseEqualityExpr();
         while (currentToken.spelling.equals("&&")) {
             advance();
             Expr right = parseEqualityExpr();
-            left = new BinaryLogicAndExpr(position, left, right);
+            left = spanned(new BinaryLogicAndExpr(position, exprCount++, left, right), spanStart);
         }
-        return left;
+        return profiled(Production.AND_EXPR, profileStart, profileTokens, left);
     }
 
 
@@ -427,6 +625,9 @@ public class Parser {
      * <equalOrNotEqual> ::=  == | !=
      */
     private Expr parseEqualityExpr() {
+        long profileStart = PROFILING ? System.nanoTime() : 0;
+        int profileTokens = PROFILING ? tokenCount : 0;
+        int spanStart = currentToken.startOffset;
         int position = currentToken.position;
 
         Expr left = parseRelationalExpr();
@@ -434,13 +635,13 @@ public class Parser {
         if (currentToken.spelling.equals("==")) {
             advance();
             Expr right = parseRelationalExpr();
-            left = new BinaryCompEqExpr(position, left, right);
+            left = spanned(new BinaryCompEqExpr(position, exprCount++, left, right), spanStart);
         } else if (currentToken.spelling.equals("!=")) {
             advance();
             Expr right = parseRelationalExpr();
-            left = new BinaryCompNeExpr(position, left, right);
+            left = spanned(new BinaryCompNeExpr(position, exprCount++, left, right), spanStart);
         }
-        return left;
+        return profiled(Production.EQUALITY_EXPR, profileStart, profileTokens, left);
     }
 
 
@@ -449,6 +650,9 @@ public class Parser {
      * <ComparisonOp> ::=  < | > | <= | >= | INSTANCEOF
      */
     private Expr parseRelationalExpr() {
+        long profileStart = PROFILING ? System.nanoTime() : 0;
+        int profileTokens = PROFILING ? tokenCount : 0;
+        int spanStart = currentToken.startOffset;
         int position = currentToken.position;
 
         Expr left = parseAddExpr();
@@ -456,34 +660,42 @@ public class Parser {
                 (currentToken.spelling.contains("<") || currentToken.spelling.contains(">"))
                 || currentToken.kind == INSTANCEOF) {
             String op = parseOperator();
+            int rightStart = exprCount;
             Expr right = parseAddExpr();
             switch (op) {
                 case "<":
-                    left = new BinaryCompLtExpr(position, left, right);
+                    left = spanned(new BinaryCompLtExpr(position, exprCount++, left, right),
+                            spanStart);
                     break;
                 case ">":
-                    left = new BinaryCompGtExpr(position, left, right);
+                    left = spanned(new BinaryCompGtExpr(position, exprCount++, left, right),
+                            spanStart);
                     break;
                 case "<=":
-                    left = new BinaryCompLeqExpr(position, left, right);
+                    left = spanned(new BinaryCompLeqExpr(position, exprCount++, left, right),
+                            spanStart);
                     break;
                 case ">=":
-                    left = new BinaryCompGeqExpr(position, left, right);
+                    left = spanned(new BinaryCompGeqExpr(position, exprCount++, left, right),
+                            spanStart);
                     break;
                 default:
+                    // the type is not an expression, so give back its ids
+                    exprCount = rightStart;
                     if (right instanceof VarExpr) {
-                        left = new InstanceofExpr(position, left, ((VarExpr) right).getName());
+                        left = spanned(new InstanceofExpr(position, exprCount++, left,
+                                ((VarExpr) right).getName()), spanStart);
                     }
                     else if (right instanceof ArrayExpr) {
-                        left = new InstanceofExpr(position, left,
-                                ((ArrayExpr) right).getName() + "[]");
+                        left = spanned(new InstanceofExpr(position, exprCount++, left,
+                                ((ArrayExpr) right).getName() + "[]"), spanStart);
                     }
                     else {
                         registerError("<identifier> expected", position);
                     }
             }
         }
-        return left;
+        return profiled(Production.RELATIONAL_EXPR, profileStart, profileTokens, left);
     }
 
 
@@ -492,6 +704,9 @@ public class Parser {
      * <MoreMultExpr> ::= EMPTY | + <MultExpr> <MoreMultExpr> | - <MultExpr> <MoreMultExpr>
      */
     private Expr parseAddExpr() {
+        long profileStart = PROFILING ? System.nanoTime() : 0;
+        int profileTokens = PROFILING ? tokenCount : 0;
+        int spanStart = currentToken.startOffset;
         int position = currentToken.position;
 
         Expr left = parseMultExpr();
@@ -501,14 +716,16 @@ public class Parser {
             Expr right = parseMultExpr();
             switch (op) {
                 case "+":
-                    left = new BinaryArithPlusExpr(position, left, right);
+                    left = spanned(new BinaryArithPlusExpr(position, exprCount++, left, right),
+                            spanStart);
                     break;
                 case "-":
-                    left = new BinaryArithMinusExpr(position, left, right);
+                    left = spanned(new BinaryArithMinusExpr(position, exprCount++, left, right),
+                            spanStart);
                     break;
             }
         }
-        return left;
+        return profiled(Production.ADD_EXPR, profileStart, profileTokens, left);
     }
 
 
@@ -520,6 +737,9 @@ public class Parser {
      *               EMPTY
      */
     private Expr parseMultExpr() {
+        long profileStart = PROFILING ? System.nanoTime() : 0;
+        int profileTokens = PROFILING ? tokenCount : 0;
+        int spanStart = currentToken.startOffset;
         int position = currentToken.position;
 
         Expr left = parseNewCastOrUnary();
@@ -529,17 +749,20 @@ public class Parser {
             Expr right = parseNewCastOrUnary();
             switch (op) {
                 case "*":
-                    left = new BinaryArithTimesExpr(position, left, right);
+                    left = spanned(new BinaryArithTimesExpr(position, exprCount++, left, right),
+                            spanStart);
                     break;
                 case "/":
-                    left = new BinaryArithDivideExpr(position, left, right);
+                    left = spanned(new BinaryArithDivideExpr(position, exprCount++, left, right),
+                            spanStart);
                     break;
                 case "%":
-                    left = new BinaryArithModulusExpr(position, left, right);
+                    left = spanned(new BinaryArithModulusExpr(position, exprCount++, left, right),
+                            spanStart);
                     break;
             }
         }
-        return left;
+        return profiled(Production.MULT_EXPR, profileStart, profileTokens, left);
     }
 
 
@@ -547,6 +770,8 @@ public class Parser {
      * <NewCastOrUnary> ::= < NewExpression> | <CastExpression> | <UnaryPrefix>
      */
     private Expr parseNewCastOrUnary() {
+        long profileStart = PROFILING ? System.nanoTime() : 0;
+        int profileTokens = PROFILING ? tokenCount : 0;
         Expr expr;
 
         switch (currentToken.kind) {
@@ -560,7 +785,7 @@ public class Parser {
                 expr = parseUnaryPrefix();
                 break;
         }
-        return expr;
+        return profiled(Production.NEW_CAST_OR_UNARY, profileStart, profileTokens, expr);
     }
 
 
@@ -568,6 +793,9 @@ public class Parser {
      * <NewExpression> ::= NEW <Identifier> ( ) | NEW <Identifier> [ <Expression> ]
      */
     private Expr parseNew() {
+        long profileStart = PROFILING ? System.nanoTime() : 0;
+        int profileTokens = PROFILING ? tokenCount : 0;
+        int spanStart = currentToken.startOffset;
         int position = currentToken.position;
         Expr newExpr = null;
 
@@ -578,18 +806,18 @@ public class Parser {
         if (currentToken.kind == LPAREN) {
             advance();
             checkTokenAndAdvance(position, RPAREN, ")");
-            newExpr = new NewExpr(position, identifier);
+            newExpr = spanned(new NewExpr(position, exprCount++, identifier), spanStart);
         } else if (currentToken.kind == LBRACKET) {
             advance();
             Expr size = parseExpression();
             checkTokenAndAdvance(position, RBRACKET, "]");
-            newExpr = new NewArrayExpr(position, identifier, size);
+            newExpr = spanned(new NewArrayExpr(position, exprCount++, identifier, size), spanStart);
         } else {
             registerError("'(' or '[' expected", position);
             advance();
         }
 
-        return newExpr;
+        return profiled(Production.NEW, profileStart, profileTokens, newExpr);
     }
 
 
@@ -597,6 +825,9 @@ public class Parser {
      * <CastExpression> ::= CAST ( <Type> , <Expression> )
      */
     private Expr parseCast() {
+        long profileStart = PROFILING ? System.nanoTime() : 0;
+        int profileTokens = PROFILING ? tokenCount : 0;
+        int spanStart = currentToken.startOffset;
         int position = currentToken.position;
 
         checkTokenAndAdvance(position, CAST, "cast");
@@ -609,7 +840,8 @@ public class Parser {
         Expr expr = parseExpression();
 
         checkTokenAndAdvance(position, RPAREN, ")");
-        return new CastExpr(position, type, expr);
+        return profiled(Production.CAST, profileStart, profileTokens,
+                spanned(new CastExpr(position, exprCount++, type, expr), spanStart));
     }
 
 
@@ -618,25 +850,37 @@ public class Parser {
      * <PrefixOp> ::= - | ! | ++ | --
      */
     private Expr parseUnaryPrefix() {
+        long profileStart = PROFILING ? System.nanoTime() : 0;
+        int profileTokens = PROFILING ? tokenCount : 0;
+        int spanStart = currentToken.startOffset;
         int position = currentToken.position;
 
         if (!currentToken.spelling.equals("-") &&
                 !currentToken.spelling.equals("!") &&
                 !currentToken.spelling.equals("++") &&
                 !currentToken.spelling.equals("--")) {
-            return parseUnaryPostfix();
+            return profiled(Production.UNARY_PREFIX, profileStart, profileTokens,
+                    parseUnaryPostfix());
         }
 
         String op = parseOperator();
         switch (op) {
             case "-":
-                return new UnaryNegExpr(position, parseUnaryPrefix());
+                return profiled(Production.UNARY_PREFIX, profileStart, profileTokens,
+                        spanned(new UnaryNegExpr(position, exprCount++, parseUnaryPrefix()),
+                                spanStart));
             case "!":
-                return new UnaryNotExpr(position, parseUnaryPrefix());
+                return profiled(Production.UNARY_PREFIX, profileStart, profileTokens,
+                        spanned(new UnaryNotExpr(position, exprCount++, parseUnaryPrefix()),
+                                spanStart));
             case "++":
-                return new UnaryIncrExpr(position, parseUnaryPrefix(), false);
+                return profiled(Production.UNARY_PREFIX, profileStart, profileTokens,
+                        spanned(new UnaryIncrExpr(position, exprCount++, parseUnaryPrefix(), false),
+                                spanStart));
             default:
-                return new UnaryDecrExpr(position, parseUnaryPrefix(), false);
+                return profiled(Production.UNARY_PREFIX, profileStart, profileTokens,
+                        spanned(new UnaryDecrExpr(position, exprCount++, parseUnaryPrefix(), false),
+                                spanStart));
         }
     }
 
@@ -646,19 +890,24 @@ public class Parser {
      * <PostfixOp> ::= ++ | -- | EMPTY
      */
     private Expr parseUnaryPostfix() {
+        long profileStart = PROFILING ? System.nanoTime() : 0;
+        int profileTokens = PROFILING ? tokenCount : 0;
+        int spanStart = currentToken.startOffset;
         int position = currentToken.position;
 
         Expr expr = parsePrimary();
         if (currentToken.kind == UNARYINCR || currentToken.kind == UNARYDECR) {
             String op = parseOperator();
             if (op.equals("++")) {
-                return new UnaryIncrExpr(position, expr, true);
+                return profiled(Production.UNARY_POSTFIX, profileStart, profileTokens,
+                        spanned(new UnaryIncrExpr(position, exprCount++, expr, true), spanStart));
             }
             if (op.equals("--")) {
-                return new UnaryDecrExpr(position, expr, true);
+                return profiled(Production.UNARY_POSTFIX, profileStart, profileTokens,
+                        spanned(new UnaryDecrExpr(position, exprCount++, expr, true), spanStart));
             }
         }
-        return expr;
+        return profiled(Production.UNARY_POSTFIX, profileStart, profileTokens, expr);
     }
 
 
@@ -673,6 +922,9 @@ public class Parser {
      *              | EMPTY
      */
     private Expr parsePrimary() {
+        long profileStart = PROFILING ? System.nanoTime() : 0;
+        int profileTokens = PROFILING ? tokenCount : 0;
+        int spanStart = currentToken.startOffset;
         int position = currentToken.position;
 
         Expr expr;
@@ -695,7 +947,7 @@ public class Parser {
             }
             else {
                 String name = parseIdentifier();
-                expr = new VarExpr(position, null, name);
+                expr = spanned(new VarExpr(position, exprCount++, null, name), spanStart);
             }
             // parse suffixes
             while (currentToken.kind == DOT || currentToken.kind == LBRACKET
@@ -703,43 +955,49 @@ public class Parser {
                 if (currentToken.kind == DOT) {
                     advance();
                     String name = parseIdentifier();
-                    expr = new VarExpr(position, expr, name);
+                    expr = spanned(new VarExpr(position, exprCount++, expr, name), spanStart);
                 }
                 else if (currentToken.kind == LBRACKET) {
                     advance();
-                    Expr index = new VarExpr(position, null, null);
+                    Expr index;
                     if (currentToken.kind != RBRACKET) {
                         index = parseExpression();
                     }
+                    else {
+                        index = spanned(new VarExpr(position, exprCount++, null, null),
+                                currentToken.startOffset);
+                    }
                     checkTokenAndAdvance(position, RBRACKET, "]");
 
                     if (expr instanceof VarExpr) {
                         VarExpr prefix = (VarExpr) expr;
-                        expr = new ArrayExpr(position, prefix.getRef(),
-                                prefix.getName(), index);
+                        expr = spanned(new ArrayExpr(position, prefix.getExprId(),
+                                prefix.getRef(), prefix.getName(), index), spanStart);
                     }
                     else {
-                        expr = new ArrayExpr(position, expr, null, index);
+                        expr = spanned(new ArrayExpr(position, exprCount++, expr, null, index),
+                                spanStart);
                     }
                 }
                 else {
                     advance();
-                    ExprList exprList = new ExprList(position);
+                    ExprList exprList = spanned(new ExprList(position), currentToken.startOffset);
                     if (currentToken.kind != RPAREN) {
                         exprList = parseArguments();
                     }
                     checkTokenAndAdvance(position, RPAREN, ")");
                     if (expr instanceof VarExpr) {
                         VarExpr prefix = (VarExpr) expr;
-                        expr = new DispatchExpr(position, prefix.getRef(),
-                                prefix.getName(), exprList);
+                        expr = spanned(new DispatchExpr(position, prefix.getExprId(),
+                                prefix.getRef(), prefix.getName(), exprList), spanStart);
                     } else {
-                        expr = new DispatchExpr(position, expr, null, exprList);
+                        expr = spanned(new DispatchExpr(position, exprCount++, expr, null,
+                                exprList), spanStart);
                     }
                 }
             }
         }
-        return expr;
+        return profiled(Production.PRIMARY, profileStart, profileTokens, expr);
     }
 
 
@@ -748,6 +1006,9 @@ public class Parser {
      * <MoreArgs>  ::= EMPTY | , <Expression> <MoreArgs>
      */
     private ExprList parseArguments() {
+        long profileStart = PROFILING ? System.nanoTime() : 0;
+        int profileTokens = PROFILING ? tokenCount : 0;
+        int spanStart = currentToken.startOffset;
         int position = currentToken.position;
         ExprList exprList = new ExprList(position);
 
@@ -763,7 +1024,9 @@ public class Parser {
             Expr expr = parseExpression();
             exprList.addElement(expr);
         }
-        return exprList;
+        exprList.trimToSize();
+        return profiled(Production.ARGUMENTS, profileStart, profileTokens,
+                spanned(exprList, spanStart));
     }
 
 
@@ -772,6 +1035,9 @@ public class Parser {
      * <MoreFormals> ::= EMPTY | , <Formal> <MoreFormals
      */
     private FormalList parseParameters() {
+        long profileStart = PROFILING ? System.nanoTime() : 0;
+        int profileTokens = PROFILING ? tokenCount : 0;
+        int spanStart = currentToken.startOffset;
         int position = currentToken.position;
 
         FormalList formalList = new FormalList(position);
@@ -788,7 +1054,9 @@ public class Parser {
             Formal formal = parseFormal();
             formalList.addElement(formal);
         }
-        return formalList;
+        formalList.trimToSize();
+        return profiled(Production.PARAMETERS, profileStart, profileTokens,
+                spanned(formalList, spanStart));
     }
 
 
@@ -796,12 +1064,16 @@ public class Parser {
      * <Formal> ::= <Type> <Identifier>
      */
     private Formal parseFormal() {
+        long profileStart = PROFILING ? System.nanoTime() : 0;
+        int profileTokens = PROFILING ? tokenCount : 0;
+        int spanStart = currentToken.startOffset;
         int position = currentToken.position;
 
         String type = parseType();
         String identifier = parseIdentifier();
 
-        return new Formal(position, type, identifier);
+        return profiled(Production.FORMAL, profileStart, profileTokens,
+                spanned(new Formal(position, type, identifier), spanStart));
     }
 
 
@@ -810,6 +1082,8 @@ public class Parser {
      * <Brackets> ::= EMPTY | [ ]
      */
     private String parseType() {
+        long profileStart = PROFILING ? System.nanoTime() : 0;
+        int profileTokens = PROFILING ? tokenCount : 0;
         int position = currentToken.position;
 
         String identifier = parseIdentifier();
@@ -818,7 +1092,7 @@ public class Parser {
             checkTokenAndAdvance(position, RBRACKET, "]");
             identifier += "[]";
         }
-        return identifier;
+        return profiled(Production.TYPE, profileStart, profileTokens, identifier);
     }
 
 
@@ -845,39 +1119,43 @@ public class Parser {
 
     private ConstStringExpr parseStringConst() {
         int position = currentToken.position;
+        int spanStart = currentToken.startOffset;
         String spelling = currentToken.spelling;
         advance();
-        return new ConstStringExpr(position, spelling);
+        return spanned(new ConstStringExpr(position, exprCount++, spelling), spanStart);
     }
 
 
     private ConstIntExpr parseIntConst() {
         int position = currentToken.position;
+        int spanStart = currentToken.startOffset;
         String spelling = currentToken.spelling;
         advance();
-        return new ConstIntExpr(position, spelling);
+        return spanned(new ConstIntExpr(position, exprCount++, spelling), spanStart);
     }
 
 
     private ConstBooleanExpr parseBoolean() {
         int position = currentToken.position;
+        int spanStart = currentToken.startOffset;
         String spelling = currentToken.spelling;
         advance();
-        return new ConstBooleanExpr(position, spelling);
+        return spanned(new ConstBooleanExpr(position, exprCount++, spelling), spanStart);
     }
 
     /**
-     * Throw a CompilationException with the given error message and position
+     * Register a parse error with the given message and position and
+     * abandon the parse
      *
      * @param errorMessage String describing the error
      * @param position     the line number where the error occurs
-     * @throws CompilationException if reaches EOF
+     * @throws ParseAbort always, to unwind to tryParse
      */
     private void registerError(String errorMessage, int position)
-            throws CompilationException {
+            throws ParseAbort {
         errorHandler.register(Error.Kind.PARSE_ERROR, fileName,
                 position, errorMessage);
-        throw new CompilationException(errorMessage);
+        throw new ParseAbort(errorMessage);
     }
 
 
@@ -886,12 +1164,18 @@ public class Parser {
      * Throw error if reach EOF
      */
     private void advance() {
+        if (currentToken != null) {
+            previousEnd = currentToken.endOffset;
+        }
         currentToken = scanner.scan();
 
         // cycle through comments
         while (currentToken.kind == COMMENT) {
             currentToken = scanner.scan();
         }
+        if (PROFILING) {
+            tokenCount++;
+        }
 
         // if EOF, throw error
         if (currentToken.kind == EOF) {
@@ -900,6 +1184,39 @@ public class Parser {
         }
     }
 
+    /**
+     * Set the source span of a node to run from the given offset to the end
+     * of the last token consumed, and compute its structural hash from those
+     * of its children, which are already complete.  A node that consumed no
+     * tokens gets an empty span at the given offset.
+     *
+     * @param node      the node just built
+     * @param spanStart the start offset of the node's first token
+     * @return the given node
+     */
+    private <T extends ASTNode> T spanned(T node, int spanStart) {
+        node.setSpan(spanStart, Math.max(spanStart, previousEnd));
+        node.getStructuralHash();
+        return node;
+    }
+
+    /**
+     * Record a completed production in the profile when profiling is on
+     *
+     * @param production    the production that completed
+     * @param profileStart  the time the production started
+     * @param profileTokens the token count when the production started
+     * @param result        the node or value produced
+     * @return the given result
+     */
+    private <T> T profiled(Production production, long profileStart,
+                           int profileTokens, T result) {
+        if (PROFILING) {
+            profile.record(production, profileStart, tokenCount - profileTokens);
+        }
+        return result;
+    }
+
     /**
      * Checks if the current token is of the given kind
      * If it is not, registers an error
@@ -915,7 +1232,9 @@ public class Parser {
 
     /**
      * Main method scans and parses the given files and prints out
-     * if scanning and parsing were successful, or the errors encountered if not
+     * if scanning and parsing were successful, or the errors encountered if not.
+     * Run with -Dbantam.parser.profile=table (or =json) to also print the
+     * per-production profile of all the files parsed.
      *
      * @param args a list of file names
      */
@@ -930,16 +1249,40 @@ public class Parser {
         for (int i = 0; i < args.length; i++) {
             System.out.println(args[i]);
             try {
-                parser.parse(args[i]);
-                System.out.println("Scanning and parsing successful");
-            } catch (CompilationException e) {
-                for (Error error : errorHandler.getErrorList()) {
-                    System.out.println(error.toString());
+                ParseResult result = parser.tryParse(args[i]);
+                if (result.isSuccessful()) {
+                    System.out.println("Scanning and parsing successful");
                 }
-                if (errorHandler.getErrorList().size() == 0) {
-                    System.out.println(e.getMessage());
+                else {
+                    for (Error error : result.getErrors()) {
+                        System.out.println(error.toString());
+                    }
+                    if (result.getErrors().size() == 0) {
+                        System.out.println(result.getFailureMessage());
+                    }
                 }
+            } catch (CompilationException e) {
+                System.out.println(e.getMessage());
             }
+            errorHandler.clear();
+        }
+
+        if (PROFILING) {
+            System.out.print(parser.getProfileReport());
+        }
+    }
+
+
+    /**
+     * Signal used internally to abandon a parse after a syntax error.
+     * It is always caught by tryParse and carries no stack trace, so failed
+     * parses of half-typed code do not pay for filling one in.
+     */
+    private static class ParseAbort extends CompilationException {
+        private static final long serialVersionUID = 1L;
+
+        ParseAbort(String message) {
+            super(message, false);
         }
     }
 }
@@ -0,0 +1,502 @@
+/*
+ * File: bantam.semant.ClassTable.java
+ * CS361 Project 11
+ * Names: Martin Deutsch and Wyett MacDonald
+ * Date: 2/13/2019
+ * This file contains the ClassTable, which builds the inheritance tree of
+ * a program and answers questions about its types
+ */
+
+package proj12MacDonaldDouglas.bantam.semant;
+
+import proj12MacDonaldDouglas.bantam.ast.*;
+import proj12MacDonaldDouglas.bantam.util.ClassTreeNode;
+import proj12MacDonaldDouglas.bantam.util.Error;
+import proj12MacDonaldDouglas.bantam.util.ErrorHandler;
+import proj12MacDonaldDouglas.bantam.util.Symbol;
+
+import java.util.*;
+
+/**
+ * ClassTable holds every class of a program, the built-in classes Object,
+ * String, TextIO and Sys included, in a hash table by the symbol of its
+ * name.  Building it
+ * resolves each class's parent, reports duplicate, missing and cyclic
+ * classes, numbers the inheritance tree with an Euler tour, so subclass
+ * tests are constant time rather than a walk up the parent chain, and
+ * fills in the field and method tables of each class.  Then, in the order
+ * of the tour, each class gets tries of every member it has, declared or
+ * inherited, so that type checking looks up any of them in constant time.
+ * It also decides when one type conforms to another.
+ * <p/>
+ * Every step is one pass over the classes or their members, so the table
+ * is built in time linear in the size of the program, however deep the
+ * inheritance tree is: a class's tries share what they inherit, so adding
+ * its members costs only the members it declares.
+ *
+ * @author Martin Deutsch
+ * @author Wyett MacDonald
+ */
+public class ClassTable {
+
+    /**
+     * The filename given to the declarations of the built-in classes
+     */
+    public static final String BUILT_IN_FILENAME = "<built-in>";
+
+    /**
+     * Built-in classes that may not be extended
+     */
+    private static final Set<String> FINAL_CLASSES =
+            new HashSet<>(Arrays.asList("String", "TextIO", "Sys"));
+
+    /**
+     * Names that are not allowed for classes, since they name other types
+     * or special variables
+     */
+    private static final Set<String> RESERVED_CLASS_NAMES =
+            new HashSet<>(Arrays.asList("int", "boolean", "void", "null", "this", "super"));
+
+    private final Map<Symbol, ClassTreeNode> classMap = new HashMap<>();
+    private final ErrorHandler errorHandler;
+
+    /**
+     * Build the class table of a program, registering any errors found
+     *
+     * @param program      the program
+     * @param errorHandler the handler the errors are registered with
+     */
+    public ClassTable(Program program, ErrorHandler errorHandler) {
+        this.errorHandler = errorHandler;
+        addBuiltInClasses();
+        List<ClassTreeNode> userClasses = addUserClasses(program);
+        resolveParents(userClasses);
+        breakCycles(userClasses);
+        List<ClassTreeNode> hierarchy = numberClasses();
+        for (ClassTreeNode node : userClasses) {
+            addMembers(node);
+        }
+        for (ClassTreeNode node : hierarchy) {
+            node.inheritMembers();
+        }
+        for (ClassTreeNode node : userClasses) {
+            checkOverrides(node);
+        }
+    }
+
+    /**
+     * Get the class with the given name
+     *
+     * @param name the class name
+     * @return the class, or null if there is none
+     */
+    public ClassTreeNode get(String name) {
+        // a name with no symbol names no class
+        return get(Symbol.lookup(name));
+    }
+
+    /**
+     * Get the class with the given name
+     *
+     * @param name the class name symbol
+     * @return the class, or null if there is none
+     */
+    public ClassTreeNode get(Symbol name) {
+        return name == null ? null : classMap.get(name);
+    }
+
+    /**
+     * Get every class, by name symbol
+     *
+     * @return the class map
+     */
+    public Map<Symbol, ClassTreeNode> getClassMap() {
+        return classMap;
+    }
+
+    /**
+     * Get the number of classes, the built-in classes included
+     *
+     * @return class count
+     */
+    public int size() {
+        return classMap.size();
+    }
+
+    /**
+     * Determine whether a type name denotes a type: int, boolean, a class,
+     * or an array of one of those
+     *
+     * @param type the type name
+     * @return true if the type exists
+     */
+    public boolean isDefinedType(String type) {
+        String element = isArray(type) ? elementType(type) : type;
+        return element.equals("int") || element.equals("boolean") || get(element) != null;
+    }
+
+    /**
+     * Determine whether a type is an array type
+     *
+     * @param type the type name
+     * @return true if it ends in []
+     */
+    public static boolean isArray(String type) {
+        return type.endsWith("[]");
+    }
+
+    /**
+     * Get the element type of an array type
+     *
+     * @param type the array type
+     * @return the type without its []
+     */
+    public static String elementType(String type) {
+        return type.substring(0, type.length() - 2);
+    }
+
+    /**
+     * Determine whether a type is a primitive type
+     *
+     * @param type the type name
+     * @return true for int, boolean and void
+     */
+    public static boolean isPrimitive(String type) {
+        return type.equals("int") || type.equals("boolean") || type.equals("void");
+    }
+
+    /**
+     * Determine whether a class is the same as or a descendant of another
+     *
+     * @param subclass   the name of the class that may be the descendant
+     * @param superclass the name of the class that may be the ancestor
+     * @return true if it is
+     */
+    public boolean isSubclass(String subclass, String superclass) {
+        ClassTreeNode node = get(subclass);
+        ClassTreeNode ancestor = get(superclass);
+        return node != null && ancestor != null && node.isSubclassOf(ancestor);
+    }
+
+    /**
+     * Determine whether a value of one type may be used where another type
+     * is expected.  Null conforms to every class and array type, every
+     * class and array type conforms to Object, classes conform to their
+     * ancestors, and arrays of classes conform to arrays of the ancestors.
+     *
+     * @param type   the type of the value
+     * @param target the expected type
+     * @return true if the type conforms
+     */
+    public boolean conforms(String type, String target) {
+        if (type.equals(target)) {
+            return true;
+        }
+        if (isPrimitive(type) || isPrimitive(target) || target.equals("null")) {
+            return false;
+        }
+        if (type.equals("null") || target.equals("Object")) {
+            return true;
+        }
+        if (isArray(type) && isArray(target)) {
+            return conforms(elementType(type), elementType(target));
+        }
+        return !isArray(type) && !isArray(target) && isSubclass(type, target);
+    }
+
+    /**
+     * Add Object, String, TextIO and Sys and their methods
+     */
+    private void addBuiltInClasses() {
+        ClassTreeNode object = addBuiltIn("Object", null,
+                method("int", "hashCode"),
+                method("boolean", "equals", "Object"),
+                method("String", "toString"),
+                method("Object", "clone"));
+        addBuiltIn("String", object,
+                method("int", "length"),
+                method("boolean", "equals", "Object"),
+                method("String", "toString"),
+                method("String", "substring", "int", "int"),
+                method("String", "concat", "String"));
+        addBuiltIn("TextIO", object,
+                method("void", "readStdin"),
+                method("void", "readFile", "String"),
+                method("void", "writeStdout"),
+                method("void", "writeStderr"),
+                method("void", "writeFile", "String"),
+                method("String", "getString"),
+                method("int", "getInt"),
+                method("TextIO", "putString", "String"),
+                method("TextIO", "putInt", "int"));
+        addBuiltIn("Sys", object,
+                method("void", "exit", "int"),
+                method("int", "time"),
+                method("int", "random"));
+    }
+
+    private ClassTreeNode addBuiltIn(String name, ClassTreeNode parent, Method... methods) {
+        MemberList members = new MemberList(0);
+        for (Method method : methods) {
+            members.addElement(method);
+        }
+        ClassTreeNode node = new ClassTreeNode(new Class_(0, BUILT_IN_FILENAME, name,
+                parent == null ? null : parent.getName(), members), true);
+        node.setParent(parent);
+        for (Method method : methods) {
+            node.getMethods().put(method.getNameSymbol(), method);
+        }
+        classMap.put(node.getNameSymbol(), node);
+        return node;
+    }
+
+    private static Method method(String returnType, String name, String... formalTypes) {
+        FormalList formals = new FormalList(0);
+        for (int i = 0; i < formalTypes.length; i++) {
+            formals.addElement(new Formal(0, formalTypes[i], "arg" + i));
+        }
+        return new Method(0, returnType, name, formals, new StmtList(0));
+    }
+
+    /**
+     * Add the classes declared by the program, in order
+     *
+     * @return the ones added
+     */
+    private List<ClassTreeNode> addUserClasses(Program program) {
+        ClassList classes = program.getClassList();
+        List<ClassTreeNode> added = new ArrayList<>(classes.getSize());
+        for (int i = 0; i < classes.getSize(); i++) {
+            Class_ class_ = (Class_) classes.get(i);
+            String name = class_.getName();
+            ClassTreeNode existing = classMap.get(class_.getNameSymbol());
+            if (RESERVED_CLASS_NAMES.contains(name)) {
+                error(class_, class_, "'" + name + "' cannot be used as a class name");
+            }
+            else if (existing != null && existing.isBuiltIn()) {
+                error(class_, class_, "built-in class " + name + " cannot be redefined");
+            }
+            else if (existing != null) {
+                error(class_, class_, "class " + name + " is already defined on line "
+                        + existing.getASTNode().getLineNum());
+            }
+            else {
+                ClassTreeNode node = new ClassTreeNode(class_, false);
+                classMap.put(class_.getNameSymbol(), node);
+                added.add(node);
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Link each class to its parent, using Object for a missing or final
+     * parent so that the rest of the analysis can go on
+     */
+    private void resolveParents(List<ClassTreeNode> userClasses) {
+        ClassTreeNode object = get("Object");
+        for (ClassTreeNode node : userClasses) {
+            Class_ class_ = node.getASTNode();
+            String parentName = class_.getParent();
+            ClassTreeNode parent = parentName == null ? object
+                    : classMap.get(class_.getParentSymbol());
+            if (parent == null) {
+                error(class_, class_, "class " + class_.getName()
+                        + " extends undefined class " + parentName);
+                parent = object;
+            }
+            else if (FINAL_CLASSES.contains(parentName)) {
+                error(class_, class_, "class " + class_.getName()
+                        + " cannot extend built-in class " + parentName);
+                parent = object;
+            }
+            node.setParent(parent);
+        }
+    }
+
+    /**
+     * Find inheritance cycles, report each class on one, and make the
+     * classes on it extend Object.  Each class is walked through once:
+     * a walk up the parent chain stops at a class an earlier walk has
+     * already passed.
+     */
+    private void breakCycles(List<ClassTreeNode> userClasses) {
+        Map<ClassTreeNode, Integer> walkOf = new HashMap<>();
+        List<ClassTreeNode> path = new ArrayList<>();
+        ClassTreeNode object = get("Object");
+        int walk = 0;
+        for (ClassTreeNode start : userClasses) {
+            walk++;
+            path.clear();
+            ClassTreeNode node = start;
+            while (node != null && !node.isBuiltIn() && !walkOf.containsKey(node)) {
+                walkOf.put(node, walk);
+                path.add(node);
+                node = node.getParent();
+            }
+            Integer seen = node == null ? null : walkOf.get(node);
+            if (seen == null || seen != walk) {
+                continue;
+            }
+            List<ClassTreeNode> cycle = path.subList(path.indexOf(node), path.size());
+            for (ClassTreeNode member : cycle) {
+                Class_ class_ = member.getASTNode();
+                error(class_, class_, "class " + class_.getName()
+                        + " is part of an inheritance cycle");
+            }
+            for (ClassTreeNode member : new ArrayList<>(cycle)) {
+                member.setParent(object);
+            }
+        }
+    }
+
+    /**
+     * Give each class its Euler tour interval with a depth-first walk from
+     * Object.  The walk keeps its own stack, so a hierarchy of any depth
+     * is numbered without recursion.
+     *
+     * @return the classes in the order the walk enters them, each after
+     * its parent
+     */
+    private List<ClassTreeNode> numberClasses() {
+        // a class is at most as deep as there are classes
+        ClassTreeNode[] stack = new ClassTreeNode[classMap.size()];
+        int[] nextChild = new int[stack.length];
+        int[] pres = new int[stack.length];
+        List<ClassTreeNode> order = new ArrayList<>(stack.length);
+        int top = 0;
+        int step = 0;
+        stack[0] = get("Object");
+        pres[0] = step++;
+        order.add(stack[0]);
+        while (top >= 0) {
+            ClassTreeNode node = stack[top];
+            if (nextChild[top] < node.getChildren().size()) {
+                ClassTreeNode child = node.getChildren().get(nextChild[top]++);
+                top++;
+                stack[top] = child;
+                nextChild[top] = 0;
+                pres[top] = step++;
+                order.add(child);
+            }
+            else {
+                node.setInterval(pres[top], step++);
+                stack[top--] = null;
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Fill in the field and method tables of a class, checking the types
+     * and names of its members
+     */
+    private void addMembers(ClassTreeNode node) {
+        Class_ class_ = node.getASTNode();
+        MemberList members = class_.getMemberList();
+        for (int i = 0; i < members.getSize(); i++) {
+            Member member = (Member) members.get(i);
+            if (member instanceof Field) {
+                Field field = (Field) member;
+                String name = field.getName();
+                if (TypeCheckVisitor.isReservedName(name)) {
+                    error(class_, field, "'" + name + "' cannot be used as a field name");
+                }
+                else if (node.getFields().containsKey(field.getNameSymbol())) {
+                    error(class_, field, "field " + name + " is already defined in class "
+                            + class_.getName());
+                }
+                else {
+                    node.getFields().put(field.getNameSymbol(), field);
+                }
+                if (!isDefinedType(field.getType())) {
+                    error(class_, field, "field " + name + " has undefined type "
+                            + field.getType());
+                }
+            }
+            else {
+                Method method = (Method) member;
+                String name = method.getName();
+                if (node.getMethods().containsKey(method.getNameSymbol())) {
+                    error(class_, method, "method " + name + " is already defined in class "
+                            + class_.getName());
+                }
+                else {
+                    node.getMethods().put(method.getNameSymbol(), method);
+                }
+                String returnType = method.getReturnType();
+                if (!returnType.equals("void") && !isDefinedType(returnType)) {
+                    error(class_, method, "method " + name + " has undefined return type "
+                            + returnType);
+                }
+                checkFormals(class_, method);
+            }
+        }
+    }
+
+    private void checkFormals(Class_ class_, Method method) {
+        FormalList formals = method.getFormalList();
+        Set<Symbol> names = new HashSet<>();
+        for (int i = 0; i < formals.getSize(); i++) {
+            Formal formal = (Formal) formals.get(i);
+            if (TypeCheckVisitor.isReservedName(formal.getName())) {
+                error(class_, formal, "'" + formal.getName()
+                        + "' cannot be used as a parameter name");
+            }
+            else if (!names.add(formal.getNameSymbol())) {
+                error(class_, formal, "parameter " + formal.getName()
+                        + " is already defined in method " + method.getName());
+            }
+            if (!isDefinedType(formal.getType())) {
+                error(class_, formal, "parameter " + formal.getName()
+                        + " has undefined type " + formal.getType());
+            }
+        }
+    }
+
+    /**
+     * Check that the methods of a class that override inherited ones keep
+     * their return and parameter types
+     */
+    private void checkOverrides(ClassTreeNode node) {
+        if (node.getParent() == null) {
+            return;
+        }
+        MemberList members = node.getASTNode().getMemberList();
+        for (int i = 0; i < members.getSize(); i++) {
+            if (!(members.get(i) instanceof Method)) {
+                continue;
+            }
+            Method method = (Method) members.get(i);
+            Method inherited = node.getParent().lookupMethod(method.getNameSymbol());
+            if (inherited != null && !sameSignature(method, inherited)) {
+                error(node.getASTNode(), method, "overriding method " + method.getName()
+                        + " must have the same return and parameter types as the"
+                        + " method it overrides");
+            }
+        }
+    }
+
+    private static boolean sameSignature(Method method, Method other) {
+        if (!method.getReturnType().equals(other.getReturnType())) {
+            return false;
+        }
+        FormalList formals = method.getFormalList();
+        FormalList otherFormals = other.getFormalList();
+        if (formals.getSize() != otherFormals.getSize()) {
+            return false;
+        }
+        for (int i = 0; i < formals.getSize(); i++) {
+            if (!((Formal) formals.get(i)).getType().equals(
+                    ((Formal) otherFormals.get(i)).getType())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void error(Class_ class_, ASTNode node, String message) {
+        errorHandler.register(Error.Kind.SEMANT_ERROR, class_.getFilename(),
+                node.getLineNum(), message);
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * File: bantam.semant.ExprTypeTable.java
+ * CS361 Project 11
+ * Names: Martin Deutsch and Wyett MacDonald
+ * Date: 2/13/2019
+ * This file contains the ExprTypeTable, which holds the types the type
+ * checker found for the expressions of a program
+ */
+
+package proj12MacDonaldDouglas.bantam.semant;
+
+import proj12MacDonaldDouglas.bantam.ast.DeclStmt;
+import proj12MacDonaldDouglas.bantam.ast.Expr;
+import proj12MacDonaldDouglas.bantam.util.Symbol;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * ExprTypeTable is a side table of expression types.  The parser numbers
+ * the expressions of a program from 0 with few gaps, and the table stores
+ * the id of the interned type symbol of each expression in an int array
+ * indexed by the expression's id, so later phases read the type of a node
+ * with one array access.  It also holds the other facts the type checker
+ * finds about a node: whether a cast or instanceof goes up the class tree,
+ * in a bit set by expression id, and the type of a declared variable,
+ * which is the type of its initializer.  Filling the table writes nothing
+ * to the nodes, so a frozen tree can be checked, and by several checkers
+ * at once.
+ * <p/>
+ * The array covers only the range of ids added, so the table of one class
+ * of a large program is as small as the class.  Expressions whose type is
+ * unknown because of an error are not added.  Ids are unique within one
+ * program only, so a table answers for the expressions of the program it
+ * was filled from.
+ *
+ * @author Martin Deutsch
+ * @author Wyett MacDonald
+ */
+public class ExprTypeTable {
+
+    private static final int NO_TYPE = -1;
+
+    /**
+     * The type symbol id of each expression, by expression id less base
+     */
+    private int[] types = new int[0];
+    private int base;
+    private int size;
+
+    /**
+     * The ids of the casts that are upcasts and the instanceofs that are
+     * upchecks, which always succeed
+     */
+    private final BitSet upward = new BitSet();
+
+    /**
+     * The symbols of the types, which keep their ids from being reused
+     * while the table holds them
+     */
+    private final Set<Symbol> typeSymbols = new HashSet<>();
+
+    /**
+     * The last type added and its symbol id, since most types repeat the
+     * one before
+     */
+    private String lastType;
+    private int lastTypeId;
+
+    /**
+     * Record the type of an expression
+     *
+     * @param expr the expression
+     * @param type its type
+     * @return the id of the expression
+     */
+    public int add(Expr expr, String type) {
+        if (type != lastType) {
+            Symbol symbol = Symbol.intern(type);
+            typeSymbols.add(symbol);
+            lastTypeId = symbol.getId();
+            lastType = type;
+        }
+        add(expr.getExprId(), lastTypeId);
+        return expr.getExprId();
+    }
+
+    private void add(int id, int typeId) {
+        cover(id);
+        if (types[id - base] == NO_TYPE) {
+            size++;
+        }
+        types[id - base] = typeId;
+    }
+
+    /**
+     * Grow the array to cover the given id, at least doubling it so that
+     * adding ids in order takes amortized constant time
+     */
+    private void cover(int id) {
+        if (types.length == 0) {
+            types = new int[64];
+            Arrays.fill(types, NO_TYPE);
+            base = id;
+            return;
+        }
+        if (id >= base && id < base + types.length) {
+            return;
+        }
+        int from = Math.min(id, base);
+        int to = Math.max(id + 1, base + types.length);
+        int length = Math.max(to - from, types.length * 2);
+        if (id < base) {
+            // grow downward as far as upward, keeping from at 0 or above
+            from = Math.max(0, to - length);
+        }
+        int[] grown = new int[length];
+        Arrays.fill(grown, NO_TYPE);
+        System.arraycopy(types, 0, grown, base - from, types.length);
+        types = grown;
+        base = from;
+    }
+
+    /**
+     * Record whether a cast is an upcast, or an instanceof an upcheck
+     *
+     * @param expr     the cast or instanceof expression
+     * @param isUpward whether its type is a supertype of the type of its
+     *                 operand
+     */
+    public void setUpward(Expr expr, boolean isUpward) {
+        upward.set(expr.getExprId(), isUpward);
+    }
+
+    /**
+     * Is a cast an upcast, or an instanceof an upcheck, that is, one that
+     * always succeeds?
+     *
+     * @param expr the cast or instanceof expression
+     * @return true if it is recorded as going up the class tree
+     */
+    public boolean isUpward(Expr expr) {
+        return upward.get(expr.getExprId());
+    }
+
+    /**
+     * Add the types of another table, which was filled from the same
+     * program, to this one
+     *
+     * @param other the other table
+     */
+    public void addAll(ExprTypeTable other) {
+        typeSymbols.addAll(other.typeSymbols);
+        upward.or(other.upward);
+        for (int i = 0; i < other.types.length; i++) {
+            if (other.types[i] != NO_TYPE) {
+                add(other.base + i, other.types[i]);
+            }
+        }
+    }
+
+    /**
+     * Get the number of expressions whose type is in the table
+     *
+     * @return expression count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the type of the expression with the given id
+     *
+     * @param id an expression id
+     * @return the type symbol, or null if the expression is not in the table
+     */
+    public Symbol getTypeSymbol(int id) {
+        int typeId = getTypeId(id);
+        return typeId == NO_TYPE ? null : Symbol.get(typeId);
+    }
+
+    /**
+     * Get the symbol id of the type of the expression with the given id
+     *
+     * @param id an expression id
+     * @return the type symbol id, or -1 if the expression is not in the table
+     */
+    public int getTypeId(int id) {
+        return id >= base && id < base + types.length ? types[id - base] : NO_TYPE;
+    }
+
+    /**
+     * Get the symbol id of the type of an expression, for readers that key
+     * their own tables by type
+     *
+     * @param expr the expression
+     * @return the type symbol id, or -1 if the expression is not in the table
+     */
+    public int getTypeId(Expr expr) {
+        return getTypeId(expr.getExprId());
+    }
+
+    /**
+     * Get the type of an expression
+     *
+     * @param expr the expression
+     * @return the type symbol, or null if the expression is not in the table
+     */
+    public Symbol getTypeSymbol(Expr expr) {
+        return getTypeSymbol(expr.getExprId());
+    }
+
+    /**
+     * Get the type of an expression
+     *
+     * @param expr the expression
+     * @return the type name, or null if the expression is not in the table
+     */
+    public String getType(Expr expr) {
+        return Symbol.nameOf(getTypeSymbol(expr));
+    }
+
+    /**
+     * Get the type of a declared variable, which is the type of its
+     * initializer unless that is void or null
+     *
+     * @param decl the declaration statement
+     * @return the type name, or null if the type is unknown
+     */
+    public String getVarType(DeclStmt decl) {
+        String type = getType(decl.getInit());
+        return "void".equals(type) || "null".equals(type) ? null : type;
+    }
+}
@@ -0,0 +1,444 @@
+/*
+ * File: bantam.semant.FrameLayout.java
+ * CS361 Project 11
+ * Names: Martin Deutsch and Wyett MacDonald
+ * Date: 2/13/2019
+ * This file contains the FrameLayout, which assigns the parameters and
+ * local variables of each method to frame slots
+ */
+
+package proj12MacDonaldDouglas.bantam.semant;
+
+import proj12MacDonaldDouglas.bantam.ast.*;
+import proj12MacDonaldDouglas.bantam.util.Symbol;
+import proj12MacDonaldDouglas.bantam.util.SymbolTable;
+import proj12MacDonaldDouglas.bantam.visitor.Visitor;
+
+import java.util.*;
+
+/**
+ * FrameLayout assigns the parameters and local variables of every method
+ * to slots of its stack frame, letting variables that are never live at
+ * the same time share a slot.
+ * <p/>
+ * Each method is walked once.  Declarations and references to variables
+ * are numbered in the order they appear, and names are resolved with the
+ * same scopes as the type checker: a method's parameters, then one scope
+ * per block.  A variable is live from its declaration, or from the start
+ * of the method for a parameter, up to its last reference.  A variable
+ * declared outside a loop and referenced inside it may be read again on
+ * the next iteration, so its range is stretched to the end of the
+ * outermost such loop.  A variable declared inside a loop is given a
+ * value by its declaration on every iteration and needs no stretching.
+ * The ranges are then packed into slots by a linear scan in order of
+ * their start, each variable taking the lowest slot whose last variable
+ * has died.
+ * <p/>
+ * Branches are treated as if both ran one after the other, so a range
+ * may be longer than the time the variable is really live, never
+ * shorter.
+ *
+ * @author Martin Deutsch
+ * @author Wyett MacDonald
+ */
+public class FrameLayout {
+
+    /**
+     * The frame of each method, by "Class.method", in source order
+     */
+    private final Map<String, MethodFrame> frames = new LinkedHashMap<>();
+
+    private FrameLayout() {
+    }
+
+    /**
+     * Lay out the frames of every method of a program
+     *
+     * @param program the program
+     * @return the layout
+     */
+    public static FrameLayout of(Program program) {
+        FrameLayout layout = new FrameLayout();
+        program.accept(new Builder(layout.frames));
+        return layout;
+    }
+
+    /**
+     * Get the frames of the methods
+     *
+     * @return the frames by "Class.method", in source order
+     */
+    public Map<String, MethodFrame> getFrames() {
+        return Collections.unmodifiableMap(frames);
+    }
+
+    /**
+     * Get the frame of a method
+     *
+     * @param className  the name of the class declaring the method
+     * @param methodName the method name
+     * @return the frame, or null if there is no such method
+     */
+    public MethodFrame getFrame(String className, String methodName) {
+        return frames.get(className + "." + methodName);
+    }
+
+    /**
+     * Get the number of slots saved over all methods by sharing them
+     *
+     * @return the number of variables less the number of slots
+     */
+    public int getSlotsSaved() {
+        int saved = 0;
+        for (MethodFrame frame : frames.values()) {
+            saved += frame.getSlotsSaved();
+        }
+        return saved;
+    }
+
+    /**
+     * Report the variables and slots of each method, and the slots saved
+     *
+     * @return the report, one line per method and a total
+     */
+    public String toReport() {
+        StringBuilder report = new StringBuilder("Frame slots per method:\n");
+        int variables = 0;
+        int slots = 0;
+        for (Map.Entry<String, MethodFrame> entry : frames.entrySet()) {
+            MethodFrame frame = entry.getValue();
+            report.append(entry.getKey()).append(": ").append(frame.getNumVariables())
+                    .append(" variables in ").append(frame.getNumSlots())
+                    .append(" slots, ").append(frame.getSlotsSaved()).append(" saved\n");
+            variables += frame.getNumVariables();
+            slots += frame.getNumSlots();
+        }
+        report.append("Total: ").append(variables).append(" variables in ").append(slots)
+                .append(" slots, ").append(variables - slots).append(" saved\n");
+        return report.toString();
+    }
+
+    /**
+     * The slots of one method's variables
+     */
+    public static class MethodFrame {
+        private final ASTNode[] declarations;
+        private final int[] starts;
+        private final int[] ends;
+        private final int[] slots;
+        private final int numSlots;
+
+        /**
+         * The slot of each declaration and reference of a variable
+         */
+        private final Map<ASTNode, Integer> slotOf = new IdentityHashMap<>();
+
+        private MethodFrame(List<Variable> variables, List<ASTNode> references,
+                            List<Variable> referenced) {
+            int n = variables.size();
+            declarations = new ASTNode[n];
+            starts = new int[n];
+            ends = new int[n];
+            slots = new int[n];
+            numSlots = allocate(variables);
+            for (int i = 0; i < n; i++) {
+                Variable variable = variables.get(i);
+                declarations[i] = variable.declaration;
+                starts[i] = variable.start;
+                ends[i] = variable.end;
+                slots[i] = variable.slot;
+                slotOf.put(variable.declaration, variable.slot);
+            }
+            for (int i = 0; i < references.size(); i++) {
+                slotOf.put(references.get(i), referenced.get(i).slot);
+            }
+        }
+
+        /**
+         * Pack the variables, sorted by start, into as few slots as a
+         * linear scan finds
+         *
+         * @return the number of slots used
+         */
+        private static int allocate(List<Variable> variables) {
+            PriorityQueue<Variable> active = new PriorityQueue<>(
+                    Comparator.comparingInt((Variable v) -> v.end));
+            PriorityQueue<Integer> free = new PriorityQueue<>();
+            int numSlots = 0;
+            for (Variable variable : variables) {
+                while (!active.isEmpty() && active.peek().end < variable.start) {
+                    free.add(active.poll().slot);
+                }
+                variable.slot = free.isEmpty() ? numSlots++ : free.poll();
+                active.add(variable);
+            }
+            return numSlots;
+        }
+
+        /**
+         * Get the number of parameters and local variables of the method
+         *
+         * @return variable count
+         */
+        public int getNumVariables() {
+            return declarations.length;
+        }
+
+        /**
+         * Get the number of slots the variables of the method need
+         *
+         * @return slot count
+         */
+        public int getNumSlots() {
+            return numSlots;
+        }
+
+        /**
+         * Get the number of slots saved by sharing them
+         *
+         * @return the number of variables less the number of slots
+         */
+        public int getSlotsSaved() {
+            return declarations.length - numSlots;
+        }
+
+        /**
+         * Get the declaration of a variable, parameters first and then
+         * the local variables in the order they are declared
+         *
+         * @param index the index of the variable
+         * @return its Formal or DeclStmt node
+         */
+        public ASTNode getDeclaration(int index) {
+            return declarations[index];
+        }
+
+        /**
+         * Get the slot of a variable
+         *
+         * @param index the index of the variable
+         * @return its slot
+         */
+        public int getSlot(int index) {
+            return slots[index];
+        }
+
+        /**
+         * Get the live range of a variable, as positions in the order the
+         * declarations and references of the method appear
+         *
+         * @param index the index of the variable
+         * @return the first and last position it is live at
+         */
+        public int[] getLiveRange(int index) {
+            return new int[]{starts[index], ends[index]};
+        }
+
+        /**
+         * Get the slot of the variable a node declares or refers to
+         *
+         * @param node a Formal or DeclStmt, or a VarExpr, ArrayExpr,
+         *             AssignExpr or ArrayAssignExpr naming a local variable
+         * @return the slot, or -1 if the node is not one of these
+         */
+        public int getSlot(ASTNode node) {
+            Integer slot = slotOf.get(node);
+            return slot == null ? -1 : slot;
+        }
+    }
+
+    /**
+     * A parameter or local variable and its live range
+     */
+    private static class Variable {
+        private final ASTNode declaration;
+        private final int start;
+        private int end;
+        private int slot;
+
+        /**
+         * The last loop whose end the range was made to reach
+         */
+        private Loop carriedBy;
+
+        Variable(ASTNode declaration, int start) {
+            this.declaration = declaration;
+            this.start = start;
+            this.end = start;
+        }
+    }
+
+    /**
+     * A loop being walked: where it starts and the variables declared
+     * before it whose ranges must reach its end
+     */
+    private static class Loop {
+        private final int start;
+        private final List<Variable> carried = new ArrayList<>();
+
+        Loop(int start) {
+            this.start = start;
+        }
+    }
+
+    /**
+     * Visitor walking each method, resolving names and numbering
+     * positions
+     */
+    private static class Builder extends Visitor {
+        private final Map<String, MethodFrame> frames;
+        private final SymbolTable<Variable> scopes = new SymbolTable<>();
+        private final Deque<Loop> loops = new ArrayDeque<>();
+        private String className;
+        private List<Variable> variables;
+        private List<ASTNode> references;
+        private List<Variable> referenced;
+        private int position;
+
+        Builder(Map<String, MethodFrame> frames) {
+            this.frames = frames;
+        }
+
+        public Object visit(Class_ node) {
+            className = node.getName();
+            node.getMemberList().accept(this);
+            return null;
+        }
+
+        public Object visit(Field node) {
+            return null;
+        }
+
+        public Object visit(Method node) {
+            variables = new ArrayList<>();
+            references = new ArrayList<>();
+            referenced = new ArrayList<>();
+            position = 0;
+            scopes.enterScope();
+            FormalList formals = node.getFormalList();
+            for (int i = 0; i < formals.getSize(); i++) {
+                Formal formal = (Formal) formals.get(i);
+                declare(formal.getNameSymbol(), formal, 0);
+            }
+            position++;
+            node.getStmtList().accept(this);
+            scopes.exitScope();
+            frames.put(className + "." + node.getName(),
+                    new MethodFrame(variables, references, referenced));
+            return null;
+        }
+
+        public Object visit(DeclStmt node) {
+            node.getInit().accept(this);
+            if (!TypeCheckVisitor.isReservedName(node.getName())
+                    && scopes.lookupLevel(node.getNameSymbol()) == 0) {
+                declare(node.getNameSymbol(), node, position++);
+            }
+            return null;
+        }
+
+        public Object visit(BlockStmt node) {
+            scopes.enterScope();
+            node.getStmtList().accept(this);
+            scopes.exitScope();
+            return null;
+        }
+
+        public Object visit(WhileStmt node) {
+            loops.push(new Loop(position++));
+            super.visit(node);
+            endLoop();
+            return null;
+        }
+
+        public Object visit(ForStmt node) {
+            if (node.getInitExpr() != null) {
+                node.getInitExpr().accept(this);
+            }
+            loops.push(new Loop(position++));
+            if (node.getPredExpr() != null) {
+                node.getPredExpr().accept(this);
+            }
+            if (node.getUpdateExpr() != null) {
+                node.getUpdateExpr().accept(this);
+            }
+            node.getBodyStmt().accept(this);
+            endLoop();
+            return null;
+        }
+
+        public Object visit(VarExpr node) {
+            if (node.getRef() != null) {
+                node.getRef().accept(this);
+            }
+            else if (node.getName() != null && !TypeCheckVisitor.isReservedName(node.getName())) {
+                refer(node, node.getNameSymbol());
+            }
+            return null;
+        }
+
+        public Object visit(ArrayExpr node) {
+            super.visit(node);
+            if (node.getRef() == null && node.getName() != null) {
+                refer(node, node.getNameSymbol());
+            }
+            return null;
+        }
+
+        public Object visit(AssignExpr node) {
+            super.visit(node);
+            if (node.getRefName() == null) {
+                refer(node, node.getNameSymbol());
+            }
+            return null;
+        }
+
+        public Object visit(ArrayAssignExpr node) {
+            super.visit(node);
+            if (node.getRefName() == null) {
+                refer(node, node.getNameSymbol());
+            }
+            return null;
+        }
+
+        private void declare(Symbol name, ASTNode declaration, int start) {
+            Variable variable = new Variable(declaration, start);
+            variables.add(variable);
+            scopes.add(name, variable);
+        }
+
+        /**
+         * Record a reference to a name, if it names a variable and not a
+         * field
+         */
+        private void refer(ASTNode node, Symbol name) {
+            Variable variable = scopes.lookup(name);
+            if (variable == null) {
+                return;
+            }
+            variable.end = position++;
+            references.add(node);
+            referenced.add(variable);
+            // the outermost open loop the variable was declared before
+            Iterator<Loop> outward = loops.descendingIterator();
+            while (outward.hasNext()) {
+                Loop loop = outward.next();
+                if (loop.start > variable.start) {
+                    if (variable.carriedBy != loop) {
+                        variable.carriedBy = loop;
+                        loop.carried.add(variable);
+                    }
+                    break;
+                }
+            }
+        }
+
+        private void endLoop() {
+            Loop loop = loops.pop();
+            int end = position++;
+            for (Variable variable : loop.carried) {
+                variable.end = Math.max(variable.end, end);
+            }
+        }
+    }
+}
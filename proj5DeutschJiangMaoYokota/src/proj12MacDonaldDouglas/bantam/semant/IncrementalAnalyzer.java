@@ -0,0 +1,404 @@
+/*
+ * File: bantam.semant.IncrementalAnalyzer.java
+ * CS361 Project 11
+ * Names: Martin Deutsch and Wyett MacDonald
+ * Date: 2/13/2019
+ * This file contains the IncrementalAnalyzer, which re-checks only the
+ * classes of an edited program that an edit can affect
+ */
+
+package proj12MacDonaldDouglas.bantam.semant;
+
+import proj12MacDonaldDouglas.bantam.ast.*;
+import proj12MacDonaldDouglas.bantam.ast.diff.AstDiff;
+import proj12MacDonaldDouglas.bantam.util.ClassTreeNode;
+import proj12MacDonaldDouglas.bantam.util.CompilationException;
+import proj12MacDonaldDouglas.bantam.util.Error;
+import proj12MacDonaldDouglas.bantam.util.ErrorHandler;
+import proj12MacDonaldDouglas.bantam.util.Symbol;
+import proj12MacDonaldDouglas.bantam.visitor.IterativeTraversal;
+import proj12MacDonaldDouglas.bantam.visitor.TraversalAction;
+
+import java.util.*;
+
+/**
+ * IncrementalAnalyzer analyzes successive versions of a program, as an
+ * editor produces them, and type checks again only the classes an edit
+ * can affect.  It gives the same errors as <tt>SemanticAnalyzer</tt>.
+ * <p/>
+ * Type checking a class records the classes it depends on: every class
+ * named by a type it looks at, which covers the types of its fields,
+ * parameters and expressions, the classes it creates, casts to and
+ * calls methods on.  When a new version comes in, <tt>AstDiff</tt> finds
+ * the classes that were added, removed or changed, and a class whose
+ * structural hash differs from that of the version last checked counts
+ * as changed too, whatever the diff says.  The changed classes and their
+ * descendants, which inherit from them, are dirty, and a class is
+ * checked again if it is dirty or depends on a dirty class.
+ * <p/>
+ * Each other class keeps its earlier result without being walked at
+ * all, so the cost of a check follows the size of the edit rather than of
+ * the program.  The one exception is a kept class with errors: its errors
+ * are stored by the preorder number of their node within the class, and
+ * the new version of the class, which is structurally the same, is
+ * numbered to find the lines they are on now.  The class table and the
+ * Main.main check only look at declarations and are always redone.
+ * <p/>
+ * Each class has its own table of expression types.  The table of a kept
+ * class, like its results, stays with the nodes of the version that was
+ * checked, which <tt>getCheckedClass</tt> returns.
+ *
+ * @author Martin Deutsch
+ * @author Wyett MacDonald
+ */
+public class IncrementalAnalyzer {
+
+    private final ErrorHandler errorHandler;
+    private Program program;
+    private ClassTable classTable;
+    private Map<Symbol, ClassResult> results = new HashMap<>();
+
+    /**
+     * The classes depending on each class, by name symbol
+     */
+    private final Map<Symbol, Set<Symbol>> dependents = new HashMap<>();
+    private final Set<String> rechecked = new LinkedHashSet<>();
+
+    /**
+     * IncrementalAnalyzer constructor
+     *
+     * @param errorHandler the handler the errors are registered with
+     */
+    public IncrementalAnalyzer(ErrorHandler errorHandler) {
+        this.errorHandler = errorHandler;
+    }
+
+    /**
+     * Analyze the next version of the program, reusing the results of the
+     * classes the edit since the last version cannot affect
+     *
+     * @param edited the new version of the program
+     * @return its class table
+     * @throws CompilationException if semantic errors were found
+     */
+    public ClassTable analyze(Program edited) throws CompilationException {
+        ClassTable oldTable = classTable;
+        Set<String> changed = null;
+        if (program != null) {
+            changed = new LinkedHashSet<>(AstDiff.compare(program, edited).getAffectedClasses());
+            ClassList classes = edited.getClassList();
+            for (int i = 0; i < classes.getSize(); i++) {
+                Class_ class_ = (Class_) classes.get(i);
+                ClassResult old = results.get(class_.getNameSymbol());
+                if (old != null && old.hash != class_.getStructuralHash()) {
+                    changed.add(class_.getName());
+                }
+            }
+        }
+        ClassTable table = new ClassTable(edited, errorHandler);
+        if (!new MainMainVisitor().hasMain(edited)) {
+            errorHandler.register(Error.Kind.SEMANT_ERROR,
+                    "no Main class with a void main method with no parameters");
+        }
+        Set<Symbol> invalid = changed == null ? null : invalidated(changed, oldTable, table);
+
+        rechecked.clear();
+        Map<Symbol, ClassResult> newResults = new HashMap<>();
+        ClassChecker checker = new ClassChecker(table);
+        ClassList classes = edited.getClassList();
+        for (int i = 0; i < classes.getSize(); i++) {
+            Class_ class_ = (Class_) classes.get(i);
+            Symbol name = class_.getNameSymbol();
+            ClassTreeNode owner = table.get(name);
+            // a duplicate class is not in the table and is not checked
+            if (owner == null || owner.getASTNode() != class_) {
+                continue;
+            }
+            ClassResult old = results.get(name);
+            ClassResult result;
+            if (invalid != null && old != null && !invalid.contains(name)
+                    && old.hash == class_.getStructuralHash()) {
+                result = old.carryOver(class_);
+            }
+            else {
+                result = checker.check(owner);
+                rechecked.add(class_.getName());
+                updateDependents(name, old, result);
+            }
+            newResults.put(name, result);
+            result.register(errorHandler);
+        }
+        for (Map.Entry<Symbol, ClassResult> entry : results.entrySet()) {
+            if (!newResults.containsKey(entry.getKey())) {
+                updateDependents(entry.getKey(), entry.getValue(), null);
+            }
+        }
+
+        program = edited;
+        classTable = table;
+        results = newResults;
+        if (errorHandler.errorsFound()) {
+            throw new CompilationException("Semantic analysis failed");
+        }
+        return table;
+    }
+
+    /**
+     * Get the handler the errors are registered with
+     *
+     * @return the error handler
+     */
+    public ErrorHandler getErrorHandler() {
+        return errorHandler;
+    }
+
+    /**
+     * Get the classes type checked by the last analysis; the others kept
+     * their earlier results
+     *
+     * @return the class names, in source order
+     */
+    public Set<String> getRecheckedClasses() {
+        return Collections.unmodifiableSet(rechecked);
+    }
+
+    /**
+     * Get the version of a class that was last type checked, whose nodes
+     * carry the expression types.  It is structurally the same as the
+     * class in the last program analyzed.
+     *
+     * @param className the class name
+     * @return the checked class, or null if there is none
+     */
+    public Class_ getCheckedClass(String className) {
+        ClassResult result = results.get(Symbol.lookup(className));
+        return result == null ? null : result.checked;
+    }
+
+    /**
+     * Get the types of the expressions of the version of a class that was
+     * last type checked
+     *
+     * @param className the class name
+     * @return the expression type table, or null if there is none
+     */
+    public ExprTypeTable getExprTypes(String className) {
+        ClassResult result = results.get(Symbol.lookup(className));
+        return result == null ? null : result.exprTypes;
+    }
+
+    /**
+     * Get the classes the last check of a class found it depends on
+     *
+     * @param className the class name
+     * @return the names of the classes it depends on, or an empty set if it
+     * has not been checked
+     */
+    public Set<String> getDependencies(String className) {
+        ClassResult result = results.get(Symbol.lookup(className));
+        if (result == null) {
+            return Collections.emptySet();
+        }
+        Set<String> names = new HashSet<>();
+        for (Symbol dependency : result.dependencies) {
+            names.add(dependency.getName());
+        }
+        return Collections.unmodifiableSet(names);
+    }
+
+    /**
+     * Find the classes to check again: the changed classes and their
+     * descendants before and after the edit, and the classes depending
+     * on any of those
+     */
+    private Set<Symbol> invalidated(Set<String> changed, ClassTable oldTable,
+                                    ClassTable table) {
+        Set<Symbol> dirty = new HashSet<>();
+        for (String name : changed) {
+            Symbol symbol = Symbol.intern(name);
+            dirty.add(symbol);
+            addDescendants(oldTable.get(symbol), dirty);
+            addDescendants(table.get(symbol), dirty);
+        }
+        Set<Symbol> invalid = new HashSet<>(dirty);
+        for (Symbol name : dirty) {
+            Set<Symbol> users = dependents.get(name);
+            if (users != null) {
+                invalid.addAll(users);
+            }
+        }
+        return invalid;
+    }
+
+    private static void addDescendants(ClassTreeNode root, Set<Symbol> names) {
+        if (root == null) {
+            return;
+        }
+        Deque<ClassTreeNode> pending = new ArrayDeque<>(root.getChildren());
+        while (!pending.isEmpty()) {
+            ClassTreeNode node = pending.pop();
+            names.add(node.getNameSymbol());
+            node.getChildren().forEach(pending::push);
+        }
+    }
+
+    private void updateDependents(Symbol className, ClassResult old, ClassResult result) {
+        if (old != null) {
+            for (Symbol dependency : old.dependencies) {
+                Set<Symbol> users = dependents.get(dependency);
+                users.remove(className);
+                if (users.isEmpty()) {
+                    dependents.remove(dependency);
+                }
+            }
+        }
+        if (result != null) {
+            for (Symbol dependency : result.dependencies) {
+                dependents.computeIfAbsent(dependency, k -> new HashSet<>()).add(className);
+            }
+        }
+    }
+
+    /**
+     * The result of checking one class: the structural hash of the class
+     * checked, the classes it depends on, and its errors, each at a node
+     * numbered in the preorder of the class
+     */
+    private static class ClassResult {
+        private final Class_ checked;
+        private final long hash;
+        private final ExprTypeTable exprTypes;
+        private final String filename;
+        private final Set<Symbol> dependencies;
+        private final int[] errorNodes;
+        private final String[] messages;
+        private final int[] lines;
+
+        ClassResult(Class_ checked, ExprTypeTable exprTypes, String filename,
+                    Set<Symbol> dependencies, int[] errorNodes, String[] messages,
+                    int[] lines) {
+            this.checked = checked;
+            this.hash = checked.getStructuralHash();
+            this.exprTypes = exprTypes;
+            this.filename = filename;
+            this.dependencies = dependencies;
+            this.errorNodes = errorNodes;
+            this.messages = messages;
+            this.lines = lines;
+        }
+
+        void register(ErrorHandler errorHandler) {
+            for (int i = 0; i < messages.length; i++) {
+                errorHandler.register(Error.Kind.SEMANT_ERROR, filename, lines[i], messages[i]);
+            }
+        }
+
+        /**
+         * Move this result to a structurally equal new version of the class,
+         * finding the lines its errors are on now
+         */
+        ClassResult carryOver(Class_ newClass) {
+            if (errorNodes.length == 0 && filename.equals(newClass.getFilename())) {
+                return this;
+            }
+            int[] newLines = new int[lines.length];
+            int last = 0;
+            for (int number : errorNodes) {
+                last = Math.max(last, number);
+            }
+            int end = last;
+            new IterativeTraversal() {
+                private int number;
+
+                protected TraversalAction preVisit(ASTNode node) {
+                    for (int i = 0; i < errorNodes.length; i++) {
+                        if (errorNodes[i] == number) {
+                            newLines[i] = node.getLineNum();
+                        }
+                    }
+                    return number++ == end ? TraversalAction.STOP : TraversalAction.CONTINUE;
+                }
+            }.traverse(newClass);
+            return new ClassResult(checked, exprTypes, newClass.getFilename(), dependencies,
+                    errorNodes, messages, newLines);
+        }
+    }
+
+    /**
+     * Type checker that checks one class at a time, recording its
+     * dependencies and errors instead of registering the errors
+     */
+    private static class ClassChecker extends TypeCheckVisitor {
+        private Set<Symbol> dependencies;
+        private List<ASTNode> errorNodes;
+        private List<String> messages;
+        private String lastType;
+
+        ClassChecker(ClassTable classTable) {
+            super(classTable, new ErrorHandler());
+        }
+
+        ClassResult check(ClassTreeNode owner) {
+            dependencies = new HashSet<>();
+            lastType = null;
+            errorNodes = new ArrayList<>();
+            messages = new ArrayList<>();
+            setExprTypes(new ExprTypeTable());
+            Class_ class_ = owner.getASTNode();
+            MemberList members = class_.getMemberList();
+            for (int i = 0; i < members.getSize(); i++) {
+                check(owner, (Member) members.get(i));
+            }
+            if (owner.getParent() != null) {
+                dependencies.add(owner.getParent().getNameSymbol());
+            }
+            dependencies.remove(class_.getNameSymbol());
+
+            int[] numbers = new int[errorNodes.size()];
+            int[] lines = new int[errorNodes.size()];
+            if (!errorNodes.isEmpty()) {
+                number(class_, numbers);
+                for (int i = 0; i < lines.length; i++) {
+                    lines[i] = errorNodes.get(i).getLineNum();
+                }
+            }
+            return new ClassResult(class_, getExprTypes(), class_.getFilename(),
+                    dependencies, numbers, messages.toArray(new String[0]), lines);
+        }
+
+        /**
+         * Find the preorder numbers of the error nodes within the class
+         */
+        private void number(Class_ class_, int[] numbers) {
+            Map<ASTNode, Integer> preorder = new IdentityHashMap<>();
+            new IterativeTraversal() {
+                protected TraversalAction preVisit(ASTNode node) {
+                    preorder.put(node, preorder.size());
+                    return TraversalAction.CONTINUE;
+                }
+            }.traverse(class_);
+            for (int i = 0; i < numbers.length; i++) {
+                numbers[i] = preorder.get(errorNodes.get(i));
+            }
+        }
+
+        protected void addDependency(String type) {
+            // most calls repeat the type before, often int or boolean
+            if (type == lastType) {
+                return;
+            }
+            lastType = type;
+            while (ClassTable.isArray(type)) {
+                type = ClassTable.elementType(type);
+            }
+            if (!ClassTable.isPrimitive(type) && !type.equals("null")) {
+                dependencies.add(Symbol.intern(type));
+            }
+        }
+
+        protected void error(ASTNode node, String message) {
+            errorNodes.add(node);
+            messages.add(message);
+        }
+    }
+}
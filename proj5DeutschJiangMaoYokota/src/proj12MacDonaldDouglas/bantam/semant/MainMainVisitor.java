@@ -9,11 +9,15 @@
 
 package proj12MacDonaldDouglas.bantam.semant;
 import proj12MacDonaldDouglas.bantam.ast.*;
+import proj12MacDonaldDouglas.bantam.visitor.FusedVisitor;
+import proj12MacDonaldDouglas.bantam.visitor.IterativeTraversal;
+import proj12MacDonaldDouglas.bantam.visitor.TraversalAction;
 import proj12MacDonaldDouglas.bantam.visitor.Visitor;
 
 /**
  * MainMainVisitor searches an AST for a Main class
- * containing a main method
+ * containing a main method.  The search skips every other class
+ * and every method body, and stops at the first match.
  *
  * @author Martin Deutsch
  * @author Wyett MacDonald
@@ -21,6 +25,7 @@ import proj12MacDonaldDouglas.bantam.visitor.Visitor;
 public class MainMainVisitor extends Visitor {
 
     private boolean mainMainFound = false;
+    private boolean inMainClass = false;
 
     /**
      * Determine if the AST with the given root has a Main class
@@ -31,65 +36,54 @@ public class MainMainVisitor extends Visitor {
      * with no parameters, otherwise false
      */
     public boolean hasMain(Program ast) {
-        ast.getClassList().accept(this);
+        new IterativeTraversal() {
+            protected TraversalAction preVisit(ASTNode node) {
+                if (node instanceof Class_) {
+                    return ((Class_) node).getName().equals("Main")
+                            ? TraversalAction.CONTINUE : TraversalAction.SKIP_CHILDREN;
+                }
+                if (node instanceof Member) {
+                    if (node instanceof Method) {
+                        visit((Method) node);
+                    }
+                    return mainMainFound ? TraversalAction.STOP : TraversalAction.SKIP_CHILDREN;
+                }
+                return TraversalAction.CONTINUE;
+            }
+        }.traverse(ast);
         return mainMainFound;
     }
 
-
     /**
-     * Visit a list node of classes
-     * Stop traversal if Main.main found
+     * Register this search with a fused traversal, so it runs alongside
+     * other analyses instead of walking the AST on its own
      *
-     * @param node the class list node
-     * @return result of the visit
+     * @param fused the fused visitor
      */
-    public Object visit(ClassList node) {
-        for (ASTNode aNode : node) {
-            aNode.accept(this);
-            if (mainMainFound) {
-                break;
+    public void register(FusedVisitor fused) {
+        fused.on(Class_.class, node -> inMainClass = node.getName().equals("Main"));
+        fused.on(Method.class, node -> {
+            if (inMainClass) {
+                visit(node);
             }
-        }
-        return null;
+        });
     }
 
     /**
-     * Visit a class node
-     * Visit children only if name is Main
+     * Get the result of a fused traversal this search was registered with
      *
-     * @param node the class node
-     * @return result of the visit
+     * @return true if there is a Main class with void main method
+     * with no parameters, otherwise false
      */
-    public Object visit(Class_ node) {
-        if (node.getName().equals("Main")) {
-            node.getMemberList().accept(this);
-        }
-        return null;
+    public boolean hasMain() {
+        return mainMainFound;
     }
 
-    /**
-     * Visit a list node of members
-     * Visit children only if they are methods
-     *
-     * @param node the member list node
-     * @return result of the visit
-     */
-    public Object visit(MemberList node) {
-        for (ASTNode child : node) {
-            if (child instanceof Method) {
-                child.accept(this);
-            }
-            if (mainMainFound) {
-                break;
-            }
-        }
-        return null;
-    }
 
     /**
      * Visit a method node
      * If name is main, type is void, and has no parameters,
-     * stop traversal
+     * record that it was found
      *
      * @param node the method node
      * @return result of the visit
@@ -9,15 +9,19 @@
 
 package proj12MacDonaldDouglas.bantam.semant;
 import proj12MacDonaldDouglas.bantam.ast.*;
+import proj12MacDonaldDouglas.bantam.visitor.FusedVisitor;
+import proj12MacDonaldDouglas.bantam.visitor.ParallelTraversal;
 import proj12MacDonaldDouglas.bantam.visitor.Visitor;
 
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.Map;
 
 /**
  * NumLocalVarsVisitor searches an AST for local variables
- * and stores them in a hashmap
+ * and stores them in a hashmap.  The count of a method is its
+ * parameters and every variable declared in its body, in nested
+ * blocks and loop and if bodies too.  <tt>FrameLayout</tt> finds how
+ * many frame slots those variables need.
  *
  * @author Martin Deutsch
  * @author Wyett MacDonald
@@ -41,6 +45,43 @@ public class NumLocalVarsVisitor extends Visitor {
         return localVarsMap;
     }
 
+    /**
+     * Returns the same hashmap as getNumLocalVars, computed over the
+     * classes and methods of the AST in parallel, each task with its own
+     * visitor
+     *
+     * @param ast the Program node at the root of the AST
+     * @return a hashmap mapping local variables to class.method names
+     */
+    public static Map<String,Integer> getNumLocalVarsInParallel(Program ast) {
+        return ParallelTraversal.mapReduce(ast,
+                program -> new NumLocalVarsVisitor().getNumLocalVars(program),
+                (left, right) -> {
+                    left.putAll(right);
+                    return left;
+                });
+    }
+
+    /**
+     * Register this search with a fused traversal, so it runs alongside
+     * other analyses instead of walking the AST on its own
+     *
+     * @param fused the fused visitor
+     */
+    public void register(FusedVisitor fused) {
+        fused.on(Class_.class, node -> class_name = node.getName());
+        fused.on(Method.class, this::visit);
+    }
+
+    /**
+     * Get the result of a fused traversal this search was registered with
+     *
+     * @return a hashmap mapping local variables to class.method names
+     */
+    public Map<String,Integer> getNumLocalVars() {
+        return localVarsMap;
+    }
+
     /**
      * Visit a class node and store the class node name
      *
@@ -61,7 +102,9 @@ public class NumLocalVarsVisitor extends Visitor {
      */
     public Object visit(Method node) {
         method_name = node.getName();
+        num_vars = 0;
         super.visit(node);
+        localVarsMap.put(class_name + "." + method_name, num_vars);
         return null;
     }
 
@@ -72,28 +115,18 @@ public class NumLocalVarsVisitor extends Visitor {
      * @return result of visit
      */
     public Object visit(FormalList node) {
-        for (Iterator it = node.iterator(); it.hasNext(); ) {
-            it.next();
-            num_vars++;
-        }
+        num_vars += node.getSize();
         return null;
     }
 
     /**
-     * Visit a list node of Statements and increments num_vars
+     * Visit a declaration statement node and increments num_vars
      *
-     * @param node the statement list node
+     * @param node the declaration statement node
      * @return result of visit
      */
-    public Object visit(StmtList node) {
-        for (Iterator it = node.iterator(); it.hasNext(); ) {
-            if (it.next() instanceof DeclStmt) {
-                num_vars++;
-            }
-        }
-        String key_input = class_name + "." + method_name;
-        localVarsMap.put(key_input, num_vars);
-        num_vars = 0;
+    public Object visit(DeclStmt node) {
+        num_vars++;
         return null;
     }
 }
\ No newline at end of file
@@ -0,0 +1,255 @@
+/*
+ * File: bantam.semant.SemanticAnalyzer.java
+ * CS361 Project 11
+ * Names: Martin Deutsch and Wyett MacDonald
+ * Date: 2/13/2019
+ * This file contains the SemanticAnalyzer, which checks a parsed program
+ * for semantic errors
+ */
+
+package proj12MacDonaldDouglas.bantam.semant;
+
+import proj12MacDonaldDouglas.bantam.ast.*;
+import proj12MacDonaldDouglas.bantam.parser.Parser;
+import proj12MacDonaldDouglas.bantam.util.ClassTreeNode;
+import proj12MacDonaldDouglas.bantam.util.CompilationException;
+import proj12MacDonaldDouglas.bantam.util.Error;
+import proj12MacDonaldDouglas.bantam.util.ErrorHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * SemanticAnalyzer checks a program in three steps: it builds the class
+ * table, resolving the inheritance tree and the members of every class;
+ * it checks that there is a Main class with a main method; and it type
+ * checks every field initializer and method body.  Each step is linear in
+ * the size of the program.  Errors are registered with the error handler
+ * as SEMANT_ERRORs, and all three steps run even after an error, so one
+ * run reports as many errors as it can.
+ * <p/>
+ * The first two steps fix every class and member signature, after which
+ * each field and method can be checked on its own.  So the last step can
+ * also run on a <tt>ForkJoinPool</tt>: each task checks a run of members
+ * with its own visitor and scopes and records its errors in order, and
+ * the runs are merged in source order, so the error handler ends up with
+ * the same errors as after a sequential check, however the tasks were
+ * scheduled.  Each task records the types of its expressions in its own
+ * table, and the tables are merged by the ids the parser gave the
+ * expressions, so the result is the same either way.  Nothing is written
+ * to the tree, so a frozen program can be checked by several analyzers
+ * at once.
+ *
+ * @author Martin Deutsch
+ * @author Wyett MacDonald
+ */
+public class SemanticAnalyzer {
+
+    /**
+     * Runs of more members than this are split into several tasks
+     */
+    private static final int MEMBERS_PER_TASK = 8;
+
+    private final ErrorHandler errorHandler;
+    private ExprTypeTable exprTypes;
+
+    /**
+     * SemanticAnalyzer constructor
+     *
+     * @param errorHandler the handler the errors are registered with
+     */
+    public SemanticAnalyzer(ErrorHandler errorHandler) {
+        this.errorHandler = errorHandler;
+    }
+
+    /**
+     * Analyze a program, recording the type of each expression in the
+     * table <tt>getExprTypes</tt> returns
+     *
+     * @param program the program
+     * @return the class table of the program
+     * @throws CompilationException if semantic errors were found
+     */
+    public ClassTable analyze(Program program) throws CompilationException {
+        ClassTable classTable = buildClassTable(program);
+        TypeCheckVisitor checker = new TypeCheckVisitor(classTable, errorHandler);
+        checker.check(program);
+        exprTypes = checker.getExprTypes();
+        return finish(classTable);
+    }
+
+    /**
+     * Analyze a program, type checking its members in parallel in the
+     * common pool
+     *
+     * @param program the program
+     * @return the class table of the program
+     * @throws CompilationException if semantic errors were found
+     */
+    public ClassTable analyzeInParallel(Program program) throws CompilationException {
+        return analyzeInParallel(program, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Analyze a program, type checking its members in parallel in the
+     * given pool
+     *
+     * @param program the program
+     * @param pool    the pool to run the checks in
+     * @return the class table of the program
+     * @throws CompilationException if semantic errors were found
+     */
+    public ClassTable analyzeInParallel(Program program, ForkJoinPool pool)
+            throws CompilationException {
+        ClassTable classTable = buildClassTable(program);
+        exprTypes = new ExprTypeTable();
+        List<ClassTreeNode> owners = new ArrayList<>();
+        List<Member> members = new ArrayList<>();
+        ClassList classes = program.getClassList();
+        for (int i = 0; i < classes.getSize(); i++) {
+            Class_ class_ = (Class_) classes.get(i);
+            ClassTreeNode owner = classTable.get(class_.getNameSymbol());
+            // a duplicate class is not in the table and is not checked
+            if (owner == null || owner.getASTNode() != class_) {
+                continue;
+            }
+            MemberList memberList = class_.getMemberList();
+            for (int j = 0; j < memberList.getSize(); j++) {
+                owners.add(owner);
+                members.add((Member) memberList.get(j));
+            }
+        }
+        if (!members.isEmpty()) {
+            CheckResult result = pool.invoke(new CheckTask(classTable, owners, members,
+                    0, members.size()));
+            for (Error error : result.errors) {
+                errorHandler.register(error.getKind(), error.getFilename(),
+                        error.getLineNum(), error.getMessage());
+            }
+            for (ExprTypeTable table : result.exprTypes) {
+                exprTypes.addAll(table);
+            }
+        }
+        return finish(classTable);
+    }
+
+    /**
+     * Get the types of the expressions found by the last analysis, which
+     * is kept even if the analysis failed
+     *
+     * @return the expression type table, or null before the first analysis
+     */
+    public ExprTypeTable getExprTypes() {
+        return exprTypes;
+    }
+
+    /**
+     * Build the class table and check for a main method: the sequential
+     * steps of the analysis
+     */
+    private ClassTable buildClassTable(Program program) {
+        ClassTable classTable = new ClassTable(program, errorHandler);
+        if (!new MainMainVisitor().hasMain(program)) {
+            errorHandler.register(Error.Kind.SEMANT_ERROR,
+                    "no Main class with a void main method with no parameters");
+        }
+        return classTable;
+    }
+
+    private ClassTable finish(ClassTable classTable) {
+        if (errorHandler.errorsFound()) {
+            throw new CompilationException("Semantic analysis failed");
+        }
+        return classTable;
+    }
+
+    /**
+     * The errors found by a task, in the order a sequential check would
+     * register them, and the expression types of each of its leaf tasks
+     */
+    private static class CheckResult {
+        private final List<Error> errors = new ArrayList<>();
+        private final List<ExprTypeTable> exprTypes = new ArrayList<>();
+    }
+
+    /**
+     * Task type checking a run of members, split in half until it is
+     * small enough
+     */
+    @SuppressWarnings("serial")
+    private static class CheckTask extends RecursiveTask<CheckResult> {
+        private final ClassTable classTable;
+        private final List<ClassTreeNode> owners;
+        private final List<Member> members;
+        private final int from;
+        private final int to;
+
+        CheckTask(ClassTable classTable, List<ClassTreeNode> owners, List<Member> members,
+                  int from, int to) {
+            this.classTable = classTable;
+            this.owners = owners;
+            this.members = members;
+            this.from = from;
+            this.to = to;
+        }
+
+        protected CheckResult compute() {
+            if (to - from <= MEMBERS_PER_TASK) {
+                CheckResult result = new CheckResult();
+                List<Error> errors = result.errors;
+                TypeCheckVisitor checker = new TypeCheckVisitor(classTable,
+                        new ErrorHandler() {
+                            public void register(Error.Kind kind, String filename,
+                                                 int lineNum, String errorMessage) {
+                                errors.add(new Error(kind, filename, lineNum, errorMessage));
+                            }
+                        });
+                for (int i = from; i < to; i++) {
+                    checker.check(owners.get(i), members.get(i));
+                }
+                result.exprTypes.add(checker.getExprTypes());
+                return result;
+            }
+            int middle = (from + to) >>> 1;
+            CheckTask left = new CheckTask(classTable, owners, members, from, middle);
+            CheckTask right = new CheckTask(classTable, owners, members, middle, to);
+            right.fork();
+            CheckResult result = left.compute();
+            CheckResult rightResult = right.join();
+            result.errors.addAll(rightResult.errors);
+            result.exprTypes.addAll(rightResult.exprTypes);
+            return result;
+        }
+    }
+
+    /**
+     * Parse and analyze each of the given files, printing their errors
+     *
+     * @param args the files
+     */
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.out.println("Please enter files to check");
+        }
+
+        ErrorHandler errorHandler = new ErrorHandler();
+        Parser parser = new Parser(errorHandler);
+        SemanticAnalyzer analyzer = new SemanticAnalyzer(errorHandler);
+
+        for (int i = 0; i < args.length; i++) {
+            System.out.println(args[i]);
+            try {
+                analyzer.analyze(parser.parse(args[i]));
+                System.out.println("Checking successful");
+            } catch (CompilationException e) {
+                for (Error error : errorHandler.getErrorList()) {
+                    System.out.println(error.toString());
+                }
+                System.out.println(e.getMessage());
+            }
+            errorHandler.clear();
+        }
+    }
+}
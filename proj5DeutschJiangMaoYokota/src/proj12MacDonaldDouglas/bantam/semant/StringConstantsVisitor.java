@@ -9,33 +9,88 @@
 
 package proj12MacDonaldDouglas.bantam.semant;
 import proj12MacDonaldDouglas.bantam.ast.*;
+import proj12MacDonaldDouglas.bantam.util.StringConstantPool;
+import proj12MacDonaldDouglas.bantam.visitor.FusedVisitor;
+import proj12MacDonaldDouglas.bantam.visitor.ParallelTraversal;
 import proj12MacDonaldDouglas.bantam.visitor.Visitor;
 
-import java.util.HashMap;
 import java.util.Map;
 
 /**
- * StringConstantsVisitor searches an AST for string constants
- * and stores them in a hashmap
+ * StringConstantsVisitor searches an AST for string constants, in method
+ * bodies and field initializers, and adds each distinct one to a
+ * <tt>StringConstantPool</tt> once.  The names come from the text of the
+ * constants, so they are the same however the search is split up and
+ * from one version of the program to the next.
  *
  * @author Martin Deutsch
  * @author Wyett MacDonald
  */
 public class StringConstantsVisitor extends Visitor {
 
-    private Map<String, String> stringConstantsMap = new HashMap<>();
-    private int num_consts = 0;
+    private final StringConstantPool pool = new StringConstantPool();
 
     /**
      * Returns a hashmap containing all the string constants in the
      * AST with given root
      *
      * @param ast the Program node at the root of the AST
-     * @return a hashmap mapping string constants to unique names
+     * @return a map from string constants to unique names
      */
     public Map<String,String> getStringConstants(Program ast) {
         ast.getClassList().accept(this);
-        return stringConstantsMap;
+        return pool.getNames();
+    }
+
+    /**
+     * Returns the same map as getStringConstants, computed over the
+     * classes and methods of the AST in parallel, each task with its own
+     * visitor.  Adjacent results are merged by adding the constants of the
+     * right pool to the left one, which keeps their names.
+     *
+     * @param ast the Program node at the root of the AST
+     * @return a map from string constants to unique names
+     */
+    public static Map<String,String> getStringConstantsInParallel(Program ast) {
+        return ParallelTraversal.mapReduce(ast,
+                program -> {
+                    StringConstantsVisitor visitor = new StringConstantsVisitor();
+                    visitor.getStringConstants(program);
+                    return visitor;
+                },
+                (left, right) -> {
+                    left.pool.addAll(right.pool);
+                    return left;
+                }).pool.getNames();
+    }
+
+    /**
+     * Register this search with a fused traversal, so it runs alongside
+     * other analyses instead of walking the AST on its own
+     *
+     * @param fused the fused visitor
+     */
+    public void register(FusedVisitor fused) {
+        fused.on(ConstStringExpr.class, this::visit);
+    }
+
+    /**
+     * Get the result of a fused traversal this search was registered with
+     *
+     * @return a map from string constants to unique names
+     */
+    public Map<String,String> getStringConstants() {
+        return pool.getNames();
+    }
+
+    /**
+     * Get the pool of the constants found, to declare them in generated
+     * code
+     *
+     * @return the string constant pool
+     */
+    public StringConstantPool getStringConstantPool() {
+        return pool;
     }
 
     /**
@@ -50,15 +105,13 @@ public class StringConstantsVisitor extends Visitor {
     }
 
     /**
-     * Visit a Constant String Expression node and inputs name and value in to HashMap
+     * Visit a Constant String Expression node and adds its value to the pool
      *
      * @param node the string constant expression node
      * @return result of visit
      */
     public Object visit(ConstStringExpr node) {
-        String const_name = "StringConst_" + num_consts;
-        stringConstantsMap.put(node.getConstant(), const_name);
-        num_consts++;
+        pool.intern(node.getConstant());
         return null;
     }
 }
\ No newline at end of file
@@ -0,0 +1,965 @@
+/*
+ * File: bantam.semant.TypeCheckVisitor.java
+ * CS361 Project 11
+ * Names: Martin Deutsch and Wyett MacDonald
+ * Date: 2/13/2019
+ * This file contains the TypeCheckVisitor, which checks the types of the
+ * statements and expressions of a program
+ */
+
+package proj12MacDonaldDouglas.bantam.semant;
+
+import proj12MacDonaldDouglas.bantam.ast.*;
+import proj12MacDonaldDouglas.bantam.util.ClassTreeNode;
+import proj12MacDonaldDouglas.bantam.util.Error;
+import proj12MacDonaldDouglas.bantam.util.ErrorHandler;
+import proj12MacDonaldDouglas.bantam.util.Symbol;
+import proj12MacDonaldDouglas.bantam.util.SymbolTable;
+import proj12MacDonaldDouglas.bantam.visitor.GenericVisitor;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * TypeCheckVisitor checks the method bodies and field initializers of a
+ * program against its class table.  Each visit of an expression returns
+ * the expression's type and records it in an <tt>ExprTypeTable</tt> at the
+ * expression's id; a visit returns null when the type is unknown
+ * because of an error already reported, and checks involving an unknown
+ * type are skipped, so one mistake is reported once.  Statements return
+ * null.
+ * <p/>
+ * Local variables and parameters are kept in a scoped symbol table, and
+ * fields and methods are looked up in the member tries of the class
+ * table, so each name is resolved in constant time however deep
+ * the inheritance tree is, and the whole check is linear in the size of
+ * the program.
+ * <p/>
+ * The class table is only read, so several visitors may check different
+ * members of the same program at once, each with its own scopes.
+ *
+ * @author Martin Deutsch
+ * @author Wyett MacDonald
+ */
+public class TypeCheckVisitor extends GenericVisitor<String> {
+
+    /**
+     * Names of the special variables, which cannot be declared
+     */
+    private static final Set<String> RESERVED_NAMES =
+            new HashSet<>(Arrays.asList("this", "super", "null"));
+
+    private final ClassTable classTable;
+    private final ErrorHandler errorHandler;
+    private final SymbolTable<String> varSymbolTable = new SymbolTable<>();
+    private ExprTypeTable exprTypes = new ExprTypeTable();
+    private ClassTreeNode currentClass;
+    private Method currentMethod;
+    private int loopDepth;
+
+    /**
+     * TypeCheckVisitor constructor
+     *
+     * @param classTable   the class table of the program
+     * @param errorHandler the handler the errors are registered with
+     */
+    public TypeCheckVisitor(ClassTable classTable, ErrorHandler errorHandler) {
+        this.classTable = classTable;
+        this.errorHandler = errorHandler;
+    }
+
+    /**
+     * Get the table the types of the checked expressions are recorded in
+     *
+     * @return the expression type table
+     */
+    public ExprTypeTable getExprTypes() {
+        return exprTypes;
+    }
+
+    /**
+     * Set the table the types of the expressions checked from now on are
+     * recorded in
+     *
+     * @param exprTypes the expression type table
+     */
+    public void setExprTypes(ExprTypeTable exprTypes) {
+        this.exprTypes = exprTypes;
+    }
+
+    /**
+     * Type check the given program
+     *
+     * @param program the program
+     */
+    public void check(Program program) {
+        program.accept(this);
+    }
+
+    /**
+     * Type check a single field or method
+     *
+     * @param owner  the class declaring the member
+     * @param member the member
+     */
+    public void check(ClassTreeNode owner, Member member) {
+        currentClass = owner;
+        member.accept(this);
+    }
+
+    /**
+     * Determine whether a name is reserved for a special variable
+     *
+     * @param name the name
+     * @return true for this, super and null
+     */
+    public static boolean isReservedName(String name) {
+        return RESERVED_NAMES.contains(name);
+    }
+
+    /**
+     * Visit a class node, skipping a class that is not in the class table
+     * because it duplicates another
+     *
+     * @param node the class node
+     * @return null
+     */
+    public String visit(Class_ node) {
+        currentClass = classTable.get(node.getNameSymbol());
+        if (currentClass != null && currentClass.getASTNode() == node) {
+            node.getMemberList().accept(this);
+        }
+        return null;
+    }
+
+    /**
+     * Visit a field node, checking its initializer against its type
+     *
+     * @param node the field node
+     * @return null
+     */
+    public String visit(Field node) {
+        if (node.getInit() != null) {
+            String initType = node.getInit().accept(this);
+            if (initType != null && isDefinedType(node.getType())
+                    && !conforms(initType, node.getType())) {
+                error(node, "the initializer of field " + node.getName() + " has type "
+                        + initType + ", which does not conform to " + node.getType());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Visit a method node, checking its body with its parameters in scope
+     *
+     * @param node the method node
+     * @return null
+     */
+    public String visit(Method node) {
+        currentMethod = node;
+        varSymbolTable.enterScope();
+        FormalList formals = node.getFormalList();
+        for (int i = 0; i < formals.getSize(); i++) {
+            Formal formal = (Formal) formals.get(i);
+            varSymbolTable.add(formal.getNameSymbol(),
+                    isDefinedType(formal.getType()) ? formal.getType() : null);
+        }
+        node.getStmtList().accept(this);
+        varSymbolTable.exitScope();
+        currentMethod = null;
+        return null;
+    }
+
+    /**
+     * Visit a declaration statement node, giving the variable the type of
+     * its initializer
+     *
+     * @param node the declaration statement node
+     * @return null
+     */
+    public String visit(DeclStmt node) {
+        String name = node.getName();
+        boolean valid = true;
+        if (isReservedName(name)) {
+            error(node, "'" + name + "' cannot be used as a variable name");
+            valid = false;
+        }
+        else if (varSymbolTable.lookupLevel(node.getNameSymbol()) > 0) {
+            error(node, "variable " + name + " is already defined in method "
+                    + currentMethod.getName());
+            valid = false;
+        }
+        String type = node.getInit().accept(this);
+        if ("void".equals(type) || "null".equals(type)) {
+            error(node, "the type of variable " + name + " cannot be inferred from "
+                    + type);
+            type = null;
+        }
+        if (valid) {
+            varSymbolTable.add(node.getNameSymbol(), type);
+        }
+        return null;
+    }
+
+    /**
+     * Visit an if statement node
+     *
+     * @param node the if statement node
+     * @return null
+     */
+    public String visit(IfStmt node) {
+        checkPredicate(node.getPredExpr(), "if");
+        node.getThenStmt().accept(this);
+        if (node.getElseStmt() != null) {
+            node.getElseStmt().accept(this);
+        }
+        return null;
+    }
+
+    /**
+     * Visit a while statement node
+     *
+     * @param node the while statement node
+     * @return null
+     */
+    public String visit(WhileStmt node) {
+        checkPredicate(node.getPredExpr(), "while");
+        loopDepth++;
+        node.getBodyStmt().accept(this);
+        loopDepth--;
+        return null;
+    }
+
+    /**
+     * Visit a for statement node
+     *
+     * @param node the for statement node
+     * @return null
+     */
+    public String visit(ForStmt node) {
+        if (node.getInitExpr() != null) {
+            node.getInitExpr().accept(this);
+        }
+        if (node.getPredExpr() != null) {
+            checkPredicate(node.getPredExpr(), "for");
+        }
+        if (node.getUpdateExpr() != null) {
+            node.getUpdateExpr().accept(this);
+        }
+        loopDepth++;
+        node.getBodyStmt().accept(this);
+        loopDepth--;
+        return null;
+    }
+
+    /**
+     * Visit a break statement node
+     *
+     * @param node the break statement node
+     * @return null
+     */
+    public String visit(BreakStmt node) {
+        if (loopDepth == 0) {
+            error(node, "break statement outside of a loop");
+        }
+        return null;
+    }
+
+    /**
+     * Visit a block statement node, whose declarations are local to it
+     *
+     * @param node the block statement node
+     * @return null
+     */
+    public String visit(BlockStmt node) {
+        varSymbolTable.enterScope();
+        node.getStmtList().accept(this);
+        varSymbolTable.exitScope();
+        return null;
+    }
+
+    /**
+     * Visit a return statement node, checking it against the return type
+     * of the method
+     *
+     * @param node the return statement node
+     * @return null
+     */
+    public String visit(ReturnStmt node) {
+        String returnType = currentMethod.getReturnType();
+        if (node.getExpr() == null) {
+            if (!returnType.equals("void")) {
+                error(node, "method " + currentMethod.getName() + " must return a value of type "
+                        + returnType);
+            }
+            return null;
+        }
+        String type = node.getExpr().accept(this);
+        if (returnType.equals("void")) {
+            error(node, "void method " + currentMethod.getName() + " cannot return a value");
+        }
+        else if (type != null && isDefinedType(returnType)
+                && !conforms(type, returnType)) {
+            error(node, "the returned type " + type + " does not conform to the return type "
+                    + returnType + " of method " + currentMethod.getName());
+        }
+        return null;
+    }
+
+    /**
+     * Visit a dispatch expression node, checking the arguments against the
+     * parameters of the method called
+     *
+     * @param node the dispatch expression node
+     * @return the return type of the method
+     */
+    public String visit(DispatchExpr node) {
+        ClassTreeNode target = currentClass;
+        boolean known = true;
+        if (node.getRefExpr() != null) {
+            String refType = node.getRefExpr().accept(this);
+            target = refType == null ? null : classOf(refType);
+            if (refType != null && target == null) {
+                error(node, "cannot call a method on a value of type " + refType);
+            }
+            known = target != null;
+        }
+        Method method = null;
+        if (node.getMethodName() == null) {
+            error(node, "method name expected");
+        }
+        else if (known) {
+            method = target.lookupMethod(node.getMethodNameSymbol());
+            if (method == null) {
+                error(node, "method " + node.getMethodName() + " is not defined in class "
+                        + target.getName());
+            }
+        }
+        ExprList actuals = node.getActualList();
+        String[] actualTypes = new String[actuals.getSize()];
+        for (int i = 0; i < actuals.getSize(); i++) {
+            actualTypes[i] = actuals.get(i).accept(this);
+        }
+        if (method == null) {
+            return null;
+        }
+        FormalList formals = method.getFormalList();
+        if (formals.getSize() != actualTypes.length) {
+            error(node, "method " + method.getName() + " takes " + formals.getSize()
+                    + " arguments but is given " + actualTypes.length);
+        }
+        else {
+            for (int i = 0; i < actualTypes.length; i++) {
+                String formalType = ((Formal) formals.get(i)).getType();
+                if (actualTypes[i] != null && isDefinedType(formalType)
+                        && !conforms(actualTypes[i], formalType)) {
+                    error(node, "argument " + (i + 1) + " of method " + method.getName()
+                            + " has type " + actualTypes[i] + ", which does not conform to "
+                            + formalType);
+                }
+            }
+        }
+        return typed(node, isDefinedType(method.getReturnType())
+                || method.getReturnType().equals("void") ? method.getReturnType() : null);
+    }
+
+    /**
+     * Get the class whose methods a value of the given type has
+     *
+     * @return the class, Object for arrays, or null for other types
+     */
+    private ClassTreeNode classOf(String type) {
+        return ClassTable.isArray(type) ? classTable.get("Object") : classTable.get(type);
+    }
+
+    /**
+     * Visit a new expression node
+     *
+     * @param node the new expression node
+     * @return the class created
+     */
+    public String visit(NewExpr node) {
+        addDependency(node.getType());
+        if (classTable.get(node.getType()) == null) {
+            error(node, "cannot create an object of undefined class " + node.getType());
+            return null;
+        }
+        return typed(node, node.getType());
+    }
+
+    /**
+     * Visit a new array expression node
+     *
+     * @param node the new array expression node
+     * @return the array type created
+     */
+    public String visit(NewArrayExpr node) {
+        checkOperand(node.getSize(), "int", "the size of an array");
+        if (!isDefinedType(node.getType()) || ClassTable.isArray(node.getType())) {
+            error(node, "cannot create an array of type " + node.getType());
+            return null;
+        }
+        return typed(node, node.getType() + "[]");
+    }
+
+    /**
+     * Visit an instanceof expression node, recording whether the check
+     * always succeeds
+     *
+     * @param node the instanceof expression node
+     * @return boolean
+     */
+    public String visit(InstanceofExpr node) {
+        String type = node.getExpr().accept(this);
+        Boolean upward = checkRelated(node, type, node.getType(), "instanceof");
+        if (upward != null) {
+            exprTypes.setUpward(node, upward);
+        }
+        return typed(node, "boolean");
+    }
+
+    /**
+     * Visit a cast expression node, recording whether it is an upcast
+     *
+     * @param node the cast expression node
+     * @return the type cast to
+     */
+    public String visit(CastExpr node) {
+        String type = node.getExpr().accept(this);
+        Boolean upward = checkRelated(node, type, node.getType(), "cast");
+        if (upward != null) {
+            exprTypes.setUpward(node, upward);
+        }
+        return isDefinedType(node.getType()) ? typed(node, node.getType()) : null;
+    }
+
+    /**
+     * Check the types of an instanceof or cast, which must be reference
+     * types, one conforming to the other
+     *
+     * @return true if the value's type conforms to the target type, false
+     * if the target conforms to the value's type, or null if the types
+     * are unknown or unrelated
+     */
+    private Boolean checkRelated(Expr node, String type, String target, String operation) {
+        if (!isDefinedType(target) || ClassTable.isPrimitive(target)) {
+            error(node, "cannot " + operation + " to type " + target);
+            return null;
+        }
+        if (type == null) {
+            return null;
+        }
+        if (ClassTable.isPrimitive(type)) {
+            error(node, "cannot " + operation + " a value of primitive type " + type);
+            return null;
+        }
+        if (conforms(type, target)) {
+            return true;
+        }
+        if (conforms(target, type)) {
+            return false;
+        }
+        error(node, "cannot " + operation + " a value of type " + type + " to unrelated type "
+                + target);
+        return null;
+    }
+
+    /**
+     * Visit an assignment expression node
+     *
+     * @param node the assignment expression node
+     * @return the type of the variable
+     */
+    public String visit(AssignExpr node) {
+        String varType = lookupVar(node, node.getRefName(), node.getNameSymbol());
+        String type = node.getExpr().accept(this);
+        if (varType != null && type != null && !conforms(type, varType)) {
+            error(node, "the assigned type " + type + " does not conform to the type "
+                    + varType + " of " + node.getName());
+        }
+        return typed(node, varType);
+    }
+
+    /**
+     * Visit an array assignment expression node
+     *
+     * @param node the array assignment expression node
+     * @return the element type of the array
+     */
+    public String visit(ArrayAssignExpr node) {
+        String varType = lookupVar(node, node.getRefName(), node.getNameSymbol());
+        String elementType = null;
+        if (varType != null && !ClassTable.isArray(varType)) {
+            error(node, node.getName() + " has type " + varType + " and is not an array");
+        }
+        else if (varType != null) {
+            elementType = ClassTable.elementType(varType);
+        }
+        checkIndex(node, node.getIndex());
+        String type = node.getExpr().accept(this);
+        if (elementType != null && type != null && !conforms(type, elementType)) {
+            error(node, "the assigned type " + type + " does not conform to the element type "
+                    + elementType + " of " + node.getName());
+        }
+        return typed(node, elementType);
+    }
+
+    /**
+     * Visit a binary comparison equals expression node
+     *
+     * @param node the binary comparison equals expression node
+     * @return boolean
+     */
+    public String visit(BinaryCompEqExpr node) {
+        return binary(node);
+    }
+
+    /**
+     * Visit a binary comparison not equals expression node
+     *
+     * @param node the binary comparison not equals expression node
+     * @return boolean
+     */
+    public String visit(BinaryCompNeExpr node) {
+        return binary(node);
+    }
+
+    /**
+     * Visit a binary comparison less than expression node
+     *
+     * @param node the binary comparison less than expression node
+     * @return boolean
+     */
+    public String visit(BinaryCompLtExpr node) {
+        return binary(node);
+    }
+
+    /**
+     * Visit a binary comparison less than or equal to expression node
+     *
+     * @param node the binary comparison less than or equal to expression node
+     * @return boolean
+     */
+    public String visit(BinaryCompLeqExpr node) {
+        return binary(node);
+    }
+
+    /**
+     * Visit a binary comparison greater than expression node
+     *
+     * @param node the binary comparison greater than expression node
+     * @return boolean
+     */
+    public String visit(BinaryCompGtExpr node) {
+        return binary(node);
+    }
+
+    /**
+     * Visit a binary comparison greater than or equal to expression node
+     *
+     * @param node the binary comparison greater to or equal to expression node
+     * @return boolean
+     */
+    public String visit(BinaryCompGeqExpr node) {
+        return binary(node);
+    }
+
+    /**
+     * Visit a binary arithmetic plus expression node
+     *
+     * @param node the binary arithmetic plus expression node
+     * @return int
+     */
+    public String visit(BinaryArithPlusExpr node) {
+        return binary(node);
+    }
+
+    /**
+     * Visit a binary arithmetic minus expression node
+     *
+     * @param node the binary arithmetic minus expression node
+     * @return int
+     */
+    public String visit(BinaryArithMinusExpr node) {
+        return binary(node);
+    }
+
+    /**
+     * Visit a binary arithmetic times expression node
+     *
+     * @param node the binary arithmetic times expression node
+     * @return int
+     */
+    public String visit(BinaryArithTimesExpr node) {
+        return binary(node);
+    }
+
+    /**
+     * Visit a binary arithmetic divide expression node
+     *
+     * @param node the binary arithmetic divide expression node
+     * @return int
+     */
+    public String visit(BinaryArithDivideExpr node) {
+        return binary(node);
+    }
+
+    /**
+     * Visit a binary arithmetic modulus expression node
+     *
+     * @param node the binary arithmetic modulus expression node
+     * @return int
+     */
+    public String visit(BinaryArithModulusExpr node) {
+        return binary(node);
+    }
+
+    /**
+     * Visit a binary logical AND expression node
+     *
+     * @param node the binary logical AND expression node
+     * @return boolean
+     */
+    public String visit(BinaryLogicAndExpr node) {
+        return binary(node);
+    }
+
+    /**
+     * Visit a binary logical OR expression node
+     *
+     * @param node the binary logical OR expression node
+     * @return boolean
+     */
+    public String visit(BinaryLogicOrExpr node) {
+        return binary(node);
+    }
+
+    /**
+     * Check the operands of a binary expression.  An operator with an
+     * operand type needs operands of that type; == and != need operands
+     * of the same primitive type, or of reference types one of which
+     * conforms to the other.
+     *
+     * @return the result type of the operator
+     */
+    private String binary(BinaryExpr node) {
+        String operandType = node.getOperandType();
+        if (operandType != null) {
+            checkOperand(node.getLeftExpr(), operandType,
+                    "the left operand of " + node.getOpName());
+            checkOperand(node.getRightExpr(), operandType,
+                    "the right operand of " + node.getOpName());
+            return typed(node, node.getOpType());
+        }
+        String left = node.getLeftExpr().accept(this);
+        String right = node.getRightExpr().accept(this);
+        if (left != null && right != null && !conforms(left, right)
+                && !conforms(right, left)) {
+            error(node, "cannot compare values of types " + left + " and " + right
+                    + " with " + node.getOpName());
+        }
+        return typed(node, node.getOpType());
+    }
+
+    /**
+     * Visit a unary negation expression node
+     *
+     * @param node the unary negation expression node
+     * @return int
+     */
+    public String visit(UnaryNegExpr node) {
+        return unary(node);
+    }
+
+    /**
+     * Visit a unary NOT expression node
+     *
+     * @param node the unary NOT expression node
+     * @return boolean
+     */
+    public String visit(UnaryNotExpr node) {
+        return unary(node);
+    }
+
+    /**
+     * Visit a unary increment expression node
+     *
+     * @param node the unary increment expression node
+     * @return int
+     */
+    public String visit(UnaryIncrExpr node) {
+        checkAssignable(node);
+        return unary(node);
+    }
+
+    /**
+     * Visit a unary decrement expression node
+     *
+     * @param node the unary decrement expression node
+     * @return int
+     */
+    public String visit(UnaryDecrExpr node) {
+        checkAssignable(node);
+        return unary(node);
+    }
+
+    private String unary(UnaryExpr node) {
+        checkOperand(node.getExpr(), node.getOperandType(), "the operand of " + node.getOpName());
+        return typed(node, node.getOpType());
+    }
+
+    /**
+     * Check that the operand of ++ or -- is a variable or array element
+     */
+    private void checkAssignable(UnaryExpr node) {
+        Expr operand = node.getExpr();
+        boolean variable = operand instanceof ArrayExpr
+                || (operand instanceof VarExpr && !isReservedName(((VarExpr) operand).getName()));
+        if (!variable) {
+            error(node, "the operand of " + node.getOpName() + " must be a variable");
+        }
+    }
+
+    /**
+     * Visit a variable expression node: a local variable, a field, this,
+     * super, null, or the length of an array
+     *
+     * @param node the variable expression node
+     * @return the type of the variable
+     */
+    public String visit(VarExpr node) {
+        Expr ref = node.getRef();
+        String name = node.getName();
+        if (ref == null && name == null) {
+            return typed(node, lookupVar(node, null, null));
+        }
+        if (ref == null) {
+            switch (name) {
+                case "this":
+                    return typed(node, currentClass.getName());
+                case "super":
+                    return typed(node, currentClass.getParent().getName());
+                case "null":
+                    return typed(node, "null");
+                default:
+                    return typed(node, lookupVar(node, null, node.getNameSymbol()));
+            }
+        }
+        if (isThisOrSuper(ref)) {
+            ref.accept(this);
+            return typed(node, lookupVar(node, ((VarExpr) ref).getName(),
+                    node.getNameSymbol()));
+        }
+        String refType = ref.accept(this);
+        if (refType == null) {
+            return null;
+        }
+        if (ClassTable.isArray(refType)) {
+            if (name.equals("length")) {
+                return typed(node, "int");
+            }
+            error(node, "arrays have no field " + name);
+        }
+        else {
+            error(node, "field " + name + " of a " + refType
+                    + " can only be accessed through this or super");
+        }
+        return null;
+    }
+
+    /**
+     * Visit an array expression node
+     *
+     * @param node the array expression node
+     * @return the element type
+     */
+    public String visit(ArrayExpr node) {
+        String type;
+        if (node.getName() == null) {
+            type = node.getRef().accept(this);
+        }
+        else {
+            if (node.getRef() != null && isThisOrSuper(node.getRef())) {
+                node.getRef().accept(this);
+            }
+            else if (node.getRef() != null) {
+                node.getRef().accept(this);
+                error(node, "field " + node.getName()
+                        + " can only be accessed through this or super");
+            }
+            type = lookupVar(node, node.getRef() == null ? null
+                    : ((VarExpr) node.getRef()).getName(), node.getNameSymbol());
+        }
+        checkIndex(node, node.getIndex());
+        if (type == null) {
+            return null;
+        }
+        if (!ClassTable.isArray(type)) {
+            error(node, "a value of type " + type + " cannot be indexed");
+            return null;
+        }
+        return typed(node, ClassTable.elementType(type));
+    }
+
+    /**
+     * Visit an int constant expression node
+     *
+     * @param node the int constant expression node
+     * @return int
+     */
+    public String visit(ConstIntExpr node) {
+        return typed(node, "int");
+    }
+
+    /**
+     * Visit a boolean constant expression node
+     *
+     * @param node the boolean constant expression node
+     * @return boolean
+     */
+    public String visit(ConstBooleanExpr node) {
+        return typed(node, "boolean");
+    }
+
+    /**
+     * Visit a string constant expression node
+     *
+     * @param node the string constant expression node
+     * @return String
+     */
+    public String visit(ConstStringExpr node) {
+        return typed(node, "String");
+    }
+
+    private static boolean isThisOrSuper(Expr expr) {
+        if (!(expr instanceof VarExpr) || ((VarExpr) expr).getRef() != null) {
+            return false;
+        }
+        String name = ((VarExpr) expr).getName();
+        return "this".equals(name) || "super".equals(name);
+    }
+
+    /**
+     * Find the type of a variable named in an assignment or expression.
+     * Without a reference the name is a local variable or parameter, or
+     * else a field; through this or super it is a field of the current or
+     * parent class.
+     *
+     * @param node    the node naming the variable, for error reporting
+     * @param refName null, "this", "super" or another reference name
+     * @param name    the variable name symbol
+     * @return its type, or null if it is unknown
+     */
+    private String lookupVar(Expr node, String refName, Symbol name) {
+        if (name == null) {
+            error(node, "variable name expected");
+            return null;
+        }
+        if (refName == null && varSymbolTable.lookupLevel(name) > 0) {
+            return varSymbolTable.lookup(name);
+        }
+        ClassTreeNode owner;
+        if (refName == null || refName.equals("this")) {
+            owner = currentClass;
+        }
+        else if (refName.equals("super")) {
+            owner = currentClass.getParent();
+        }
+        else {
+            error(node, "field " + name + " can only be accessed through this or super");
+            return null;
+        }
+        Field field = owner.lookupField(name);
+        if (field == null) {
+            error(node, refName == null ? "undeclared variable " + name
+                    : "field " + name + " is not defined in class " + owner.getName());
+            return null;
+        }
+        return isDefinedType(field.getType()) ? field.getType() : null;
+    }
+
+    /**
+     * Check that an array index is an int
+     */
+    private void checkIndex(Expr node, Expr index) {
+        if (index instanceof VarExpr && ((VarExpr) index).getName() == null) {
+            error(node, "array index expected");
+            return;
+        }
+        checkOperand(index, "int", "an array index");
+    }
+
+    /**
+     * Check that the predicate of a statement is a boolean
+     */
+    private void checkPredicate(Expr pred, String statement) {
+        checkOperand(pred, "boolean", "the " + statement + " condition");
+    }
+
+    /**
+     * Check an expression that must have the given type
+     */
+    private void checkOperand(Expr expr, String type, String description) {
+        String actual = expr.accept(this);
+        if (actual != null && !actual.equals(type)) {
+            error(expr, description + " must be " + type + ", not " + actual);
+        }
+    }
+
+    /**
+     * Record the type of an expression
+     *
+     * @return the type
+     */
+    private String typed(Expr node, String type) {
+        if (type != null) {
+            exprTypes.add(node, type);
+            addDependency(type);
+        }
+        return type;
+    }
+
+    private boolean isDefinedType(String type) {
+        addDependency(type);
+        return classTable.isDefinedType(type);
+    }
+
+    private boolean conforms(String type, String target) {
+        addDependency(type);
+        addDependency(target);
+        return classTable.conforms(type, target);
+    }
+
+    /**
+     * Called with every type the check of the current class looks at, so
+     * a subclass can find which classes the result depends on.  The type
+     * may be primitive, an array type, or the name of a class that does
+     * not exist.  Does nothing unless overridden.
+     *
+     * @param type the type name
+     */
+    protected void addDependency(String type) {
+    }
+
+    /**
+     * Get the class whose members are being checked
+     *
+     * @return the current class
+     */
+    protected ClassTreeNode getCurrentClass() {
+        return currentClass;
+    }
+
+    /**
+     * Register a semantic error at a node of the current class
+     *
+     * @param node    the node the error is about
+     * @param message the error message
+     */
+    protected void error(ASTNode node, String message) {
+        errorHandler.register(Error.Kind.SEMANT_ERROR,
+                currentClass.getASTNode().getFilename(), node.getLineNum(), message);
+    }
+}
@@ -40,7 +40,7 @@ public class Drawer
         FontMetrics fontMetrics = frame.getFontMetrics(font);
 
         LayoutVisitor layout = new LayoutVisitor(fontMetrics);
-        DrawingTree theDrawing = (DrawingTree) AST.accept(layout);
+        DrawingTree theDrawing = layout.layout(AST);
         theDrawing.position(new Point(2048, 10));
         panel.setDrawing(theDrawing);
 
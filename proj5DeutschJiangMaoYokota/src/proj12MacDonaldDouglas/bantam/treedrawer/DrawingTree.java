@@ -10,11 +10,16 @@
  * This software is provided free for educational use only. It may
  * not be used for commercial purposes without the prior written permission
  * of the authors.
+ *
+ * Modified by Martin Deutsch and Wyett MacDonald, February 2019
+ * --position and paint walk the tree with explicit stacks, so trees of
+ *   any depth can be drawn
  */
 
 package proj12MacDonaldDouglas.bantam.treedrawer;
 
 import java.awt.*;
+import java.util.ArrayDeque;
 
 public class DrawingTree
 {
@@ -49,7 +54,40 @@ public class DrawingTree
     //private final int FIXED_FONT_ASCENT = 3; -- never used
     private final Color nodeColor = new Color(250, 220, 100);
 
+    /**
+     * Paint this tree: each node's box before its children, and the line
+     * up to its parent after them.  Pending nodes are kept on an explicit
+     * stack, so trees of any depth can be painted.
+     */
     public void paint(Graphics graphics)
+    {
+        ArrayDeque<DrawingTree> pending = new ArrayDeque<>();
+        // a node is pushed twice: to paint its box, then, once its
+        // children are done, under LINE, to draw its line
+        pending.push(this);
+        while (!pending.isEmpty()) {
+            DrawingTree tree = pending.pop();
+            if (tree == LINE) {
+                pending.pop().paintLine(graphics);
+                continue;
+            }
+            tree.paintBox(graphics);
+            pending.push(tree);
+            pending.push(LINE);
+            if (tree.children != null) {
+                for (int i = tree.children.length - 1; i >= 0; i--) {
+                    pending.push(tree.children[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Marks the nodes on the paint stack whose lines are due
+     */
+    private static final DrawingTree LINE = new DrawingTree("", 0, 0);
+
+    private void paintBox(Graphics graphics)
     {
         graphics.setColor(nodeColor);
         graphics.fillRect(pos.x, pos.y, width, height);
@@ -57,13 +95,10 @@ public class DrawingTree
         graphics.drawRect(pos.x, pos.y, width - 1, height - 1);
         graphics.drawString(caption, pos.x + 2,
                 pos.y + (height + FIXED_FONT_HEIGHT) / 2);
+    }
 
-        if (children != null) {
-            for (int i = 0; i < children.length; i++) {
-                children[i].paint(graphics);
-            }
-        }
-
+    private void paintLine(Graphics graphics)
+    {
         if (parent != null) {
             graphics.drawLine(pos.x + width / 2, pos.y,
                     parent.pos.x + parent.width / 2,
@@ -71,19 +106,32 @@ public class DrawingTree
         }
     }
 
+    /**
+     * Place this tree, and every node below it, relative to the given
+     * point.  The first child hangs below its parent's position and each
+     * later one to the right of the one before, at the first child's
+     * height.  Nodes are placed from an explicit stack, parents first.
+     */
     public void position(Point pos)
     {
-
         this.pos.x = pos.x + this.offset.x;
         this.pos.y = pos.y + this.offset.y;
-
-        Point temp = new Point(this.pos.x, this.pos.y);
-
-        if (children != null) {
-            for (int i = 0; i < children.length; i++) {
-                children[i].position(temp);
-                temp.x += children[i].offset.x;
-                temp.y = this.pos.y + children[0].offset.y;
+        ArrayDeque<DrawingTree> pending = new ArrayDeque<>();
+        pending.push(this);
+        while (!pending.isEmpty()) {
+            DrawingTree tree = pending.pop();
+            if (tree.children == null) {
+                continue;
+            }
+            int x = tree.pos.x;
+            int y = tree.pos.y;
+            for (int i = 0; i < tree.children.length; i++) {
+                DrawingTree child = tree.children[i];
+                child.pos.x = x + child.offset.x;
+                child.pos.y = y + child.offset.y;
+                x += child.offset.x;
+                y = tree.pos.y + tree.children[0].offset.y;
+                pending.push(child);
             }
         }
     }
@@ -14,6 +14,12 @@
  * Modified by Dale Skrien to work with the Bantam Java compiler
  * --added layoutNary method
  * --changed all the visit methods to work with the Visitor class
+ *
+ * Modified by Martin Deutsch and Wyett MacDonald, February 2019
+ * --the visit methods only name a node's caption and children, and
+ *   layout builds the drawing bottom-up with an explicit stack, so trees
+ *   of any depth can be drawn
+ * --positions and paints the drawing with explicit stacks too
  */
 
 package proj12MacDonaldDouglas.bantam.treedrawer;
@@ -22,6 +28,8 @@ import proj12MacDonaldDouglas.bantam.ast.*;
 import proj12MacDonaldDouglas.bantam.visitor.Visitor;
 
 import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
 
 public class LayoutVisitor extends Visitor
 {
@@ -36,6 +44,35 @@ public class LayoutVisitor extends Visitor
         this.fontMetrics = fontMetrics;
     }
 
+    /**
+     * Lay out the drawing of a tree.  Each node's visit method gives its
+     * caption and the nodes drawn below it; a node is drawn once all of
+     * those are, keeping the drawings of the children on an explicit
+     * stack rather than the Java call stack.
+     *
+     * @param root the root of the tree
+     * @return the drawing, not yet positioned
+     */
+    public DrawingTree layout(ASTNode root)
+    {
+        List<Layout> pending = new ArrayList<>();
+        pending.add((Layout) root.accept(this));
+        while (true) {
+            Layout top = pending.get(pending.size() - 1);
+            if (top.next < top.childNodes.length) {
+                pending.add((Layout) top.childNodes[top.next].accept(this));
+                continue;
+            }
+            pending.remove(pending.size() - 1);
+            DrawingTree dt = top.draw();
+            if (pending.isEmpty()) {
+                return dt;
+            }
+            Layout parent = pending.get(pending.size() - 1);
+            parent.childTrees[parent.next++] = dt;
+        }
+    }
+
 
     // Programs, Classes, Methods, Fields
 
@@ -115,15 +152,15 @@ public class LayoutVisitor extends Visitor
 
     public Object visit(ForStmt node)
     {
-        ListNode list = new ExprList(0);
+        List<ASTNode> list = new ArrayList<>();
         if(node.getInitExpr() != null)
-            list.addElement(node.getInitExpr());
+            list.add(node.getInitExpr());
         if(node.getPredExpr() != null)
-            list.addElement(node.getPredExpr());
+            list.add(node.getPredExpr());
         if(node.getUpdateExpr() != null)
-            list.addElement(node.getUpdateExpr());
-        list.addElement(node.getBodyStmt());
-        return layoutNary("For",list);
+            list.add(node.getUpdateExpr());
+        list.add(node.getBodyStmt());
+        return new Layout("For", list.toArray(new ASTNode[0]));
     }
 
     public Object visit(BlockStmt node) {
@@ -276,6 +313,36 @@ public class LayoutVisitor extends Visitor
 
 
     //-------- auxilliary methods ---------
+
+    /**
+     * A node waiting to be drawn: its caption, the nodes drawn below it,
+     * and the drawings of those done so far
+     */
+    private class Layout
+    {
+        private final String name;
+        private final ASTNode[] childNodes;
+        private final DrawingTree[] childTrees;
+        private int next;
+
+        Layout(String name, ASTNode... childNodes)
+        {
+            this.name = name;
+            this.childNodes = childNodes;
+            this.childTrees = new DrawingTree[childNodes.length];
+        }
+
+        DrawingTree draw()
+        {
+            if (childTrees.length == 0)
+                return drawNullary(name);
+            DrawingTree dt = layoutCaption(name);
+            dt.setChildren(childTrees);
+            attachParent(dt, join(dt));
+            return dt;
+        }
+    }
+
     private DrawingTree layoutCaption(String name)
     {
         int w = fontMetrics.stringWidth(name) + 14;
@@ -283,7 +350,7 @@ public class LayoutVisitor extends Visitor
         return new DrawingTree(name, w, h);
     }
 
-    private DrawingTree layoutNullary(String name)
+    private DrawingTree drawNullary(String name)
     {
         DrawingTree dt = layoutCaption(name);
         dt.contour.upper_tail = new Polyline(0, dt.height + 2 * BORDER, null);
@@ -293,78 +360,36 @@ public class LayoutVisitor extends Visitor
         return dt;
     }
 
-    private DrawingTree layoutUnary(String name, ASTNode child1)
+    private Layout layoutNullary(String name)
     {
-        DrawingTree dt = layoutCaption(name);
-        DrawingTree d1 = (DrawingTree) child1.accept(this);
-        dt.setChildren(new DrawingTree[]{d1});
-        attachParent(dt, join(dt));
-        return dt;
+        return new Layout(name);
     }
 
-    private DrawingTree layoutBinary(String name, ASTNode child1, ASTNode child2)
+    private Layout layoutUnary(String name, ASTNode child1)
     {
-        DrawingTree dt = layoutCaption(name);
-        DrawingTree d1 = (DrawingTree) child1.accept(this);
-        DrawingTree d2 = (DrawingTree) child2.accept(this);
-        dt.setChildren(new DrawingTree[]{d1, d2});
-        attachParent(dt, join(dt));
-        return dt;
-    }
-
-    private DrawingTree layoutTernary(String name, ASTNode child1, ASTNode child2,
-                                      ASTNode child3)
-    {
-        DrawingTree dt = layoutCaption(name);
-        DrawingTree d1 = (DrawingTree) child1.accept(this);
-        DrawingTree d2 = (DrawingTree) child2.accept(this);
-        DrawingTree d3 = (DrawingTree) child3.accept(this);
-        dt.setChildren(new DrawingTree[]{d1, d2, d3});
-        attachParent(dt, join(dt));
-        return dt;
+        return new Layout(name, child1);
     }
 
-    private DrawingTree layoutQuaternary(String name, ASTNode child1, ASTNode child2,
-                                         ASTNode child3, ASTNode child4)
+    private Layout layoutBinary(String name, ASTNode child1, ASTNode child2)
     {
-        DrawingTree dt = layoutCaption(name);
-        DrawingTree d1 = (DrawingTree) child1.accept(this);
-        DrawingTree d2 = (DrawingTree) child2.accept(this);
-        DrawingTree d3 = (DrawingTree) child3.accept(this);
-        DrawingTree d4 = (DrawingTree) child4.accept(this);
-        dt.setChildren(new DrawingTree[]{d1, d2, d3, d4});
-        attachParent(dt, join(dt));
-        return dt;
+        return new Layout(name, child1, child2);
     }
 
-    private DrawingTree layoutQuintenary(String name, ASTNode child1, ASTNode child2,
-                                         ASTNode child3, ASTNode child4, ASTNode child5)
+    private Layout layoutTernary(String name, ASTNode child1, ASTNode child2,
+                                 ASTNode child3)
     {
-        DrawingTree dt = layoutCaption(name);
-        DrawingTree d1 = (DrawingTree) child1.accept(this);
-        DrawingTree d2 = (DrawingTree) child2.accept(this);
-        DrawingTree d3 = (DrawingTree) child3.accept(this);
-        DrawingTree d4 = (DrawingTree) child4.accept(this);
-        DrawingTree d5 = (DrawingTree) child5.accept(this);
-        dt.setChildren(new DrawingTree[]{d1, d2, d3, d4, d5});
-        attachParent(dt, join(dt));
-        return dt;
+        return new Layout(name, child1, child2, child3);
     }
 
-    private DrawingTree layoutNary(String name, ListNode childNodes)
+    private Layout layoutNary(String name, ListNode childNodes)
     {
         if(childNodes.getSize() == 0)
             return layoutNullary("Empty" + name);
-        DrawingTree dt = layoutCaption(name);
-        DrawingTree[] childTrees = new DrawingTree[childNodes.getSize()];
-        int i = 0;
-        for(ASTNode childNode : childNodes) {
-            childTrees[i] = (DrawingTree) childNode.accept(this);
-            i++;
+        ASTNode[] children = new ASTNode[childNodes.getSize()];
+        for(int i = 0; i < children.length; i++) {
+            children[i] = childNodes.get(i);
         }
-        dt.setChildren(childTrees);
-        attachParent(dt, join(dt));
-        return dt;
+        return new Layout(name, children);
     }
 
     private void attachParent(DrawingTree dt, int w)
@@ -0,0 +1,231 @@
+/*
+ * File: bantam.util.ClassTreeNode.java
+ * CS361 Project 11
+ * Names: Martin Deutsch and Wyett MacDonald
+ * Date: 2/13/2019
+ * This file contains the ClassTreeNode, one class of the inheritance tree
+ * built by semantic analysis
+ */
+
+package proj12MacDonaldDouglas.bantam.util;
+
+import proj12MacDonaldDouglas.bantam.ast.Class_;
+import proj12MacDonaldDouglas.bantam.ast.Field;
+import proj12MacDonaldDouglas.bantam.ast.Method;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ClassTreeNode is one node of the inheritance tree: a class, its parent
+ * and children, and the fields and methods it declares, each kept in a
+ * hash table by the symbol of its name.  Once every class has its
+ * members, the class table gives each class, parents before children,
+ * a <tt>SymbolTrie</tt> of every member it has: its parent's trie with
+ * its own declarations added.  The tries share all they inherit, so they
+ * take time and space linear in the number of members declared, and a
+ * lookup of any member a class has is a few array reads however deep the
+ * class is.
+ * <p/>
+ * Each class also carries the interval of an Euler tour of the tree: the
+ * step at which a depth-first walk enters it and the step at which it
+ * leaves.  A class descends from another exactly when its interval lies
+ * inside the other's, so subclass tests take two comparisons however
+ * deep the tree is.
+ *
+ * @author Martin Deutsch
+ * @author Wyett MacDonald
+ */
+public class ClassTreeNode {
+
+    private final Class_ astNode;
+    private final boolean builtIn;
+    private ClassTreeNode parent;
+    private final List<ClassTreeNode> children = new ArrayList<>();
+    private final Map<Symbol, Field> fields = new HashMap<>();
+    private final Map<Symbol, Method> methods = new HashMap<>();
+    private SymbolTrie<Field> allFields = SymbolTrie.empty();
+    private SymbolTrie<Method> allMethods = SymbolTrie.empty();
+    private int pre = -1;
+    private int post = -1;
+
+    /**
+     * ClassTreeNode constructor
+     *
+     * @param astNode the class declaration
+     * @param builtIn whether the class is built into the language
+     */
+    public ClassTreeNode(Class_ astNode, boolean builtIn) {
+        this.astNode = astNode;
+        this.builtIn = builtIn;
+    }
+
+    /**
+     * Get the name of the class
+     *
+     * @return class name
+     */
+    public String getName() {
+        return astNode.getName();
+    }
+
+    /**
+     * Get the symbol of the name of the class
+     *
+     * @return class name symbol
+     */
+    public Symbol getNameSymbol() {
+        return astNode.getNameSymbol();
+    }
+
+    /**
+     * Get the declaration of the class
+     *
+     * @return the Class_ node
+     */
+    public Class_ getASTNode() {
+        return astNode;
+    }
+
+    /**
+     * Get whether the class is built into the language
+     *
+     * @return true for Object, String, TextIO and Sys
+     */
+    public boolean isBuiltIn() {
+        return builtIn;
+    }
+
+    /**
+     * Get the parent of the class
+     *
+     * @return the parent, or null for Object
+     */
+    public ClassTreeNode getParent() {
+        return parent;
+    }
+
+    /**
+     * Set the parent of the class, moving it to the parent's children
+     *
+     * @param parent the new parent
+     */
+    public void setParent(ClassTreeNode parent) {
+        if (this.parent != null) {
+            this.parent.children.remove(this);
+        }
+        this.parent = parent;
+        if (parent != null) {
+            parent.children.add(this);
+        }
+    }
+
+    /**
+     * Get the classes that directly extend this one
+     *
+     * @return the children
+     */
+    public List<ClassTreeNode> getChildren() {
+        return children;
+    }
+
+    /**
+     * Set the Euler tour interval of the class
+     *
+     * @param pre  the step at which the tour enters the class
+     * @param post the step at which the tour leaves it
+     */
+    public void setInterval(int pre, int post) {
+        this.pre = pre;
+        this.post = post;
+    }
+
+    /**
+     * Get the step at which the Euler tour enters the class
+     *
+     * @return the entry step, or -1 if the tree has not been numbered
+     */
+    public int getPre() {
+        return pre;
+    }
+
+    /**
+     * Get the step at which the Euler tour leaves the class
+     *
+     * @return the exit step, or -1 if the tree has not been numbered
+     */
+    public int getPost() {
+        return post;
+    }
+
+    /**
+     * Determine whether this class is the same as or descends from another,
+     * by comparing their Euler tour intervals
+     *
+     * @param ancestor the class that may be the ancestor
+     * @return true if it is
+     */
+    public boolean isSubclassOf(ClassTreeNode ancestor) {
+        return ancestor.pre <= pre && post <= ancestor.post;
+    }
+
+    /**
+     * Get the fields declared by this class, by name symbol
+     *
+     * @return the field table
+     */
+    public Map<Symbol, Field> getFields() {
+        return fields;
+    }
+
+    /**
+     * Get the methods declared by this class, by name symbol
+     *
+     * @return the method table
+     */
+    public Map<Symbol, Method> getMethods() {
+        return methods;
+    }
+
+    /**
+     * Find a field declared by this class or inherited by it
+     *
+     * @param name the field name symbol
+     * @return the field, or null if there is none
+     */
+    public Field lookupField(Symbol name) {
+        return allFields.get(name);
+    }
+
+    /**
+     * Find a method declared by this class or inherited by it
+     *
+     * @param name the method name symbol
+     * @return the nearest declaration, or null if there is none
+     */
+    public Method lookupMethod(Symbol name) {
+        return allMethods.get(name);
+    }
+
+    /**
+     * Build the tries of every member this class has, declared or
+     * inherited, a declaration hiding the inherited one of the same name.
+     * Called once the member tables are filled, and on a parent before
+     * its children.
+     */
+    public void inheritMembers() {
+        allFields = inherit(parent == null ? SymbolTrie.empty() : parent.allFields, fields);
+        allMethods = inherit(parent == null ? SymbolTrie.empty() : parent.allMethods, methods);
+    }
+
+    private static <T> SymbolTrie<T> inherit(SymbolTrie<T> inherited,
+                                             Map<Symbol, T> declared) {
+        SymbolTrie<T> all = inherited;
+        for (Map.Entry<Symbol, T> member : declared.entrySet()) {
+            all = all.with(member.getKey(), member.getValue());
+        }
+        return all;
+    }
+}
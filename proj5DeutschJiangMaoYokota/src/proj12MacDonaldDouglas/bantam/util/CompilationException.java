@@ -23,4 +23,15 @@ public class CompilationException extends RuntimeException
     public CompilationException(String message) {
         super(message);
     }
+
+    /**
+     * creates an exception with a message, optionally without a stack trace.
+     * Used for errors that are signalled and caught internally, where filling
+     * in the stack trace would only add cost.
+     * @param message The message telling the reason the exception was thrown
+     * @param writableStackTrace whether the stack trace should be filled in
+     */
+    protected CompilationException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,130 @@
+/*
+ * File: bantam.util.StringConstantPool.java
+ * CS361 Project 11
+ * Names: Martin Deutsch and Wyett MacDonald
+ * Date: 2/13/2019
+ * This file contains the StringConstantPool, which gives each distinct
+ * string constant of a program one name
+ */
+
+package proj12MacDonaldDouglas.bantam.util;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * StringConstantPool holds each distinct string constant of a program
+ * once, with the name code generation declares it under.  The name is
+ * made from a 64-bit hash of the text of the constant, so it does not
+ * depend on where or how often the constant occurs, and a constant keeps
+ * its name from one build to the next however the program around it
+ * changes.  In the rare case that two constants hash the same, the one
+ * added later gets a numbered suffix.
+ * <p/>
+ * The constants are kept in the order they were first added, so a code
+ * generator emitting them in that order produces the same output for the
+ * same program.
+ *
+ * @author Martin Deutsch
+ * @author Wyett MacDonald
+ */
+public class StringConstantPool {
+
+    private static final String NAME_PREFIX = "StringConst_";
+
+    /**
+     * The name of each constant, in the order they were added, and the
+     * constant of each name
+     */
+    private final Map<String, String> names = new LinkedHashMap<>();
+    private final Map<String, String> constants = new HashMap<>();
+
+    /**
+     * Add a constant to the pool if it is not there yet
+     *
+     * @param constant the text of the string constant
+     * @return the name of the constant
+     */
+    public String intern(String constant) {
+        String name = names.get(constant);
+        if (name != null) {
+            return name;
+        }
+        String base = nameFor(constant);
+        name = base;
+        for (int suffix = 1; constants.containsKey(name); suffix++) {
+            name = base + "_" + suffix;
+        }
+        names.put(constant, name);
+        constants.put(name, constant);
+        return name;
+    }
+
+    /**
+     * Add the constants of another pool that are not in this one, in the
+     * order they were added to it
+     *
+     * @param other the other pool
+     */
+    public void addAll(StringConstantPool other) {
+        for (String constant : other.names.keySet()) {
+            intern(constant);
+        }
+    }
+
+    /**
+     * Get the name a constant would have in a pool without hash collisions
+     *
+     * @param constant the text of the string constant
+     * @return the name made from its hash
+     */
+    public static String nameFor(String constant) {
+        // 64-bit FNV-1a over the characters
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < constant.length(); i++) {
+            hash = (hash ^ constant.charAt(i)) * 0x100000001B3L;
+        }
+        String digits = Long.toHexString(hash);
+        return NAME_PREFIX + "0000000000000000".substring(digits.length()) + digits;
+    }
+
+    /**
+     * Get the name of a constant
+     *
+     * @param constant the text of the string constant
+     * @return its name, or null if it is not in the pool
+     */
+    public String getName(String constant) {
+        return names.get(constant);
+    }
+
+    /**
+     * Get the constant with the given name
+     *
+     * @param name the name of a constant
+     * @return the text of the constant, or null if there is none
+     */
+    public String getConstant(String name) {
+        return constants.get(name);
+    }
+
+    /**
+     * Get the constants and their names, in the order they were added
+     *
+     * @return an unmodifiable map from constant text to name
+     */
+    public Map<String, String> getNames() {
+        return Collections.unmodifiableMap(names);
+    }
+
+    /**
+     * Get the number of distinct constants in the pool
+     *
+     * @return constant count
+     */
+    public int size() {
+        return names.size();
+    }
+}
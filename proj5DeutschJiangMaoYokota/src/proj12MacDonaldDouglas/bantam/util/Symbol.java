@@ -0,0 +1,198 @@
+/*
+ * File: Symbol.java
+ * CS361 Project 11
+ * Names: Martin Deutsch and Wyett MacDonald
+ * Date: 2/13/2019
+ */
+
+package proj12MacDonaldDouglas.bantam.util;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Class for representing interned identifiers and type names.
+ * There is at most one Symbol per distinct name at a time, so symbols can
+ * be compared with == and each has a dense int id that can index arrays
+ * or key int maps.
+ * <p/>
+ * The table holds its symbols weakly: a symbol lives as long as an AST,
+ * class table or other structure refers to it, and once the last program
+ * using a name is dropped, the symbol is freed and its id is given to the
+ * next new symbol.  So a long session compiling many programs keeps only
+ * the names of the programs it still holds.  A table that stores symbol
+ * ids instead of symbols must keep the symbols too, or an id may come to
+ * stand for another name.
+ */
+public final class Symbol {
+
+    private static final ConcurrentHashMap<String, Entry> table = new ConcurrentHashMap<>();
+    private static final ReferenceQueue<Symbol> freed = new ReferenceQueue<>();
+
+    /**
+     * The entry of each id.  Only add writes to the array, under the lock,
+     * copying it when it is full, and then stores it back to the volatile
+     * field, so a reader that reads the field sees every entry added so
+     * far without taking the lock.
+     */
+    private static volatile Entry[] symbols = new Entry[256];
+    private static volatile int count;
+
+    /**
+     * Ids of freed symbols, to be given out again
+     */
+    private static int[] freeIds = new int[16];
+    private static int numFreeIds;
+
+    /**
+     * The name this symbol stands for
+     */
+    private final String name;
+    /**
+     * The id of this symbol, from 0 up to count() - 1
+     */
+    private final int id;
+
+    private Symbol(String name, int id) {
+        this.name = name;
+        this.id = id;
+    }
+
+    /**
+     * Get the canonical symbol for a name, creating it on first use
+     *
+     * @param name the identifier or type name
+     * @return the symbol, or null if the name is null
+     */
+    public static Symbol intern(String name) {
+        if (name == null) {
+            return null;
+        }
+        Symbol symbol = get(table.get(name));
+        return symbol != null ? symbol : add(name);
+    }
+
+    /**
+     * Get the symbol for a name only if it already exists
+     *
+     * @param name the identifier or type name
+     * @return the symbol, or null if there is none
+     */
+    public static Symbol lookup(String name) {
+        return name == null ? null : get(table.get(name));
+    }
+
+    private static Symbol get(Entry entry) {
+        return entry == null ? null : entry.get();
+    }
+
+    private static synchronized Symbol add(String name) {
+        expunge();
+        Symbol symbol = get(table.get(name));
+        if (symbol == null) {
+            int id = numFreeIds > 0 ? freeIds[--numFreeIds] : count;
+            symbol = new Symbol(name, id);
+            Entry entry = new Entry(symbol);
+            Entry[] current = symbols;
+            if (id == current.length) {
+                current = Arrays.copyOf(current, id * 2);
+            }
+            current[id] = entry;
+            symbols = current;
+            if (id == count) {
+                count = id + 1;
+            }
+            // replaces an entry whose symbol is freed but not yet expunged
+            table.put(name, entry);
+        }
+        return symbol;
+    }
+
+    /**
+     * Drop the entries of the symbols that have been freed and keep their
+     * ids for reuse
+     */
+    private static void expunge() {
+        for (Entry entry = (Entry) freed.poll(); entry != null; entry = (Entry) freed.poll()) {
+            table.remove(entry.name, entry);
+            if (numFreeIds == freeIds.length) {
+                freeIds = Arrays.copyOf(freeIds, numFreeIds * 2);
+            }
+            freeIds[numFreeIds++] = entry.id;
+        }
+    }
+
+    /**
+     * Get the symbol with the given id, without locking
+     *
+     * @param id a symbol id
+     * @return the symbol
+     */
+    public static Symbol get(int id) {
+        Entry[] current = symbols;
+        Symbol symbol = id < 0 || id >= current.length ? null : get(current[id]);
+        if (symbol == null) {
+            throw new IndexOutOfBoundsException("No symbol with id " + id);
+        }
+        return symbol;
+    }
+
+    /**
+     * Get the number of ids given out so far, which bounds the ids of the
+     * symbols
+     *
+     * @return symbol count
+     */
+    public static int count() {
+        return count;
+    }
+
+    /**
+     * Get the name of a symbol that may be null
+     *
+     * @param symbol the symbol
+     * @return its name, or null if the symbol is null
+     */
+    public static String nameOf(Symbol symbol) {
+        return symbol == null ? null : symbol.name;
+    }
+
+    /**
+     * Get the name this symbol stands for
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the id of this symbol
+     *
+     * @return the id
+     */
+    public int getId() {
+        return id;
+    }
+
+    public String toString() {
+        return name;
+    }
+
+    /**
+     * The table's weak reference to a symbol, which outlives the symbol to
+     * say which name and id to drop
+     */
+    private static final class Entry extends WeakReference<Symbol> {
+        private final String name;
+        private final int id;
+
+        Entry(Symbol symbol) {
+            super(symbol, freed);
+            this.name = symbol.name;
+            this.id = symbol.id;
+        }
+    }
+}
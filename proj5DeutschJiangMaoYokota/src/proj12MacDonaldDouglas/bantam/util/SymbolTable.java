@@ -0,0 +1,133 @@
+/*
+ * File: bantam.util.SymbolTable.java
+ * CS361 Project 11
+ * Names: Martin Deutsch and Wyett MacDonald
+ * Date: 2/13/2019
+ * This file contains the SymbolTable, which maps names to values in nested
+ * scopes
+ */
+
+package proj12MacDonaldDouglas.bantam.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class for a scoped symbol table, mapping names to values such as types.
+ * Names are interned symbols, hashed and compared by identity.
+ * A hash table holds the innermost binding of each name, and each binding
+ * remembers the one it shadows, so lookup is O(1) however deeply scopes
+ * nest.  The bindings are also kept on a stack in the order they were
+ * added, so leaving a scope pops exactly the bindings made in it and
+ * restores what they shadowed.
+ *
+ * @param <V> the type of the values
+ * @author Martin Deutsch
+ * @author Wyett MacDonald
+ */
+public class SymbolTable<V> {
+
+    private final Map<Symbol, Binding<V>> table = new HashMap<>();
+    private final List<Binding<V>> bindings = new ArrayList<>();
+    private int[] scopeStarts = new int[16];
+    private int level;
+
+    /**
+     * Enter a new, innermost scope
+     */
+    public void enterScope() {
+        if (level == scopeStarts.length) {
+            scopeStarts = Arrays.copyOf(scopeStarts, level * 2);
+        }
+        scopeStarts[level++] = bindings.size();
+    }
+
+    /**
+     * Leave the innermost scope, removing every binding made in it
+     *
+     * @throws IllegalStateException if there is no scope to leave
+     */
+    public void exitScope() {
+        if (level == 0) {
+            throw new IllegalStateException("No scope to exit");
+        }
+        int start = scopeStarts[--level];
+        for (int i = bindings.size() - 1; i >= start; i--) {
+            Binding<V> binding = bindings.remove(i);
+            if (binding.shadowed == null) {
+                table.remove(binding.name);
+            }
+            else {
+                table.put(binding.name, binding.shadowed);
+            }
+        }
+    }
+
+    /**
+     * Bind a name in the innermost scope, shadowing any outer binding
+     *
+     * @param name  the name
+     * @param value the value
+     * @throws IllegalStateException if no scope has been entered
+     */
+    public void add(Symbol name, V value) {
+        if (level == 0) {
+            throw new IllegalStateException("No scope to add " + name + " to");
+        }
+        Binding<V> binding = new Binding<>(name, value, level, table.get(name));
+        table.put(name, binding);
+        bindings.add(binding);
+    }
+
+    /**
+     * Look up the innermost binding of a name
+     *
+     * @param name the name
+     * @return its value, or null if it is not bound
+     */
+    public V lookup(Symbol name) {
+        Binding<V> binding = table.get(name);
+        return binding == null ? null : binding.value;
+    }
+
+    /**
+     * Get the scope level of the innermost binding of a name
+     *
+     * @param name the name
+     * @return the level, from 1 for the outermost scope, or 0 if the name
+     * is not bound
+     */
+    public int lookupLevel(Symbol name) {
+        Binding<V> binding = table.get(name);
+        return binding == null ? 0 : binding.level;
+    }
+
+    /**
+     * Get the number of scopes entered and not yet left
+     *
+     * @return the current scope level
+     */
+    public int getCurrScopeLevel() {
+        return level;
+    }
+
+    /**
+     * A name bound to a value at a scope level
+     */
+    private static class Binding<V> {
+        private final Symbol name;
+        private final V value;
+        private final int level;
+        private final Binding<V> shadowed;
+
+        Binding(Symbol name, V value, int level, Binding<V> shadowed) {
+            this.name = name;
+            this.value = value;
+            this.level = level;
+            this.shadowed = shadowed;
+        }
+    }
+}
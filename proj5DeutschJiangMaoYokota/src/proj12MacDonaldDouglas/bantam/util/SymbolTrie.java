@@ -0,0 +1,117 @@
+/*
+ * File: bantam.util.SymbolTrie.java
+ * CS361 Project 11
+ * Names: Martin Deutsch and Wyett MacDonald
+ * Date: 2/13/2019
+ * This file contains the SymbolTrie, a persistent map from symbols to
+ * values
+ */
+
+package proj12MacDonaldDouglas.bantam.util;
+
+/**
+ * SymbolTrie is a persistent map keyed by interned symbols: adding a
+ * binding leaves the trie unchanged and returns a new one, which shares
+ * everything but the path to the new binding with the old.  Symbol ids
+ * are small and dense, so the trie indexes them directly, five bits per
+ * level, and a lookup is a few array reads with no hashing.  A trie over
+ * a million symbols has four levels, so adding a binding copies at most
+ * four arrays of 32 slots.
+ * <p/>
+ * Inheritance maps well onto it: a class's members are its parent's trie
+ * with its own declarations added, so building the tables of a whole
+ * hierarchy takes time and space proportional to the number of members
+ * declared, however deep the hierarchy is.
+ *
+ * @param <V> the type of the values
+ * @author Martin Deutsch
+ * @author Wyett MacDonald
+ */
+final class SymbolTrie<V> {
+
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+
+    private static final SymbolTrie<?> EMPTY = new SymbolTrie<>(new Object[WIDTH], 0);
+
+    /**
+     * The root array; above the last level each slot holds the array of
+     * the level below, or null
+     */
+    private final Object[] root;
+
+    /**
+     * The shift giving the root's slot of an id; the trie holds the ids
+     * below 1 << (shift + BITS)
+     */
+    private final int shift;
+
+    private SymbolTrie(Object[] root, int shift) {
+        this.root = root;
+        this.shift = shift;
+    }
+
+    /**
+     * Get the trie with no bindings
+     *
+     * @return the empty trie
+     */
+    @SuppressWarnings("unchecked")
+    static <V> SymbolTrie<V> empty() {
+        return (SymbolTrie<V>) EMPTY;
+    }
+
+    /**
+     * Look up the value bound to a symbol
+     *
+     * @param name the symbol
+     * @return its value, or null if it is not bound
+     */
+    @SuppressWarnings("unchecked")
+    V get(Symbol name) {
+        if (name == null) {
+            return null;
+        }
+        int id = name.getId();
+        if (id >>> shift >>> BITS != 0) {
+            return null;
+        }
+        Object[] node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = (Object[]) node[(id >>> level) & MASK];
+            if (node == null) {
+                return null;
+            }
+        }
+        return (V) node[id & MASK];
+    }
+
+    /**
+     * Get a trie with one more binding, replacing any binding of the same
+     * symbol
+     *
+     * @param name  the symbol
+     * @param value its value
+     * @return the new trie
+     */
+    SymbolTrie<V> with(Symbol name, V value) {
+        int id = name.getId();
+        Object[] newRoot = root;
+        int newShift = shift;
+        while (id >>> newShift >>> BITS != 0) {
+            Object[] grown = new Object[WIDTH];
+            grown[0] = newRoot;
+            newRoot = grown;
+            newShift += BITS;
+        }
+        return new SymbolTrie<>(with(newRoot, newShift, id, value), newShift);
+    }
+
+    private static Object[] with(Object[] node, int level, int id, Object value) {
+        Object[] copy = node == null ? new Object[WIDTH] : node.clone();
+        int slot = (id >>> level) & MASK;
+        copy[slot] = level == 0 ? value : with((Object[]) copy[slot], level - BITS, id, value);
+        return copy;
+    }
+}
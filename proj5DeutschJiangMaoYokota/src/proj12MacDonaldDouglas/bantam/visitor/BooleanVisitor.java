@@ -0,0 +1,652 @@
+/*
+ * File: bantam.visitor.BooleanVisitor.java
+ * CS361 Project 11
+ * Names: Martin Deutsch and Wyett MacDonald
+ * Date: 2/13/2019
+ * This file contains the BooleanVisitor, a visitor whose visit methods
+ * return a boolean
+ */
+
+package proj12MacDonaldDouglas.bantam.visitor;
+
+import proj12MacDonaldDouglas.bantam.ast.*;
+
+/**
+ * BooleanVisitor is a visitor whose visit methods return a
+ * <tt>boolean</tt>, for flags and searches, without boxing.  By default
+ * each visit method visits the node's children in the same order as
+ * <tt>Visitor</tt> and folds their results together with
+ * <tt>aggregate</tt>, starting from <tt>defaultResult</tt>; a leaf returns
+ * <tt>defaultResult</tt>.  The defaults are false and OR, so a visitor that
+ * returns true from the nodes it is looking for reports whether there are
+ * any.
+ *
+ * @author Martin Deutsch
+ * @author Wyett MacDonald
+ */
+public abstract class BooleanVisitor {
+
+    /**
+     * Get the result of a node with no children, and the starting value
+     * when combining the results of a node's children
+     *
+     * @return the default result, false unless overridden
+     */
+    protected boolean defaultResult() {
+        return false;
+    }
+
+    /**
+     * Combine the result so far with the result of the next child
+     *
+     * @param result      the result so far
+     * @param childResult the result of visiting the next child
+     * @return the combined result, the OR unless overridden
+     */
+    protected boolean aggregate(boolean result, boolean childResult) {
+        return result || childResult;
+    }
+
+    /**
+     * Visit a program node
+     *
+     * @param node the program node
+     * @return result of the visit
+     */
+    public boolean visit(Program node) {
+        boolean result = defaultResult();
+        result = aggregate(result, node.getClassList().accept(this));
+        return result;
+    }
+
+    /**
+     * Visit a class list node
+     *
+     * @param node the class list node
+     * @return result of the visit
+     */
+    public boolean visit(ClassList node) {
+        boolean result = defaultResult();
+        for (int i = 0; i < node.getSize(); i++) {
+            result = aggregate(result, node.get(i).accept(this));
+        }
+        return result;
+    }
+
+    /**
+     * Visit a class node
+     *
+     * @param node the class node
+     * @return result of the visit
+     */
+    public boolean visit(Class_ node) {
+        boolean result = defaultResult();
+        result = aggregate(result, node.getMemberList().accept(this));
+        return result;
+    }
+
+    /**
+     * Visit a member list node
+     *
+     * @param node the member list node
+     * @return result of the visit
+     */
+    public boolean visit(MemberList node) {
+        boolean result = defaultResult();
+        for (int i = 0; i < node.getSize(); i++) {
+            result = aggregate(result, node.get(i).accept(this));
+        }
+        return result;
+    }
+
+    /**
+     * Visit a field node
+     *
+     * @param node the field node
+     * @return result of the visit
+     */
+    public boolean visit(Field node) {
+        boolean result = defaultResult();
+        if (node.getInit() != null) {
+            result = aggregate(result, node.getInit().accept(this));
+        }
+        return result;
+    }
+
+    /**
+     * Visit a method node
+     *
+     * @param node the method node
+     * @return result of the visit
+     */
+    public boolean visit(Method node) {
+        boolean result = defaultResult();
+        result = aggregate(result, node.getFormalList().accept(this));
+        result = aggregate(result, node.getStmtList().accept(this));
+        return result;
+    }
+
+    /**
+     * Visit a formal list node
+     *
+     * @param node the formal list node
+     * @return result of the visit
+     */
+    public boolean visit(FormalList node) {
+        boolean result = defaultResult();
+        for (int i = 0; i < node.getSize(); i++) {
+            result = aggregate(result, node.get(i).accept(this));
+        }
+        return result;
+    }
+
+    /**
+     * Visit a formal node
+     *
+     * @param node the formal node
+     * @return result of the visit
+     */
+    public boolean visit(Formal node) {
+        return defaultResult();
+    }
+
+    /**
+     * Visit a statement list node
+     *
+     * @param node the statement list node
+     * @return result of the visit
+     */
+    public boolean visit(StmtList node) {
+        boolean result = defaultResult();
+        for (int i = 0; i < node.getSize(); i++) {
+            result = aggregate(result, node.get(i).accept(this));
+        }
+        return result;
+    }
+
+    /**
+     * Visit a declaration statement node
+     *
+     * @param node the declaration statement node
+     * @return result of the visit
+     */
+    public boolean visit(DeclStmt node) {
+        boolean result = defaultResult();
+        result = aggregate(result, node.getInit().accept(this));
+        return result;
+    }
+
+    /**
+     * Visit an expression statement node
+     *
+     * @param node the expression statement node
+     * @return result of the visit
+     */
+    public boolean visit(ExprStmt node) {
+        boolean result = defaultResult();
+        result = aggregate(result, node.getExpr().accept(this));
+        return result;
+    }
+
+    /**
+     * Visit an if statement node
+     *
+     * @param node the if statement node
+     * @return result of the visit
+     */
+    public boolean visit(IfStmt node) {
+        boolean result = defaultResult();
+        result = aggregate(result, node.getPredExpr().accept(this));
+        result = aggregate(result, node.getThenStmt().accept(this));
+        if (node.getElseStmt() != null) {
+            result = aggregate(result, node.getElseStmt().accept(this));
+        }
+        return result;
+    }
+
+    /**
+     * Visit a while statement node
+     *
+     * @param node the while statement node
+     * @return result of the visit
+     */
+    public boolean visit(WhileStmt node) {
+        boolean result = defaultResult();
+        result = aggregate(result, node.getPredExpr().accept(this));
+        result = aggregate(result, node.getBodyStmt().accept(this));
+        return result;
+    }
+
+    /**
+     * Visit a for statement node
+     *
+     * @param node the for statement node
+     * @return result of the visit
+     */
+    public boolean visit(ForStmt node) {
+        boolean result = defaultResult();
+        if (node.getInitExpr() != null) {
+            result = aggregate(result, node.getInitExpr().accept(this));
+        }
+        if (node.getPredExpr() != null) {
+            result = aggregate(result, node.getPredExpr().accept(this));
+        }
+        if (node.getUpdateExpr() != null) {
+            result = aggregate(result, node.getUpdateExpr().accept(this));
+        }
+        result = aggregate(result, node.getBodyStmt().accept(this));
+        return result;
+    }
+
+    /**
+     * Visit a break statement node
+     *
+     * @param node the break statement node
+     * @return result of the visit
+     */
+    public boolean visit(BreakStmt node) {
+        return defaultResult();
+    }
+
+    /**
+     * Visit a block statement node
+     *
+     * @param node the block statement node
+     * @return result of the visit
+     */
+    public boolean visit(BlockStmt node) {
+        boolean result = defaultResult();
+        result = aggregate(result, node.getStmtList().accept(this));
+        return result;
+    }
+
+    /**
+     * Visit a return statement node
+     *
+     * @param node the return statement node
+     * @return result of the visit
+     */
+    public boolean visit(ReturnStmt node) {
+        boolean result = defaultResult();
+        if (node.getExpr() != null) {
+            result = aggregate(result, node.getExpr().accept(this));
+        }
+        return result;
+    }
+
+    /**
+     * Visit an expression list node
+     *
+     * @param node the expression list node
+     * @return result of the visit
+     */
+    public boolean visit(ExprList node) {
+        boolean result = defaultResult();
+        for (int i = 0; i < node.getSize(); i++) {
+            result = aggregate(result, node.get(i).accept(this));
+        }
+        return result;
+    }
+
+    /**
+     * Visit a dispatch expression node
+     *
+     * @param node the dispatch expression node
+     * @return result of the visit
+     */
+    public boolean visit(DispatchExpr node) {
+        boolean result = defaultResult();
+        if (node.getRefExpr() != null) {
+            result = aggregate(result, node.getRefExpr().accept(this));
+        }
+        result = aggregate(result, node.getActualList().accept(this));
+        return result;
+    }
+
+    /**
+     * Visit a new expression node
+     *
+     * @param node the new expression node
+     * @return result of the visit
+     */
+    public boolean visit(NewExpr node) {
+        return defaultResult();
+    }
+
+    /**
+     * Visit a new array expression node
+     *
+     * @param node the new array expression node
+     * @return result of the visit
+     */
+    public boolean visit(NewArrayExpr node) {
+        boolean result = defaultResult();
+        result = aggregate(result, node.getSize().accept(this));
+        return result;
+    }
+
+    /**
+     * Visit an instanceof expression node
+     *
+     * @param node the instanceof expression node
+     * @return result of the visit
+     */
+    public boolean visit(InstanceofExpr node) {
+        boolean result = defaultResult();
+        result = aggregate(result, node.getExpr().accept(this));
+        return result;
+    }
+
+    /**
+     * Visit a cast expression node
+     *
+     * @param node the cast expression node
+     * @return result of the visit
+     */
+    public boolean visit(CastExpr node) {
+        boolean result = defaultResult();
+        result = aggregate(result, node.getExpr().accept(this));
+        return result;
+    }
+
+    /**
+     * Visit an assignment expression node
+     *
+     * @param node the assignment expression node
+     * @return result of the visit
+     */
+    public boolean visit(AssignExpr node) {
+        boolean result = defaultResult();
+        result = aggregate(result, node.getExpr().accept(this));
+        return result;
+    }
+
+    /**
+     * Visit an array assignment expression node
+     *
+     * @param node the array assignment expression node
+     * @return result of the visit
+     */
+    public boolean visit(ArrayAssignExpr node) {
+        boolean result = defaultResult();
+        result = aggregate(result, node.getIndex().accept(this));
+        result = aggregate(result, node.getExpr().accept(this));
+        return result;
+    }
+
+    /**
+     * Visit a binary comparison equals expression node
+     *
+     * @param node the binary comparison equals expression node
+     * @return result of the visit
+     */
+    public boolean visit(BinaryCompEqExpr node) {
+        boolean result = defaultResult();
+        result = aggregate(result, node.getLeftExpr().accept(this));
+        result = aggregate(result, node.getRightExpr().accept(this));
+        return result;
+    }
+
+    /**
+     * Visit a binary comparison not equals expression node
+     *
+     * @param node the binary comparison not equals expression node
+     * @return result of the visit
+     */
+    public boolean visit(BinaryCompNeExpr node) {
+        boolean result = defaultResult();
+        result = aggregate(result, node.getLeftExpr().accept(this));
+        result = aggregate(result, node.getRightExpr().accept(this));
+        return result;
+    }
+
+    /**
+     * Visit a binary comparison less than expression node
+     *
+     * @param node the binary comparison less than expression node
+     * @return result of the visit
+     */
+    public boolean visit(BinaryCompLtExpr node) {
+        boolean result = defaultResult();
+        result = aggregate(result, node.getLeftExpr().accept(this));
+        result = aggregate(result, node.getRightExpr().accept(this));
+        return result;
+    }
+
+    /**
+     * Visit a binary comparison less than or equal to expression node
+     *
+     * @param node the binary comparison less than or equal to expression node
+     * @return result of the visit
+     */
+    public boolean visit(BinaryCompLeqExpr node) {
+        boolean result = defaultResult();
+        result = aggregate(result, node.getLeftExpr().accept(this));
+        result = aggregate(result, node.getRightExpr().accept(this));
+        return result;
+    }
+
+    /**
+     * Visit a binary comparison greater than expression node
+     *
+     * @param node the binary comparison greater than expression node
+     * @return result of the visit
+     */
+    public boolean visit(BinaryCompGtExpr node) {
+        boolean result = defaultResult();
+        result = aggregate(result, node.getLeftExpr().accept(this));
+        result = aggregate(result, node.getRightExpr().accept(this));
+        return result;
+    }
+
+    /**
+     * Visit a binary comparison greater than or equal to expression node
+     *
+     * @param node the binary comparison greater than or equal to expression node
+     * @return result of the visit
+     */
+    public boolean visit(BinaryCompGeqExpr node) {
+        boolean result = defaultResult();
+        result = aggregate(result, node.getLeftExpr().accept(this));
+        result = aggregate(result, node.getRightExpr().accept(this));
+        return result;
+    }
+
+    /**
+     * Visit a binary arithmetic plus expression node
+     *
+     * @param node the binary arithmetic plus expression node
+     * @return result of the visit
+     */
+    public boolean visit(BinaryArithPlusExpr node) {
+        boolean result = defaultResult();
+        result = aggregate(result, node.getLeftExpr().accept(this));
+        result = aggregate(result, node.getRightExpr().accept(this));
+        return result;
+    }
+
+    /**
+     * Visit a binary arithmetic minus expression node
+     *
+     * @param node the binary arithmetic minus expression node
+     * @return result of the visit
+     */
+    public boolean visit(BinaryArithMinusExpr node) {
+        boolean result = defaultResult();
+        result = aggregate(result, node.getLeftExpr().accept(this));
+        result = aggregate(result, node.getRightExpr().accept(this));
+        return result;
+    }
+
+    /**
+     * Visit a binary arithmetic times expression node
+     *
+     * @param node the binary arithmetic times expression node
+     * @return result of the visit
+     */
+    public boolean visit(BinaryArithTimesExpr node) {
+        boolean result = defaultResult();
+        result = aggregate(result, node.getLeftExpr().accept(this));
+        result = aggregate(result, node.getRightExpr().accept(this));
+        return result;
+    }
+
+    /**
+     * Visit a binary arithmetic divide expression node
+     *
+     * @param node the binary arithmetic divide expression node
+     * @return result of the visit
+     */
+    public boolean visit(BinaryArithDivideExpr node) {
+        boolean result = defaultResult();
+        result = aggregate(result, node.getLeftExpr().accept(this));
+        result = aggregate(result, node.getRightExpr().accept(this));
+        return result;
+    }
+
+    /**
+     * Visit a binary arithmetic modulus expression node
+     *
+     * @param node the binary arithmetic modulus expression node
+     * @return result of the visit
+     */
+    public boolean visit(BinaryArithModulusExpr node) {
+        boolean result = defaultResult();
+        result = aggregate(result, node.getLeftExpr().accept(this));
+        result = aggregate(result, node.getRightExpr().accept(this));
+        return result;
+    }
+
+    /**
+     * Visit a binary logical AND expression node
+     *
+     * @param node the binary logical AND expression node
+     * @return result of the visit
+     */
+    public boolean visit(BinaryLogicAndExpr node) {
+        boolean result = defaultResult();
+        result = aggregate(result, node.getLeftExpr().accept(this));
+        result = aggregate(result, node.getRightExpr().accept(this));
+        return result;
+    }
+
+    /**
+     * Visit a binary logical OR expression node
+     *
+     * @param node the binary logical OR expression node
+     * @return result of the visit
+     */
+    public boolean visit(BinaryLogicOrExpr node) {
+        boolean result = defaultResult();
+        result = aggregate(result, node.getLeftExpr().accept(this));
+        result = aggregate(result, node.getRightExpr().accept(this));
+        return result;
+    }
+
+    /**
+     * Visit an unary negation expression node
+     *
+     * @param node the unary negation expression node
+     * @return result of the visit
+     */
+    public boolean visit(UnaryNegExpr node) {
+        boolean result = defaultResult();
+        result = aggregate(result, node.getExpr().accept(this));
+        return result;
+    }
+
+    /**
+     * Visit an unary NOT expression node
+     *
+     * @param node the unary NOT expression node
+     * @return result of the visit
+     */
+    public boolean visit(UnaryNotExpr node) {
+        boolean result = defaultResult();
+        result = aggregate(result, node.getExpr().accept(this));
+        return result;
+    }
+
+    /**
+     * Visit an unary increment expression node
+     *
+     * @param node the unary increment expression node
+     * @return result of the visit
+     */
+    public boolean visit(UnaryIncrExpr node) {
+        boolean result = defaultResult();
+        result = aggregate(result, node.getExpr().accept(this));
+        return result;
+    }
+
+    /**
+     * Visit an unary decrement expression node
+     *
+     * @param node the unary decrement expression node
+     * @return result of the visit
+     */
+    public boolean visit(UnaryDecrExpr node) {
+        boolean result = defaultResult();
+        result = aggregate(result, node.getExpr().accept(this));
+        return result;
+    }
+
+    /**
+     * Visit a variable expression node
+     *
+     * @param node the variable expression node
+     * @return result of the visit
+     */
+    public boolean visit(VarExpr node) {
+        boolean result = defaultResult();
+        if (node.getRef() != null) {
+            result = aggregate(result, node.getRef().accept(this));
+        }
+        return result;
+    }
+
+    /**
+     * Visit an array expression node
+     *
+     * @param node the array expression node
+     * @return result of the visit
+     */
+    public boolean visit(ArrayExpr node) {
+        boolean result = defaultResult();
+        if (node.getRef() != null) {
+            result = aggregate(result, node.getRef().accept(this));
+        }
+        result = aggregate(result, node.getIndex().accept(this));
+        return result;
+    }
+
+    /**
+     * Visit an int constant expression node
+     *
+     * @param node the int constant expression node
+     * @return result of the visit
+     */
+    public boolean visit(ConstIntExpr node) {
+        return defaultResult();
+    }
+
+    /**
+     * Visit a boolean constant expression node
+     *
+     * @param node the boolean constant expression node
+     * @return result of the visit
+     */
+    public boolean visit(ConstBooleanExpr node) {
+        return defaultResult();
+    }
+
+    /**
+     * Visit a string constant expression node
+     *
+     * @param node the string constant expression node
+     * @return result of the visit
+     */
+    public boolean visit(ConstStringExpr node) {
+        return defaultResult();
+    }
+}
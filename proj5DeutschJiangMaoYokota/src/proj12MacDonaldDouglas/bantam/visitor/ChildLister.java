@@ -0,0 +1,295 @@
+/*
+ * File: bantam.visitor.ChildLister.java
+ * CS361 Project 11
+ * Names: Martin Deutsch and Wyett MacDonald
+ * Date: 2/13/2019
+ * This file contains the ChildLister, which lists the children of an AST
+ * node without visiting them
+ */
+
+package proj12MacDonaldDouglas.bantam.visitor;
+
+import proj12MacDonaldDouglas.bantam.ast.*;
+
+import java.util.Arrays;
+
+/**
+ * ChildLister finds the direct children of a node, in the order the
+ * <tt>Visitor</tt> visits them, leaving out missing optional children.
+ * Unlike a visitor it does not descend, so it can drive traversals that
+ * keep their own stack.  The children are kept in a buffer that is reused
+ * by the next call to <tt>list</tt>.
+ *
+ * @author Martin Deutsch
+ * @author Wyett MacDonald
+ */
+public class ChildLister extends Visitor {
+
+    private ASTNode[] children = new ASTNode[8];
+    private int size;
+
+    /**
+     * List the children of a node
+     *
+     * @param node the node
+     * @return the number of children
+     */
+    public int list(ASTNode node) {
+        size = 0;
+        node.accept(this);
+        return size;
+    }
+
+    /**
+     * Get a child found by the last call to list
+     *
+     * @param index the index of the child, from 0 up to the count list returned
+     * @return the child
+     */
+    public ASTNode get(int index) {
+        return children[index];
+    }
+
+    private void add(ASTNode child) {
+        if (child != null) {
+            if (size == children.length) {
+                children = Arrays.copyOf(children, size * 2);
+            }
+            children[size++] = child;
+        }
+    }
+
+    private void addAll(ListNode list) {
+        for (int i = 0; i < list.getSize(); i++) {
+            add(list.get(i));
+        }
+    }
+
+    public Object visit(Program node) {
+        add(node.getClassList());
+        return null;
+    }
+
+    public Object visit(ClassList node) {
+        addAll(node);
+        return null;
+    }
+
+    public Object visit(Class_ node) {
+        add(node.getMemberList());
+        return null;
+    }
+
+    public Object visit(MemberList node) {
+        addAll(node);
+        return null;
+    }
+
+    public Object visit(Field node) {
+        add(node.getInit());
+        return null;
+    }
+
+    public Object visit(Method node) {
+        add(node.getFormalList());
+        add(node.getStmtList());
+        return null;
+    }
+
+    public Object visit(FormalList node) {
+        addAll(node);
+        return null;
+    }
+
+    public Object visit(StmtList node) {
+        addAll(node);
+        return null;
+    }
+
+    public Object visit(DeclStmt node) {
+        add(node.getInit());
+        return null;
+    }
+
+    public Object visit(ExprStmt node) {
+        add(node.getExpr());
+        return null;
+    }
+
+    public Object visit(IfStmt node) {
+        add(node.getPredExpr());
+        add(node.getThenStmt());
+        add(node.getElseStmt());
+        return null;
+    }
+
+    public Object visit(WhileStmt node) {
+        add(node.getPredExpr());
+        add(node.getBodyStmt());
+        return null;
+    }
+
+    public Object visit(ForStmt node) {
+        add(node.getInitExpr());
+        add(node.getPredExpr());
+        add(node.getUpdateExpr());
+        add(node.getBodyStmt());
+        return null;
+    }
+
+    public Object visit(BlockStmt node) {
+        add(node.getStmtList());
+        return null;
+    }
+
+    public Object visit(ReturnStmt node) {
+        add(node.getExpr());
+        return null;
+    }
+
+    public Object visit(ExprList node) {
+        addAll(node);
+        return null;
+    }
+
+    public Object visit(DispatchExpr node) {
+        add(node.getRefExpr());
+        add(node.getActualList());
+        return null;
+    }
+
+    public Object visit(NewArrayExpr node) {
+        add(node.getSize());
+        return null;
+    }
+
+    public Object visit(InstanceofExpr node) {
+        add(node.getExpr());
+        return null;
+    }
+
+    public Object visit(CastExpr node) {
+        add(node.getExpr());
+        return null;
+    }
+
+    public Object visit(AssignExpr node) {
+        add(node.getExpr());
+        return null;
+    }
+
+    public Object visit(ArrayAssignExpr node) {
+        add(node.getIndex());
+        add(node.getExpr());
+        return null;
+    }
+
+    public Object visit(BinaryCompEqExpr node) {
+        add(node.getLeftExpr());
+        add(node.getRightExpr());
+        return null;
+    }
+
+    public Object visit(BinaryCompNeExpr node) {
+        add(node.getLeftExpr());
+        add(node.getRightExpr());
+        return null;
+    }
+
+    public Object visit(BinaryCompLtExpr node) {
+        add(node.getLeftExpr());
+        add(node.getRightExpr());
+        return null;
+    }
+
+    public Object visit(BinaryCompLeqExpr node) {
+        add(node.getLeftExpr());
+        add(node.getRightExpr());
+        return null;
+    }
+
+    public Object visit(BinaryCompGtExpr node) {
+        add(node.getLeftExpr());
+        add(node.getRightExpr());
+        return null;
+    }
+
+    public Object visit(BinaryCompGeqExpr node) {
+        add(node.getLeftExpr());
+        add(node.getRightExpr());
+        return null;
+    }
+
+    public Object visit(BinaryArithPlusExpr node) {
+        add(node.getLeftExpr());
+        add(node.getRightExpr());
+        return null;
+    }
+
+    public Object visit(BinaryArithMinusExpr node) {
+        add(node.getLeftExpr());
+        add(node.getRightExpr());
+        return null;
+    }
+
+    public Object visit(BinaryArithTimesExpr node) {
+        add(node.getLeftExpr());
+        add(node.getRightExpr());
+        return null;
+    }
+
+    public Object visit(BinaryArithDivideExpr node) {
+        add(node.getLeftExpr());
+        add(node.getRightExpr());
+        return null;
+    }
+
+    public Object visit(BinaryArithModulusExpr node) {
+        add(node.getLeftExpr());
+        add(node.getRightExpr());
+        return null;
+    }
+
+    public Object visit(BinaryLogicAndExpr node) {
+        add(node.getLeftExpr());
+        add(node.getRightExpr());
+        return null;
+    }
+
+    public Object visit(BinaryLogicOrExpr node) {
+        add(node.getLeftExpr());
+        add(node.getRightExpr());
+        return null;
+    }
+
+    public Object visit(UnaryNegExpr node) {
+        add(node.getExpr());
+        return null;
+    }
+
+    public Object visit(UnaryNotExpr node) {
+        add(node.getExpr());
+        return null;
+    }
+
+    public Object visit(UnaryIncrExpr node) {
+        add(node.getExpr());
+        return null;
+    }
+
+    public Object visit(UnaryDecrExpr node) {
+        add(node.getExpr());
+        return null;
+    }
+
+    public Object visit(VarExpr node) {
+        add(node.getRef());
+        return null;
+    }
+
+    public Object visit(ArrayExpr node) {
+        add(node.getRef());
+        add(node.getIndex());
+        return null;
+    }
+}
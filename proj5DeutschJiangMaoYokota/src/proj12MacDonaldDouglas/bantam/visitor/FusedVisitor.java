@@ -0,0 +1,97 @@
+/*
+ * File: bantam.visitor.FusedVisitor.java
+ * CS361 Project 11
+ * Names: Martin Deutsch and Wyett MacDonald
+ * Date: 2/13/2019
+ * This file contains the FusedVisitor, which runs several analyses in
+ * one traversal of the AST
+ */
+
+package proj12MacDonaldDouglas.bantam.visitor;
+
+import proj12MacDonaldDouglas.bantam.ast.ASTNode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * FusedVisitor lets several analyses share one traversal.  Each analysis
+ * registers handlers for the node classes it cares about, and a single
+ * preorder walk calls every handler registered for a node's class or any
+ * of its superclasses, in the order the handlers were registered.  The
+ * cost of the walk grows with the size of the tree, not with the number
+ * of analyses.
+ * <p/>
+ * Handlers see the nodes in preorder, so, as with <tt>PreorderVisitor</tt>,
+ * the nodes between a class (or member) and the next one are its
+ * descendants.
+ *
+ * @author Martin Deutsch
+ * @author Wyett MacDonald
+ */
+public class FusedVisitor extends PreorderVisitor {
+
+    private static final Consumer<?>[] NO_HANDLERS = new Consumer<?>[0];
+
+    private final List<Class<?>> nodeClasses = new ArrayList<>();
+    private final List<Consumer<ASTNode>> handlers = new ArrayList<>();
+
+    /**
+     * The handlers that apply to each concrete node class, worked out the
+     * first time a node of that class is visited
+     */
+    private ClassValue<Consumer<?>[]> dispatch = newDispatch();
+
+    /**
+     * Register a handler for nodes of the given class and its subclasses
+     *
+     * @param nodeClass the node class, which may be abstract, like Expr
+     * @param handler   the handler
+     * @param <T>       the node type
+     * @return this visitor, so registrations can be chained
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends ASTNode> FusedVisitor on(Class<T> nodeClass, Consumer<? super T> handler) {
+        nodeClasses.add(nodeClass);
+        handlers.add((Consumer<ASTNode>) handler);
+        dispatch = newDispatch();
+        return this;
+    }
+
+    /**
+     * Walk the tree with the given root once, calling the registered
+     * handlers.  The walk keeps its own stack, so trees of any depth can
+     * be analyzed.
+     *
+     * @param root the root of the tree, usually a Program
+     */
+    public void run(ASTNode root) {
+        IterativeTraversal.preorder(root, this);
+    }
+
+    @SuppressWarnings("unchecked")
+    protected void visitNode(ASTNode node) {
+        for (Consumer<?> handler : dispatch.get(node.getClass())) {
+            ((Consumer<ASTNode>) handler).accept(node);
+        }
+    }
+
+    private ClassValue<Consumer<?>[]> newDispatch() {
+        return new ClassValue<Consumer<?>[]>() {
+            protected Consumer<?>[] computeValue(Class<?> concreteClass) {
+                return handlersFor(concreteClass);
+            }
+        };
+    }
+
+    private Consumer<?>[] handlersFor(Class<?> concreteClass) {
+        List<Consumer<ASTNode>> matching = new ArrayList<>();
+        for (int i = 0; i < nodeClasses.size(); i++) {
+            if (nodeClasses.get(i).isAssignableFrom(concreteClass)) {
+                matching.add(handlers.get(i));
+            }
+        }
+        return matching.isEmpty() ? NO_HANDLERS : matching.toArray(NO_HANDLERS);
+    }
+}
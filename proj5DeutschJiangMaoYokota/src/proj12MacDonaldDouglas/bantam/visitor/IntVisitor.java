@@ -0,0 +1,651 @@
+/*
+ * File: bantam.visitor.IntVisitor.java
+ * CS361 Project 11
+ * Names: Martin Deutsch and Wyett MacDonald
+ * Date: 2/13/2019
+ * This file contains the IntVisitor, a visitor whose visit methods
+ * return an int
+ */
+
+package proj12MacDonaldDouglas.bantam.visitor;
+
+import proj12MacDonaldDouglas.bantam.ast.*;
+
+/**
+ * IntVisitor is a visitor whose visit methods return an <tt>int</tt>, for
+ * counts, sizes and depths, without boxing.  By default each visit method
+ * visits the node's children in the same order as <tt>Visitor</tt> and
+ * folds their results together with <tt>aggregate</tt>, starting from
+ * <tt>defaultResult</tt>; a leaf returns <tt>defaultResult</tt>.  The
+ * defaults are 0 and addition, so a visitor that only returns 1 from the
+ * nodes it is looking for counts them.
+ *
+ * @author Martin Deutsch
+ * @author Wyett MacDonald
+ */
+public abstract class IntVisitor {
+
+    /**
+     * Get the result of a node with no children, and the starting value
+     * when combining the results of a node's children
+     *
+     * @return the default result, 0 unless overridden
+     */
+    protected int defaultResult() {
+        return 0;
+    }
+
+    /**
+     * Combine the result so far with the result of the next child
+     *
+     * @param result      the result so far
+     * @param childResult the result of visiting the next child
+     * @return the combined result, the sum unless overridden
+     */
+    protected int aggregate(int result, int childResult) {
+        return result + childResult;
+    }
+
+    /**
+     * Visit a program node
+     *
+     * @param node the program node
+     * @return result of the visit
+     */
+    public int visit(Program node) {
+        int result = defaultResult();
+        result = aggregate(result, node.getClassList().accept(this));
+        return result;
+    }
+
+    /**
+     * Visit a class list node
+     *
+     * @param node the class list node
+     * @return result of the visit
+     */
+    public int visit(ClassList node) {
+        int result = defaultResult();
+        for (int i = 0; i < node.getSize(); i++) {
+            result = aggregate(result, node.get(i).accept(this));
+        }
+        return result;
+    }
+
+    /**
+     * Visit a class node
+     *
+     * @param node the class node
+     * @return result of the visit
+     */
+    public int visit(Class_ node) {
+        int result = defaultResult();
+        result = aggregate(result, node.getMemberList().accept(this));
+        return result;
+    }
+
+    /**
+     * Visit a member list node
+     *
+     * @param node the member list node
+     * @return result of the visit
+     */
+    public int visit(MemberList node) {
+        int result = defaultResult();
+        for (int i = 0; i < node.getSize(); i++) {
+            result = aggregate(result, node.get(i).accept(this));
+        }
+        return result;
+    }
+
+    /**
+     * Visit a field node
+     *
+     * @param node the field node
+     * @return result of the visit
+     */
+    public int visit(Field node) {
+        int result = defaultResult();
+        if (node.getInit() != null) {
+            result = aggregate(result, node.getInit().accept(this));
+        }
+        return result;
+    }
+
+    /**
+     * Visit a method node
+     *
+     * @param node the method node
+     * @return result of the visit
+     */
+    public int visit(Method node) {
+        int result = defaultResult();
+        result = aggregate(result, node.getFormalList().accept(this));
+        result = aggregate(result, node.getStmtList().accept(this));
+        return result;
+    }
+
+    /**
+     * Visit a formal list node
+     *
+     * @param node the formal list node
+     * @return result of the visit
+     */
+    public int visit(FormalList node) {
+        int result = defaultResult();
+        for (int i = 0; i < node.getSize(); i++) {
+            result = aggregate(result, node.get(i).accept(this));
+        }
+        return result;
+    }
+
+    /**
+     * Visit a formal node
+     *
+     * @param node the formal node
+     * @return result of the visit
+     */
+    public int visit(Formal node) {
+        return defaultResult();
+    }
+
+    /**
+     * Visit a statement list node
+     *
+     * @param node the statement list node
+     * @return result of the visit
+     */
+    public int visit(StmtList node) {
+        int result = defaultResult();
+        for (int i = 0; i < node.getSize(); i++) {
+            result = aggregate(result, node.get(i).accept(this));
+        }
+        return result;
+    }
+
+    /**
+     * Visit a declaration statement node
+     *
+     * @param node the declaration statement node
+     * @return result of the visit
+     */
+    public int visit(DeclStmt node) {
+        int result = defaultResult();
+        result = aggregate(result, node.getInit().accept(this));
+        return result;
+    }
+
+    /**
+     * Visit an expression statement node
+     *
+     * @param node the expression statement node
+     * @return result of the visit
+     */
+    public int visit(ExprStmt node) {
+        int result = defaultResult();
+        result = aggregate(result, node.getExpr().accept(this));
+        return result;
+    }
+
+    /**
+     * Visit an if statement node
+     *
+     * @param node the if statement node
+     * @return result of the visit
+     */
+    public int visit(IfStmt node) {
+        int result = defaultResult();
+        result = aggregate(result, node.getPredExpr().accept(this));
+        result = aggregate(result, node.getThenStmt().accept(this));
+        if (node.getElseStmt() != null) {
+            result = aggregate(result, node.getElseStmt().accept(this));
+        }
+        return result;
+    }
+
+    /**
+     * Visit a while statement node
+     *
+     * @param node the while statement node
+     * @return result of the visit
+     */
+    public int visit(WhileStmt node) {
+        int result = defaultResult();
+        result = aggregate(result, node.getPredExpr().accept(this));
+        result = aggregate(result, node.getBodyStmt().accept(this));
+        return result;
+    }
+
+    /**
+     * Visit a for statement node
+     *
+     * @param node the for statement node
+     * @return result of the visit
+     */
+    public int visit(ForStmt node) {
+        int result = defaultResult();
+        if (node.getInitExpr() != null) {
+            result = aggregate(result, node.getInitExpr().accept(this));
+        }
+        if (node.getPredExpr() != null) {
+            result = aggregate(result, node.getPredExpr().accept(this));
+        }
+        if (node.getUpdateExpr() != null) {
+            result = aggregate(result, node.getUpdateExpr().accept(this));
+        }
+        result = aggregate(result, node.getBodyStmt().accept(this));
+        return result;
+    }
+
+    /**
+     * Visit a break statement node
+     *
+     * @param node the break statement node
+     * @return result of the visit
+     */
+    public int visit(BreakStmt node) {
+        return defaultResult();
+    }
+
+    /**
+     * Visit a block statement node
+     *
+     * @param node the block statement node
+     * @return result of the visit
+     */
+    public int visit(BlockStmt node) {
+        int result = defaultResult();
+        result = aggregate(result, node.getStmtList().accept(this));
+        return result;
+    }
+
+    /**
+     * Visit a return statement node
+     *
+     * @param node the return statement node
+     * @return result of the visit
+     */
+    public int visit(ReturnStmt node) {
+        int result = defaultResult();
+        if (node.getExpr() != null) {
+            result = aggregate(result, node.getExpr().accept(this));
+        }
+        return result;
+    }
+
+    /**
+     * Visit an expression list node
+     *
+     * @param node the expression list node
+     * @return result of the visit
+     */
+    public int visit(ExprList node) {
+        int result = defaultResult();
+        for (int i = 0; i < node.getSize(); i++) {
+            result = aggregate(result, node.get(i).accept(this));
+        }
+        return result;
+    }
+
+    /**
+     * Visit a dispatch expression node
+     *
+     * @param node the dispatch expression node
+     * @return result of the visit
+     */
+    public int visit(DispatchExpr node) {
+        int result = defaultResult();
+        if (node.getRefExpr() != null) {
+            result = aggregate(result, node.getRefExpr().accept(this));
+        }
+        result = aggregate(result, node.getActualList().accept(this));
+        return result;
+    }
+
+    /**
+     * Visit a new expression node
+     *
+     * @param node the new expression node
+     * @return result of the visit
+     */
+    public int visit(NewExpr node) {
+        return defaultResult();
+    }
+
+    /**
+     * Visit a new array expression node
+     *
+     * @param node the new array expression node
+     * @return result of the visit
+     */
+    public int visit(NewArrayExpr node) {
+        int result = defaultResult();
+        result = aggregate(result, node.getSize().accept(this));
+        return result;
+    }
+
+    /**
+     * Visit an instanceof expression node
+     *
+     * @param node the instanceof expression node
+     * @return result of the visit
+     */
+    public int visit(InstanceofExpr node) {
+        int result = defaultResult();
+        result = aggregate(result, node.getExpr().accept(this));
+        return result;
+    }
+
+    /**
+     * Visit a cast expression node
+     *
+     * @param node the cast expression node
+     * @return result of the visit
+     */
+    public int visit(CastExpr node) {
+        int result = defaultResult();
+        result = aggregate(result, node.getExpr().accept(this));
+        return result;
+    }
+
+    /**
+     * Visit an assignment expression node
+     *
+     * @param node the assignment expression node
+     * @return result of the visit
+     */
+    public int visit(AssignExpr node) {
+        int result = defaultResult();
+        result = aggregate(result, node.getExpr().accept(this));
+        return result;
+    }
+
+    /**
+     * Visit an array assignment expression node
+     *
+     * @param node the array assignment expression node
+     * @return result of the visit
+     */
+    public int visit(ArrayAssignExpr node) {
+        int result = defaultResult();
+        result = aggregate(result, node.getIndex().accept(this));
+        result = aggregate(result, node.getExpr().accept(this));
+        return result;
+    }
+
+    /**
+     * Visit a binary comparison equals expression node
+     *
+     * @param node the binary comparison equals expression node
+     * @return result of the visit
+     */
+    public int visit(BinaryCompEqExpr node) {
+        int result = defaultResult();
+        result = aggregate(result, node.getLeftExpr().accept(this));
+        result = aggregate(result, node.getRightExpr().accept(this));
+        return result;
+    }
+
+    /**
+     * Visit a binary comparison not equals expression node
+     *
+     * @param node the binary comparison not equals expression node
+     * @return result of the visit
+     */
+    public int visit(BinaryCompNeExpr node) {
+        int result = defaultResult();
+        result = aggregate(result, node.getLeftExpr().accept(this));
+        result = aggregate(result, node.getRightExpr().accept(this));
+        return result;
+    }
+
+    /**
+     * Visit a binary comparison less than expression node
+     *
+     * @param node the binary comparison less than expression node
+     * @return result of the visit
+     */
+    public int visit(BinaryCompLtExpr node) {
+        int result = defaultResult();
+        result = aggregate(result, node.getLeftExpr().accept(this));
+        result = aggregate(result, node.getRightExpr().accept(this));
+        return result;
+    }
+
+    /**
+     * Visit a binary comparison less than or equal to expression node
+     *
+     * @param node the binary comparison less than or equal to expression node
+     * @return result of the visit
+     */
+    public int visit(BinaryCompLeqExpr node) {
+        int result = defaultResult();
+        result = aggregate(result, node.getLeftExpr().accept(this));
+        result = aggregate(result, node.getRightExpr().accept(this));
+        return result;
+    }
+
+    /**
+     * Visit a binary comparison greater than expression node
+     *
+     * @param node the binary comparison greater than expression node
+     * @return result of the visit
+     */
+    public int visit(BinaryCompGtExpr node) {
+        int result = defaultResult();
+        result = aggregate(result, node.getLeftExpr().accept(this));
+        result = aggregate(result, node.getRightExpr().accept(this));
+        return result;
+    }
+
+    /**
+     * Visit a binary comparison greater than or equal to expression node
+     *
+     * @param node the binary comparison greater than or equal to expression node
+     * @return result of the visit
+     */
+    public int visit(BinaryCompGeqExpr node) {
+        int result = defaultResult();
+        result = aggregate(result, node.getLeftExpr().accept(this));
+        result = aggregate(result, node.getRightExpr().accept(this));
+        return result;
+    }
+
+    /**
+     * Visit a binary arithmetic plus expression node
+     *
+     * @param node the binary arithmetic plus expression node
+     * @return result of the visit
+     */
+    public int visit(BinaryArithPlusExpr node) {
+        int result = defaultResult();
+        result = aggregate(result, node.getLeftExpr().accept(this));
+        result = aggregate(result, node.getRightExpr().accept(this));
+        return result;
+    }
+
+    /**
+     * Visit a binary arithmetic minus expression node
+     *
+     * @param node the binary arithmetic minus expression node
+     * @return result of the visit
+     */
+    public int visit(BinaryArithMinusExpr node) {
+        int result = defaultResult();
+        result = aggregate(result, node.getLeftExpr().accept(this));
+        result = aggregate(result, node.getRightExpr().accept(this));
+        return result;
+    }
+
+    /**
+     * Visit a binary arithmetic times expression node
+     *
+     * @param node the binary arithmetic times expression node
+     * @return result of the visit
+     */
+    public int visit(BinaryArithTimesExpr node) {
+        int result = defaultResult();
+        result = aggregate(result, node.getLeftExpr().accept(this));
+        result = aggregate(result, node.getRightExpr().accept(this));
+        return result;
+    }
+
+    /**
+     * Visit a binary arithmetic divide expression node
+     *
+     * @param node the binary arithmetic divide expression node
+     * @return result of the visit
+     */
+    public int visit(BinaryArithDivideExpr node) {
+        int result = defaultResult();
+        result = aggregate(result, node.getLeftExpr().accept(this));
+        result = aggregate(result, node.getRightExpr().accept(this));
+        return result;
+    }
+
+    /**
+     * Visit a binary arithmetic modulus expression node
+     *
+     * @param node the binary arithmetic modulus expression node
+     * @return result of the visit
+     */
+    public int visit(BinaryArithModulusExpr node) {
+        int result = defaultResult();
+        result = aggregate(result, node.getLeftExpr().accept(this));
+        result = aggregate(result, node.getRightExpr().accept(this));
+        return result;
+    }
+
+    /**
+     * Visit a binary logical AND expression node
+     *
+     * @param node the binary logical AND expression node
+     * @return result of the visit
+     */
+    public int visit(BinaryLogicAndExpr node) {
+        int result = defaultResult();
+        result = aggregate(result, node.getLeftExpr().accept(this));
+        result = aggregate(result, node.getRightExpr().accept(this));
+        return result;
+    }
+
+    /**
+     * Visit a binary logical OR expression node
+     *
+     * @param node the binary logical OR expression node
+     * @return result of the visit
+     */
+    public int visit(BinaryLogicOrExpr node) {
+        int result = defaultResult();
+        result = aggregate(result, node.getLeftExpr().accept(this));
+        result = aggregate(result, node.getRightExpr().accept(this));
+        return result;
+    }
+
+    /**
+     * Visit an unary negation expression node
+     *
+     * @param node the unary negation expression node
+     * @return result of the visit
+     */
+    public int visit(UnaryNegExpr node) {
+        int result = defaultResult();
+        result = aggregate(result, node.getExpr().accept(this));
+        return result;
+    }
+
+    /**
+     * Visit an unary NOT expression node
+     *
+     * @param node the unary NOT expression node
+     * @return result of the visit
+     */
+    public int visit(UnaryNotExpr node) {
+        int result = defaultResult();
+        result = aggregate(result, node.getExpr().accept(this));
+        return result;
+    }
+
+    /**
+     * Visit an unary increment expression node
+     *
+     * @param node the unary increment expression node
+     * @return result of the visit
+     */
+    public int visit(UnaryIncrExpr node) {
+        int result = defaultResult();
+        result = aggregate(result, node.getExpr().accept(this));
+        return result;
+    }
+
+    /**
+     * Visit an unary decrement expression node
+     *
+     * @param node the unary decrement expression node
+     * @return result of the visit
+     */
+    public int visit(UnaryDecrExpr node) {
+        int result = defaultResult();
+        result = aggregate(result, node.getExpr().accept(this));
+        return result;
+    }
+
+    /**
+     * Visit a variable expression node
+     *
+     * @param node the variable expression node
+     * @return result of the visit
+     */
+    public int visit(VarExpr node) {
+        int result = defaultResult();
+        if (node.getRef() != null) {
+            result = aggregate(result, node.getRef().accept(this));
+        }
+        return result;
+    }
+
+    /**
+     * Visit an array expression node
+     *
+     * @param node the array expression node
+     * @return result of the visit
+     */
+    public int visit(ArrayExpr node) {
+        int result = defaultResult();
+        if (node.getRef() != null) {
+            result = aggregate(result, node.getRef().accept(this));
+        }
+        result = aggregate(result, node.getIndex().accept(this));
+        return result;
+    }
+
+    /**
+     * Visit an int constant expression node
+     *
+     * @param node the int constant expression node
+     * @return result of the visit
+     */
+    public int visit(ConstIntExpr node) {
+        return defaultResult();
+    }
+
+    /**
+     * Visit a boolean constant expression node
+     *
+     * @param node the boolean constant expression node
+     * @return result of the visit
+     */
+    public int visit(ConstBooleanExpr node) {
+        return defaultResult();
+    }
+
+    /**
+     * Visit a string constant expression node
+     *
+     * @param node the string constant expression node
+     * @return result of the visit
+     */
+    public int visit(ConstStringExpr node) {
+        return defaultResult();
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * File: bantam.visitor.IterativeTraversal.java
+ * CS361 Project 11
+ * Names: Martin Deutsch and Wyett MacDonald
+ * Date: 2/13/2019
+ * This file contains the IterativeTraversal, which walks an AST with an
+ * explicit stack instead of recursion
+ */
+
+package proj12MacDonaldDouglas.bantam.visitor;
+
+import proj12MacDonaldDouglas.bantam.ast.ASTNode;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+/**
+ * IterativeTraversal walks an AST depth first, in the same order as the
+ * <tt>Visitor</tt>, calling <tt>preVisit</tt> on each node before its
+ * children and <tt>postVisit</tt> after them.  The pending nodes are kept
+ * in an array-backed stack rather than on the Java call stack, so trees of
+ * any depth, such as the long operator chains of generated code, are
+ * walked at constant stack depth.
+ * <p/>
+ * <tt>preVisit</tt> decides how the walk goes on: into the node's
+ * children, past them, or not at all.  A node whose children are skipped
+ * still gets its <tt>postVisit</tt>; once the walk is stopped, no other
+ * hook is called, so a search ends at its first hit.
+ * <p/>
+ * A <tt>PreorderVisitor</tt> can run on this traversal unchanged through
+ * <tt>preorder</tt>.  A traversal object may be reused, but not by two
+ * threads at once.
+ *
+ * @author Martin Deutsch
+ * @author Wyett MacDonald
+ */
+public abstract class IterativeTraversal {
+
+    private final ChildLister children = new ChildLister();
+    private ASTNode[] stack = new ASTNode[64];
+
+    /**
+     * Whether the node at the same stack slot has had its children pushed
+     */
+    private boolean[] expanded = new boolean[64];
+    private int top;
+    private int depth;
+
+    /**
+     * Called on each node before its children
+     *
+     * @param node the AST node
+     * @return how to go on: CONTINUE unless overridden
+     */
+    protected TraversalAction preVisit(ASTNode node) {
+        return TraversalAction.CONTINUE;
+    }
+
+    /**
+     * Called on each node after its children
+     *
+     * @param node the AST node
+     */
+    protected void postVisit(ASTNode node) {
+    }
+
+    /**
+     * Get the depth of the node being visited, 0 for the root
+     *
+     * @return the depth
+     */
+    protected int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Walk the tree with the given root
+     *
+     * @param root the root of the tree
+     * @return true if a hook stopped the walk, false if it went through
+     * the whole tree
+     */
+    public boolean traverse(ASTNode root) {
+        top = 0;
+        depth = 0;
+        push(root);
+        while (top > 0) {
+            ASTNode node = stack[top - 1];
+            if (expanded[top - 1]) {
+                top--;
+                stack[top] = null;
+                depth--;
+                postVisit(node);
+                continue;
+            }
+            expanded[top - 1] = true;
+            TraversalAction action = preVisit(node);
+            depth++;
+            if (action == TraversalAction.STOP) {
+                Arrays.fill(stack, 0, top, null);
+                top = 0;
+                return true;
+            }
+            if (action == TraversalAction.CONTINUE) {
+                // push the children last to first, so the first is visited first
+                for (int i = children.list(node) - 1; i >= 0; i--) {
+                    push(children.get(i));
+                }
+            }
+        }
+        return false;
+    }
+
+    private void push(ASTNode node) {
+        if (top == stack.length) {
+            stack = Arrays.copyOf(stack, top * 2);
+            expanded = Arrays.copyOf(expanded, top * 2);
+        }
+        stack[top] = node;
+        expanded[top] = false;
+        top++;
+    }
+
+    /**
+     * Run a preorder visitor over a tree without recursion.  Its
+     * <tt>preVisit</tt> is called on every node, in the same order as
+     * when the tree accepts it, and steers the walk the same way.
+     *
+     * @param root    the root of the tree
+     * @param visitor the visitor
+     */
+    public static void preorder(ASTNode root, PreorderVisitor visitor) {
+        new IterativeTraversal() {
+            protected TraversalAction preVisit(ASTNode node) {
+                return visitor.preVisit(node);
+            }
+        }.traverse(root);
+    }
+
+    /**
+     * Find the first node, in preorder, that matches a predicate, stopping
+     * the walk there
+     *
+     * @param root  the root of the tree
+     * @param match the predicate
+     * @return the first matching node, or null if there is none
+     */
+    public static ASTNode findFirst(ASTNode root, Predicate<ASTNode> match) {
+        ASTNode[] found = new ASTNode[1];
+        new IterativeTraversal() {
+            protected TraversalAction preVisit(ASTNode node) {
+                if (match.test(node)) {
+                    found[0] = node;
+                    return TraversalAction.STOP;
+                }
+                return TraversalAction.CONTINUE;
+            }
+        }.traverse(root);
+        return found[0];
+    }
+}
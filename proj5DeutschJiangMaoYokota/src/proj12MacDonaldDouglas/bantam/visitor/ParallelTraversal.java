@@ -0,0 +1,244 @@
+/*
+ * File: bantam.visitor.ParallelTraversal.java
+ * CS361 Project 11
+ * Names: Martin Deutsch and Wyett MacDonald
+ * Date: 2/13/2019
+ * This file contains the ParallelTraversal, which runs a whole-program
+ * analysis over the classes and methods of a program in parallel
+ */
+
+package proj12MacDonaldDouglas.bantam.visitor;
+
+import proj12MacDonaldDouglas.bantam.ast.*;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * ParallelTraversal splits a program at class and method boundaries and
+ * runs an analysis on the pieces in a <tt>ForkJoinPool</tt>.
+ * <p/>
+ * Each piece is handed to the analysis as a small Program of its own: a
+ * new ClassList, and for a piece of a large class a new Class_ with the
+ * same name and parent, around the original member nodes, which are
+ * shared and never modified.  So the analysis is any function from a
+ * Program to a result, usually one that runs a fresh visitor, and every
+ * task has its own visitor state.  The partial results are then reduced
+ * with the given combiner, always with the left piece's result first, so
+ * the reduction sees the pieces in source order whatever the scheduling.
+ * A combiner that is associative gives the same answer as running the
+ * analysis over the whole program.
+ * <p/>
+ * A piece's visitor prunes its own walk with SKIP_CHILDREN or STOP as
+ * usual; to end the whole parallel traversal, pass a predicate on the
+ * piece results that says when to stop.
+ *
+ * @author Martin Deutsch
+ * @author Wyett MacDonald
+ */
+public class ParallelTraversal {
+
+    /**
+     * Classes with more members than this are split into several tasks
+     */
+    private static final int MEMBERS_PER_TASK = 8;
+
+    private ParallelTraversal() {
+    }
+
+    /**
+     * Run an analysis over the pieces of a program in the common pool and
+     * reduce the results
+     *
+     * @param program  the program
+     * @param analysis the analysis to run on each piece
+     * @param combiner merges the results of two adjacent pieces, left first
+     * @param <R>      the result type
+     * @return the reduced result
+     */
+    public static <R> R mapReduce(Program program, Function<Program, R> analysis,
+                                  BinaryOperator<R> combiner) {
+        return mapReduce(program, analysis, combiner, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Run an analysis over the pieces of a program in the given pool and
+     * reduce the results
+     *
+     * @param program  the program
+     * @param analysis the analysis to run on each piece
+     * @param combiner merges the results of two adjacent pieces, left first
+     * @param pool     the pool to run the tasks in
+     * @param <R>      the result type
+     * @return the reduced result
+     */
+    public static <R> R mapReduce(Program program, Function<Program, R> analysis,
+                                  BinaryOperator<R> combiner, ForkJoinPool pool) {
+        return mapReduce(program, analysis, combiner, null, pool);
+    }
+
+    /**
+     * Run an analysis over the pieces of a program in the given pool and
+     * reduce the results, stopping early once the result of one piece
+     * satisfies a predicate.  This is STOP for the parallel traversal:
+     * tasks that have not started their piece by then return at once
+     * without analyzing it or forking more tasks, while pieces already
+     * being analyzed run to the end.  The result reduces only the pieces
+     * that were analyzed, still in source order, so it suits searches
+     * such as whether any method has some property, where any hit will
+     * do.  The analysis must not return null, which stands for a piece
+     * that was skipped.
+     *
+     * @param program  the program
+     * @param analysis the analysis to run on each piece
+     * @param combiner merges the results of two adjacent pieces, left first
+     * @param stopWhen whether a piece's result ends the traversal, or null
+     *                 to analyze every piece
+     * @param pool     the pool to run the tasks in
+     * @param <R>      the result type
+     * @return the reduced result
+     */
+    public static <R> R mapReduce(Program program, Function<Program, R> analysis,
+                                  BinaryOperator<R> combiner, Predicate<? super R> stopWhen,
+                                  ForkJoinPool pool) {
+        ClassList classes = program.getClassList();
+        if (classes.getSize() == 0) {
+            return analysis.apply(program);
+        }
+        return pool.invoke(new ClassesTask<>(new Job<>(program, analysis, combiner, stopWhen),
+                0, classes.getSize()));
+    }
+
+    /**
+     * What all the tasks of one traversal share
+     */
+    private static class Job<R> {
+        private final Program program;
+        private final Function<Program, R> analysis;
+        private final BinaryOperator<R> combiner;
+        private final Predicate<? super R> stopWhen;
+        private volatile boolean stopped;
+
+        Job(Program program, Function<Program, R> analysis, BinaryOperator<R> combiner,
+            Predicate<? super R> stopWhen) {
+            this.program = program;
+            this.analysis = analysis;
+            this.combiner = combiner;
+            this.stopWhen = stopWhen;
+        }
+
+        /**
+         * Analyze one piece, unless the traversal has been stopped
+         *
+         * @return the result, or null if the piece was skipped
+         */
+        R analyze(Program piece) {
+            if (stopped) {
+                return null;
+            }
+            R result = analysis.apply(piece);
+            if (stopWhen != null && stopWhen.test(result)) {
+                stopped = true;
+            }
+            return result;
+        }
+
+        /**
+         * Merge the results of two adjacent pieces, leaving out a piece
+         * that was skipped
+         */
+        R combine(R left, R right) {
+            if (stopWhen != null && (left == null || right == null)) {
+                return left == null ? right : left;
+            }
+            return combiner.apply(left, right);
+        }
+    }
+
+    /**
+     * Task for a range of classes, split in half until one class is left
+     */
+    @SuppressWarnings("serial")
+    private static class ClassesTask<R> extends RecursiveTask<R> {
+        private final Job<R> job;
+        private final int from;
+        private final int to;
+
+        ClassesTask(Job<R> job, int from, int to) {
+            this.job = job;
+            this.from = from;
+            this.to = to;
+        }
+
+        protected R compute() {
+            if (job.stopped) {
+                return null;
+            }
+            if (to - from == 1) {
+                Class_ class_ = (Class_) job.program.getClassList().get(from);
+                int members = class_.getMemberList().getSize();
+                if (members <= MEMBERS_PER_TASK) {
+                    return job.analyze(wrap(job.program, class_));
+                }
+                return new MembersTask<>(job, class_, 0, members).compute();
+            }
+            int middle = (from + to) >>> 1;
+            ClassesTask<R> left = new ClassesTask<>(job, from, middle);
+            ClassesTask<R> right = new ClassesTask<>(job, middle, to);
+            right.fork();
+            R leftResult = left.compute();
+            return job.combine(leftResult, right.join());
+        }
+    }
+
+    /**
+     * Task for a range of the members of one class, split in half until
+     * it is small enough
+     */
+    @SuppressWarnings("serial")
+    private static class MembersTask<R> extends RecursiveTask<R> {
+        private final Job<R> job;
+        private final Class_ class_;
+        private final int from;
+        private final int to;
+
+        MembersTask(Job<R> job, Class_ class_, int from, int to) {
+            this.job = job;
+            this.class_ = class_;
+            this.from = from;
+            this.to = to;
+        }
+
+        protected R compute() {
+            if (job.stopped) {
+                return null;
+            }
+            if (to - from <= MEMBERS_PER_TASK) {
+                MemberList members = new MemberList(class_.getMemberList().getLineNum());
+                for (int i = from; i < to; i++) {
+                    members.addElement(class_.getMemberList().get(i));
+                }
+                return job.analyze(wrap(job.program, new Class_(class_.getLineNum(),
+                        class_.getFilename(), class_.getName(), class_.getParent(), members)));
+            }
+            int middle = (from + to) >>> 1;
+            MembersTask<R> left = new MembersTask<>(job, class_, from, middle);
+            MembersTask<R> right = new MembersTask<>(job, class_, middle, to);
+            right.fork();
+            R leftResult = left.compute();
+            return job.combine(leftResult, right.join());
+        }
+    }
+
+    /**
+     * Make a program holding just the given class
+     */
+    private static Program wrap(Program program, Class_ class_) {
+        ClassList classes = new ClassList(program.getClassList().getLineNum());
+        classes.addElement(class_);
+        return new Program(program.getLineNum(), classes);
+    }
+}
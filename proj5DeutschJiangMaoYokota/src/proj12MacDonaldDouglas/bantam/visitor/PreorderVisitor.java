@@ -0,0 +1,281 @@
+/*
+ * File: bantam.visitor.PreorderVisitor.java
+ * CS361 Project 11
+ * Names: Martin Deutsch and Wyett MacDonald
+ * Date: 2/13/2019
+ * This file contains the PreorderVisitor, which runs one hook on every
+ * node of the AST
+ */
+
+package proj12MacDonaldDouglas.bantam.visitor;
+
+import proj12MacDonaldDouglas.bantam.ast.*;
+
+/**
+ * PreorderVisitor is a visitor for work that is the same for every kind of
+ * node.  It calls <tt>preVisit</tt> on each node, parents before children
+ * and children in the order the <tt>Visitor</tt> visits them, and then
+ * descends into the node's children.  By default <tt>preVisit</tt> calls
+ * <tt>visitNode</tt> and goes on into the children; a subclass that needs
+ * to prune or end the walk overrides <tt>preVisit</tt> instead and returns
+ * SKIP_CHILDREN or STOP, with the same meaning as in the
+ * <tt>IterativeTraversal</tt>.  Once the walk is stopped no other node is
+ * visited until the next <tt>traverse</tt>.
+ *
+ * @author Martin Deutsch
+ * @author Wyett MacDonald
+ */
+public abstract class PreorderVisitor extends Visitor {
+
+    /**
+     * Whether a hook has stopped the walk
+     */
+    private boolean stopped;
+
+    /**
+     * Called once for every node before its children are visited, unless
+     * <tt>preVisit</tt> is overridden
+     *
+     * @param node the AST node
+     */
+    protected void visitNode(ASTNode node) {
+    }
+
+    /**
+     * Called once for every node before its children are visited
+     *
+     * @param node the AST node
+     * @return how to go on: CONTINUE unless overridden
+     */
+    protected TraversalAction preVisit(ASTNode node) {
+        visitNode(node);
+        return TraversalAction.CONTINUE;
+    }
+
+    /**
+     * Walk the tree with the given root
+     *
+     * @param root the root of the tree
+     * @return true if a hook stopped the walk, false if it went through
+     * the whole tree
+     */
+    public boolean traverse(ASTNode root) {
+        stopped = false;
+        root.accept(this);
+        return stopped;
+    }
+
+    /**
+     * Check whether a hook has stopped the walk
+     *
+     * @return true if the walk was stopped
+     */
+    public boolean isStopped() {
+        return stopped;
+    }
+
+    /**
+     * Call <tt>preVisit</tt> on a node, unless the walk is stopped
+     *
+     * @return true if the node's children are to be visited
+     */
+    private boolean enter(ASTNode node) {
+        if (stopped) {
+            return false;
+        }
+        TraversalAction action = preVisit(node);
+        if (action == TraversalAction.STOP) {
+            stopped = true;
+            return false;
+        }
+        return action == TraversalAction.CONTINUE;
+    }
+
+    public Object visit(Program node) {
+        return enter(node) ? super.visit(node) : null;
+    }
+
+    public Object visit(ClassList node) {
+        return enter(node) ? super.visit(node) : null;
+    }
+
+    public Object visit(Class_ node) {
+        return enter(node) ? super.visit(node) : null;
+    }
+
+    public Object visit(MemberList node) {
+        return enter(node) ? super.visit(node) : null;
+    }
+
+    public Object visit(Field node) {
+        return enter(node) ? super.visit(node) : null;
+    }
+
+    public Object visit(Method node) {
+        return enter(node) ? super.visit(node) : null;
+    }
+
+    public Object visit(FormalList node) {
+        return enter(node) ? super.visit(node) : null;
+    }
+
+    public Object visit(Formal node) {
+        return enter(node) ? super.visit(node) : null;
+    }
+
+    public Object visit(StmtList node) {
+        return enter(node) ? super.visit(node) : null;
+    }
+
+    public Object visit(DeclStmt node) {
+        return enter(node) ? super.visit(node) : null;
+    }
+
+    public Object visit(ExprStmt node) {
+        return enter(node) ? super.visit(node) : null;
+    }
+
+    public Object visit(IfStmt node) {
+        return enter(node) ? super.visit(node) : null;
+    }
+
+    public Object visit(WhileStmt node) {
+        return enter(node) ? super.visit(node) : null;
+    }
+
+    public Object visit(ForStmt node) {
+        return enter(node) ? super.visit(node) : null;
+    }
+
+    public Object visit(BreakStmt node) {
+        return enter(node) ? super.visit(node) : null;
+    }
+
+    public Object visit(BlockStmt node) {
+        return enter(node) ? super.visit(node) : null;
+    }
+
+    public Object visit(ReturnStmt node) {
+        return enter(node) ? super.visit(node) : null;
+    }
+
+    public Object visit(ExprList node) {
+        return enter(node) ? super.visit(node) : null;
+    }
+
+    public Object visit(DispatchExpr node) {
+        return enter(node) ? super.visit(node) : null;
+    }
+
+    public Object visit(NewExpr node) {
+        return enter(node) ? super.visit(node) : null;
+    }
+
+    public Object visit(NewArrayExpr node) {
+        return enter(node) ? super.visit(node) : null;
+    }
+
+    public Object visit(InstanceofExpr node) {
+        return enter(node) ? super.visit(node) : null;
+    }
+
+    public Object visit(CastExpr node) {
+        return enter(node) ? super.visit(node) : null;
+    }
+
+    public Object visit(AssignExpr node) {
+        return enter(node) ? super.visit(node) : null;
+    }
+
+    public Object visit(ArrayAssignExpr node) {
+        return enter(node) ? super.visit(node) : null;
+    }
+
+    public Object visit(BinaryCompEqExpr node) {
+        return enter(node) ? super.visit(node) : null;
+    }
+
+    public Object visit(BinaryCompNeExpr node) {
+        return enter(node) ? super.visit(node) : null;
+    }
+
+    public Object visit(BinaryCompLtExpr node) {
+        return enter(node) ? super.visit(node) : null;
+    }
+
+    public Object visit(BinaryCompLeqExpr node) {
+        return enter(node) ? super.visit(node) : null;
+    }
+
+    public Object visit(BinaryCompGtExpr node) {
+        return enter(node) ? super.visit(node) : null;
+    }
+
+    public Object visit(BinaryCompGeqExpr node) {
+        return enter(node) ? super.visit(node) : null;
+    }
+
+    public Object visit(BinaryArithPlusExpr node) {
+        return enter(node) ? super.visit(node) : null;
+    }
+
+    public Object visit(BinaryArithMinusExpr node) {
+        return enter(node) ? super.visit(node) : null;
+    }
+
+    public Object visit(BinaryArithTimesExpr node) {
+        return enter(node) ? super.visit(node) : null;
+    }
+
+    public Object visit(BinaryArithDivideExpr node) {
+        return enter(node) ? super.visit(node) : null;
+    }
+
+    public Object visit(BinaryArithModulusExpr node) {
+        return enter(node) ? super.visit(node) : null;
+    }
+
+    public Object visit(BinaryLogicAndExpr node) {
+        return enter(node) ? super.visit(node) : null;
+    }
+
+    public Object visit(BinaryLogicOrExpr node) {
+        return enter(node) ? super.visit(node) : null;
+    }
+
+    public Object visit(UnaryNegExpr node) {
+        return enter(node) ? super.visit(node) : null;
+    }
+
+    public Object visit(UnaryNotExpr node) {
+        return enter(node) ? super.visit(node) : null;
+    }
+
+    public Object visit(UnaryIncrExpr node) {
+        return enter(node) ? super.visit(node) : null;
+    }
+
+    public Object visit(UnaryDecrExpr node) {
+        return enter(node) ? super.visit(node) : null;
+    }
+
+    public Object visit(VarExpr node) {
+        return enter(node) ? super.visit(node) : null;
+    }
+
+    public Object visit(ArrayExpr node) {
+        return enter(node) ? super.visit(node) : null;
+    }
+
+    public Object visit(ConstIntExpr node) {
+        return enter(node) ? super.visit(node) : null;
+    }
+
+    public Object visit(ConstBooleanExpr node) {
+        return enter(node) ? super.visit(node) : null;
+    }
+
+    public Object visit(ConstStringExpr node) {
+        return enter(node) ? super.visit(node) : null;
+    }
+}
@@ -0,0 +1,749 @@
+/*
+ * File: bantam.visitor.SwitchVisitor.java
+ * CS361 Project 11
+ * Names: Martin Deutsch and Wyett MacDonald
+ * Date: 2/13/2019
+ * This file contains the SwitchVisitor, which dispatches on node kinds
+ * with a switch instead of double dispatch
+ */
+
+package proj12MacDonaldDouglas.bantam.visitor;
+
+import proj12MacDonaldDouglas.bantam.ast.*;
+
+/**
+ * SwitchVisitor is an alternative to <tt>Visitor</tt> that does not go
+ * through <tt>accept</tt>.  <tt>dispatch</tt> switches on the node's kind
+ * and calls the matching visit method, and the default visit methods
+ * dispatch to the children in the same order as <tt>Visitor</tt>.  Every
+ * node is then reached through one switch in one method, which the JIT
+ * can compile into a jump table, instead of two megamorphic virtual
+ * calls.  Subclasses override the visit methods of the nodes they care
+ * about, exactly as with <tt>Visitor</tt>; the Benchmark's dispatch case
+ * compares the two styles.
+ * <p/>
+ * <tt>dispatch</tt> first asks <tt>preVisit</tt> how to go on.  A node's
+ * visit method is what visits its children, so SKIP_CHILDREN skips the
+ * visit method as well, leaving <tt>preVisit</tt> as the only work done on
+ * the node; STOP also ends the walk, and no other node is dispatched until
+ * the next <tt>traverse</tt>.
+ *
+ * @author Martin Deutsch
+ * @author Wyett MacDonald
+ */
+public abstract class SwitchVisitor {
+
+    /**
+     * Whether a hook has stopped the walk
+     */
+    private boolean stopped;
+
+    /**
+     * Called on each node before its visit method
+     *
+     * @param node the AST node
+     * @return how to go on: CONTINUE unless overridden
+     */
+    protected TraversalAction preVisit(ASTNode node) {
+        return TraversalAction.CONTINUE;
+    }
+
+    /**
+     * Walk the tree with the given root
+     *
+     * @param root the root of the tree
+     * @return true if a hook stopped the walk, false if it went through
+     * the whole tree
+     */
+    public boolean traverse(ASTNode root) {
+        stopped = false;
+        dispatch(root);
+        return stopped;
+    }
+
+    /**
+     * Check whether a hook has stopped the walk
+     *
+     * @return true if the walk was stopped
+     */
+    public boolean isStopped() {
+        return stopped;
+    }
+
+    /**
+     * Visit a node through the visit method for its kind
+     *
+     * @param node the AST node
+     * @return result of the visit, or null if the visit method was skipped
+     */
+    public Object dispatch(ASTNode node) {
+        if (stopped) {
+            return null;
+        }
+        TraversalAction action = preVisit(node);
+        if (action != TraversalAction.CONTINUE) {
+            stopped = action == TraversalAction.STOP;
+            return null;
+        }
+        switch (node.getKind()) {
+            case PROGRAM:
+                return visit((Program) node);
+            case CLASS_LIST:
+                return visit((ClassList) node);
+            case CLASS:
+                return visit((Class_) node);
+            case MEMBER_LIST:
+                return visit((MemberList) node);
+            case FIELD:
+                return visit((Field) node);
+            case METHOD:
+                return visit((Method) node);
+            case FORMAL_LIST:
+                return visit((FormalList) node);
+            case FORMAL:
+                return visit((Formal) node);
+            case STMT_LIST:
+                return visit((StmtList) node);
+            case DECL_STMT:
+                return visit((DeclStmt) node);
+            case EXPR_STMT:
+                return visit((ExprStmt) node);
+            case IF_STMT:
+                return visit((IfStmt) node);
+            case WHILE_STMT:
+                return visit((WhileStmt) node);
+            case FOR_STMT:
+                return visit((ForStmt) node);
+            case BREAK_STMT:
+                return visit((BreakStmt) node);
+            case BLOCK_STMT:
+                return visit((BlockStmt) node);
+            case RETURN_STMT:
+                return visit((ReturnStmt) node);
+            case EXPR_LIST:
+                return visit((ExprList) node);
+            case DISPATCH_EXPR:
+                return visit((DispatchExpr) node);
+            case NEW_EXPR:
+                return visit((NewExpr) node);
+            case NEW_ARRAY_EXPR:
+                return visit((NewArrayExpr) node);
+            case INSTANCEOF_EXPR:
+                return visit((InstanceofExpr) node);
+            case CAST_EXPR:
+                return visit((CastExpr) node);
+            case ASSIGN_EXPR:
+                return visit((AssignExpr) node);
+            case ARRAY_ASSIGN_EXPR:
+                return visit((ArrayAssignExpr) node);
+            case BINARY_COMP_EQ_EXPR:
+                return visit((BinaryCompEqExpr) node);
+            case BINARY_COMP_NE_EXPR:
+                return visit((BinaryCompNeExpr) node);
+            case BINARY_COMP_LT_EXPR:
+                return visit((BinaryCompLtExpr) node);
+            case BINARY_COMP_LEQ_EXPR:
+                return visit((BinaryCompLeqExpr) node);
+            case BINARY_COMP_GT_EXPR:
+                return visit((BinaryCompGtExpr) node);
+            case BINARY_COMP_GEQ_EXPR:
+                return visit((BinaryCompGeqExpr) node);
+            case BINARY_ARITH_PLUS_EXPR:
+                return visit((BinaryArithPlusExpr) node);
+            case BINARY_ARITH_MINUS_EXPR:
+                return visit((BinaryArithMinusExpr) node);
+            case BINARY_ARITH_TIMES_EXPR:
+                return visit((BinaryArithTimesExpr) node);
+            case BINARY_ARITH_DIVIDE_EXPR:
+                return visit((BinaryArithDivideExpr) node);
+            case BINARY_ARITH_MODULUS_EXPR:
+                return visit((BinaryArithModulusExpr) node);
+            case BINARY_LOGIC_AND_EXPR:
+                return visit((BinaryLogicAndExpr) node);
+            case BINARY_LOGIC_OR_EXPR:
+                return visit((BinaryLogicOrExpr) node);
+            case UNARY_NEG_EXPR:
+                return visit((UnaryNegExpr) node);
+            case UNARY_NOT_EXPR:
+                return visit((UnaryNotExpr) node);
+            case UNARY_INCR_EXPR:
+                return visit((UnaryIncrExpr) node);
+            case UNARY_DECR_EXPR:
+                return visit((UnaryDecrExpr) node);
+            case VAR_EXPR:
+                return visit((VarExpr) node);
+            case ARRAY_EXPR:
+                return visit((ArrayExpr) node);
+            case CONST_INT_EXPR:
+                return visit((ConstIntExpr) node);
+            case CONST_BOOLEAN_EXPR:
+                return visit((ConstBooleanExpr) node);
+            case CONST_STRING_EXPR:
+                return visit((ConstStringExpr) node);
+            default:
+                throw new IllegalArgumentException("Unknown node kind " + node.getKind());
+        }
+    }
+
+    /**
+     * Visit a program node
+     *
+     * @param node the program node
+     * @return result of the visit
+     */
+    public Object visit(Program node) {
+        dispatch(node.getClassList());
+        return null;
+    }
+
+    /**
+     * Visit a class list node
+     *
+     * @param node the class list node
+     * @return result of the visit
+     */
+    public Object visit(ClassList node) {
+        for (int i = 0; i < node.getSize(); i++) {
+            dispatch(node.get(i));
+        }
+        return null;
+    }
+
+    /**
+     * Visit a class node
+     *
+     * @param node the class node
+     * @return result of the visit
+     */
+    public Object visit(Class_ node) {
+        dispatch(node.getMemberList());
+        return null;
+    }
+
+    /**
+     * Visit a member list node
+     *
+     * @param node the member list node
+     * @return result of the visit
+     */
+    public Object visit(MemberList node) {
+        for (int i = 0; i < node.getSize(); i++) {
+            dispatch(node.get(i));
+        }
+        return null;
+    }
+
+    /**
+     * Visit a field node
+     *
+     * @param node the field node
+     * @return result of the visit
+     */
+    public Object visit(Field node) {
+        if (node.getInit() != null) {
+            dispatch(node.getInit());
+        }
+        return null;
+    }
+
+    /**
+     * Visit a method node
+     *
+     * @param node the method node
+     * @return result of the visit
+     */
+    public Object visit(Method node) {
+        dispatch(node.getFormalList());
+        dispatch(node.getStmtList());
+        return null;
+    }
+
+    /**
+     * Visit a formal list node
+     *
+     * @param node the formal list node
+     * @return result of the visit
+     */
+    public Object visit(FormalList node) {
+        for (int i = 0; i < node.getSize(); i++) {
+            dispatch(node.get(i));
+        }
+        return null;
+    }
+
+    /**
+     * Visit a formal node
+     *
+     * @param node the formal node
+     * @return result of the visit
+     */
+    public Object visit(Formal node) {
+        return null;
+    }
+
+    /**
+     * Visit a statement list node
+     *
+     * @param node the statement list node
+     * @return result of the visit
+     */
+    public Object visit(StmtList node) {
+        for (int i = 0; i < node.getSize(); i++) {
+            dispatch(node.get(i));
+        }
+        return null;
+    }
+
+    /**
+     * Visit a declaration statement node
+     *
+     * @param node the declaration statement node
+     * @return result of the visit
+     */
+    public Object visit(DeclStmt node) {
+        dispatch(node.getInit());
+        return null;
+    }
+
+    /**
+     * Visit an expression statement node
+     *
+     * @param node the expression statement node
+     * @return result of the visit
+     */
+    public Object visit(ExprStmt node) {
+        dispatch(node.getExpr());
+        return null;
+    }
+
+    /**
+     * Visit an if statement node
+     *
+     * @param node the if statement node
+     * @return result of the visit
+     */
+    public Object visit(IfStmt node) {
+        dispatch(node.getPredExpr());
+        dispatch(node.getThenStmt());
+        if (node.getElseStmt() != null) {
+            dispatch(node.getElseStmt());
+        }
+        return null;
+    }
+
+    /**
+     * Visit a while statement node
+     *
+     * @param node the while statement node
+     * @return result of the visit
+     */
+    public Object visit(WhileStmt node) {
+        dispatch(node.getPredExpr());
+        dispatch(node.getBodyStmt());
+        return null;
+    }
+
+    /**
+     * Visit a for statement node
+     *
+     * @param node the for statement node
+     * @return result of the visit
+     */
+    public Object visit(ForStmt node) {
+        if (node.getInitExpr() != null) {
+            dispatch(node.getInitExpr());
+        }
+        if (node.getPredExpr() != null) {
+            dispatch(node.getPredExpr());
+        }
+        if (node.getUpdateExpr() != null) {
+            dispatch(node.getUpdateExpr());
+        }
+        dispatch(node.getBodyStmt());
+        return null;
+    }
+
+    /**
+     * Visit a break statement node
+     *
+     * @param node the break statement node
+     * @return result of the visit
+     */
+    public Object visit(BreakStmt node) {
+        return null;
+    }
+
+    /**
+     * Visit a block statement node
+     *
+     * @param node the block statement node
+     * @return result of the visit
+     */
+    public Object visit(BlockStmt node) {
+        dispatch(node.getStmtList());
+        return null;
+    }
+
+    /**
+     * Visit a return statement node
+     *
+     * @param node the return statement node
+     * @return result of the visit
+     */
+    public Object visit(ReturnStmt node) {
+        if (node.getExpr() != null) {
+            dispatch(node.getExpr());
+        }
+        return null;
+    }
+
+    /**
+     * Visit an expression list node
+     *
+     * @param node the expression list node
+     * @return result of the visit
+     */
+    public Object visit(ExprList node) {
+        for (int i = 0; i < node.getSize(); i++) {
+            dispatch(node.get(i));
+        }
+        return null;
+    }
+
+    /**
+     * Visit a dispatch expression node
+     *
+     * @param node the dispatch expression node
+     * @return result of the visit
+     */
+    public Object visit(DispatchExpr node) {
+        if (node.getRefExpr() != null) {
+            dispatch(node.getRefExpr());
+        }
+        dispatch(node.getActualList());
+        return null;
+    }
+
+    /**
+     * Visit a new expression node
+     *
+     * @param node the new expression node
+     * @return result of the visit
+     */
+    public Object visit(NewExpr node) {
+        return null;
+    }
+
+    /**
+     * Visit a new array expression node
+     *
+     * @param node the new array expression node
+     * @return result of the visit
+     */
+    public Object visit(NewArrayExpr node) {
+        dispatch(node.getSize());
+        return null;
+    }
+
+    /**
+     * Visit an instanceof expression node
+     *
+     * @param node the instanceof expression node
+     * @return result of the visit
+     */
+    public Object visit(InstanceofExpr node) {
+        dispatch(node.getExpr());
+        return null;
+    }
+
+    /**
+     * Visit a cast expression node
+     *
+     * @param node the cast expression node
+     * @return result of the visit
+     */
+    public Object visit(CastExpr node) {
+        dispatch(node.getExpr());
+        return null;
+    }
+
+    /**
+     * Visit an assignment expression node
+     *
+     * @param node the assignment expression node
+     * @return result of the visit
+     */
+    public Object visit(AssignExpr node) {
+        dispatch(node.getExpr());
+        return null;
+    }
+
+    /**
+     * Visit an array assignment expression node
+     *
+     * @param node the array assignment expression node
+     * @return result of the visit
+     */
+    public Object visit(ArrayAssignExpr node) {
+        dispatch(node.getIndex());
+        dispatch(node.getExpr());
+        return null;
+    }
+
+    /**
+     * Visit a binary comparison equals expression node
+     *
+     * @param node the binary comparison equals expression node
+     * @return result of the visit
+     */
+    public Object visit(BinaryCompEqExpr node) {
+        dispatch(node.getLeftExpr());
+        dispatch(node.getRightExpr());
+        return null;
+    }
+
+    /**
+     * Visit a binary comparison not equals expression node
+     *
+     * @param node the binary comparison not equals expression node
+     * @return result of the visit
+     */
+    public Object visit(BinaryCompNeExpr node) {
+        dispatch(node.getLeftExpr());
+        dispatch(node.getRightExpr());
+        return null;
+    }
+
+    /**
+     * Visit a binary comparison less than expression node
+     *
+     * @param node the binary comparison less than expression node
+     * @return result of the visit
+     */
+    public Object visit(BinaryCompLtExpr node) {
+        dispatch(node.getLeftExpr());
+        dispatch(node.getRightExpr());
+        return null;
+    }
+
+    /**
+     * Visit a binary comparison less than or equal to expression node
+     *
+     * @param node the binary comparison less than or equal to expression node
+     * @return result of the visit
+     */
+    public Object visit(BinaryCompLeqExpr node) {
+        dispatch(node.getLeftExpr());
+        dispatch(node.getRightExpr());
+        return null;
+    }
+
+    /**
+     * Visit a binary comparison greater than expression node
+     *
+     * @param node the binary comparison greater than expression node
+     * @return result of the visit
+     */
+    public Object visit(BinaryCompGtExpr node) {
+        dispatch(node.getLeftExpr());
+        dispatch(node.getRightExpr());
+        return null;
+    }
+
+    /**
+     * Visit a binary comparison greater than or equal to expression node
+     *
+     * @param node the binary comparison greater than or equal to expression node
+     * @return result of the visit
+     */
+    public Object visit(BinaryCompGeqExpr node) {
+        dispatch(node.getLeftExpr());
+        dispatch(node.getRightExpr());
+        return null;
+    }
+
+    /**
+     * Visit a binary arithmetic plus expression node
+     *
+     * @param node the binary arithmetic plus expression node
+     * @return result of the visit
+     */
+    public Object visit(BinaryArithPlusExpr node) {
+        dispatch(node.getLeftExpr());
+        dispatch(node.getRightExpr());
+        return null;
+    }
+
+    /**
+     * Visit a binary arithmetic minus expression node
+     *
+     * @param node the binary arithmetic minus expression node
+     * @return result of the visit
+     */
+    public Object visit(BinaryArithMinusExpr node) {
+        dispatch(node.getLeftExpr());
+        dispatch(node.getRightExpr());
+        return null;
+    }
+
+    /**
+     * Visit a binary arithmetic times expression node
+     *
+     * @param node the binary arithmetic times expression node
+     * @return result of the visit
+     */
+    public Object visit(BinaryArithTimesExpr node) {
+        dispatch(node.getLeftExpr());
+        dispatch(node.getRightExpr());
+        return null;
+    }
+
+    /**
+     * Visit a binary arithmetic divide expression node
+     *
+     * @param node the binary arithmetic divide expression node
+     * @return result of the visit
+     */
+    public Object visit(BinaryArithDivideExpr node) {
+        dispatch(node.getLeftExpr());
+        dispatch(node.getRightExpr());
+        return null;
+    }
+
+    /**
+     * Visit a binary arithmetic modulus expression node
+     *
+     * @param node the binary arithmetic modulus expression node
+     * @return result of the visit
+     */
+    public Object visit(BinaryArithModulusExpr node) {
+        dispatch(node.getLeftExpr());
+        dispatch(node.getRightExpr());
+        return null;
+    }
+
+    /**
+     * Visit a binary logical AND expression node
+     *
+     * @param node the binary logical AND expression node
+     * @return result of the visit
+     */
+    public Object visit(BinaryLogicAndExpr node) {
+        dispatch(node.getLeftExpr());
+        dispatch(node.getRightExpr());
+        return null;
+    }
+
+    /**
+     * Visit a binary logical OR expression node
+     *
+     * @param node the binary logical OR expression node
+     * @return result of the visit
+     */
+    public Object visit(BinaryLogicOrExpr node) {
+        dispatch(node.getLeftExpr());
+        dispatch(node.getRightExpr());
+        return null;
+    }
+
+    /**
+     * Visit an unary negation expression node
+     *
+     * @param node the unary negation expression node
+     * @return result of the visit
+     */
+    public Object visit(UnaryNegExpr node) {
+        dispatch(node.getExpr());
+        return null;
+    }
+
+    /**
+     * Visit an unary NOT expression node
+     *
+     * @param node the unary NOT expression node
+     * @return result of the visit
+     */
+    public Object visit(UnaryNotExpr node) {
+        dispatch(node.getExpr());
+        return null;
+    }
+
+    /**
+     * Visit an unary increment expression node
+     *
+     * @param node the unary increment expression node
+     * @return result of the visit
+     */
+    public Object visit(UnaryIncrExpr node) {
+        dispatch(node.getExpr());
+        return null;
+    }
+
+    /**
+     * Visit an unary decrement expression node
+     *
+     * @param node the unary decrement expression node
+     * @return result of the visit
+     */
+    public Object visit(UnaryDecrExpr node) {
+        dispatch(node.getExpr());
+        return null;
+    }
+
+    /**
+     * Visit a variable expression node
+     *
+     * @param node the variable expression node
+     * @return result of the visit
+     */
+    public Object visit(VarExpr node) {
+        if (node.getRef() != null) {
+            dispatch(node.getRef());
+        }
+        return null;
+    }
+
+    /**
+     * Visit an array expression node
+     *
+     * @param node the array expression node
+     * @return result of the visit
+     */
+    public Object visit(ArrayExpr node) {
+        if (node.getRef() != null) {
+            dispatch(node.getRef());
+        }
+        dispatch(node.getIndex());
+        return null;
+    }
+
+    /**
+     * Visit an int constant expression node
+     *
+     * @param node the int constant expression node
+     * @return result of the visit
+     */
+    public Object visit(ConstIntExpr node) {
+        return null;
+    }
+
+    /**
+     * Visit a boolean constant expression node
+     *
+     * @param node the boolean constant expression node
+     * @return result of the visit
+     */
+    public Object visit(ConstBooleanExpr node) {
+        return null;
+    }
+
+    /**
+     * Visit a string constant expression node
+     *
+     * @param node the string constant expression node
+     * @return result of the visit
+     */
+    public Object visit(ConstStringExpr node) {
+        return null;
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * File: bantam.visitor.TraversalAction.java
+ * CS361 Project 11
+ * Names: Martin Deutsch and Wyett MacDonald
+ * Date: 2/13/2019
+ * This file contains the TraversalAction enum, which tells a traversal
+ * how to go on after visiting a node
+ */
+
+package proj12MacDonaldDouglas.bantam.visitor;
+
+/**
+ * TraversalAction is returned by a traversal hook to say how the walk
+ * goes on from the node just visited.  It is honored by the
+ * <tt>preVisit</tt> hooks of <tt>IterativeTraversal</tt>,
+ * <tt>PreorderVisitor</tt> and <tt>SwitchVisitor</tt>, and STOP across
+ * the tasks of a <tt>ParallelTraversal</tt> through its stop predicate.
+ * The visit methods of <tt>Visitor</tt> and its typed variants return the
+ * result of the visit instead; an override there prunes a subtree by not
+ * visiting the children, and has no way to stop the whole walk.
+ *
+ * @author Martin Deutsch
+ * @author Wyett MacDonald
+ */
+public enum TraversalAction {
+    /**
+     * Go on into the node's children
+     */
+    CONTINUE,
+    /**
+     * Do not visit the node's children, but go on with the rest of the tree
+     */
+    SKIP_CHILDREN,
+    /**
+     * End the whole traversal now
+     */
+    STOP
+}